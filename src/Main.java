@@ -1,6 +1,109 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 // Run main file, this will start a game of Uno Flip.
+// With --players (or --config) the table is built while the window opens, --headless runs without a window,
+// --serve hosts network tables for UnoClient players, --stats keeps lifetime player stats in a file,
+// --analytics records every move to a columnar file, --train learns AI weights by self-play and --strategy uses them,
+// --build-policy simulates a policy table, --policy lets the AI play from it, --view-budget guards against slow views
+// and --heuristic reweighs the built-in AI.
 public class Main {
-    public static void main(String[] args) {
-        new UnoFrame("Uno (M3)");
+    public static void main(String[] args) throws Exception {
+        UnoStartupTimer timer = new UnoStartupTimer(System.nanoTime());
+        UnoTableConfig config;
+        try {
+            config = UnoTableConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java -jar Uno-M3.jar [--players=Alice,Bob:ai] [--seed=N] [--decks=N] [--config=file] [--headless] [--timing] [--serve=PORT --seats=N] [--stats=FILE] [--analytics=FILE] [--train=FILE --samples=N] [--strategy=FILE] [--build-policy=FILE --samples=N] [--policy=FILE] [--view-budget=MS] [--heuristic=W1,...,W6]");
+            System.exit(2);
+            return;
+        }
+        timer.mark("config read");
+
+        if (config.getServePort() >= 0) {
+            UnoServer server = new UnoServer(config.getSeats(), config.getSeed() != null ? config.getSeed() : System.nanoTime());
+            if (config.getAnalyticsFile() != null) {
+                UnoAnalyticsSink analytics = new UnoAnalyticsSink(config.getAnalyticsFile());
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> closeQuietly(analytics)));
+                server.setAnalytics(analytics);
+            }
+            if (config.getStatsFile() != null) {
+                UnoStatsStore stats = new UnoStatsStore(config.getStatsFile());
+                Runtime.getRuntime().addShutdownHook(new Thread(stats::close));
+                server.setStats(stats);
+            }
+            int port = server.bind(new java.net.InetSocketAddress(config.getServePort()));
+            System.out.println("Serving " + config.getSeats() + "-player tables on port " + port + ".");
+            server.run();
+            return;
+        }
+
+        if (config.getTrainFile() != null) {
+            UnoTrainer trainer = new UnoTrainer(config.hasPlayers() ? config.getNames().size() : 2,
+                    config.getSeed() != null ? config.getSeed() : System.nanoTime());
+            trainer.train(config.getSamples());
+            trainer.save(config.getTrainFile());
+            System.out.printf("Trained on %d games, loss %.4f, saved to %s.%n", trainer.getGamesPlayed(),
+                    trainer.getRecentLoss(), config.getTrainFile());
+            return;
+        }
+
+        if (config.getBuildPolicyFile() != null) {
+            UnoPolicyGenerator generator = new UnoPolicyGenerator(config.hasPlayers() ? config.getNames().size() : 2,
+                    config.getSeed() != null ? config.getSeed() : System.nanoTime());
+            generator.generate(config.getSamples());
+            generator.save(config.getBuildPolicyFile());
+            System.out.printf("Analysed %d positions in %d states, saved to %s.%n", generator.getPositions(),
+                    generator.getStatesSeen(), config.getBuildPolicyFile());
+            return;
+        }
+
+        if (config.isHeadless()) {
+            System.setProperty("java.awt.headless", "true");
+            UnoHeadless.run(config, timer);
+            if (config.isTiming()) timer.report(System.err);
+            return;
+        }
+
+        UnoStatsStore stats = config.getStatsFile() != null ? new UnoStatsStore(config.getStatsFile()) : null;
+        if (stats != null) Runtime.getRuntime().addShutdownHook(new Thread(stats::close)); // The frame exits on a win
+        UnoAnalyticsSink analytics = config.getAnalyticsFile() != null ? new UnoAnalyticsSink(config.getAnalyticsFile()) : null;
+        if (analytics != null) Runtime.getRuntime().addShutdownHook(new Thread(() -> closeQuietly(analytics)));
+
+        if (!config.hasPlayers()) {
+            List<UnoGameListener> listeners = new ArrayList<>();
+            if (stats != null) listeners.add(stats);
+            if (analytics != null) listeners.add(analytics.newGame());
+            new UnoFrame("Uno (M3)", listeners);
+            return;
+        }
+
+        // Deal the game while Swing starts up, the window shows as soon as it can
+        CompletableFuture<UnoModel> model = CompletableFuture.supplyAsync(() -> {
+            UnoModel m;
+            try {
+                m = config.createModel(false);
+            } catch (java.io.IOException e) {
+                throw new java.io.UncheckedIOException(e); // Shown by the frame
+            }
+            if (stats != null) m.addGameListener(stats);
+            if (analytics != null) m.addGameListener(analytics.newGame());
+            timer.mark("model ready");
+            return m;
+        });
+        javax.swing.SwingUtilities.invokeLater(() -> {
+            new UnoFrame("Uno (M3)", model);
+            timer.mark("first frame");
+            if (config.isTiming()) model.thenRun(() -> timer.report(System.err));
+        });
     }
-}
\ No newline at end of file
+
+    private static void closeQuietly(java.io.Closeable c) {
+        try {
+            c.close();
+        } catch (java.io.IOException e) {
+            System.err.println("Could not finish " + c + ": " + e.getMessage());
+        }
+    }
+}
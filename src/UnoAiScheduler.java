@@ -0,0 +1,148 @@
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+/**
+ * Plays AI turns automatically on a background thread so search-based AIs never block the Swing event thread.
+ * Each AI turn (the move, then pressing Next) is paced by a configurable delay. In fast-forward mode,
+ * consecutive AI turns run back to back with view updates suspended and only the resulting state is shown; a
+ * run plays at most {@link #FAST_FORWARD_QUANTUM} actions, so a stretch that never ends (nobody can play and both
+ * piles are empty) still shows its state now and then.
+ * The model's lock is taken for one AI action at a time. Human commands are run on the same thread through
+ * {@link #submit}, in order with the AI actions, so the event thread never waits for the model.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoAiScheduler {
+    static final int FAST_FORWARD_QUANTUM = 64; // Most AI actions one fast-forward run plays before showing the state
+
+    private final UnoModel model;
+    private final ScheduledExecutorService executor;
+    private volatile long pacingMillis;
+    private volatile boolean fastForward = false;
+    private boolean scheduled = false; // guarded by this
+
+    /**
+     * Constructor for UnoAiScheduler.
+     * @param model The model whose AI seats are played.
+     * @param pacingMillis Delay before each AI action in milliseconds, 0 for none.
+     */
+    public UnoAiScheduler(UnoModel model, long pacingMillis) {
+        this.model = model;
+        this.pacingMillis = pacingMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "uno-ai");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Sets the delay before each AI action.
+     * @param pacingMillis Delay in milliseconds, 0 for none.
+     */
+    public void setPacing(long pacingMillis) {
+        this.pacingMillis = pacingMillis;
+    }
+
+    /**
+     * Turns fast-forwarding of AI stretches on or off.
+     * @param fastForward True to skip pacing and intermediate view updates.
+     */
+    public void setFastForward(boolean fastForward) {
+        this.fastForward = fastForward;
+        if (fastForward) kick();
+    }
+
+    /**
+     * Schedules AI play if it is an AI seat's turn. Called after every human action; does nothing
+     * if AI play is already scheduled.
+     */
+    public void kick() {
+        synchronized (this) {
+            if (scheduled || executor.isShutdown()) return;
+            scheduled = true;
+        }
+        executor.schedule(this::runTurn, fastForward ? 0 : pacingMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs a task on the scheduler thread after the AI actions already queued, then plays any AI turns it handed over.
+     * Tasks submitted after shutdown are dropped.
+     * @param task The task, usually a human command.
+     */
+    public void submit(Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    kick();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // Shut down, the game is over
+        }
+    }
+
+    /**
+     * Stops the scheduler. AI turns that are already running finish first.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Waits for the scheduler to stop after shutdown.
+     * @param timeoutMillis Maximum time to wait in milliseconds.
+     * @return True if the scheduler stopped, False on timeout.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeoutMillis) throws InterruptedException {
+        return executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void runTurn() {
+        synchronized (this) {
+            scheduled = false;
+        }
+        boolean more;
+        try {
+            if (fastForward) {
+                synchronized (model) {
+                    model.setNotifySuspended(true);
+                }
+                try {
+                    for (int i = 0; i < FAST_FORWARD_QUANTUM && playOne(); i++) { }
+                } finally {
+                    synchronized (model) {
+                        model.setNotifySuspended(false);
+                    }
+                }
+            } else {
+                playOne(); // Either the move or pressing Next
+            }
+            synchronized (model) {
+                more = aiToMove();
+            }
+        } catch (RuntimeException ex) {
+            // Keep the scheduler alive, the view already shows the last good state
+            more = false;
+        }
+        if (more) kick();
+    }
+
+    // Plays one AI action under the model's lock, false if no AI was to act
+    private boolean playOne() {
+        synchronized (model) {
+            if (!aiToMove()) return false;
+            model.playAITurn();
+            return true;
+        }
+    }
+
+    // An AI is still to act: its own move, or the Next press that ends it
+    private boolean aiToMove() {
+        return !model.isGameOver() && model.isCurrentPlayerAI();
+    }
+}
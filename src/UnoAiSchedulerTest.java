@@ -0,0 +1,147 @@
+import org.junit.Test;
+import java.util.*;
+import java.awt.event.ActionEvent;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+/**
+ * Test class for the AI turn scheduler
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoAiSchedulerTest {
+
+    /**
+     * View stub that counts updates and records the thread they arrive on.
+     */
+    static class CountingView extends UnoViewStub {
+        int updates = 0;
+        volatile boolean ended = false;
+        volatile String updateThread;
+
+        @Override
+        public synchronized void handleUpdate(UnoEvent e) {
+            super.handleUpdate(e);
+            updates++;
+            updateThread = Thread.currentThread().getName();
+        }
+
+        @Override
+        public void handleEnd(String message) {
+            super.handleEnd(message);
+            ended = true;
+        }
+    }
+
+    /**
+     * Tests that an all-AI game plays to the end on the scheduler thread.
+     */
+    @Test
+    public void testAllAiGamePlaysToEnd() throws InterruptedException {
+        UnoModel model = new UnoModel(3, Arrays.asList("B1", "B2", "B3"), Arrays.asList(true, true, true));
+        CountingView view = new CountingView();
+        model.addView(view);
+        UnoAiScheduler scheduler = new UnoAiScheduler(model, 0);
+        scheduler.kick();
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!view.ended && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        scheduler.shutdown();
+
+        assertTrue("Game should finish", view.ended);
+        assertTrue(model.isGameOver());
+        assertEquals("uno-ai", view.updateThread);
+    }
+
+    /**
+     * Tests that fast-forward plays the game without rendering the intermediate states, only the state at the end
+     * of each run.
+     */
+    @Test
+    public void testFastForwardSkipsRendering() throws InterruptedException {
+        UnoModel model = new UnoModel(2, Arrays.asList("B1", "B2"), Arrays.asList(true, true));
+        CountingView view = new CountingView();
+        model.addView(view);
+        int before = view.updates;
+        UnoArchive turns = model.recordArchive(); // Counts the plays and draws, each followed by a Next
+
+        UnoAiScheduler scheduler = new UnoAiScheduler(model, 1000);
+        scheduler.setFastForward(true);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!view.ended && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        scheduler.shutdown();
+
+        assertTrue(view.ended);
+        int runs = (2 * turns.getTurns() + UnoAiScheduler.FAST_FORWARD_QUANTUM - 1) / UnoAiScheduler.FAST_FORWARD_QUANTUM;
+        assertTrue("Only the state after each run should be rendered", view.updates - before <= runs + 1);
+    }
+
+    /**
+     * Tests that the scheduler waits while a human is to move.
+     */
+    @Test
+    public void testWaitsForHuman() throws InterruptedException {
+        UnoModel model = new UnoModel(2, Arrays.asList("Human", "Bot"), Arrays.asList(false, true));
+        CountingView view = new CountingView();
+        model.addView(view);
+        UnoAiScheduler scheduler = new UnoAiScheduler(model, 0);
+        scheduler.kick();
+        Thread.sleep(100);
+        assertEquals("Human", view.lastEvent.getCurrentPlayerName());
+
+        synchronized (model) {
+            model.draw();
+            model.nextPlayer();
+        }
+        scheduler.kick();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"Human".equals(view.lastEvent.getCurrentPlayerName()) || view.lastEvent.isMustPressNext()) {
+            if (System.currentTimeMillis() > deadline || view.ended) break;
+            Thread.sleep(10);
+        }
+        scheduler.shutdown();
+        assertTrue("Bot should have played and handed the turn back", view.ended || "Human".equals(view.lastEvent.getCurrentPlayerName()));
+    }
+
+    /**
+     * Tests that a click while an AI turn holds the model returns at once, and that the command, stale by the
+     * time it runs, is refused instead of being played for the AI.
+     */
+    @Test
+    public void testClickDuringAiTurnDoesNotWait() throws InterruptedException {
+        UnoModel model = new UnoModel(2, Arrays.asList("Bot", "Human"), Arrays.asList(true, false));
+        UnoViewStub view = new UnoViewStub();
+        model.addView(view);
+        CountDownLatch thinking = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        model.setStrategy(0, m -> {
+            thinking.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            List<UnoMove> moves = m.legalMoves();
+            return moves.get(moves.size() - 1); // Draw
+        });
+        UnoAiScheduler scheduler = new UnoAiScheduler(model, 0);
+        UnoController controller = new UnoController(model, view);
+        controller.setAiScheduler(scheduler);
+        int humanCards = model.getPlayer(1).hand.size();
+
+        scheduler.kick();
+        assertTrue(thinking.await(5, TimeUnit.SECONDS));
+        Thread click = new Thread(() -> controller.actionPerformed(new ActionEvent(this, 0, "DRAW")));
+        click.start();
+        click.join(1000);
+        assertFalse("The click should not wait for the AI turn", click.isAlive());
+
+        release.countDown();
+        scheduler.shutdown();
+        assertTrue(scheduler.awaitTermination(5000));
+        assertEquals("Wait for the AI players to finish.", view.lastInfo);
+        synchronized (model) {
+            assertEquals(humanCards, model.getPlayer(1).hand.size());
+        }
+    }
+}
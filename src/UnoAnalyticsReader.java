@@ -0,0 +1,140 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+/**
+ * Reads an analytics file written by UnoAnalyticsSink. Scanning a column only decompresses that column;
+ * the other columns of each chunk are skipped by seeking past them.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoAnalyticsReader implements Closeable {
+    private static final int COLUMNS = UnoAnalyticsSink.Column.values().length;
+
+    private final FileChannel channel;
+    private final ByteBuffer header = ByteBuffer.allocate(8);
+    private final Inflater inflater = new Inflater();
+    private ByteBuffer packed = ByteBuffer.allocate(1 << 16);
+    private byte[] raw = new byte[1 << 16];
+
+    /**
+     * Opens an analytics file.
+     * @param file The file.
+     * @throws IOException if the file cannot be opened or is not an analytics file.
+     */
+    public UnoAnalyticsReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        readHeader(0);
+        if (header.getInt(0) != UnoAnalyticsSink.MAGIC || header.getInt(4) != UnoAnalyticsSink.VERSION) {
+            channel.close();
+            throw new IOException("Not an analytics file: " + file);
+        }
+    }
+
+    /**
+     * Gets the number of move records in the file, reading only the chunk headers.
+     * @return The row count.
+     * @throws IOException if the file cannot be read.
+     */
+    public long getRowCount() throws IOException {
+        long rows = 0;
+        long pos = 8;
+        while (pos < channel.size()) {
+            readHeader(pos);
+            rows += header.getInt(0);
+            pos = skipColumns(pos + 4, COLUMNS);
+        }
+        return rows;
+    }
+
+    /**
+     * Passes every value of one column to an action, in file order.
+     * @param column The column to read.
+     * @param action Receives each value.
+     * @throws IOException if the file cannot be read or is damaged.
+     */
+    public void scan(UnoAnalyticsSink.Column column, LongConsumer action) throws IOException {
+        long pos = 8;
+        while (pos < channel.size()) {
+            readHeader(pos);
+            int rows = header.getInt(0);
+            pos = skipColumns(pos + 4, column.ordinal());
+            readHeader(pos);
+            int rawLen = header.getInt(0);
+            int packedLen = header.getInt(4);
+            pos += 8;
+            decode(pos, rawLen, packedLen, rows, column.delta, action);
+            pos = skipColumns(pos + packedLen, COLUMNS - column.ordinal() - 1);
+        }
+    }
+
+    /**
+     * Closes the file.
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+
+    private long skipColumns(long pos, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            readHeader(pos);
+            pos += 8 + header.getInt(4);
+        }
+        return pos;
+    }
+
+    private void decode(long pos, int rawLen, int packedLen, int rows, boolean delta, LongConsumer action)
+            throws IOException {
+        if (packed.capacity() < packedLen) packed = ByteBuffer.allocate(packedLen);
+        if (raw.length < rawLen) raw = new byte[rawLen];
+        packed.clear().limit(packedLen);
+        readFully(packed, pos);
+        inflater.reset();
+        inflater.setInput(packed.array(), 0, packedLen);
+        try {
+            if (inflater.inflate(raw, 0, rawLen) != rawLen) throw new IOException("Analytics column is cut short.");
+        } catch (DataFormatException e) {
+            throw new IOException("Analytics column is damaged.", e);
+        }
+
+        int p = 0;
+        long prev = 0;
+        for (int i = 0; i < rows; i++) {
+            long v = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (p >= rawLen) throw new IOException("Analytics column is cut short.");
+                b = raw[p++];
+                v |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            v = (v >>> 1) ^ -(v & 1);
+            if (delta) v += prev;
+            prev = v;
+            action.accept(v);
+        }
+    }
+
+    private void readHeader(long pos) throws IOException {
+        header.clear();
+        readFully(header, pos);
+    }
+
+    private void readFully(ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = channel.read(buf, pos);
+            if (n < 0) throw new EOFException("Analytics file is cut short.");
+            pos += n;
+        }
+    }
+}
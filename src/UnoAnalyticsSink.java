@@ -0,0 +1,266 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.Deflater;
+/**
+ * Writes one record per move (play or draw) of every attached game to a columnar analytics file.
+ * <p>
+ * Moves are buffered column by column in primitive arrays. A full batch is handed to a background thread, which
+ * encodes each column on its own (deltas for the game and turn columns, then variable-length integers) and
+ * compresses it, so a reader can decompress just the column it needs. There is a fixed pool of batches: when the
+ * writer falls behind and every batch is waiting to be written, recording a move blocks until one is free.
+ * <p>
+ * File layout: magic and version, then chunks of {@code rows} followed by, for each column in
+ * {@link Column} order, its encoded length, compressed length and the compressed bytes. Read it with
+ * UnoAnalyticsReader.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoAnalyticsSink implements Closeable {
+    public static final int DEFAULT_BATCH_ROWS = 1 << 16;
+    static final int MAGIC = 0x554E4F41; // "UNOA"
+    static final int VERSION = 1;
+    private static final int BATCHES = 4;
+    private static final int RANKS = UnoRank.values().length;
+    private static final Batch END = new Batch(0);
+
+    /**
+     * The columns of a move record, in file order.
+     */
+    public enum Column {
+        /** Game number, counted from 0 by the sink. */
+        GAME(true),
+        /** Move number within the game, from 0. */
+        TURN(true),
+        /** Seat that moved. */
+        PLAYER(false),
+        /** 1 if the move was made on the dark side, 0 for light. */
+        SIDE(false),
+        /** Face of the card played (color ordinal * ranks + rank ordinal), or -1 for a draw. */
+        CARD(false),
+        /** Ordinal of the active color after the move. */
+        COLOR(false),
+        /** Cards other players drew because of the move. */
+        VICTIM_DRAWS(false),
+        /** Cards left in the mover's hand. */
+        HAND_SIZE(false);
+
+        final boolean delta;
+
+        Column(boolean delta) {
+            this.delta = delta;
+        }
+    }
+
+    private final DataOutputStream out;
+    private final int batchRows;
+    private final BlockingQueue<Batch> free = new ArrayBlockingQueue<>(BATCHES);
+    private final BlockingQueue<Batch> full = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private Batch current;
+    private long nextGame = 0;
+    private long rows = 0;
+    private long stalls = 0;
+    private boolean closed = false;
+    private volatile IOException failure;
+
+    /**
+     * Creates (or replaces) an analytics file with the default batch size.
+     * @param file The file to write.
+     * @throws IOException if the file cannot be created.
+     */
+    public UnoAnalyticsSink(Path file) throws IOException {
+        this(file, DEFAULT_BATCH_ROWS);
+    }
+
+    /**
+     * Creates (or replaces) an analytics file.
+     * @param file The file to write.
+     * @param batchRows Moves per compressed chunk.
+     * @throws IOException if the file cannot be created.
+     */
+    public UnoAnalyticsSink(Path file, int batchRows) throws IOException {
+        if (batchRows < 1) throw new IllegalArgumentException("A batch needs at least one row.");
+        this.batchRows = batchRows;
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        for (int i = 1; i < BATCHES; i++) free.add(new Batch(batchRows));
+        current = new Batch(batchRows);
+        writer = new Thread(this::writeLoop, "uno-analytics-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Starts recording a new game. Add the returned listener to the game's model.
+     * @return A listener that records the game's moves under a new game number.
+     */
+    public synchronized UnoGameListener newGame() {
+        long game = nextGame++;
+        return new UnoGameListener() {
+            private int turn = 0;
+
+            @Override
+            public void moveMade(int seat, UnoCard card, UnoColor activeColor, boolean isDark, int victimDraws,
+                                 int handSize) {
+                int face = card == null ? -1 : card.getColor(isDark).ordinal() * RANKS + card.getRank(isDark).ordinal();
+                append(game, turn++, seat, isDark ? 1 : 0, face, activeColor.ordinal(), victimDraws, handSize);
+            }
+        };
+    }
+
+    /**
+     * Adds one move record. Blocks while the writer is behind by a full set of batches.
+     * @param game The game number.
+     * @param turn The move number within the game.
+     * @param player The seat that moved.
+     * @param side 1 for the dark side, 0 for light.
+     * @param card The face played, or -1 for a draw.
+     * @param color The active color ordinal after the move.
+     * @param victimDraws Cards other players drew.
+     * @param handSize Cards left in the mover's hand.
+     * @throws UncheckedIOException if the writer has failed.
+     * @throws IllegalStateException if the sink is closed.
+     */
+    public synchronized void append(long game, int turn, int player, int side, int card, int color, int victimDraws,
+                                    int handSize) {
+        if (failure != null) throw new UncheckedIOException(failure);
+        if (closed) throw new IllegalStateException("The analytics sink is closed.");
+        Batch b = current;
+        int i = b.size++;
+        b.cols[0][i] = game;
+        b.cols[1][i] = turn;
+        b.cols[2][i] = player;
+        b.cols[3][i] = side;
+        b.cols[4][i] = card;
+        b.cols[5][i] = color;
+        b.cols[6][i] = victimDraws;
+        b.cols[7][i] = handSize;
+        rows++;
+        if (b.size == batchRows) handOff();
+    }
+
+    // Queues the current batch for the writer and takes a free one, waiting if there is none
+    private void handOff() {
+        full.add(current);
+        current = free.poll();
+        if (current != null) return;
+        stalls++;
+        try {
+            current = free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the analytics writer.", e);
+        }
+    }
+
+    /**
+     * Gets the number of moves recorded so far.
+     * @return The row count.
+     */
+    public synchronized long getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Gets how often recording had to wait for the writer.
+     * @return The number of waits.
+     */
+    public synchronized long getStallCount() {
+        return stalls;
+    }
+
+    /**
+     * Writes the last partial batch, waits for the writer to finish and closes the file.
+     * @throws IOException if writing failed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        if (current.size > 0) full.add(current);
+        full.add(END);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the analytics file.");
+        }
+        out.close();
+        if (failure != null) throw failure;
+    }
+
+    private void writeLoop() {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        byte[] raw = new byte[batchRows * 10];
+        byte[] packed = new byte[batchRows * 11 + 64];
+        try {
+            while (true) {
+                Batch b = full.take();
+                if (b == END) break;
+                // After a failure keep taking batches, so appenders never wait forever
+                if (failure == null) {
+                    try {
+                        writeBatch(b, deflater, raw, packed);
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+                b.size = 0;
+                free.add(b);
+            }
+        } catch (InterruptedException e) {
+            failure = new InterruptedIOException("Analytics writer interrupted.");
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeBatch(Batch b, Deflater deflater, byte[] raw, byte[] packed) throws IOException {
+        out.writeInt(b.size);
+        for (Column c : Column.values()) {
+            long[] values = b.cols[c.ordinal()];
+            int len = 0;
+            long prev = 0;
+            for (int i = 0; i < b.size; i++) {
+                long v = c.delta ? values[i] - prev : values[i];
+                prev = values[i];
+                len = putVarLong(raw, len, (v << 1) ^ (v >> 63));
+            }
+            deflater.reset();
+            deflater.setInput(raw, 0, len);
+            deflater.finish();
+            int packedLen = 0;
+            while (!deflater.finished()) packedLen += deflater.deflate(packed, packedLen, packed.length - packedLen);
+            out.writeInt(len);
+            out.writeInt(packedLen);
+            out.write(packed, 0, packedLen);
+        }
+    }
+
+    // Zigzagged values, 7 bits per byte with the high bit set on all but the last
+    private static int putVarLong(byte[] buf, int pos, long v) {
+        while ((v & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+        return pos;
+    }
+
+    /**
+     * One batch of rows, one primitive array per column.
+     */
+    private static final class Batch {
+        final long[][] cols;
+        int size = 0;
+
+        Batch(int rows) {
+            cols = new long[Column.values().length][rows];
+        }
+    }
+}
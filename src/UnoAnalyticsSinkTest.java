@@ -0,0 +1,143 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoAnalyticsSink and UnoAnalyticsReader
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoAnalyticsSinkTest {
+    private Path file;
+
+    /**
+     * Picks a fresh file for each test.
+     */
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("uno-analytics", ".bin");
+    }
+
+    /**
+     * Deletes the file.
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private List<Long> column(UnoAnalyticsReader reader, UnoAnalyticsSink.Column c) throws IOException {
+        List<Long> values = new ArrayList<>();
+        reader.scan(c, values::add);
+        return values;
+    }
+
+    /**
+     * Tests that rows spread over several chunks, plus a partial last chunk, read back column by column.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        Random rng = new Random(4);
+        long[][] rows = new long[1050][8];
+        try (UnoAnalyticsSink sink = new UnoAnalyticsSink(file, 100)) {
+            for (int i = 0; i < rows.length; i++) {
+                long[] r = rows[i];
+                r[0] = i / 40 + (1L << 40);
+                r[1] = i % 40;
+                r[2] = rng.nextInt(100);
+                r[3] = rng.nextInt(2);
+                r[4] = rng.nextInt(120) - 1;
+                r[5] = rng.nextInt(10);
+                r[6] = rng.nextInt(30);
+                r[7] = rng.nextInt(200);
+                sink.append(r[0], (int) r[1], (int) r[2], (int) r[3], (int) r[4], (int) r[5], (int) r[6], (int) r[7]);
+            }
+            assertEquals(rows.length, sink.getRowCount());
+        }
+
+        try (UnoAnalyticsReader reader = new UnoAnalyticsReader(file)) {
+            assertEquals(rows.length, reader.getRowCount());
+            for (UnoAnalyticsSink.Column c : UnoAnalyticsSink.Column.values()) {
+                List<Long> values = column(reader, c);
+                assertEquals(rows.length, values.size());
+                for (int i = 0; i < rows.length; i++) assertEquals(c + " row " + i, rows[i][c.ordinal()], (long) values.get(i));
+            }
+        }
+    }
+
+    /**
+     * Tests that every move of several games is recorded, with game and turn numbers.
+     */
+    @Test
+    public void testGamesRecorded() throws IOException {
+        int plays = 0;
+        int draws = 0;
+        int victimDraws = 0;
+        try (UnoAnalyticsSink sink = new UnoAnalyticsSink(file, 64)) {
+            for (long seed = 0; seed < 5; seed++) {
+                UnoModel model = new UnoModel(3, List.of("A", "B", "C"), List.of(true, true, true), 1,
+                        UnoRuleSet.standard(), seed);
+                model.addGameListener(sink.newGame());
+                int[] counts = new int[3];
+                model.addGameListener(new UnoGameListener() {
+                    @Override
+                    public void moveMade(int seat, UnoCard card, UnoColor activeColor, boolean isDark, int drawn,
+                                         int handSize) {
+                        counts[card == null ? 1 : 0]++;
+                        counts[2] += drawn;
+                    }
+                });
+                UnoHeadless.play(model);
+                assertTrue(model.isGameOver());
+                plays += counts[0];
+                draws += counts[1];
+                victimDraws += counts[2];
+            }
+        }
+
+        try (UnoAnalyticsReader reader = new UnoAnalyticsReader(file)) {
+            assertEquals(plays + draws, reader.getRowCount());
+            List<Long> games = column(reader, UnoAnalyticsSink.Column.GAME);
+            List<Long> turns = column(reader, UnoAnalyticsSink.Column.TURN);
+            for (int i = 0; i < games.size(); i++) {
+                boolean newGame = i == 0 || !games.get(i).equals(games.get(i - 1));
+                assertEquals(newGame ? 0 : turns.get(i - 1) + 1, (long) turns.get(i));
+            }
+            assertEquals(4L, (long) games.get(games.size() - 1));
+            assertEquals(draws, column(reader, UnoAnalyticsSink.Column.CARD).stream().filter(c -> c == -1).count());
+            assertEquals(victimDraws, column(reader, UnoAnalyticsSink.Column.VICTIM_DRAWS).stream().mapToLong(v -> v).sum());
+            // Each game ends with the winner's empty hand
+            List<Long> hands = column(reader, UnoAnalyticsSink.Column.HAND_SIZE);
+            assertEquals(0L, (long) hands.get(hands.size() - 1));
+        }
+    }
+
+    /**
+     * Tests that a closed sink refuses new rows and other files are refused by the reader.
+     */
+    @Test
+    public void testClosedAndForeignFiles() throws IOException {
+        UnoAnalyticsSink sink = new UnoAnalyticsSink(file);
+        sink.close();
+        sink.close();
+        try {
+            sink.append(0, 0, 0, 0, 0, 0, 0, 0);
+            fail("Closed sink accepted a row");
+        } catch (IllegalStateException expected) {
+        }
+        try (UnoAnalyticsReader reader = new UnoAnalyticsReader(file)) {
+            assertEquals(0, reader.getRowCount());
+        }
+
+        Files.write(file, "players=A,B\n".getBytes());
+        try {
+            new UnoAnalyticsReader(file).close();
+            fail("Read a file that is not an analytics file");
+        } catch (IOException expected) {
+        }
+    }
+}
@@ -0,0 +1,362 @@
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+/**
+ * Records a game in a dense form for storing very many finished games.
+ * <p>
+ * Only what the rules cannot work out are stored: the table (players, decks, house rules), the seed the game was
+ * dealt from and each turn's choice. Next is always the only thing a player can do after playing or drawing, so
+ * it is implied; what a card does to other players, and every shuffle of the discard pile, follows from the seed
+ * and the choices, so decoding plays the game again through UnoModel. A choice is 0 for drawing or 1 plus the hand
+ * index of the card played, written in a truncated binary code just wide enough for the hand it was made from
+ * (about 3 bits for 7 cards), then the color slot of a wild card in 2 bits. The table and the turn count are
+ * variable-length integers.
+ * <p>
+ * Record layout: players, decks, house rule bits, seed (zigzagged), turns times two plus 1 if Next was still to
+ * be pressed, then the choices. Writer stores the seed as the difference from the one before, so runs of games
+ * dealt from consecutive seeds take one byte for it. A game can only be recorded from the deal, and a game that
+ * was stepped back or changed by hand cannot be encoded.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public final class UnoArchive {
+    static final int MAGIC = 0x554E4F47; // "UNOG"
+    static final int VERSION = 1;
+    private static final UnoRuleSet.Variant[] VARIANTS = UnoRuleSet.Variant.values();
+
+    private final UnoModel model;
+    private final int players;
+    private final int decks;
+    private final int rules;
+    private final long seed;
+    private byte[] bits = new byte[32];
+    private int bitCount = 0;
+    private int turns = 0;
+    private String broken; // Why the game cannot be encoded, null if it can
+
+    /**
+     * Constructor for UnoArchive, starting at the deal.
+     * @param model The game to record; it reports its moves once UnoModel.recordArchive returned this.
+     */
+    UnoArchive(UnoModel model) {
+        this.model = model;
+        this.players = model.getPlayerCount();
+        this.decks = model.getDeckCount();
+        int rules = 0;
+        for (UnoRuleSet.Variant v : VARIANTS) {
+            if (model.getRules().has(v)) rules |= 1 << v.ordinal();
+        }
+        this.rules = rules;
+        this.seed = model.getSeed();
+    }
+
+    // A card was played; color is null for play, the chosen color for playWild
+    synchronized void played(int held, int handIndex, boolean wild, UnoColor color) {
+        if (wild != (color != null)) {
+            broken = wild ? "A wild card was played without a color." : "A color was chosen for a card that is not wild.";
+        }
+        if (broken != null) return;
+        putChoice(handIndex + 1, held + 1);
+        if (wild) putChoice(slot(color, model.isDark()), 4);
+        turns++;
+    }
+
+    synchronized void drew(int held) {
+        if (broken != null) return;
+        putChoice(0, held + 1);
+        turns++;
+    }
+
+    // The game changed without a move, as on undo or redo
+    synchronized void jumped() {
+        broken = "The game was stepped back or changed by hand.";
+    }
+
+    private static int slot(UnoColor color, boolean dark) {
+        UnoColor[] side = UnoColor.sideColors(dark);
+        for (int i = 0; i < side.length; i++) {
+            if (side[i] == color) return i;
+        }
+        throw new IllegalArgumentException("Not a color of this side: " + color);
+    }
+
+    // Truncated binary code of v in [0, n): the first u values take k bits, the rest k + 1
+    private void putChoice(int v, int n) {
+        int k = 31 - Integer.numberOfLeadingZeros(n);
+        int u = (1 << (k + 1)) - n;
+        if (v < u) {
+            putBits(v, k);
+        } else {
+            putBits(v + u, k + 1);
+        }
+    }
+
+    private void putBits(int v, int width) {
+        if (bitCount + width > bits.length * 8) bits = Arrays.copyOf(bits, bits.length * 2);
+        for (int i = width - 1; i >= 0; i--, bitCount++) {
+            if ((v >>> i & 1) != 0) bits[bitCount >>> 3] |= (byte) (0x80 >>> (bitCount & 7));
+        }
+    }
+
+    /**
+     * Gets the number of turns (plays and draws) recorded.
+     * @return The turn count.
+     */
+    public synchronized int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Tells whether the game can still be encoded.
+     * @return True unless it was stepped back or changed by hand.
+     */
+    public synchronized boolean isEncodable() {
+        return broken == null;
+    }
+
+    /**
+     * Encodes the game as it is now.
+     * @return The record.
+     * @throws IllegalStateException if the game was stepped back or changed by hand.
+     */
+    public byte[] encode() {
+        return encode(0);
+    }
+
+    private byte[] encode(long previousSeed) {
+        synchronized (model) { // The model's lock first, as when it reports a move
+            synchronized (this) {
+                return encode(previousSeed, model.isMustPressNext());
+            }
+        }
+    }
+
+    private byte[] encode(long previousSeed, boolean pendingNext) {
+        if (broken != null) throw new IllegalStateException(broken);
+        byte[] out = new byte[4 * 5 + 10 + (bitCount + 7) / 8];
+        int pos = putVarLong(out, 0, players);
+        pos = putVarLong(out, pos, decks);
+        pos = putVarLong(out, pos, rules);
+        pos = putVarLong(out, pos, zigzag(seed - previousSeed));
+        pos = putVarLong(out, pos, (long) turns << 1 | (pendingNext ? 1 : 0));
+        System.arraycopy(bits, 0, out, pos, (bitCount + 7) / 8);
+        return Arrays.copyOf(out, pos + (bitCount + 7) / 8);
+    }
+
+    /**
+     * Rebuilds a game from its record by playing it again. Seats are named Player 1 and up and are all human.
+     * @param record A record from encode.
+     * @return The game as it was when it was encoded.
+     * @throws IllegalArgumentException if the record is not valid.
+     */
+    public static UnoModel decode(byte[] record) {
+        return decode(record, 0);
+    }
+
+    private static UnoModel decode(byte[] record, long previousSeed) {
+        Decoder d = new Decoder(record);
+        try {
+            int players = (int) d.getVarLong();
+            int decks = (int) d.getVarLong();
+            int mask = (int) d.getVarLong();
+            long seed = previousSeed + unzigzag(d.getVarLong());
+            long turns = d.getVarLong();
+            boolean pendingNext = (turns & 1) != 0;
+            turns >>= 1;
+
+            List<UnoRuleSet.Variant> variants = new ArrayList<>();
+            for (UnoRuleSet.Variant v : VARIANTS) {
+                if ((mask & 1 << v.ordinal()) != 0) variants.add(v);
+            }
+            List<String> names = new ArrayList<>();
+            for (int i = 1; i <= players; i++) names.add("Player " + i);
+            UnoModel m = new UnoModel(players, names, Collections.nCopies(players, false), decks,
+                    UnoRuleSet.of(variants.toArray(new UnoRuleSet.Variant[0])), seed);
+            m.setNotifySuspended(true); // Nothing is watching yet
+            for (long t = 0; t < turns; t++) {
+                if (t > 0) m.nextPlayer();
+                int held = m.getPlayer(m.getCurrentIndex()).hand.size();
+                int choice = d.getChoice(held + 1);
+                if (choice == 0) {
+                    m.draw();
+                } else if (m.isCardWild(choice - 1)) {
+                    m.playWild(choice - 1, UnoColor.sideColors(m.isDark())[d.getChoice(4)]);
+                } else {
+                    m.play(choice - 1);
+                }
+            }
+            if (turns > 0 && !pendingNext && !m.isGameOver()) m.nextPlayer();
+            m.setNotifySuspended(false);
+            return m;
+        } catch (IllegalStateException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Not a valid game record.", ex);
+        }
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    // 7 bits per byte with the high bit set on all but the last
+    private static int putVarLong(byte[] buf, int pos, long v) {
+        while ((v & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+        return pos;
+    }
+
+    /**
+     * Reads the variable-length integers and then the choices of one record.
+     */
+    private static final class Decoder {
+        private final byte[] buf;
+        private int pos = 0;
+        private long bit; // Position in bits once the choices start
+
+        Decoder(byte[] buf) {
+            this.buf = buf;
+        }
+
+        long getVarLong() {
+            long v = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buf[pos++];
+                v |= (long) (b & 0x7F) << shift;
+                if (b >= 0) break;
+                if (shift > 56) throw new IllegalArgumentException("Variable-length integer too long.");
+            }
+            bit = (long) pos * 8;
+            return v;
+        }
+
+        int getChoice(int n) {
+            int k = 31 - Integer.numberOfLeadingZeros(n);
+            int u = (1 << (k + 1)) - n;
+            int v = getBits(k);
+            return v < u ? v : ((v << 1 | getBits(1)) - u);
+        }
+
+        private int getBits(int width) {
+            int v = 0;
+            for (int i = 0; i < width; i++, bit++) {
+                v = v << 1 | (buf[(int) (bit >>> 3)] >>> (7 - (bit & 7)) & 1);
+            }
+            return v;
+        }
+    }
+
+    /**
+     * Writes many games to one stream, each seed stored relative to the one before.
+     */
+    public static final class Writer implements Closeable {
+        private final DataOutputStream out;
+        private final byte[] length = new byte[5];
+        private long previousSeed = 0;
+        private long games = 0;
+        private long bytes = 0;
+
+        /**
+         * Constructor for Writer, writing the stream header.
+         * @param out Where to write; it is closed with the writer.
+         * @throws IOException if the header cannot be written.
+         */
+        public Writer(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out));
+            this.out.writeInt(MAGIC);
+            this.out.writeInt(VERSION);
+        }
+
+        /**
+         * Appends a game.
+         * @param game The recorded game.
+         * @throws IOException if it cannot be written.
+         * @throws IllegalStateException if the game was stepped back or changed by hand.
+         */
+        public void write(UnoArchive game) throws IOException {
+            byte[] record = game.encode(previousSeed);
+            previousSeed = game.seed;
+            int n = putVarLong(length, 0, record.length);
+            out.write(length, 0, n);
+            out.write(record);
+            games++;
+            bytes += n + record.length;
+        }
+
+        /**
+         * Gets the number of games written.
+         * @return The game count.
+         */
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * Gets the number of bytes written for games, not counting the stream header.
+         * @return The byte count.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads the games of a stream from Writer back one at a time.
+     */
+    public static final class Reader implements Closeable {
+        private final DataInputStream in;
+        private long previousSeed = 0;
+
+        /**
+         * Constructor for Reader, checking the stream header.
+         * @param in Where to read from; it is closed with the reader.
+         * @throws IOException if the header is missing or not an archive's.
+         */
+        public Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(in));
+            if (this.in.readInt() != MAGIC || this.in.readInt() != VERSION) throw new IOException("Not a game archive.");
+        }
+
+        /**
+         * Reads the next game and plays it again.
+         * @return The game as it was when written, or null at the end of the stream.
+         * @throws IOException if the stream cannot be read or ends inside a game.
+         */
+        public UnoModel next() throws IOException {
+            int first = in.read();
+            if (first < 0) return null;
+            int length = first & 0x7F;
+            for (int shift = 7; (first & 0x80) != 0; shift += 7) {
+                first = in.readUnsignedByte();
+                length |= (first & 0x7F) << shift;
+            }
+            byte[] record = new byte[length];
+            in.readFully(record);
+            UnoModel m;
+            try {
+                m = decode(record, previousSeed);
+            } catch (IllegalArgumentException ex) {
+                throw new IOException(ex.getMessage(), ex);
+            }
+            previousSeed = m.getSeed();
+            return m;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
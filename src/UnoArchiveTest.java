@@ -0,0 +1,119 @@
+import org.junit.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoArchive
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoArchiveTest {
+
+    // Everything about a position that decoding must get back
+    private static String state(UnoModel m) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < m.getPlayerCount(); i++) {
+            for (UnoCard c : m.getPlayer(i).hand) sb.append(c.getId()).append(',');
+            sb.append('|');
+        }
+        for (UnoCard c : m.getDrawPile()) sb.append(c.getId()).append(',');
+        sb.append('|');
+        for (UnoCard c : m.getDiscardPile()) sb.append(c.getId()).append(',');
+        sb.append('|').append(m.getCurrentIndex()).append(' ').append(m.getActiveColor()).append(' ').append(m.isDark())
+                .append(' ').append(m.isMustPressNext()).append(' ').append(m.isGameOver()).append(' ')
+                .append(m.getDirection());
+        return sb.toString();
+    }
+
+    /**
+     * Tests that finished games come back exactly and take under 64 bytes on average.
+     */
+    @Test
+    public void testFinishedGames() {
+        int bytes = 0, games = 0;
+        for (int players = 2; players <= 4; players++) {
+            for (long seed = 0; seed < 100; seed++) {
+                UnoModel m = UnoTestTables.create(players, true, 1, UnoRuleSet.standard(), seed);
+                UnoArchive archive = m.recordArchive();
+                UnoHeadless.play(m);
+                assertTrue(m.isGameOver());
+                byte[] record = archive.encode();
+                assertEquals(state(m), state(UnoArchive.decode(record)));
+                bytes += record.length;
+                games++;
+            }
+        }
+        assertTrue("Mean record " + (double) bytes / games + " bytes", bytes < 64 * games);
+    }
+
+    /**
+     * Tests games stopped part way, with Next still to be pressed or not, and a house rule.
+     */
+    @Test
+    public void testUnfinishedGames() {
+        for (int actions = 0; actions < 40; actions++) {
+            UnoModel m = UnoTestTables.create(3, true, 1, UnoRuleSet.of(UnoRuleSet.Variant.SEVEN_ZERO), 7L);
+            UnoArchive archive = m.recordArchive();
+            for (int i = 0; i < actions; i++) m.playAITurn();
+            UnoModel back = UnoArchive.decode(archive.encode());
+            assertEquals(state(m), state(back));
+            assertTrue(back.getRules().has(UnoRuleSet.Variant.SEVEN_ZERO));
+        }
+    }
+
+    /**
+     * Tests that only games followed from the deal without stepping back are archived.
+     */
+    @Test
+    public void testRefusals() {
+        UnoModel m = UnoTestTables.create(2, true, 1, UnoRuleSet.standard(), 1L);
+        m.setHistoryEnabled(true);
+        UnoArchive archive = m.recordArchive();
+        m.playAITurn();
+        try {
+            m.recordArchive();
+            fail("Archiving should start at the deal");
+        } catch (IllegalStateException expected) {
+        }
+        assertTrue(m.undo());
+        assertFalse(archive.isEncodable());
+        try {
+            archive.encode();
+            fail("A game that was stepped back cannot be encoded");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            UnoArchive.decode(new byte[]{2, 1, 0, 0, 4});
+            fail("The record ends before its turns");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    /**
+     * Tests a stream of games from consecutive seeds, which store each seed in one byte.
+     */
+    @Test
+    public void testStream() throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        List<String> states = new ArrayList<>();
+        int alone = 0;
+        try (UnoArchive.Writer w = new UnoArchive.Writer(buf)) {
+            for (long seed = 1_000_000_000L; seed < 1_000_000_050L; seed++) {
+                UnoModel m = UnoTestTables.create(2, true, 1, UnoRuleSet.standard(), seed);
+                UnoArchive archive = m.recordArchive();
+                UnoHeadless.play(m);
+                w.write(archive);
+                states.add(state(m));
+                alone += archive.encode().length;
+            }
+            assertEquals(50, w.getGames());
+            assertTrue(w.getBytes() < alone); // A length byte per game, but the seeds take 4 bytes less each
+        }
+        try (UnoArchive.Reader r = new UnoArchive.Reader(new ByteArrayInputStream(buf.toByteArray()))) {
+            for (String s : states) assertEquals(s, state(r.next()));
+            assertNull(r.next());
+        }
+    }
+}
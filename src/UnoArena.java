@@ -0,0 +1,510 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+/**
+ * Batched simulation engine that steps many Uno Flip games at once.
+ * Games are stored in struct-of-arrays form in large primitive arrays instead of one UnoModel per game,
+ * which keeps the overhead per game to a few dozen bytes on top of the card data.
+ * Each game uses a single deck built by UnoModel.buildFlipDeck and the same card effects as UnoModel.
+ * <p>
+ * Per game the arena stores the pile bytes (draw pile growing up from the start, discard pile
+ * growing down from the end) and an owner byte per card id, which is the id-indexed form of every hand.
+ * Turns advance automatically, there is no separate Next step.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoArena {
+    public static final int ACTION_DRAW = -1;
+
+    private static final int CARDS = UnoModel.DECK_SIZE;
+    private static final int HAND_SIZE = 7;
+    private static final byte IN_PILE = -1;
+    private static final byte DARK = 1;
+    private static final byte FINISHED = 2;
+
+    // Card faces by id, shared by every game
+    private static final byte[] LIGHT_COLOR = new byte[CARDS];
+    private static final byte[] LIGHT_RANK = new byte[CARDS];
+    private static final byte[] DARK_COLOR = new byte[CARDS];
+    private static final byte[] DARK_RANK = new byte[CARDS];
+    private static final UnoColor[] COLORS = UnoColor.values();
+    private static final UnoRank[] RANKS = UnoRank.values();
+
+    static {
+        List<UnoCard> deck = new ArrayList<>();
+        UnoModel.buildFlipDeck(deck);
+        for (UnoCard c : deck) {
+            LIGHT_COLOR[c.getId()] = (byte) c.getColor(false).ordinal();
+            LIGHT_RANK[c.getId()] = (byte) c.getRank(false).ordinal();
+            DARK_COLOR[c.getId()] = (byte) c.getColor(true).ordinal();
+            DARK_RANK[c.getId()] = (byte) c.getRank(true).ordinal();
+        }
+    }
+
+    private final int games;
+    private final int players;
+
+    // Card data, CARDS bytes per game
+    private final byte[] piles;
+    private final byte[] owner;
+
+    // Scalar state, one entry per game (hand sizes: one per seat)
+    private final byte[] handSize;
+    private final byte[] drawCount;
+    private final byte[] discardCount;
+    private final byte[] current;
+    private final byte[] direction;
+    private final byte[] activeColor;
+    private final byte[] flags;
+    private final byte[] winner;
+    private final long[] rng;
+
+    private final byte[] scratch = new byte[CARDS];
+    private final int[] heldScratch = new int[4];
+
+    /**
+     * Constructor for UnoArena. Every game is dealt from its own seed.
+     * @param games Number of games stored in the arena.
+     * @param players Number of players in every game.
+     * @param seed Seed from which the per-game seeds are derived.
+     */
+    public UnoArena(int games, int players, long seed) {
+        if (players < UnoModel.MIN_PLAYERS || players * HAND_SIZE + 1 > CARDS) {
+            throw new IllegalArgumentException("Number of players must be 2–" + (CARDS - 1) / HAND_SIZE + ".");
+        }
+        if (games < 1 || (long) games * CARDS > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid number of games: " + games);
+        }
+        this.games = games;
+        this.players = players;
+        piles = new byte[games * CARDS];
+        owner = new byte[games * CARDS];
+        handSize = new byte[games * players];
+        drawCount = new byte[games];
+        discardCount = new byte[games];
+        current = new byte[games];
+        direction = new byte[games];
+        activeColor = new byte[games];
+        flags = new byte[games];
+        winner = new byte[games];
+        rng = new long[games];
+
+        long s = seed;
+        for (int g = 0; g < games; g++) {
+            s += 0x9E3779B97F4A7C15L;
+            reset(g, s);
+        }
+    }
+
+    /**
+     * Shuffles and deals a fresh game in one slot.
+     * @param g The game index.
+     * @param seed Seed for this game's shuffles.
+     */
+    public void reset(int g, long seed) {
+        rng[g] = seed == 0 ? 1 : seed;
+        int base = g * CARDS;
+        for (int i = 0; i < CARDS; i++) {
+            piles[base + i] = (byte) i;
+            owner[base + i] = IN_PILE;
+        }
+        shuffle(g, base, CARDS);
+        drawCount[g] = CARDS;
+        discardCount[g] = 0;
+        current[g] = 0;
+        direction[g] = 1;
+        flags[g] = 0;
+        winner[g] = -1;
+        for (int p = 0; p < players; p++) handSize[g * players + p] = 0;
+
+        for (int k = 0; k < HAND_SIZE; k++) {
+            for (int p = 0; p < players; p++) drawInto(g, p);
+        }
+
+        int first = popDraw(g);
+        pushDiscard(g, first);
+        activeColor[g] = LIGHT_COLOR[first];
+        if (isWildRank(LIGHT_RANK[first])) activeColor[g] = (byte) UnoColor.RED.ordinal();
+    }
+
+    /**
+     * Applies one action to every running game.
+     * An action is ACTION_DRAW, or a card id to play; for wild cards the chosen color slot
+     * (index into UnoColor.sideColors) is stored in bits 8-9. Illegal actions are treated as a draw.
+     * @param actions One action per game.
+     * @return The number of games still running.
+     */
+    public int stepAll(int[] actions) {
+        int running = 0;
+        for (int g = 0; g < games; g++) {
+            if ((flags[g] & FINISHED) != 0) continue;
+            step(g, actions[g]);
+            if ((flags[g] & FINISHED) == 0) running++;
+        }
+        return running;
+    }
+
+    /**
+     * Applies one action to a single game.
+     * @param g The game index.
+     * @param action The action, encoded as for stepAll.
+     */
+    public void step(int g, int action) {
+        if ((flags[g] & FINISHED) != 0) return;
+        int cur = current[g];
+        boolean dark = (flags[g] & DARK) != 0;
+        if (action == ACTION_DRAW || !isLegal(g, action & 0xFF)) {
+            drawInto(g, cur);
+            advance(g, 1);
+            return;
+        }
+
+        int card = action & 0xFF;
+        owner[g * CARDS + card] = IN_PILE;
+        handSize[g * players + cur]--;
+        pushDiscard(g, card);
+        int rank = rank(card, dark);
+        activeColor[g] = isWildRank(rank)
+                ? (byte) UnoColor.sideColors(dark)[(action >>> 8) & 3].ordinal()
+                : color(card, dark);
+
+        int steps = handleCardEffect(g, card, rank, dark);
+        if (handSize[g * players + cur] == 0) {
+            flags[g] |= FINISHED;
+            winner[g] = (byte) cur;
+            return;
+        }
+        advance(g, steps);
+    }
+
+    // Mirrors UnoModel.handleCardEffect, returns how many seats the turn moves
+    private int handleCardEffect(int g, int card, int rank, boolean dark) {
+        int victim = seat(current[g] + direction[g]);
+        switch (RANKS[rank]) {
+            case FLIP -> {
+                flags[g] ^= DARK;
+                activeColor[g] = color(card, !dark);
+                if (isWildRank(rank(card, !dark))) {
+                    activeColor[g] = (byte) (dark ? UnoColor.RED : UnoColor.TEAL).ordinal();
+                }
+                return 1;
+            }
+            case DRAW_FIVE -> {
+                for (int i = 0; i < 5; i++) drawInto(g, victim);
+                return 2;
+            }
+            case SKIP_EVERYONE -> {
+                return 0;
+            }
+            case WILD_DRAW_COLOR -> {
+                while (true) {
+                    int c = drawInto(g, victim);
+                    if (c < 0 || color(c, dark) == activeColor[g]) break;
+                }
+                return 2;
+            }
+            case REVERSE -> {
+                direction[g] = (byte) -direction[g];
+                return 1;
+            }
+            case SKIP -> {
+                return 2;
+            }
+            case DRAW_ONE -> {
+                drawInto(g, victim);
+                return 2;
+            }
+            case WILD_DRAW_TWO -> {
+                drawInto(g, victim);
+                drawInto(g, victim);
+                return 2;
+            }
+            default -> {
+                return 1;
+            }
+        }
+    }
+
+    /**
+     * Picks an action with simple fixed priorities: action cards, then other matches, then wilds
+     * (set to the color held most), otherwise draw.
+     * @param g The game index.
+     * @return The encoded action.
+     */
+    public int greedyAction(int g) {
+        int base = g * CARDS;
+        int cur = current[g];
+        boolean dark = (flags[g] & DARK) != 0;
+        int best = -1;
+        int wild = -1;
+        int[] held = heldScratch;
+        Arrays.fill(held, 0);
+        UnoColor[] side = UnoColor.sideColors(dark);
+        for (int c = 0; c < CARDS; c++) {
+            if (owner[base + c] != cur) continue;
+            int col = color(c, dark);
+            for (int s = 0; s < 4; s++) if (side[s].ordinal() == col) held[s]++;
+            if (!isLegal(g, c)) continue;
+            int r = rank(c, dark);
+            if (isWildRank(r)) {
+                wild = c;
+            } else if (isActionRank(r)) {
+                if (best == -1 || !isActionRank(rank(best, dark))) best = c; // prioritize actions
+            } else if (best == -1) {
+                best = c; // standard match
+            }
+        }
+        if (best != -1) return best;
+        if (wild == -1) return ACTION_DRAW;
+        int slot = 0;
+        for (int s = 1; s < 4; s++) if (held[s] > held[slot]) slot = s;
+        return wild | (slot << 8);
+    }
+
+    /**
+     * Checks if a card id can be played by the current player of a game.
+     * @param g The game index.
+     * @param card The card id.
+     * @return True if the current player holds the card and it matches the top card.
+     */
+    public boolean isLegal(int g, int card) {
+        if (card < 0 || card >= CARDS || owner[g * CARDS + card] != current[g]) return false;
+        boolean dark = (flags[g] & DARK) != 0;
+        int top = getTopCard(g);
+        return isWildRank(rank(card, dark)) || color(card, dark) == activeColor[g] || rank(card, dark) == rank(top, dark);
+    }
+
+    /**
+     * Copies the card ids in a player's hand into a buffer.
+     * @param g The game index.
+     * @param seat The seat.
+     * @param out Buffer of at least getHandSize(g, seat) entries.
+     * @return The number of cards written.
+     */
+    public int getHand(int g, int seat, int[] out) {
+        int base = g * CARDS;
+        int n = 0;
+        for (int c = 0; c < CARDS; c++) if (owner[base + c] == seat) out[n++] = c;
+        return n;
+    }
+
+    /**
+     * Gets the outcome of a finished game, in the same form live games report it.
+     * The arena does not count draws, so every seat shows 0 cards drawn.
+     * @param g The game index.
+     * @param names A name for each seat.
+     * @return The result.
+     * @throws IllegalStateException if the game is still running.
+     */
+    public UnoGameResult getResult(int g, List<String> names) {
+        if (!isFinished(g)) throw new IllegalStateException("Game " + g + " is still running.");
+        byte[] rank = isDark(g) ? DARK_RANK : LIGHT_RANK;
+        int[] points = new int[players];
+        int[] sizes = new int[players];
+        int base = g * CARDS;
+        for (int c = 0; c < CARDS; c++) {
+            int seat = owner[base + c];
+            if (seat >= 0) points[seat] += UnoModel.cardPoints(RANKS[rank[c]]);
+        }
+        int score = 0;
+        for (int seat = 0; seat < players; seat++) {
+            score += points[seat];
+            sizes[seat] = getHandSize(g, seat);
+        }
+        return new UnoGameResult(names, winner[g], score, points, sizes, new int[players]);
+    }
+
+    /**
+     * Gets the number of games in the arena.
+     * @return The game count.
+     */
+    public int getGames() {
+        return games;
+    }
+
+    /**
+     * Gets the number of players per game.
+     * @return The player count.
+     */
+    public int getPlayers() {
+        return players;
+    }
+
+    /**
+     * Checks if a game has been won.
+     * @param g The game index.
+     * @return True if finished, False otherwise.
+     */
+    public boolean isFinished(int g) {
+        return (flags[g] & FINISHED) != 0;
+    }
+
+    /**
+     * Gets the winner of a game.
+     * @param g The game index.
+     * @return The winning seat, or -1 if the game is still running.
+     */
+    public int getWinner(int g) {
+        return winner[g];
+    }
+
+    /**
+     * Gets the seat whose turn it is.
+     * @param g The game index.
+     * @return The current seat.
+     */
+    public int getCurrent(int g) {
+        return current[g];
+    }
+
+    /**
+     * Gets the number of cards a player holds.
+     * @param g The game index.
+     * @param seat The seat.
+     * @return The hand size.
+     */
+    public int getHandSize(int g, int seat) {
+        return handSize[g * players + seat];
+    }
+
+    /**
+     * Gets the number of cards left in the draw pile.
+     * @param g The game index.
+     * @return The draw pile size.
+     */
+    public int getDrawPileSize(int g) {
+        return drawCount[g];
+    }
+
+    /**
+     * Gets the number of cards in the discard pile.
+     * @param g The game index.
+     * @return The discard pile size.
+     */
+    public int getDiscardSize(int g) {
+        return discardCount[g];
+    }
+
+    /**
+     * Gets the id of the top discard card.
+     * @param g The game index.
+     * @return The card id.
+     */
+    public int getTopCard(int g) {
+        return piles[g * CARDS + CARDS - discardCount[g]];
+    }
+
+    /**
+     * Gets the active color of a game.
+     * @param g The game index.
+     * @return The active color.
+     */
+    public UnoColor getActiveColor(int g) {
+        return COLORS[activeColor[g]];
+    }
+
+    /**
+     * Checks which side a game is on.
+     * @param g The game index.
+     * @return True if dark, False otherwise.
+     */
+    public boolean isDark(int g) {
+        return (flags[g] & DARK) != 0;
+    }
+
+    /**
+     * Gets the play direction of a game.
+     * @param g The game index.
+     * @return 1 or -1.
+     */
+    public int getDirection(int g) {
+        return direction[g];
+    }
+
+    /**
+     * Gets the number of bytes stored per game, including the card data.
+     * @return Bytes per game.
+     */
+    public int bytesPerGame() {
+        return 2 * CARDS + players + 8 + Long.BYTES;
+    }
+
+    private void advance(int g, int steps) {
+        current[g] = (byte) seat(current[g] + direction[g] * steps);
+    }
+
+    private int seat(int idx) {
+        return ((idx % players) + players) % players;
+    }
+
+    // Draws into a hand, returns the card id or -1 if both piles are used up
+    private int drawInto(int g, int seat) {
+        if (drawCount[g] == 0) recycle(g);
+        if (drawCount[g] == 0) return -1;
+        int c = popDraw(g);
+        owner[g * CARDS + c] = (byte) seat;
+        handSize[g * players + seat]++;
+        return c;
+    }
+
+    private int popDraw(int g) {
+        return piles[g * CARDS + --drawCount[g]];
+    }
+
+    private void pushDiscard(int g, int card) {
+        discardCount[g]++;
+        piles[g * CARDS + CARDS - discardCount[g]] = (byte) card;
+    }
+
+    // Shuffles everything under the top discard back into the (empty) draw pile
+    private void recycle(int g) {
+        int n = discardCount[g];
+        if (n <= 1) return;
+        int base = g * CARDS;
+        int top = piles[base + CARDS - n];
+        for (int i = 0; i < n - 1; i++) scratch[i] = piles[base + CARDS - 1 - i];
+        System.arraycopy(scratch, 0, piles, base, n - 1);
+        piles[base + CARDS - 1] = (byte) top;
+        drawCount[g] = (byte) (n - 1);
+        discardCount[g] = 1;
+        shuffle(g, base, n - 1);
+    }
+
+    private void shuffle(int g, int from, int n) {
+        for (int i = n - 1; i > 0; i--) {
+            int j = (int) ((nextRandom(g) >>> 33) % (i + 1));
+            byte t = piles[from + i];
+            piles[from + i] = piles[from + j];
+            piles[from + j] = t;
+        }
+    }
+
+    // xorshift64* generator, one state word per game
+    private long nextRandom(int g) {
+        long x = rng[g];
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        rng[g] = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+
+    private static byte color(int card, boolean dark) {
+        return dark ? DARK_COLOR[card] : LIGHT_COLOR[card];
+    }
+
+    private static int rank(int card, boolean dark) {
+        return dark ? DARK_RANK[card] : LIGHT_RANK[card];
+    }
+
+    private static boolean isWildRank(int rank) {
+        return rank == UnoRank.WILD.ordinal() || rank == UnoRank.WILD_DRAW_TWO.ordinal()
+                || rank == UnoRank.WILD_DRAW_COLOR.ordinal();
+    }
+
+    private static boolean isActionRank(int r) {
+        UnoRank rank = RANKS[r];
+        return rank == UnoRank.SKIP || rank == UnoRank.REVERSE || rank == UnoRank.DRAW_ONE
+                || rank == UnoRank.DRAW_FIVE || rank == UnoRank.SKIP_EVERYONE || rank == UnoRank.FLIP;
+    }
+}
@@ -0,0 +1,80 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+/**
+ * Test class for the batched UnoArena simulator
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoArenaTest {
+
+    /**
+     * Tests the initial deal of every game.
+     */
+    @Test
+    public void testInitialDeal() {
+        UnoArena arena = new UnoArena(100, 3, 42);
+        for (int g = 0; g < arena.getGames(); g++) {
+            for (int p = 0; p < 3; p++) assertEquals(7, arena.getHandSize(g, p));
+            assertEquals(100 - 21 - 1, arena.getDrawPileSize(g));
+            assertEquals(1, arena.getDiscardSize(g));
+            assertFalse(arena.isDark(g));
+            assertEquals(-1, arena.getWinner(g));
+        }
+    }
+
+    /**
+     * Tests that greedy games run to completion while every card stays accounted for.
+     */
+    @Test
+    public void testGreedyGamesFinishAndConserveCards() {
+        UnoArena arena = new UnoArena(500, 2, 7);
+        int[] actions = new int[arena.getGames()];
+        int running = arena.getGames();
+        for (int step = 0; step < 5000 && running > 0; step++) {
+            for (int g = 0; g < actions.length; g++) actions[g] = arena.greedyAction(g);
+            running = arena.stepAll(actions);
+            for (int g = 0; g < actions.length; g++) {
+                int total = arena.getDrawPileSize(g) + arena.getDiscardSize(g);
+                for (int p = 0; p < 2; p++) total += arena.getHandSize(g, p);
+                assertEquals("Cards must be conserved", 100, total);
+            }
+        }
+        assertEquals("All games should finish", 0, running);
+        for (int g = 0; g < actions.length; g++) {
+            assertEquals(0, arena.getHandSize(g, arena.getWinner(g)));
+        }
+    }
+
+    /**
+     * Tests that illegal actions are turned into a draw.
+     */
+    @Test
+    public void testIllegalActionDraws() {
+        UnoArena arena = new UnoArena(1, 2, 3);
+        int[] hand = new int[100];
+        int n = arena.getHand(0, 1, hand);
+        assertEquals(7, n);
+        arena.stepAll(new int[]{hand[0]}); // Card belongs to the other player
+        assertEquals(8, arena.getHandSize(0, 0));
+        assertEquals(1, arena.getCurrent(0));
+    }
+
+    /**
+     * Tests that the same seed produces the same games.
+     */
+    @Test
+    public void testDeterministic() {
+        UnoArena a = new UnoArena(10, 4, 99);
+        UnoArena b = new UnoArena(10, 4, 99);
+        int[] actions = new int[10];
+        for (int step = 0; step < 200; step++) {
+            for (int g = 0; g < 10; g++) actions[g] = a.greedyAction(g);
+            a.stepAll(actions);
+            b.stepAll(actions);
+        }
+        for (int g = 0; g < 10; g++) {
+            assertEquals(a.getWinner(g), b.getWinner(g));
+            assertEquals(a.getTopCard(g), b.getTopCard(g));
+        }
+    }
+}
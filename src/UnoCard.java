@@ -4,6 +4,9 @@
  * @version 3.0
  */
 public class UnoCard {
+    // Position of the card in the deck it was built from, -1 if it is not part of a deck
+    private final int id;
+
     // Light
     private final UnoColor lightColor;
     private final UnoRank lightRank;
@@ -20,12 +23,33 @@ public class UnoCard {
      * @param darkRank Rank on the dark side.
      */
     public UnoCard(UnoColor lightColor, UnoRank lightRank, UnoColor darkColor, UnoRank darkRank) {
+        this(-1, lightColor, lightRank, darkColor, darkRank);
+    }
+
+    /**
+     * Constructs a dual-sided Uno Card that belongs to a deck.
+     * @param id Unique id of the card within its deck.
+     * @param lightColor Color on the light side.
+     * @param lightRank Rank on the light side.
+     * @param darkColor Color on the dark side.
+     * @param darkRank Rank on the dark side.
+     */
+    public UnoCard(int id, UnoColor lightColor, UnoRank lightRank, UnoColor darkColor, UnoRank darkRank) {
+        this.id = id;
         this.lightColor = lightColor;
         this.lightRank = lightRank;
         this.darkColor = darkColor;
         this.darkRank = darkRank;
     }
 
+    /**
+     * Gets the id of the card within its deck.
+     * @return The card id, or -1 if the card is not part of a deck.
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      * Gets the color based on the current side.
      * @param isDark True for dark side, false for light.
@@ -0,0 +1,295 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * Custom-painted table area showing the draw pile, the top card and the current player's hand.
+ * Card faces are rendered once into cached images keyed by (side, color, rank), clicks are hit-tested
+ * against the card layout, and updates only repaint the card slots that changed.
+ * Clicking a playable card fires a "PLAY:index" action, just like the hand buttons did.
+ * The hand can be shown sorted by color and rank; clicks still name the card's real hand index.
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoCardCanvas extends JComponent {
+    private static final long serialVersionUID = 1L;
+    static final int CARD_W = 70;
+    static final int CARD_H = 100;
+    static final int GAP = 8;
+    static final int MARGIN = 10;
+    private static final int HAND_Y = MARGIN + CARD_H + 2 * GAP;
+    private static final int FLIP_FRAMES = 8;
+    private static final int PILE_LABEL_Y = MARGIN + CARD_H + GAP + 4; // Baseline of the "N left" label
+
+    private final UnoView colors;
+    private final BufferedImage[][][] faces = new BufferedImage[2][UnoColor.values().length][UnoRank.values().length];
+    private BufferedImage back;
+
+    private List<UnoCard> hand = new ArrayList<>(); // In display order
+    private int[] order; // Display position to hand index, null when shown in hand order
+    private boolean sorted = false;
+    private UnoEvent last;
+    private UnoCard topCard;
+    private int drawPileSize;
+    private boolean isDark;
+    private boolean handEnabled;
+    private ActionListener listener;
+
+    // Flip animation: frames left, cards are squeezed horizontally while it runs
+    private int flipFrame = 0;
+    private final Timer flipTimer;
+
+    /**
+     * Constructor for UnoCardCanvas.
+     * @param colors The view used to map card colors to screen colors.
+     */
+    public UnoCardCanvas(UnoView colors) {
+        this.colors = colors;
+        setOpaque(true);
+        flipTimer = new Timer(25, e -> {
+            flipFrame--;
+            if (flipFrame <= 0) ((Timer) e.getSource()).stop();
+            repaint();
+        });
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int idx = indexAt(e.getX(), e.getY());
+                if (idx >= 0 && handEnabled && listener != null) {
+                    listener.actionPerformed(new ActionEvent(UnoCardCanvas.this, ActionEvent.ACTION_PERFORMED, "PLAY:" + idx));
+                }
+            }
+        });
+    }
+
+    /**
+     * Sets the listener notified when a card in the hand is clicked.
+     * @param listener The listener, usually the controller.
+     */
+    public void setActionListener(ActionListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Stops hand clicks until the next update says the hand can be played.
+     */
+    public void disableHand() {
+        if (!handEnabled) return;
+        handEnabled = false;
+        repaint();
+    }
+
+    /**
+     * Shows the hand sorted by color and rank, or in the order the cards were drawn.
+     * @param sorted True to sort the hand.
+     */
+    public void setSorted(boolean sorted) {
+        this.sorted = sorted;
+        if (last != null) update(last);
+    }
+
+    /**
+     * Shows a new game state, repainting only the parts that changed.
+     * @param e The UnoEvent containing the current game state.
+     */
+    public void update(UnoEvent e) {
+        last = e;
+        List<UnoCard> newHand = e.getHand();
+        order = sorted ? e.getSortedOrder() : null;
+        if (order != null) {
+            List<UnoCard> shown = new ArrayList<>(order.length);
+            for (int idx : order) shown.add(newHand.get(idx));
+            newHand = shown;
+        }
+        boolean enabled = !e.isMustPressNext() && !e.isAIPlayer();
+        boolean sideChanged = e.isDark() != isDark;
+        int oldSize = hand.size();
+        int oldWidth = getWidth();
+        List<UnoCard> oldHand = hand;
+
+        hand = newHand;
+        isDark = e.isDark();
+        if (sideChanged) {
+            flipFrame = FLIP_FRAMES;
+            flipTimer.restart();
+        }
+
+        if (sideChanged || enabled != handEnabled || oldWidth == 0) {
+            handEnabled = enabled;
+            revalidate();
+            repaint();
+        } else {
+            if (topCard != e.getTopCard() || drawPileSize != e.getDrawPileSize()) {
+                repaint(pileBounds());
+            }
+            for (int i = 0; i < Math.max(oldSize, newHand.size()); i++) {
+                UnoCard before = i < oldSize ? oldHand.get(i) : null;
+                UnoCard after = i < newHand.size() ? newHand.get(i) : null;
+                if (before != after) repaint(slotBounds(i));
+            }
+            if (rowsFor(newHand.size()) != rowsFor(oldSize)) revalidate();
+        }
+        topCard = e.getTopCard();
+        drawPileSize = e.getDrawPileSize();
+    }
+
+    /**
+     * Finds the hand card at a point.
+     * @param x X coordinate in the canvas.
+     * @param y Y coordinate in the canvas.
+     * @return The hand index, or -1 if no card is there.
+     */
+    public int indexAt(int x, int y) {
+        if (y < HAND_Y || x < MARGIN) return -1;
+        int col = (x - MARGIN) / (CARD_W + GAP);
+        int row = (y - HAND_Y) / (CARD_H + GAP);
+        if (col >= columns()) return -1;
+        if ((x - MARGIN) % (CARD_W + GAP) >= CARD_W || (y - HAND_Y) % (CARD_H + GAP) >= CARD_H) return -1;
+        int idx = row * columns() + col;
+        if (idx >= hand.size()) return -1;
+        return order != null ? order[idx] : idx;
+    }
+
+    /**
+     * Gets the cached face image of a card side, rendering it the first time it is needed.
+     * @param color The color of the side.
+     * @param rank The rank of the side.
+     * @param dark True for the dark side.
+     * @return The card image.
+     */
+    BufferedImage faceImage(UnoColor color, UnoRank rank, boolean dark) {
+        BufferedImage img = faces[dark ? 1 : 0][color.ordinal()][rank.ordinal()];
+        if (img == null) {
+            img = renderCard(colors.mapCardColor(color), label(rank), dark ? Color.WHITE : Color.BLACK);
+            faces[dark ? 1 : 0][color.ordinal()][rank.ordinal()] = img;
+        }
+        return img;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int width = getParent() != null ? getParent().getWidth() : 0;
+        if (width <= 0) width = 10 * (CARD_W + GAP) + 2 * MARGIN;
+        return new Dimension(width, HAND_Y + rowsFor(hand.size(), width) * (CARD_H + GAP) + MARGIN);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        // Draw pile and top card
+        Rectangle deckRect = new Rectangle(MARGIN, MARGIN, CARD_W, CARD_H);
+        if (clip.intersects(deckRect)) {
+            if (back == null) back = renderCard(Color.DARK_GRAY, "UNO", Color.WHITE);
+            drawCard(g, back, deckRect);
+        }
+        if (drawPileSize >= 0 && clip.intersects(pileLabelBounds())) {
+            g.setColor(isDark ? Color.WHITE : Color.BLACK);
+            g.drawString(drawPileSize + " left", MARGIN, PILE_LABEL_Y);
+        }
+        Rectangle topRect = new Rectangle(MARGIN + CARD_W + GAP, MARGIN, CARD_W, CARD_H);
+        if (topCard != null && clip.intersects(topRect)) {
+            drawCard(g, faceImage(topCard.getColor(isDark), topCard.getRank(isDark), isDark), topRect);
+        }
+
+        // Hand, only the slots inside the dirty region
+        for (int i = 0; i < hand.size(); i++) {
+            Rectangle r = slotBounds(i);
+            if (!clip.intersects(r)) continue;
+            UnoCard c = hand.get(i);
+            drawCard(g, faceImage(c.getColor(isDark), c.getRank(isDark), isDark), r);
+            if (!handEnabled) {
+                g.setColor(new Color(0, 0, 0, 80));
+                g.fillRoundRect(r.x, r.y, r.width, r.height, 12, 12);
+            }
+        }
+    }
+
+    private void drawCard(Graphics g, Image img, Rectangle r) {
+        if (flipFrame > 0) {
+            // Squeeze towards the middle and back out while the flip animation runs
+            double t = Math.abs(Math.cos(Math.PI * flipFrame / FLIP_FRAMES));
+            int w = Math.max(1, (int) (r.width * t));
+            g.drawImage(img, r.x + (r.width - w) / 2, r.y, w, r.height, null);
+        } else {
+            g.drawImage(img, r.x, r.y, null);
+        }
+    }
+
+    /**
+     * Gets the area repainted when the draw pile or the top card changes: both cards and the pile count under them.
+     * @return The area in canvas coordinates.
+     */
+    Rectangle pileBounds() {
+        return new Rectangle(MARGIN, MARGIN, 2 * CARD_W + GAP, CARD_H).union(pileLabelBounds());
+    }
+
+    // Where the "N left" label can reach, from its font's ascent to its descent
+    private Rectangle pileLabelBounds() {
+        Font font = getFont() != null ? getFont() : new Font(Font.DIALOG, Font.PLAIN, 12);
+        FontMetrics fm = getFontMetrics(font);
+        return new Rectangle(MARGIN, PILE_LABEL_Y - fm.getAscent(), 2 * CARD_W + GAP, fm.getAscent() + fm.getDescent());
+    }
+
+    private Rectangle slotBounds(int i) {
+        int cols = columns();
+        return new Rectangle(MARGIN + (i % cols) * (CARD_W + GAP), HAND_Y + (i / cols) * (CARD_H + GAP), CARD_W, CARD_H);
+    }
+
+    private int columns() {
+        return columnsFor(getWidth() > 0 ? getWidth() : getPreferredSize().width);
+    }
+
+    private static int columnsFor(int width) {
+        return Math.max(1, (width - 2 * MARGIN + GAP) / (CARD_W + GAP));
+    }
+
+    private int rowsFor(int cards) {
+        return rowsFor(cards, getWidth());
+    }
+
+    private static int rowsFor(int cards, int width) {
+        int cols = columnsFor(width);
+        return Math.max(1, (cards + cols - 1) / cols);
+    }
+
+    private BufferedImage renderCard(Color fill, String text, Color textColor) {
+        BufferedImage img = new BufferedImage(CARD_W, CARD_H, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(fill);
+        g.fillRoundRect(0, 0, CARD_W - 1, CARD_H - 1, 12, 12);
+        g.setColor(Color.WHITE);
+        g.drawRoundRect(3, 3, CARD_W - 7, CARD_H - 7, 10, 10);
+        g.setColor(textColor);
+        g.setFont(g.getFont().deriveFont(Font.BOLD, text.length() > 4 ? 11f : 16f));
+        FontMetrics fm = g.getFontMetrics();
+        g.drawString(text, (CARD_W - fm.stringWidth(text)) / 2, (CARD_H + fm.getAscent() - fm.getDescent()) / 2);
+        g.dispose();
+        return img;
+    }
+
+    private static String label(UnoRank r) {
+        return switch (r) {
+            case SKIP -> "SKIP";
+            case REVERSE -> "REV";
+            case DRAW_ONE -> "+1";
+            case DRAW_FIVE -> "+5";
+            case WILD -> "WILD";
+            case WILD_DRAW_TWO -> "+2";
+            case WILD_DRAW_COLOR -> "+COLOR";
+            case SKIP_EVERYONE -> "SKIP ALL";
+            case FLIP -> "FLIP";
+            default -> String.valueOf(r.ordinal());
+        };
+    }
+}
@@ -0,0 +1,126 @@
+import org.junit.Test;
+import org.junit.Before;
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.event.MouseEvent;
+import java.util.*;
+import static org.junit.Assert.*;
+/**
+ * Test class for the custom-painted card canvas
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoCardCanvasTest {
+    private UnoCardCanvas canvas;
+    private UnoModel model;
+    private UnoViewStub view;
+
+    /**
+     * Sets up a canvas showing a fresh game.
+     */
+    @Before
+    public void setUp() {
+        view = new UnoViewStub() {
+            @Override
+            public Color mapCardColor(UnoColor c) {
+                return Color.RED;
+            }
+        };
+        canvas = new UnoCardCanvas(view);
+        canvas.setSize(800, 600);
+        model = new UnoModel(2, Arrays.asList("A", "B"), Arrays.asList(false, false));
+        model.addView(view);
+        canvas.update(view.lastEvent);
+    }
+
+    /**
+     * Tests hit testing of hand cards and the gaps between them.
+     */
+    @Test
+    public void testIndexAt() {
+        int handY = UnoCardCanvas.MARGIN + UnoCardCanvas.CARD_H + 2 * UnoCardCanvas.GAP;
+        assertEquals(0, canvas.indexAt(UnoCardCanvas.MARGIN + 1, handY + 1));
+        assertEquals(1, canvas.indexAt(UnoCardCanvas.MARGIN + UnoCardCanvas.CARD_W + UnoCardCanvas.GAP + 1, handY + 1));
+        assertEquals("Gap between cards", -1, canvas.indexAt(UnoCardCanvas.MARGIN + UnoCardCanvas.CARD_W + 1, handY + 1));
+        assertEquals("Top card area", -1, canvas.indexAt(UnoCardCanvas.MARGIN + 1, UnoCardCanvas.MARGIN + 1));
+        assertEquals("Past the last card", -1, canvas.indexAt(UnoCardCanvas.MARGIN + 8 * (UnoCardCanvas.CARD_W + UnoCardCanvas.GAP) + 1, handY + 1));
+    }
+
+    /**
+     * Tests that card images are rendered once and reused.
+     */
+    @Test
+    public void testImageCache() {
+        assertSame(canvas.faceImage(UnoColor.RED, UnoRank.FIVE, false), canvas.faceImage(UnoColor.RED, UnoRank.FIVE, false));
+        assertNotSame(canvas.faceImage(UnoColor.RED, UnoRank.FIVE, false), canvas.faceImage(UnoColor.RED, UnoRank.FIVE, true));
+    }
+
+    /**
+     * Tests that clicking a card sends a PLAY command for its index.
+     */
+    @Test
+    public void testClickFiresPlay() {
+        List<String> commands = new ArrayList<>();
+        canvas.setActionListener(e -> commands.add(e.getActionCommand()));
+        int handY = UnoCardCanvas.MARGIN + UnoCardCanvas.CARD_H + 2 * UnoCardCanvas.GAP;
+        int x = UnoCardCanvas.MARGIN + 2 * (UnoCardCanvas.CARD_W + UnoCardCanvas.GAP) + 5;
+        canvas.dispatchEvent(new MouseEvent(canvas, MouseEvent.MOUSE_CLICKED, 0, 0, x, handY + 5, 1, false));
+        assertEquals(List.of("PLAY:2"), commands);
+
+        // Hand is disabled once the player has to press Next
+        model.draw();
+        canvas.update(view.lastEvent);
+        canvas.dispatchEvent(new MouseEvent(canvas, MouseEvent.MOUSE_CLICKED, 0, 0, x, handY + 5, 1, false));
+        assertEquals(1, commands.size());
+    }
+
+    /**
+     * Tests that a sorted hand still reports the real hand index of each card.
+     */
+    @Test
+    public void testSortedHand() {
+        model.forceHand(0, Arrays.asList(
+                new UnoCard(UnoColor.YELLOW, UnoRank.TWO, UnoColor.PINK, UnoRank.ONE),
+                new UnoCard(UnoColor.RED, UnoRank.NINE, UnoColor.TEAL, UnoRank.ONE),
+                new UnoCard(UnoColor.RED, UnoRank.ONE, UnoColor.ORANGE, UnoRank.ONE)));
+        model.setTopCard(new UnoCard(UnoColor.GREEN, UnoRank.FIVE, UnoColor.TEAL, UnoRank.FIVE));
+        UnoViewStub fresh = new UnoViewStub();
+        model.addView(fresh); // Sends the forced hand
+        canvas.setSorted(true);
+        canvas.update(fresh.lastEvent);
+        int handY = UnoCardCanvas.MARGIN + UnoCardCanvas.CARD_H + 2 * UnoCardCanvas.GAP;
+        int step = UnoCardCanvas.CARD_W + UnoCardCanvas.GAP;
+        // Red 1, Red 9, Yellow 2
+        assertEquals(2, canvas.indexAt(UnoCardCanvas.MARGIN + 1, handY + 1));
+        assertEquals(1, canvas.indexAt(UnoCardCanvas.MARGIN + step + 1, handY + 1));
+        assertEquals(0, canvas.indexAt(UnoCardCanvas.MARGIN + 2 * step + 1, handY + 1));
+
+        canvas.setSorted(false);
+        assertEquals(0, canvas.indexAt(UnoCardCanvas.MARGIN + 1, handY + 1));
+    }
+
+    /**
+     * Tests that a change to the draw pile alone repaints the "N left" label under it, not just the cards.
+     */
+    @Test
+    public void testPileCountRepainted() {
+        List<Rectangle> dirty = new ArrayList<>();
+        UnoCardCanvas recording = new UnoCardCanvas(view) {
+            @Override
+            public void repaint(Rectangle r) {
+                dirty.add(r);
+            }
+        };
+        recording.setSize(800, 600);
+        UnoEvent e = view.lastEvent;
+        recording.update(e);
+        dirty.clear();
+        recording.update(new UnoEvent(this, e.getHand(), e.getTopCardText(), e.getCurrentPlayerName(), "", false,
+                e.getActiveColor(), e.isDark(), false, e.getTopCard(), e.getDrawPileSize() - 1));
+        assertEquals(1, dirty.size());
+        int baseline = UnoCardCanvas.MARGIN + UnoCardCanvas.CARD_H + UnoCardCanvas.GAP + 4;
+        assertTrue(dirty.get(0).contains(UnoCardCanvas.MARGIN + 1, baseline - 1));
+        assertTrue(dirty.get(0).contains(UnoCardCanvas.MARGIN + 1, baseline - 8)); // Tops of the digits
+        assertEquals(recording.pileBounds(), dirty.get(0));
+    }
+}
@@ -0,0 +1,276 @@
+import java.util.Arrays;
+/**
+ * Tracks which cards an AI seat has not seen yet and what it has learned about its opponents' hands.
+ * What every seat sees (the discard pile, hand sizes, draws instead of plays) is kept once per game in a
+ * {@link Shared} tracker; each seat only adds the cards in its own hand. Every event is handled in constant time by
+ * the shared tracker and at most one seat, so queries are always up to date without replaying history, and a seat
+ * costs a few counters however many players there are.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoCardTracker {
+    private static final int COLORS = UnoColor.values().length;
+
+    private final int seat;
+    private final Shared shared;
+    private final UnoHand hand;
+
+    // Cards in this seat's hand that the shared pool still counts as unseen
+    private int ownCount;
+    private final int[] ownByColor = new int[COLORS];
+
+    private UnoDrawOdds drawOdds;
+
+    /**
+     * Constructor for UnoCardTracker.
+     * @param seat The seat whose point of view is tracked.
+     * @param shared The game's shared tracker, which sends this seat its own draws and plays.
+     * @param hand The seat's hand.
+     */
+    UnoCardTracker(int seat, Shared shared, UnoHand hand) {
+        this.seat = seat;
+        this.shared = shared;
+        this.hand = hand;
+        shared.seats[seat] = this;
+    }
+
+    /**
+     * Recounts the seat's own hand against the shared tracker, which must have been reset first.
+     */
+    void reset() {
+        ownCount = 0;
+        Arrays.fill(ownByColor, 0);
+        for (UnoCard c : hand) took(c);
+    }
+
+    // A card came into this seat's hand
+    private void took(UnoCard c) {
+        if (!shared.isUnseen(c.getId())) return;
+        ownCount++;
+        ownByColor[c.getColor(false).ordinal()]++;
+        ownByColor[c.getColor(true).ordinal()]++;
+    }
+
+    // A card left this seat's hand for the discard pile, before the shared tracker marks it seen
+    private void gave(UnoCard c) {
+        if (!shared.isUnseen(c.getId())) return;
+        ownCount--;
+        ownByColor[c.getColor(false).ordinal()]--;
+        ownByColor[c.getColor(true).ordinal()]--;
+    }
+
+    /**
+     * Gets the number of cards this seat has not seen.
+     * @return Size of the unseen card pool.
+     */
+    public int getUnseenCount() {
+        return shared.unseenCount - ownCount;
+    }
+
+    /**
+     * Gets the number of unseen cards showing a color. Each card counts once for its light color
+     * and once for its dark color.
+     * @param color The color to count.
+     * @return Number of unseen cards of that color.
+     */
+    public int getUnseenCount(UnoColor color) {
+        return shared.unseenByColor[color.ordinal()] - ownByColor[color.ordinal()];
+    }
+
+    /**
+     * Checks if a card has not been seen by this seat. Looks through the seat's hand, so it takes O(hand).
+     * @param cardId The id of the card.
+     * @return True if the card is unseen, False otherwise.
+     */
+    public boolean isUnseen(int cardId) {
+        if (!shared.isUnseen(cardId)) return false;
+        for (UnoCard c : hand) if (c.getId() == cardId) return false;
+        return true;
+    }
+
+    /**
+     * Gets the hand size of a seat.
+     * @param seat The seat index.
+     * @return Number of cards in that seat's hand.
+     */
+    public int getHandSize(int seat) {
+        return shared.handSizes[seat];
+    }
+
+    /**
+     * Checks if a seat drew instead of playing while a color was active.
+     * @param seat The seat index.
+     * @param color The color.
+     * @return True if the seat has shown it had no card of that color.
+     */
+    public boolean hasShownVoid(int seat, UnoColor color) {
+        return seat != this.seat && shared.voidSince[seat][color.ordinal()] >= 0;
+    }
+
+    /**
+     * Checks which side this seat believes the game is on.
+     * @return True if dark, False otherwise.
+     */
+    public boolean isDark() {
+        return shared.isDark;
+    }
+
+    /**
+     * Gets the draw odds from this seat's point of view. They follow the tracker, so they never need rebuilding.
+     * @return The draw odds.
+     */
+    public UnoDrawOdds getDrawOdds() {
+        if (drawOdds == null) drawOdds = new UnoDrawOdds(this);
+        return drawOdds;
+    }
+
+    /**
+     * Estimates the probability that a seat holds at least one card of a color.
+     * Hidden cards are assumed to be drawn uniformly from the unseen pool; if the seat has shown
+     * it had none of the color, only cards it drew afterwards can be of that color.
+     * @param seat The seat index.
+     * @param color The color.
+     * @return Probability between 0 and 1.
+     */
+    public double probabilityHoldsColor(int seat, UnoColor color) {
+        if (seat == this.seat) throw new IllegalArgumentException("Use the hand to check your own cards.");
+        int unknown = shared.handSizes[seat];
+        int since = shared.voidSince[seat][color.ordinal()];
+        if (since >= 0) unknown = Math.min(unknown, shared.cardsDrawn[seat] - since);
+
+        int pool = getUnseenCount();
+        int others = pool - getUnseenCount(color);
+        double none = 1.0;
+        for (int i = 0; i < unknown && none > 0; i++) {
+            if (pool - i <= 0) break;
+            none *= Math.max(0, others - i) / (double) (pool - i);
+        }
+        return 1.0 - none;
+    }
+
+    /**
+     * What every seat can see, tracked once per game: the cards not in the discard pile, the hand sizes and which
+     * colors each seat has shown it lacks. Draws and plays are passed on to the seat that made them.
+     */
+    static final class Shared implements UnoGameListener {
+        private final UnoCardTracker[] seats; // Null for seats without a tracker
+        private UnoCard[] deck = new UnoCard[0];
+
+        // Cards that are in the draw pile or any hand
+        private long[] unseen = new long[0];
+        private int unseenCount;
+        private final int[] unseenByColor = new int[COLORS];
+
+        // Discard pile card ids, needed when the pile is shuffled back into the draw pile
+        private int[] discardIds = new int[0];
+        private int discardSize;
+
+        // Per-seat hand sizes and color voids ("drew while BLUE was active")
+        private int[] handSizes = new int[0];
+        private int[] cardsDrawn = new int[0];
+        private int[][] voidSince = new int[0][];
+
+        private boolean isDark;
+
+        /**
+         * Constructor for Shared.
+         * @param players Number of seats.
+         */
+        Shared(int players) {
+            seats = new UnoCardTracker[players];
+        }
+
+        /**
+         * Rebuilds the tracker and every seat's part from the current state of a model, forgetting anything
+         * inferred so far.
+         * @param model The model to read.
+         */
+        void reset(UnoModel model) {
+            deck = model.getDeck();
+            unseen = new long[(deck.length + 63) / 64];
+            unseenCount = 0;
+            Arrays.fill(unseenByColor, 0);
+            for (UnoCard c : deck) markUnseen(c);
+
+            discardIds = new int[deck.length];
+            discardSize = 0;
+            Object[] pile = model.getDiscardPile().toArray();
+            for (int i = pile.length - 1; i >= 0; i--) pushDiscard((UnoCard) pile[i]);
+
+            int n = model.getPlayerCount();
+            handSizes = new int[n];
+            cardsDrawn = new int[n];
+            voidSince = new int[n][COLORS];
+            for (int i = 0; i < n; i++) {
+                handSizes[i] = model.getPlayer(i).hand.size();
+                Arrays.fill(voidSince[i], -1);
+            }
+            isDark = model.isDark();
+            for (UnoCardTracker t : seats) if (t != null) t.reset();
+        }
+
+        @Override
+        public void cardPlayed(int seat, UnoCard card) {
+            if (seats[seat] != null) seats[seat].gave(card);
+            handSizes[seat]--;
+            pushDiscard(card);
+        }
+
+        @Override
+        public void cardDrawn(int seat, UnoCard card) {
+            handSizes[seat]++;
+            cardsDrawn[seat]++;
+            if (seats[seat] != null) seats[seat].took(card); // Other seats' draws stay hidden
+        }
+
+        @Override
+        public void drewInsteadOfPlaying(int seat, UnoColor activeColor, UnoRank topRank) {
+            voidSince[seat][activeColor.ordinal()] = cardsDrawn[seat];
+        }
+
+        @Override
+        public void sideFlipped(boolean isDark) {
+            this.isDark = isDark;
+        }
+
+        @Override
+        public void pileRecycled() {
+            if (discardSize == 0) return;
+            // Everything under the top card goes back into the unknown draw pile
+            for (int i = 0; i < discardSize - 1; i++) {
+                int id = discardIds[i];
+                if (id >= 0 && id < deck.length) markUnseen(deck[id]);
+            }
+            discardIds[0] = discardIds[discardSize - 1];
+            discardSize = 1;
+        }
+
+        private void pushDiscard(UnoCard c) {
+            markSeen(c);
+            if (discardSize == discardIds.length) discardIds = Arrays.copyOf(discardIds, discardSize * 2 + 1);
+            discardIds[discardSize++] = c.getId();
+        }
+
+        boolean isUnseen(int cardId) {
+            return cardId >= 0 && cardId < deck.length && (unseen[cardId >>> 6] & (1L << cardId)) != 0;
+        }
+
+        private void markSeen(UnoCard c) {
+            int id = c.getId();
+            if (!isUnseen(id)) return;
+            unseen[id >>> 6] &= ~(1L << id);
+            unseenCount--;
+            unseenByColor[c.getColor(false).ordinal()]--;
+            unseenByColor[c.getColor(true).ordinal()]--;
+        }
+
+        private void markUnseen(UnoCard c) {
+            int id = c.getId();
+            if (id < 0 || id >= deck.length || isUnseen(id)) return;
+            unseen[id >>> 6] |= 1L << id;
+            unseenCount++;
+            unseenByColor[c.getColor(false).ordinal()]++;
+            unseenByColor[c.getColor(true).ordinal()]++;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+import org.junit.Test;
+import org.junit.Before;
+import java.util.*;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoCardTracker
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoCardTrackerTest {
+    private UnoModel model;
+    private UnoCardTracker tracker;
+
+    /**
+     * Sets up a human versus AI game before each test.
+     */
+    @Before
+    public void setUp() {
+        model = new UnoModel(2, Arrays.asList("Human", "Bot"), Arrays.asList(false, true));
+        model.addView(new UnoViewStub());
+        tracker = model.getTracker(1);
+    }
+
+    /**
+     * Tests that only AI seats get a tracker and that the initial unseen pool is correct.
+     */
+    @Test
+    public void testInitialUnseenPool() {
+        assertNull(model.getTracker(0));
+        assertNotNull(tracker);
+        // Whole deck minus the bot's 7 cards and the first discard
+        assertEquals(model.getDeck().length - 8, tracker.getUnseenCount());
+        assertEquals(7, tracker.getHandSize(0));
+        for (UnoCard c : model.getPlayer(1).hand) assertFalse(tracker.isUnseen(c.getId()));
+    }
+
+    /**
+     * Tests that opponent draws stay hidden while plays reveal the card.
+     */
+    @Test
+    public void testOpponentDrawAndPlay() {
+        int before = tracker.getUnseenCount();
+        model.draw();
+        assertEquals("Opponent's draw must not reveal the card", before, tracker.getUnseenCount());
+        assertEquals(8, tracker.getHandSize(0));
+        model.nextPlayer();
+
+        // Bot draws: its own card becomes seen
+        model.draw();
+        assertEquals(before - 1, tracker.getUnseenCount());
+        model.nextPlayer();
+
+        // Human plays a number card the bot has never seen
+        UnoCard card = null;
+        for (UnoCard c : model.getDeck()) {
+            if (tracker.isUnseen(c.getId()) && c.getRank(false).ordinal() <= UnoRank.NINE.ordinal()) card = c;
+        }
+        assertNotNull(card);
+        model.forceHand(0, new ArrayList<>(List.of(card, new UnoCard(UnoColor.WILD, UnoRank.WILD, UnoColor.WILD, UnoRank.WILD))));
+        model.setTopCard(new UnoCard(card.getColor(false), card.getRank(false), UnoColor.TEAL, UnoRank.ZERO));
+        int unseenBefore = tracker.getUnseenCount();
+        model.play(0);
+        assertFalse("Played card is visible to everyone", tracker.isUnseen(card.getId()));
+        assertEquals(unseenBefore - 1, tracker.getUnseenCount());
+    }
+
+    /**
+     * Tests that drawing while a color is active records a void and lowers the color probability.
+     */
+    @Test
+    public void testVoidInference() {
+        model.setTopCard(new UnoCard(UnoColor.BLUE, UnoRank.FIVE, UnoColor.PINK, UnoRank.FIVE));
+        double before = tracker.probabilityHoldsColor(0, UnoColor.BLUE);
+        assertTrue(before > 0.5);
+
+        model.draw();
+        assertTrue(tracker.hasShownVoid(0, UnoColor.BLUE));
+        double after = tracker.probabilityHoldsColor(0, UnoColor.BLUE);
+        assertTrue("Only the drawn card can be blue", after < 0.3);
+        assertFalse(tracker.hasShownVoid(0, UnoColor.RED));
+    }
+
+    /**
+     * Tests that a Flip is seen by the tracker.
+     */
+    @Test
+    public void testFlipTracked() {
+        UnoCard flip = new UnoCard(UnoColor.RED, UnoRank.FLIP, UnoColor.TEAL, UnoRank.FLIP);
+        UnoCard extra = new UnoCard(UnoColor.RED, UnoRank.ONE, UnoColor.TEAL, UnoRank.ONE);
+        model.forceHand(0, new ArrayList<>(List.of(flip, extra)));
+        model.setTopCard(new UnoCard(UnoColor.RED, UnoRank.ONE, UnoColor.TEAL, UnoRank.ONE));
+        model.play(0);
+        assertTrue(tracker.isDark());
+    }
+
+    /**
+     * Tests that at a large table every seat's view of the shared tracking still matches the cards it has seen.
+     */
+    @Test
+    public void testLargeTableSharesPublicCounts() {
+        UnoModel big = UnoTestTables.create(100, 5L);
+        for (int i = 0; i < 2000 && !big.isGameOver(); i++) big.playAITurn();
+        int discarded = big.getDiscardPile().size();
+        for (int seat : new int[]{0, 37, 99}) {
+            UnoCardTracker t = big.getTracker(seat);
+            assertEquals(big.getDeck().length - discarded - big.getPlayer(seat).hand.size(), t.getUnseenCount());
+            for (UnoCard c : big.getPlayer(seat).hand) assertFalse(t.isUnseen(c.getId()));
+            for (int other = 0; other < 100; other += 11) assertEquals(big.getPlayer(other).hand.size(), t.getHandSize(other));
+        }
+    }
+}
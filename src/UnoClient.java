@@ -0,0 +1,224 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+/**
+ * Headless client for UnoServer. Commands are sent with play/playWild/draw/next, and every message from
+ * the server is turned back into the usual view calls, so any UnoView can sit on top of a remote table.
+ * The event's hand is always this seat's own hand, and empty when spectating.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoClient implements Closeable {
+    private final SocketChannel channel;
+    private final UnoView view;
+    private final ByteBuffer in = ByteBuffer.allocate(UnoProtocol.MAX_FRAME + 2);
+    private final ByteBuffer out = ByteBuffer.allocate(64);
+
+    private int seat = -1;
+    private List<String> names = new ArrayList<>();
+    private int[] handSizes = new int[0];
+    private int currentSeat = -1;
+    private boolean ended = false;
+
+    /**
+     * Connects to a server and asks for a seat.
+     * @param address The server address.
+     * @param name The player's name.
+     * @param view The view receiving updates, end of game and error messages.
+     * @throws IOException if the server cannot be reached.
+     * @throws IllegalArgumentException if the name is blank or longer than the server accepts.
+     */
+    public UnoClient(SocketAddress address, String name, UnoView view) throws IOException {
+        this(address, view, UnoProtocol.encodeMessage(UnoProtocol.HELLO, checkName(name))); // Sized for the name
+    }
+
+    private UnoClient(SocketAddress address, UnoView view, ByteBuffer first) throws IOException {
+        this.view = view;
+        this.channel = SocketChannel.open(address);
+        channel.socket().setTcpNoDelay(true);
+        in.flip();
+        if (first != null) {
+            while (first.hasRemaining()) channel.write(first);
+        }
+    }
+
+    // The server's own check, so a bad name fails here instead of cutting the connection
+    private static String checkName(String name) {
+        String trimmed = name.trim();
+        if (trimmed.isEmpty() || trimmed.length() > UnoProtocol.MAX_NAME) {
+            throw new IllegalArgumentException("Names must be 1 to " + UnoProtocol.MAX_NAME + " characters.");
+        }
+        return name;
+    }
+
+    /**
+     * Connects to a server as a spectator of a running table. Updates carry no hand.
+     * @param address The server address.
+     * @param table The table number, counting from 0 in the order tables started.
+     * @param view The view receiving updates and the end of the game.
+     * @return The spectating client.
+     * @throws IOException if the server cannot be reached.
+     */
+    public static UnoClient watch(SocketAddress address, int table, UnoView view) throws IOException {
+        UnoClient c = new UnoClient(address, view, null);
+        int start = UnoProtocol.beginFrame(c.out, UnoProtocol.WATCH);
+        c.out.putInt(table);
+        UnoProtocol.endFrame(c.out, start);
+        c.flush();
+        return c;
+    }
+
+    /**
+     * Plays a regular card from this seat's hand.
+     * @param handIndex The index of the card to play.
+     * @throws IOException if the message cannot be sent.
+     */
+    public void play(int handIndex) throws IOException {
+        int start = UnoProtocol.beginFrame(out, UnoProtocol.PLAY);
+        out.putShort((short) handIndex);
+        UnoProtocol.endFrame(out, start);
+        flush();
+    }
+
+    /**
+     * Plays a wild card with a chosen color.
+     * @param handIndex The index of the card.
+     * @param color The color selected by the player.
+     * @throws IOException if the message cannot be sent.
+     */
+    public void playWild(int handIndex, UnoColor color) throws IOException {
+        int start = UnoProtocol.beginFrame(out, UnoProtocol.WILD);
+        out.putShort((short) handIndex);
+        out.put((byte) color.ordinal());
+        UnoProtocol.endFrame(out, start);
+        flush();
+    }
+
+    /**
+     * Draws a card.
+     * @throws IOException if the message cannot be sent.
+     */
+    public void draw() throws IOException {
+        UnoProtocol.endFrame(out, UnoProtocol.beginFrame(out, UnoProtocol.DRAW));
+        flush();
+    }
+
+    /**
+     * Ends the turn.
+     * @throws IOException if the message cannot be sent.
+     */
+    public void next() throws IOException {
+        UnoProtocol.endFrame(out, UnoProtocol.beginFrame(out, UnoProtocol.NEXT));
+        flush();
+    }
+
+    /**
+     * Waits for the next message from the server and passes it to the view.
+     * @return False once the game has ended, True otherwise.
+     * @throws IOException if the connection fails or is closed.
+     */
+    public boolean receive() throws IOException {
+        ByteBuffer frame;
+        while ((frame = UnoProtocol.nextFrame(in)) == null) {
+            in.compact();
+            int n = channel.read(in);
+            in.flip();
+            if (n < 0) throw new EOFException("Server closed the connection.");
+        }
+        switch (frame.get()) {
+            case UnoProtocol.WELCOME -> {
+                seat = frame.get(); // -1 for spectators
+                int n = frame.get() & 0xFF;
+                names = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) names.add(UnoProtocol.getString(frame));
+                handSizes = new int[n];
+            }
+            case UnoProtocol.STATE -> view.handleUpdate(readState(frame));
+            case UnoProtocol.ERROR -> view.showInfo(UnoProtocol.getString(frame));
+            case UnoProtocol.END -> {
+                ended = true;
+                view.handleEnd(UnoProtocol.getString(frame));
+            }
+            default -> throw new IOException("Unknown message from server.");
+        }
+        return !ended;
+    }
+
+    private UnoEvent readState(ByteBuffer frame) {
+        currentSeat = frame.get() & 0xFF;
+        int flags = frame.get();
+        UnoColor activeColor = UnoColor.values()[frame.get()];
+        boolean isDark = (flags & UnoProtocol.FLAG_DARK) != 0;
+        UnoCard top = null;
+        if (frame.getShort(frame.position()) != -1) top = UnoProtocol.getCard(frame);
+        else frame.getShort();
+        int drawPileSize = frame.getShort() & 0xFFFF;
+        int n = frame.get() & 0xFF;
+        for (int i = 0; i < n; i++) handSizes[i] = frame.getShort() & 0xFFFF;
+        int count = frame.getShort() & 0xFFFF;
+        List<UnoCard> hand = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) hand.add(UnoProtocol.getCard(frame));
+        String info = UnoProtocol.getString(frame);
+
+        String topText = top != null ? top.toText(isDark) : "None";
+        if (activeColor != UnoColor.NONE) topText += " [" + activeColor + "]";
+        return new UnoEvent(this, hand, topText, names.get(currentSeat), info,
+                (flags & UnoProtocol.FLAG_MUST_PRESS_NEXT) != 0, activeColor, isDark,
+                (flags & UnoProtocol.FLAG_AI) != 0, top, drawPileSize, currentSeat,
+                (flags & UnoProtocol.FLAG_GAME_OVER) != 0, Arrays.copyOf(handSizes, n));
+    }
+
+    private void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) channel.write(out);
+        out.clear();
+    }
+
+    /**
+     * Gets this client's seat at the table.
+     * @return The seat index, or -1 before the table has started or when spectating.
+     */
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * Gets the names of everyone at the table.
+     * @return The names, in seat order.
+     */
+    public List<String> getPlayerNames() {
+        return names;
+    }
+
+    /**
+     * Gets how many cards each seat holds, as of the last update.
+     * @param seat The seat index.
+     * @return The number of cards in that seat's hand.
+     */
+    public int getHandSize(int seat) {
+        return handSizes[seat];
+    }
+
+    /**
+     * Checks if it is this seat's turn, as of the last update.
+     * @return True if this seat is the current player.
+     */
+    public boolean isMyTurn() {
+        return seat >= 0 && seat == currentSeat;
+    }
+
+    /**
+     * Closes the connection.
+     * @throws IOException if closing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
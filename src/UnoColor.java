@@ -11,5 +11,14 @@ public enum UnoColor {
     PINK, TEAL, PURPLE, ORANGE,
 
     // Special Card colors
-    WILD, NONE
+    WILD, NONE;
+
+    /**
+     * Gets the four playable colors of one side of the deck.
+     * @param isDark True for dark side, false for light.
+     * @return The colors a wild card may be set to on that side.
+     */
+    public static UnoColor[] sideColors(boolean isDark) {
+        return isDark ? new UnoColor[]{PINK, TEAL, PURPLE, ORANGE} : new UnoColor[]{RED, GREEN, BLUE, YELLOW};
+    }
 }
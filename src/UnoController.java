@@ -12,6 +12,7 @@ public class UnoController implements ActionListener {
 
     private final UnoModel model;
     private final UnoView view;
+    private UnoAiScheduler scheduler;
 
     /**
      * Constructor for UnoController.
@@ -23,6 +24,15 @@ public class UnoController implements ActionListener {
         this.view = view;
     }
 
+    /**
+     * Lets AI seats play automatically after each human action. Commands then run on the scheduler's thread,
+     * so a click never waits on the event thread for an AI turn to finish.
+     * @param scheduler The scheduler that plays AI turns, or null to run AI turns by hand.
+     */
+    public void setAiScheduler(UnoAiScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
     /**
      * Handles user actions from the UI, such as playing or drawing a card.
      * @param e The ActionEvent triggered by th component.
@@ -30,34 +40,84 @@ public class UnoController implements ActionListener {
     @Override
     public void actionPerformed(ActionEvent e) {
         String cmd = e.getActionCommand();
+        if (scheduler != null) scheduler.submit(() -> run(cmd));
+        else run(cmd);
+    }
+
+    private void run(String cmd) {
         try {
-            if (cmd.startsWith("PLAY:")) {
-                int idx = Integer.parseInt(cmd.substring("PLAY:".length()));
-                if (model.peekCardInHand(idx) == null) {
+            handleCommand(cmd);
+        } catch (Exception ex) {
+            view.showInfo(ex.getMessage());
+        }
+    }
+
+    private void handleCommand(String cmd) {
+        if (cmd.startsWith("PLAY:")) {
+            int idx = Integer.parseInt(cmd.substring("PLAY:".length()));
+            UnoCard card;
+            synchronized (model) {
+                if (!humanToMove()) return;
+                card = model.peekCardInHand(idx);
+                if (card == null) {
                     view.showInfo("Invalid card.");
                     return;
                 }
-                if (model.isCardWild(idx)) {
-                    UnoColor c = view.promptForWildColor();
-                    if (c == null || c == UnoColor.NONE) {
-                        view.showInfo("Wild play cancelled.");
-                        return;
-                    }
-                    model.playWild(idx, c);
-                } else {
+                if (!model.isCardWild(idx)) {
                     model.play(idx);
+                    return;
                 }
-            } else if (cmd.equals("DRAW")) {
-                model.draw();
-            } else if (cmd.equals("NEXT")) {
-                try {
-                    model.nextPlayer();
-                } catch (IllegalStateException ex) {
-                    model.playAITurn();
+            }
+            UnoColor c = view.promptForWildColor(); // Not under the lock, the player may take their time
+            if (c == null || c == UnoColor.NONE) {
+                view.showInfo("Wild play cancelled.");
+                return;
+            }
+            synchronized (model) {
+                if (!humanToMove()) return;
+                if (scheduler != null && model.peekCardInHand(idx) != card) {
+                    view.showInfo("The game moved on, play again.");
+                    return;
                 }
+                model.playWild(idx, c);
             }
-        } catch (Exception ex) {
-            view.showInfo(ex.getMessage());
+            return;
+        }
+        synchronized (model) {
+            if (!humanToMove()) return;
+            handleTableCommand(cmd);
+        }
+    }
+
+    // Clicks made while AI seats were playing are stale, the scheduler plays those seats
+    private boolean humanToMove() {
+        if (scheduler == null || model.isGameOver() || !model.isCurrentPlayerAI()) return true;
+        view.showInfo("Wait for the AI players to finish.");
+        return false;
+    }
+
+    private void handleTableCommand(String cmd) {
+        if (cmd.equals("DRAW")) {
+            model.draw();
+        } else if (cmd.equals("NEXT")) {
+            try {
+                model.nextPlayer();
+            } catch (IllegalStateException ex) {
+                model.playAITurn();
+            }
+        } else if (cmd.equals("UNDO")) {
+            // Step back past AI turns too, or the scheduler would just play them again
+            if (!model.undo()) {
+                view.showInfo("Nothing to undo.");
+                return;
+            }
+            while (model.isCurrentPlayerAI() && model.undo()) { }
+        } else if (cmd.equals("REDO")) {
+            if (!model.redo()) {
+                view.showInfo("Nothing to redo.");
+                return;
+            }
+            while (model.isCurrentPlayerAI() && model.redo()) { }
         }
     }
 }
@@ -0,0 +1,168 @@
+import java.util.Arrays;
+/**
+ * Exact odds for the cards a player is made to draw, from one seat's point of view.
+ * <p>
+ * The cards the seat has not seen, the draw pile and the other hands, are taken to be in random order, so a draw
+ * is a draw without replacement from that pool (a reshuffled discard pile is not modelled). A Wild Draw Color
+ * makes the next player draw until the chosen color comes up, so how many cards they take follows the negative
+ * hypergeometric distribution; how many cards of a color turn up in a fixed number of draws follows the
+ * hypergeometric one. Both are ratios of binomial coefficients of the pool size and how many of its cards show
+ * the color, so every chance is a few lookups in one shared table of log factorials. The pool shrinks with every draw,
+ * so nothing is built per pair of counts; the table only grows when a bigger pool than any before turns up, and
+ * is read without a lock. Backed by a UnoCardTracker, whose counts follow every event in constant time, every query
+ * but the whole distribution takes constant time.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public final class UnoDrawOdds {
+    private static volatile double[] lnFactorials = {0}; // ln(k!) at k, replaced by a longer copy to grow
+
+    private final UnoCardTracker tracker; // Null when the counts were taken once
+    private final int[] counts;
+    private final int total;
+
+    /**
+     * Constructor for UnoDrawOdds that follows a tracker.
+     * @param tracker The tracker of the seat whose point of view is used.
+     */
+    public UnoDrawOdds(UnoCardTracker tracker) {
+        this.tracker = tracker;
+        this.counts = null;
+        this.total = 0;
+    }
+
+    private UnoDrawOdds(int[] counts, int total) {
+        this.tracker = null;
+        this.counts = counts;
+        this.total = total;
+    }
+
+    /**
+     * Counts the cards a seat cannot see, for seats without a tracker. The odds do not follow later changes.
+     * @param model The game.
+     * @param seat The seat whose point of view is used.
+     * @return The odds for the game as it is now.
+     */
+    public static UnoDrawOdds forSeat(UnoModel model, int seat) {
+        int[] counts = new int[UnoColor.values().length];
+        int total = 0;
+        for (UnoCard c : model.getDrawPile()) {
+            count(counts, c);
+            total++;
+        }
+        for (int i = 0; i < model.getPlayerCount(); i++) {
+            if (i == seat) continue;
+            for (UnoCard c : model.getPlayer(i).hand) count(counts, c);
+            total += model.getPlayer(i).hand.size();
+        }
+        return new UnoDrawOdds(counts, total);
+    }
+
+    private static void count(int[] counts, UnoCard c) {
+        counts[c.getColor(false).ordinal()]++;
+        counts[c.getColor(true).ordinal()]++;
+    }
+
+    private int unseen() {
+        return tracker != null ? tracker.getUnseenCount() : total;
+    }
+
+    private int unseen(UnoColor color) {
+        return tracker != null ? tracker.getUnseenCount(color) : counts[color.ordinal()];
+    }
+
+    /**
+     * Gets the chance that the next player draws exactly some number of cards to a Wild Draw Color.
+     * @param target The color they must draw until.
+     * @param cards The number of cards.
+     * @return The probability.
+     */
+    public double chanceWildDrawColor(UnoColor target, int cards) {
+        return stop(unseen(), unseen(target), cards);
+    }
+
+    /**
+     * Gets the whole distribution of cards drawn to a Wild Draw Color, for showing it.
+     * @param target The color they must draw until.
+     * @return The probability of each number of cards, indexed by the number.
+     */
+    public double[] wildDrawColorDistribution(UnoColor target) {
+        int n = unseen();
+        int s = unseen(target);
+        double[] stop = new double[n + 1];
+        for (int k = 0; k <= n; k++) stop[k] = stop(n, s, k);
+        return stop;
+    }
+
+    /**
+     * Gets the expected number of cards the next player draws to a Wild Draw Color.
+     * @param target The color they must draw until.
+     * @return The expected number of cards.
+     */
+    public double expectedWildDrawColor(UnoColor target) {
+        return mean(unseen(), unseen(target));
+    }
+
+    /**
+     * Gets the chance that some draws turn up at least one card of a color, such as one the victim of a
+     * Draw Five could play next.
+     * @param draws The number of cards drawn.
+     * @param color The color.
+     * @return The probability.
+     */
+    public double chanceOfColor(int draws, UnoColor color) {
+        int n = unseen();
+        return 1 - miss(n, unseen(color), Math.min(draws, n));
+    }
+
+    /**
+     * Gets the expected number of cards a card makes the next player draw.
+     * @param rank The rank of the card on the side in play.
+     * @param target The color chosen, for a Wild Draw Color.
+     * @return The expected number of cards, 0 for cards that make no one draw.
+     */
+    public double expectedCards(UnoRank rank, UnoColor target) {
+        int fixed = switch (rank) {
+            case DRAW_ONE -> 1;
+            case WILD_DRAW_TWO -> 2;
+            case DRAW_FIVE -> 5;
+            case WILD_DRAW_COLOR -> -1;
+            default -> 0;
+        };
+        return fixed >= 0 ? Math.min(fixed, unseen()) : expectedWildDrawColor(target);
+    }
+
+    // Chance k draws from a pool of n cards, s of which show the color, show none of it: C(n - s, k) / C(n, k)
+    static double miss(int n, int s, int k) {
+        if (k <= 0) return 1;
+        if (k > n - s) return 0;
+        return Math.exp(lnFactorial(n - s) - lnFactorial(n - s - k) - lnFactorial(n) + lnFactorial(n - k));
+    }
+
+    // Chance the first card of the color is the k-th drawn, or the pool runs out at k when none show it
+    static double stop(int n, int s, int k) {
+        if (s == 0) return k == n ? 1 : 0;
+        if (k < 1 || k > n - s + 1) return 0;
+        return miss(n, s, k - 1) * s / (n - (k - 1));
+    }
+
+    // Expected draws until the first card of the color, everything when none show it
+    static double mean(int n, int s) {
+        return s == 0 ? n : (n + 1.0) / (s + 1);
+    }
+
+    static double lnFactorial(int k) {
+        double[] f = lnFactorials;
+        return k < f.length ? f[k] : grow(k)[k];
+    }
+
+    // Threads that grow it at once build the same values, whichever copy is kept is right
+    private static double[] grow(int k) {
+        double[] f = lnFactorials;
+        if (k < f.length) return f;
+        double[] g = Arrays.copyOf(f, Math.max(k + 1, 2 * f.length));
+        for (int i = f.length; i < g.length; i++) g[i] = g[i - 1] + Math.log(i);
+        lnFactorials = g;
+        return g;
+    }
+}
@@ -0,0 +1,72 @@
+import org.junit.Test;
+import java.util.List;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoDrawOdds
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoDrawOddsTest {
+
+    /**
+     * Tests the odds against ones worked out by hand.
+     */
+    @Test
+    public void testOdds() {
+        assertEquals(0.4, UnoDrawOdds.stop(5, 2, 1), 1e-12);
+        assertEquals(0.3, UnoDrawOdds.stop(5, 2, 2), 1e-12);
+        assertEquals(0.2, UnoDrawOdds.stop(5, 2, 3), 1e-12);
+        assertEquals(0.1, UnoDrawOdds.stop(5, 2, 4), 1e-12);
+        assertEquals(0, UnoDrawOdds.stop(5, 2, 5), 1e-12);
+        assertEquals(2.0, UnoDrawOdds.mean(5, 2), 1e-12); // (n + 1) / (s + 1)
+
+        assertEquals(11.0 / 3, UnoDrawOdds.mean(10, 2), 1e-12);
+        assertEquals(1 - 56.0 / 252, 1 - UnoDrawOdds.miss(10, 2, 5), 1e-12); // 1 - C(8,5) / C(10,5)
+        assertEquals(7, UnoDrawOdds.mean(7, 0), 0);
+        assertEquals(1, UnoDrawOdds.stop(7, 0, 7), 0);
+    }
+
+    /**
+     * Tests that the odds for a large multi-deck pool agree with multiplying out the draws one at a time.
+     */
+    @Test
+    public void testLargePool() {
+        int n = 1400;
+        int s = 150;
+        double miss = 1;
+        double mean = 0;
+        for (int k = 1; k <= n - s + 1; k++) {
+            double stop = miss * s / (n - (k - 1));
+            assertEquals(stop, UnoDrawOdds.stop(n, s, k), 1e-12);
+            mean += k * stop;
+            miss *= (double) (n - s - (k - 1)) / (n - (k - 1));
+            assertEquals(miss, UnoDrawOdds.miss(n, s, k), 1e-12);
+        }
+        assertEquals(mean, UnoDrawOdds.mean(n, s), 1e-9);
+        assertEquals(Math.log(20) + Math.log(19), UnoDrawOdds.lnFactorial(20) - UnoDrawOdds.lnFactorial(18), 1e-12);
+    }
+
+    /**
+     * Tests that odds backed by a tracker follow the game and agree with counting the hidden cards.
+     */
+    @Test
+    public void testFollowsTracker() {
+        UnoModel m = new UnoModel(3, List.of("A", "B", "C"), List.of(true, true, true), 1, UnoRuleSet.standard(), 9L);
+        UnoDrawOdds live = m.getTracker(0).getDrawOdds();
+        assertSame(live, m.getTracker(0).getDrawOdds());
+        for (int turn = 0; turn < 60 && !m.isGameOver(); turn++) {
+            UnoDrawOdds counted = UnoDrawOdds.forSeat(m, 0);
+            for (UnoColor c : UnoColor.sideColors(m.isDark())) {
+                assertEquals(counted.expectedWildDrawColor(c), live.expectedWildDrawColor(c), 1e-12);
+                assertEquals(counted.chanceOfColor(5, c), live.chanceOfColor(5, c), 1e-12);
+                double total = 0;
+                for (double p : live.wildDrawColorDistribution(c)) total += p;
+                assertEquals(1, total, 1e-9);
+            }
+            m.playAITurn();
+        }
+        assertEquals(5, live.expectedCards(UnoRank.DRAW_FIVE, UnoColor.RED), 0);
+        assertEquals(0, live.expectedCards(UnoRank.SKIP, UnoColor.RED), 0);
+        assertEquals(live.expectedWildDrawColor(UnoColor.PINK), live.expectedCards(UnoRank.WILD_DRAW_COLOR, UnoColor.PINK), 0);
+    }
+}
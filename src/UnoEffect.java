@@ -0,0 +1,17 @@
+/**
+ * Handler for the effect of a played card. The model keeps one handler per (side, rank),
+ * chosen once from the game's UnoRuleSet, so playing a card is a single table lookup.
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+@FunctionalInterface
+public interface UnoEffect {
+
+    /**
+     * Applies the effect of a card that has just been played by the current player.
+     * @param model The model the card was played in.
+     * @param card The card played.
+     * @return Text appended to the "played" message, empty if there is nothing to add.
+     */
+    String apply(UnoModel model, UnoCard card);
+}
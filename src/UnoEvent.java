@@ -1,3 +1,4 @@
+import java.util.Arrays;
 import java.util.EventObject;
 import java.util.List;
 /**
@@ -14,9 +15,15 @@ public class UnoEvent extends EventObject {
     private final UnoColor activeColor;
     private final boolean isDark;
     private final boolean isAIPlayer;
+    private final UnoCard topCard;
+    private final int drawPileSize;
+    private volatile int[] sortedOrder; // Worked out from the hand when first asked for
+    private final int currentSeat;
+    private final boolean gameOver;
+    private final int[] handSizes; // Every seat's, null if not known
 
     /**
-     * Constructs a new UnoEvent.
+     * Constructs a new UnoEvent without the top card or the draw pile size.
      * @param source The object on which the Event initially occurred.
      * @param hand he current player's hand.
      * @param topCardText The string representation of the top discard card.
@@ -24,11 +31,97 @@ public class UnoEvent extends EventObject {
      * @param info Status message to display.
      * @param mustPressNext True if the player needs to end their turn.
      * @param activeColor The current active color (useful for UI backgrounds).
+     * @param isDark True if the game is on the dark side.
+     * @param isAIPlayer True if the current player is an AI.
      */
     public UnoEvent(Object source, List<UnoCard> hand, String topCardText,
                     String currentPlayerName, String info, boolean mustPressNext,
                     UnoColor activeColor, boolean isDark, boolean isAIPlayer) {
+        this(source, hand, topCardText, currentPlayerName, info, mustPressNext, activeColor, isDark, isAIPlayer,
+                null, -1, null);
+    }
+
+    /**
+     * Constructs a new UnoEvent.
+     * @param source The object on which the Event initially occurred.
+     * @param hand he current player's hand.
+     * @param topCardText The string representation of the top discard card.
+     * @param currentPlayerName The name of the current player.
+     * @param info Status message to display.
+     * @param mustPressNext True if the player needs to end their turn.
+     * @param activeColor The current active color (useful for UI backgrounds).
+     * @param isDark True if the game is on the dark side.
+     * @param isAIPlayer True if the current player is an AI.
+     * @param topCard The top card of the discard pile.
+     * @param drawPileSize Number of cards left in the draw pile.
+     */
+    public UnoEvent(Object source, List<UnoCard> hand, String topCardText,
+                    String currentPlayerName, String info, boolean mustPressNext,
+                    UnoColor activeColor, boolean isDark, boolean isAIPlayer,
+                    UnoCard topCard, int drawPileSize) {
+        this(source, hand, topCardText, currentPlayerName, info, mustPressNext, activeColor, isDark, isAIPlayer,
+                topCard, drawPileSize, null);
+    }
+
+    /**
+     * Constructs a new UnoEvent with the whole table, so the update can be sent on without reading the model.
+     * @param source The object on which the Event initially occurred.
+     * @param hand he current player's hand.
+     * @param topCardText The string representation of the top discard card.
+     * @param currentPlayerName The name of the current player.
+     * @param info Status message to display.
+     * @param mustPressNext True if the player needs to end their turn.
+     * @param activeColor The current active color (useful for UI backgrounds).
+     * @param isDark True if the game is on the dark side.
+     * @param isAIPlayer True if the current player is an AI.
+     * @param topCard The top card of the discard pile.
+     * @param drawPileSize Number of cards left in the draw pile.
+     * @param currentSeat The seat index of the current player.
+     * @param gameOver True if the game has been won.
+     * @param handSizes The hand size of every seat, in seat order; kept by the event, so not to be changed later.
+     */
+    public UnoEvent(Object source, List<UnoCard> hand, String topCardText,
+                    String currentPlayerName, String info, boolean mustPressNext,
+                    UnoColor activeColor, boolean isDark, boolean isAIPlayer,
+                    UnoCard topCard, int drawPileSize, int currentSeat, boolean gameOver, int[] handSizes) {
+        this(source, hand, topCardText, currentPlayerName, info, mustPressNext, activeColor, isDark, isAIPlayer,
+                topCard, drawPileSize, null, currentSeat, gameOver, handSizes);
+    }
+
+    /**
+     * Constructs a new UnoEvent that also says how to show the hand sorted.
+     * @param source The object on which the Event initially occurred.
+     * @param hand he current player's hand.
+     * @param topCardText The string representation of the top discard card.
+     * @param currentPlayerName The name of the current player.
+     * @param info Status message to display.
+     * @param mustPressNext True if the player needs to end their turn.
+     * @param activeColor The current active color (useful for UI backgrounds).
+     * @param isDark True if the game is on the dark side.
+     * @param isAIPlayer True if the current player is an AI.
+     * @param topCard The top card of the discard pile.
+     * @param drawPileSize Number of cards left in the draw pile.
+     * @param sortedOrder Hand indexes sorted by color and rank, or null to work them out from the hand.
+     */
+    public UnoEvent(Object source, List<UnoCard> hand, String topCardText,
+                    String currentPlayerName, String info, boolean mustPressNext,
+                    UnoColor activeColor, boolean isDark, boolean isAIPlayer,
+                    UnoCard topCard, int drawPileSize, int[] sortedOrder) {
+        this(source, hand, topCardText, currentPlayerName, info, mustPressNext, activeColor, isDark, isAIPlayer,
+                topCard, drawPileSize, sortedOrder != null ? sortedOrder.clone() : null, -1, false, null);
+    }
+
+    // For the model: the sorted order and hand sizes are kept, not copied, as nothing changes them later
+    UnoEvent(Object source, List<UnoCard> hand, String topCardText,
+             String currentPlayerName, String info, boolean mustPressNext,
+             UnoColor activeColor, boolean isDark, boolean isAIPlayer,
+             UnoCard topCard, int drawPileSize, int[] sortedOrder, int currentSeat, boolean gameOver,
+             int[] handSizes) {
         super(source);
+        this.sortedOrder = sortedOrder;
+        this.currentSeat = currentSeat;
+        this.gameOver = gameOver;
+        this.handSizes = handSizes;
         this.hand = hand;
         this.topCardText = topCardText;
         this.currentPlayerName = currentPlayerName;
@@ -37,11 +130,13 @@ public class UnoEvent extends EventObject {
         this.activeColor = activeColor;
         this.isDark = isDark;
         this.isAIPlayer = isAIPlayer;
+        this.topCard = topCard;
+        this.drawPileSize = drawPileSize;
     }
 
     /**
      * Gets the current player's hand.
-     * @return List of UnoCards.
+     * @return List of UnoCards, as it was when the event was made.
      */
     public List<UnoCard> getHand() {
         return hand;
@@ -102,4 +197,82 @@ public class UnoEvent extends EventObject {
     public boolean isAIPlayer() {
         return isAIPlayer;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the top card of the discard pile.
+     * @return The top card, or null if the pile is empty.
+     */
+    public UnoCard getTopCard() {
+        return topCard;
+    }
+
+    /**
+     * Gets the number of cards left in the draw pile.
+     * @return The draw pile size, or -1 if not known.
+     */
+    public int getDrawPileSize() {
+        return drawPileSize;
+    }
+
+    /**
+     * Gets the seat index of the current player.
+     * @return The seat, or -1 if not known.
+     */
+    public int getCurrentSeat() {
+        return currentSeat;
+    }
+
+    /**
+     * Checks if the game had been won when the update was made.
+     * @return True if the game is over, False otherwise or if not known.
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Gets the number of seats whose hand sizes the update carries.
+     * @return The number of players, or 0 if not known.
+     */
+    public int getPlayerCount() {
+        return handSizes == null ? 0 : handSizes.length;
+    }
+
+    /**
+     * Gets the hand size of a seat when the update was made.
+     * @param seat The seat index, below getPlayerCount().
+     * @return Number of cards in that seat's hand.
+     */
+    public int getHandSize(int seat) {
+        return handSizes[seat];
+    }
+
+    /**
+     * Gets the hand indexes in color and rank order for the side in play, equal cards in hand order.
+     * Updates from a model with sorted hands on carry the hand's own order, kept up to date as cards come and go;
+     * otherwise it is only worked out the first time a view asks, so updates nobody shows sorted cost nothing.
+     * @return For each sorted position, the index of that card in the hand; a new array every call.
+     */
+    public int[] getSortedOrder() {
+        int[] order = sortedOrder;
+        if (order == null) {
+            order = sortOrder(hand, isDark);
+            sortedOrder = order;
+        }
+        return order.clone();
+    }
+
+    // Face in the high bits and hand index in the low bits, so one sort gives the order
+    private static int[] sortOrder(List<UnoCard> hand, boolean isDark) {
+        int ranks = UnoRank.values().length;
+        long[] keys = new long[hand.size()];
+        for (int i = 0; i < keys.length; i++) {
+            UnoCard c = hand.get(i);
+            keys[i] = ((long) (c.getColor(isDark).ordinal() * ranks + c.getRank(isDark).ordinal()) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) order[i] = (int) keys[i];
+        return order;
+    }
+}
@@ -0,0 +1,92 @@
+import java.util.List;
+/**
+ * Turns a position, as one seat sees it, into a fixed-length vector of numbers for learned evaluators.
+ * <p>
+ * Only what the seat can see is used: its own hand, counted per color and per rank on both sides of the deck,
+ * the hand sizes of the others (summarised so the length does not depend on the player count), the active
+ * color, the direction, the side in play, the size of the draw pile and whether the seat moves again next.
+ * Counts are scaled down by ten.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public final class UnoFeatures {
+    private static final UnoRank[] RANKS = UnoRank.values();
+    private static final int PER_SIDE = 5 + RANKS.length; // Four side colors, wilds, then every rank
+    private static final int OWN = 0;
+    private static final int OPPONENTS = OWN + 2 * PER_SIDE + 3;
+    private static final int TABLE = OPPONENTS + 6;
+
+    /** Number of features. */
+    public static final int SIZE = TABLE + 4 + 4;
+
+    private UnoFeatures() { }
+
+    /**
+     * Writes the features of a position into an array.
+     * @param model The game.
+     * @param seat The seat whose view is described.
+     * @param out The array to write to.
+     * @param offset Where the SIZE features start.
+     */
+    public static void extract(UnoModel model, int seat, double[] out, int offset) {
+        java.util.Arrays.fill(out, offset, offset + SIZE, 0);
+        boolean dark = model.isDark();
+        UnoHand hand = model.getPlayer(seat).hand;
+
+        // Own hand on both sides
+        for (int side = 0; side < 2; side++) {
+            int base = offset + OWN + side * PER_SIDE;
+            UnoColor[] colors = UnoColor.sideColors(side == 1);
+            for (int c = 0; c < 4; c++) out[base + c] = hand.countColor(side == 1, colors[c]) / 10.0;
+            out[base + 4] = hand.countColor(side == 1, UnoColor.WILD) / 10.0;
+            for (UnoRank r : RANKS) out[base + 5 + r.ordinal()] = hand.countRank(side == 1, r) / 10.0;
+        }
+        UnoCard top = model.getDiscardTop();
+        out[offset + OWN + 2 * PER_SIDE] = hand.size() / 10.0;
+        out[offset + OWN + 2 * PER_SIDE + 1] = hand.countColor(dark, model.getActiveColor()) / 10.0;
+        out[offset + OWN + 2 * PER_SIDE + 2] = top == null ? 0 : hand.countRank(dark, top.getRank(dark)) / 10.0;
+
+        // Opponents, in turn order from this seat
+        int n = model.getPlayerCount();
+        int dir = model.getDirection();
+        int next = model.getPlayer(model.properIndex(seat + dir)).hand.size();
+        int prev = model.getPlayer(model.properIndex(seat - dir)).hand.size();
+        int min = Integer.MAX_VALUE;
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == seat) continue;
+            int size = model.getPlayer(i).hand.size();
+            min = Math.min(min, size);
+            total += size;
+        }
+        int o = offset + OPPONENTS;
+        out[o] = next / 10.0;
+        out[o + 1] = prev / 10.0;
+        out[o + 2] = min / 10.0;
+        out[o + 3] = total / (10.0 * (n - 1));
+        out[o + 4] = next == 1 ? 1 : 0;
+        out[o + 5] = min == 1 ? 1 : 0;
+
+        // Table: active color as one of the four side colors, then direction, side and draw pile
+        int t = offset + TABLE;
+        List<UnoColor> colors = List.of(UnoColor.sideColors(dark));
+        int active = colors.indexOf(model.getActiveColor());
+        if (active >= 0) out[t + active] = 1;
+        out[t + 4] = dir;
+        out[t + 5] = dark ? 1 : 0;
+        out[t + 6] = model.getDrawPileSize() / 100.0;
+        out[t + 7] = model.getNextSeat() == seat ? 1 : 0; // Skips and the like give another turn
+    }
+
+    /**
+     * Extracts the features of a position into a new array.
+     * @param model The game.
+     * @param seat The seat whose view is described.
+     * @return The SIZE features.
+     */
+    public static double[] extract(UnoModel model, int seat) {
+        double[] out = new double[SIZE];
+        extract(model, seat, out, 0);
+        return out;
+    }
+}
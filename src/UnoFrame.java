@@ -2,6 +2,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 /**
  * Main GUI frame for the Uno game. Handles all visual display and updates from the model.
  * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
@@ -12,23 +13,57 @@ public class UnoFrame extends JFrame implements UnoView {
     private final JLabel labelTopCard = new JLabel("Top: -", SwingConstants.CENTER);
     private final JLabel labelPlayer = new JLabel("Player: -", SwingConstants.CENTER);
     private final JLabel labelInfo = new JLabel(" ", SwingConstants.CENTER);
-    private final JPanel handPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 8, 8));
+    private final UnoCardCanvas handCanvas = new UnoCardCanvas(this);
     private final JButton buttonDraw = new JButton("Draw");
     private final JButton buttonNext = new JButton("Next Player");
+    private final JButton buttonUndo = new JButton("Undo");
+    private final JButton buttonRedo = new JButton("Redo");
+    private final JCheckBox checkFastForward = new JCheckBox("Fast-forward AI");
+    private final JCheckBox checkSortHand = new JCheckBox("Sort hand");
+    private final JCheckBox checkHints = new JCheckBox("Hints");
+    private final UnoHintPanel hintPanel = new UnoHintPanel();
+    private final JButton buttonReview = new JButton("Review");
+    private final JSlider scrubber = new JSlider(0, 0, 0);
+    private final JLabel labelStep = new JLabel(" ", SwingConstants.CENTER);
+    private final JButton buttonBack = new JButton("Back to game");
+    private final JPanel reviewBar = new JPanel(new BorderLayout());
     private final JPanel contentPane;
 
-    // Controller
-    private final UnoController controller;
+    // Delay between AI actions so human players can follow them
+    private static final long AI_PACING_MILLIS = 600;
+    // Hints keep getting more precise for this long while the player thinks
+    private static final long HINT_BUDGET_MILLIS = 30_000;
+    // Commands between full copies of the game in the recording, seeking replays fewer than this
+    private static final int KEYFRAME_INTERVAL = 16;
+
+    // Controller, created once the model is ready
+    private UnoController controller;
+    private UnoAiScheduler scheduler;
+    private UnoModel model;
+    private UnoHintService hints; // Started when hints are first shown
+    private UnoReplay replay;
+    private boolean reviewing = false; // Showing recorded steps instead of the game
+    private UnoEvent lastEvent; // The latest update from the game itself
+    private volatile int hintGeneration = 0; // Read by hint tasks on the AI thread
     private boolean isDark = false;
 
     /**
-     * Constructor for UnoFrame.
+     * Constructor for UnoFrame. Asks for the players with dialogs before showing the table.
      * @param title title of UnoFrame instance.
      */
     public UnoFrame(String title) {
+        this(title, new ArrayList<>());
+    }
+
+    /**
+     * Constructor for UnoFrame that reports the game to listeners, such as a stats store. Asks for the players
+     * with dialogs before showing the table.
+     * @param title title of UnoFrame instance.
+     * @param listeners Listeners added to the game before it starts.
+     */
+    public UnoFrame(String title, List<UnoGameListener> listeners) {
         super(title);
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setSize(1000, 700);
+        contentPane = buildContent();
 
         // Ask how many players will play
         int num = askPlayerCount();
@@ -45,9 +80,39 @@ public class UnoFrame extends JFrame implements UnoView {
             isAI.add(aiCheck.isSelected());
         }
 
-        // Init model and controller
-        UnoModel model = new UnoModel(num, names, isAI);
-        controller = new UnoController(model, this);
+        UnoModel m = new UnoModel(num, names, isAI);
+        for (UnoGameListener l : listeners) m.addGameListener(l);
+        attach(m);
+        setVisible(true);
+    }
+
+    /**
+     * Constructor for UnoFrame with a model that is still being built.
+     * The frame is shown right away and attaches to the model once it is ready.
+     * @param title title of UnoFrame instance.
+     * @param pendingModel The model being built in the background.
+     */
+    public UnoFrame(String title, CompletableFuture<UnoModel> pendingModel) {
+        super(title);
+        contentPane = buildContent();
+        labelInfo.setText("Dealing...");
+        buttonDraw.setEnabled(false);
+        buttonNext.setEnabled(false);
+        setVisible(true);
+
+        pendingModel.whenComplete((model, ex) -> SwingUtilities.invokeLater(() -> {
+            if (ex != null) {
+                showInfo("Could not start game: " + ex.getMessage());
+                return;
+            }
+            attach(model);
+        }));
+    }
+
+    // Builds the component tree, it is not wired to a game yet
+    private JPanel buildContent() {
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setSize(1000, 700);
 
         // North Panel: Game state
         JPanel north = new JPanel(new GridLayout(2, 1));
@@ -57,31 +122,86 @@ public class UnoFrame extends JFrame implements UnoView {
         stats.add(labelInfo);
         north.add(stats);
 
+        // Review bar: a scrubber over every recorded step, shown while reviewing
+        scrubber.addChangeListener(ev -> {
+            if (reviewing) showStep(scrubber.getValue());
+        });
+        buttonBack.addActionListener(ev -> stopReview());
+        buttonReview.addActionListener(ev -> startReview());
+        buttonReview.setEnabled(false);
+        reviewBar.add(labelStep, BorderLayout.WEST);
+        reviewBar.add(scrubber, BorderLayout.CENTER);
+        reviewBar.add(buttonBack, BorderLayout.EAST);
+        reviewBar.setVisible(false);
+        north.add(reviewBar);
+
         // South Panel: Control buttons
         JPanel south = new JPanel();
         buttonDraw.setActionCommand("DRAW");
-        buttonDraw.addActionListener(controller);
         buttonNext.setActionCommand("NEXT");
-        buttonNext.addActionListener(controller);
+        buttonUndo.setActionCommand("UNDO");
+        buttonRedo.setActionCommand("REDO");
         south.add(buttonDraw);
         south.add(buttonNext);
+        south.add(buttonUndo);
+        south.add(buttonRedo);
+        south.add(checkFastForward);
+        south.add(checkSortHand);
+        south.add(checkHints);
+        south.add(buttonReview);
+        checkSortHand.addActionListener(ev -> {
+            if (model != null) model.setSortedHands(checkSortHand.isSelected());
+            handCanvas.setSorted(checkSortHand.isSelected());
+        });
+        hintPanel.setVisible(false);
+        checkHints.addActionListener(ev -> {
+            hintPanel.setVisible(checkHints.isSelected());
+            revalidate();
+            if (lastEvent != null) refreshHints(lastEvent);
+        });
 
-        contentPane = new JPanel(new BorderLayout());
-        contentPane.add(north, BorderLayout.NORTH);
-        contentPane.add(new JScrollPane(handPanel), BorderLayout.CENTER);
-        contentPane.add(south, BorderLayout.SOUTH);
+        JPanel content = new JPanel(new BorderLayout());
+        content.add(north, BorderLayout.NORTH);
+        content.add(new JScrollPane(handCanvas), BorderLayout.CENTER);
+        content.add(south, BorderLayout.SOUTH);
+        content.add(hintPanel, BorderLayout.EAST);
 
-        setContentPane(contentPane);
+        setContentPane(content);
         setLocationRelativeTo(null);
+        return content;
+    }
 
-        model.addView(this);
+    // Init controller and AI scheduler for the model and start showing it
+    private void attach(UnoModel model) {
+        this.model = model;
+        model.setSortedHands(checkSortHand.isSelected());
+        controller = new UnoController(model, this);
+        scheduler = new UnoAiScheduler(model, AI_PACING_MILLIS);
+        controller.setAiScheduler(scheduler);
+        handCanvas.setActionListener(ev -> {
+            if (!reviewing) controller.actionPerformed(ev); // Cards shown in review are not in play
+        });
+        buttonDraw.addActionListener(controller);
+        buttonNext.addActionListener(controller);
+        buttonUndo.addActionListener(controller);
+        buttonRedo.addActionListener(controller);
+        checkFastForward.addActionListener(ev -> {
+            // The run sends no updates until it ends, so the table cannot be used until then
+            if (checkFastForward.isSelected() && lastEvent != null && lastEvent.isAIPlayer()) disableInput();
+            scheduler.setFastForward(checkFastForward.isSelected());
+        });
 
-        setVisible(true);
+        model.setHistoryEnabled(true);
+        replay = model.recordReplay(KEYFRAME_INTERVAL);
+        buttonReview.setEnabled(true);
+        model.addView(this);
+        scheduler.kick(); // The first player may be an AI
     }
 
     // Moved asking player count to private helper method
     private int askPlayerCount() {
-        String s = JOptionPane.showInputDialog(this, "Number of Players (2-4):", "2");
+        String s = JOptionPane.showInputDialog(this,
+                "Number of Players (" + UnoModel.MIN_PLAYERS + "-" + UnoModel.MAX_PLAYERS + "):", "2");
         try { return Integer.parseInt(s); } catch(Exception e) { return 2; }
     }
 
@@ -91,9 +211,20 @@ public class UnoFrame extends JFrame implements UnoView {
      */
     @Override
     public void handleUpdate(UnoEvent e) {
+        // AI turns are played off the event thread, post their results back to it
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> handleUpdate(e));
+            return;
+        }
+        boolean live = e.getSource() == model;
+        if (live) lastEvent = e;
+        if (reviewing && live) {
+            scrubber.setMaximum(replay.getSteps()); // Keep the game going underneath, shown again after review
+            return;
+        }
         this.isDark = e.isDark();
         Color bgColor = isDark ? new Color(50, 0, 50) : new Color(240, 240, 240); // Dark purple vs White
-        handPanel.setBackground(bgColor);
+        handCanvas.setBackground(bgColor);
         if (contentPane != null) contentPane.setBackground(bgColor);
 
         // Update labels
@@ -101,39 +232,82 @@ public class UnoFrame extends JFrame implements UnoView {
         labelPlayer.setText("Turn: " + e.getCurrentPlayerName() + (e.isAIPlayer() ? " (AI)" : ""));
         labelInfo.setText(e.getInfo());
 
-        // Refresh hand panel
-        handPanel.removeAll();
-        List<UnoCard> currentHand = e.getHand();
-        for (int i = 0; i < currentHand.size(); i++) {
-            UnoCard c = currentHand.get(i);
-            JButton b = new JButton(c.toText(isDark));
-            b.setBackground(mapCardColor(c.getColor(isDark)));
-            b.setForeground(isDark ? Color.WHITE : Color.BLACK);
-            b.setActionCommand("PLAY:" + i);
-            b.addActionListener(controller);
-            b.setEnabled(!e.isMustPressNext() && !e.isAIPlayer()); // Disable hand if AI turn
-            handPanel.add(b);
-        }
+        // Refresh table, the canvas only repaints the cards that changed
+        handCanvas.update(e);
 
         // Button Logic
-        if (e.isAIPlayer()) {
-            buttonDraw.setEnabled(false);
-            if (e.isMustPressNext()) {
-                buttonNext.setText("Next Player");
-            } else {
-                buttonNext.setText("Run AI Turn");
-            }
-            buttonNext.setEnabled(true);
-
+        if (reviewing) {
+            disableInput();
+            hintPanel.clear();
+            return;
+        } else if (e.isAIPlayer()) {
+            // AI seats are played by the scheduler
+            disableInput();
+            buttonNext.setText("AI playing...");
         } else {
             buttonDraw.setEnabled(!e.isMustPressNext());
             buttonNext.setText("Next Player");
             buttonNext.setEnabled(e.isMustPressNext());
+            buttonUndo.setEnabled(true);
+            buttonRedo.setEnabled(true);
         }
+        refreshHints(e);
+    }
+
+    // Turns off every game control until the next update turns the right ones back on
+    private void disableInput() {
+        buttonDraw.setEnabled(false);
+        buttonNext.setEnabled(false);
+        buttonUndo.setEnabled(false);
+        buttonRedo.setEnabled(false);
+        handCanvas.disableHand();
+    }
+
+    // Shows the recording from the latest step; the scrubber then drives the view
+    private void startReview() {
+        if (replay == null) return;
+        hintGeneration++; // Reports still on their way are ignored
+        if (hints != null) hints.cancel();
+        reviewing = true;
+        int last = replay.getSteps();
+        scrubber.setMaximum(last);
+        scrubber.setValue(last);
+        reviewBar.setVisible(true);
+        buttonReview.setEnabled(false);
+        revalidate();
+        showStep(last);
+    }
 
-        // Repaint and revalidate hand
-        handPanel.revalidate();
-        handPanel.repaint();
+    private void showStep(int step) {
+        labelStep.setText(" Step " + step + " / " + replay.getSteps() + " ");
+        handleUpdate(replay.eventAt(step));
+    }
+
+    private void stopReview() {
+        reviewing = false;
+        reviewBar.setVisible(false);
+        buttonReview.setEnabled(true);
+        revalidate();
+        if (lastEvent != null) handleUpdate(lastEvent);
+    }
+
+    // Analyses the position for a human player; any earlier analysis is stopped and its late reports ignored
+    private void refreshHints(UnoEvent e) {
+        int generation = ++hintGeneration;
+        if (hints != null) hints.cancel();
+        hintPanel.clear();
+        if (!checkHints.isSelected() || model == null || e.isAIPlayer() || e.isMustPressNext()) return;
+        if (hints == null) hints = new UnoHintService();
+        UnoHintService service = hints;
+        scheduler.submit(() -> { // Copied on the AI thread, the event thread never waits for the model
+            synchronized (model) {
+                // The game moved on since this update
+                if (generation != hintGeneration || model.isGameOver() || model.isCurrentPlayerAI()) return;
+                service.analyze(model, HINT_BUDGET_MILLIS, h -> SwingUtilities.invokeLater(() -> {
+                    if (generation == hintGeneration) hintPanel.showHints(h);
+                }));
+            }
+        });
     }
 
     /**
@@ -142,7 +316,19 @@ public class UnoFrame extends JFrame implements UnoView {
      */
     @Override
     public void handleEnd(String message) {
-        JOptionPane.showMessageDialog(this, message, "Game Over", JOptionPane.INFORMATION_MESSAGE);
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> handleEnd(message));
+            return;
+        }
+        if (scheduler != null) scheduler.shutdown();
+        if (hints != null) hints.close();
+        int choice = replay == null ? JOptionPane.NO_OPTION : JOptionPane.showConfirmDialog(this,
+                message + "\nReview the game?", "Game Over", JOptionPane.YES_NO_OPTION, JOptionPane.INFORMATION_MESSAGE);
+        if (choice == JOptionPane.YES_OPTION) {
+            startReview();
+            buttonBack.setVisible(false); // Nothing to go back to, closing the window quits
+            return;
+        }
         dispose();
         System.exit(0);
     }
@@ -153,6 +339,19 @@ public class UnoFrame extends JFrame implements UnoView {
      */
     @Override
     public UnoColor promptForWildColor() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            // Commands run on the AI thread, ask on the event thread and wait for the answer
+            UnoColor[] answer = new UnoColor[1];
+            try {
+                SwingUtilities.invokeAndWait(() -> answer[0] = promptForWildColor());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return UnoColor.NONE;
+            } catch (java.lang.reflect.InvocationTargetException ex) {
+                return UnoColor.NONE;
+            }
+            return answer[0];
+        }
         UnoColor[] opts = isDark ?
                 new UnoColor[]{UnoColor.TEAL, UnoColor.PINK, UnoColor.PURPLE, UnoColor.ORANGE} :
                 new UnoColor[]{UnoColor.RED, UnoColor.GREEN, UnoColor.BLUE, UnoColor.YELLOW};
@@ -168,6 +367,10 @@ public class UnoFrame extends JFrame implements UnoView {
      */
     @Override
     public void showInfo(String message) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> showInfo(message));
+            return;
+        }
         JOptionPane.showMessageDialog(this, message, "Info", JOptionPane.INFORMATION_MESSAGE);
     }
 
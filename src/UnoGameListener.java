@@ -0,0 +1,59 @@
+/**
+ * Listener interface for rule engine events such as cards moving between piles and hands.
+ * Unlike UnoView, listeners are told about every card movement, including cards other
+ * players draw, so implementations must only look at what their seat is allowed to see.
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public interface UnoGameListener {
+
+    /**
+     * Called when a player plays a card onto the discard pile.
+     * @param seat The seat that played the card.
+     * @param card The card played.
+     */
+    default void cardPlayed(int seat, UnoCard card) { }
+
+    /**
+     * Called when a card is drawn into a player's hand.
+     * @param seat The seat that drew the card.
+     * @param card The card drawn.
+     */
+    default void cardDrawn(int seat, UnoCard card) { }
+
+    /**
+     * Called when a player chooses to draw instead of playing a card.
+     * @param seat The seat that drew.
+     * @param activeColor The active color at the time of the draw.
+     * @param topRank The rank of the top discard card at the time of the draw.
+     */
+    default void drewInsteadOfPlaying(int seat, UnoColor activeColor, UnoRank topRank) { }
+
+    /**
+     * Called when a Flip card switches the game to the other side.
+     * @param isDark True if the game is now on the dark side.
+     */
+    default void sideFlipped(boolean isDark) { }
+
+    /**
+     * Called when the discard pile (except its top card) is shuffled back into the draw pile.
+     */
+    default void pileRecycled() { }
+
+    /**
+     * Called after every play or draw, once the card's effect is done.
+     * @param seat The seat that moved.
+     * @param card The card played, or null if the player drew instead.
+     * @param activeColor The active color after the move.
+     * @param isDark True if the card was played on the dark side.
+     * @param victimDraws Cards other players had to draw because of the move.
+     * @param handSize Cards left in the mover's hand.
+     */
+    default void moveMade(int seat, UnoCard card, UnoColor activeColor, boolean isDark, int victimDraws, int handSize) { }
+
+    /**
+     * Called once when a player wins, before the views are told the game has ended.
+     * @param result The final outcome of the game.
+     */
+    default void gameEnded(UnoGameResult result) { }
+}
@@ -0,0 +1,93 @@
+import java.util.List;
+/**
+ * Final outcome of a finished game, as passed to UnoGameListener.gameEnded.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoGameResult {
+    private final List<String> names;
+    private final int winner;
+    private final int score;
+    private final int[] handPoints;
+    private final int[] handSizes;
+    private final int[] cardsDrawn;
+
+    /**
+     * Constructor for UnoGameResult.
+     * @param names The player names, in seat order.
+     * @param winner The seat of the winner.
+     * @param score The winner's score, the points left in every other hand.
+     * @param handPoints Points left in each hand at the end.
+     * @param handSizes Cards left in each hand at the end.
+     * @param cardsDrawn Cards each seat drew during the game.
+     */
+    public UnoGameResult(List<String> names, int winner, int score, int[] handPoints, int[] handSizes,
+                         int[] cardsDrawn) {
+        this.names = List.copyOf(names);
+        this.winner = winner;
+        this.score = score;
+        this.handPoints = handPoints.clone();
+        this.handSizes = handSizes.clone();
+        this.cardsDrawn = cardsDrawn.clone();
+    }
+
+    /**
+     * Gets the number of players.
+     * @return The number of seats.
+     */
+    public int getPlayerCount() {
+        return names.size();
+    }
+
+    /**
+     * Gets a player's name.
+     * @param seat The seat index.
+     * @return The name.
+     */
+    public String getName(int seat) {
+        return names.get(seat);
+    }
+
+    /**
+     * Gets the seat of the winner.
+     * @return The winning seat.
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Gets the winner's score.
+     * @return The score.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the points a seat held at the end; fewer points means a better finish.
+     * @param seat The seat index.
+     * @return The hand points, 0 for the winner.
+     */
+    public int getHandPoints(int seat) {
+        return handPoints[seat];
+    }
+
+    /**
+     * Gets the number of cards a seat held at the end.
+     * @param seat The seat index.
+     * @return The hand size.
+     */
+    public int getHandSize(int seat) {
+        return handSizes[seat];
+    }
+
+    /**
+     * Gets the number of cards a seat drew during the game.
+     * @param seat The seat index.
+     * @return The number of cards drawn.
+     */
+    public int getCardsDrawn(int seat) {
+        return cardsDrawn[seat];
+    }
+}
@@ -0,0 +1,280 @@
+import java.util.*;
+/**
+ * A player's hand. It is a list in draw order, so hand indexes work as before, and it also keeps the cards
+ * sorted by color and rank for both sides of the deck at once, plus per-side color, rank and face counts and how
+ * many cards pair each light color with each dark color.
+ * Every add or remove updates the index in O(log n), so a Flip needs no re-sorting: it just reads the other side.
+ * Each card has a sequence number, and the numbers rise along the hand, so the hand index of a card found in the
+ * sorted index is a binary search away.
+ * <p>
+ * The cards are kept copy-on-write: {@link #snapshot()} hands out the current array behind a read-only list in O(1),
+ * and only the next change copies it, so taking snapshots more often than the hand changes costs nothing.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoHand extends AbstractList<UnoCard> implements RandomAccess {
+    private static final int RANKS = UnoRank.values().length;
+    private static final int COLORS = UnoColor.values().length;
+    private static final int SEQ_BITS = 40;
+    private static final long SEQ_GAP = 1L << 12; // Between the numbers of neighbouring cards after a renumbering
+
+    private UnoCard[] cards = new UnoCard[8];
+    private int size = 0;
+    private Snapshot snapshot; // Shares the cards array until the next change
+    private long[] seqs = new long[8]; // Sequence number of each card, parallel to cards and rising along it
+    private final List<TreeMap<Long, UnoCard>> sorted = List.of(new TreeMap<>(), new TreeMap<>());
+    private final int[][] order = new int[2][]; // Sorted order per side, until the next change
+    private final int[][] colorCount = new int[2][COLORS];
+    private final int[][] rankCount = new int[2][RANKS];
+    private final int[][][] faceCount = new int[2][COLORS][RANKS];
+    private final int[][] pairCount = new int[COLORS][COLORS]; // [light color][dark color]
+
+    @Override
+    public UnoCard get(int index) {
+        Objects.checkIndex(index, size);
+        return cards[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(int index, UnoCard card) {
+        Objects.checkIndex(index, size + 1);
+        long seq = seqBefore(index);
+        if (seq < 0) {
+            renumber();
+            seq = seqBefore(index);
+        }
+        unshare(size + 1);
+        System.arraycopy(cards, index, cards, index + 1, size - index);
+        cards[index] = card;
+        if (seqs.length < cards.length) seqs = Arrays.copyOf(seqs, cards.length);
+        System.arraycopy(seqs, index, seqs, index + 1, size - index);
+        seqs[index] = seq;
+        size++;
+        index(card, seq);
+        modCount++;
+    }
+
+    @Override
+    public UnoCard remove(int index) {
+        Objects.checkIndex(index, size);
+        unshare(size);
+        UnoCard card = cards[index];
+        long seq = seqs[index];
+        System.arraycopy(cards, index + 1, cards, index, size - index - 1);
+        System.arraycopy(seqs, index + 1, seqs, index, size - index - 1);
+        cards[--size] = null;
+        unindex(card, seq);
+        modCount++;
+        return card;
+    }
+
+    @Override
+    public UnoCard set(int index, UnoCard card) {
+        Objects.checkIndex(index, size);
+        unshare(size);
+        UnoCard old = cards[index];
+        cards[index] = card;
+        unindex(old, seqs[index]);
+        index(card, seqs[index]); // Same place, so the same number
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        if (snapshot != null) {
+            cards = new UnoCard[cards.length];
+            snapshot = null;
+        } else {
+            Arrays.fill(cards, 0, size, null);
+        }
+        size = 0;
+        order[0] = order[1] = null;
+        for (int side = 0; side < 2; side++) {
+            sorted.get(side).clear();
+            Arrays.fill(colorCount[side], 0);
+            Arrays.fill(rankCount[side], 0);
+            for (int[] counts : faceCount[side]) Arrays.fill(counts, 0);
+        }
+        for (int[] counts : pairCount) Arrays.fill(counts, 0);
+        modCount++;
+    }
+
+    /**
+     * Gets a read-only copy of the hand as it is now. Later changes to the hand do not show in it.
+     * @return The cards in hand order; the same list is returned until the hand changes.
+     */
+    public List<UnoCard> snapshot() {
+        if (snapshot == null) snapshot = new Snapshot(cards, size);
+        return snapshot;
+    }
+
+    // Before a change: give up the array if a snapshot holds it, and make room for the new size
+    private void unshare(int newSize) {
+        int capacity = newSize > cards.length ? Math.max(newSize, cards.length * 2) : cards.length;
+        if (snapshot != null || capacity != cards.length) cards = Arrays.copyOf(cards, capacity);
+        snapshot = null;
+        order[0] = order[1] = null;
+    }
+
+    /**
+     * Counts the cards of a color.
+     * @param isDark True to look at the dark side.
+     * @param color The color.
+     * @return The number of cards showing that color on that side.
+     */
+    public int countColor(boolean isDark, UnoColor color) {
+        return colorCount[isDark ? 1 : 0][color.ordinal()];
+    }
+
+    /**
+     * Counts the cards of a rank.
+     * @param isDark True to look at the dark side.
+     * @param rank The rank.
+     * @return The number of cards showing that rank on that side.
+     */
+    public int countRank(boolean isDark, UnoRank rank) {
+        return rankCount[isDark ? 1 : 0][rank.ordinal()];
+    }
+
+    /**
+     * Counts the cards showing one face.
+     * @param isDark True to look at the dark side.
+     * @param color The color.
+     * @param rank The rank.
+     * @return The number of cards showing that color and rank on that side.
+     */
+    public int countFace(boolean isDark, UnoColor color, UnoRank rank) {
+        return faceCount[isDark ? 1 : 0][color.ordinal()][rank.ordinal()];
+    }
+
+    /**
+     * Counts the cards with one color on the light side and another on the dark side, which tells how the
+     * colors of the hand come apart or stay together when the deck flips.
+     * @param light The light side color.
+     * @param dark The dark side color.
+     * @return The number of cards with both colors.
+     */
+    public int countPair(UnoColor light, UnoColor dark) {
+        return pairCount[light.ordinal()][dark.ordinal()];
+    }
+
+    /**
+     * Finds the first card showing one face.
+     * @param isDark True to look at the dark side.
+     * @param color The color.
+     * @param rank The rank.
+     * @return The hand index of the first such card, or -1 if there is none.
+     */
+    public int indexOf(boolean isDark, UnoColor color, UnoRank rank) {
+        if (countFace(isDark, color, rank) == 0) return -1;
+        long first = sorted.get(isDark ? 1 : 0).ceilingKey(key(color, rank, 0)); // Lowest number, so first in hand
+        return position(first & ((1L << SEQ_BITS) - 1));
+    }
+
+    /**
+     * Gets the hand sorted by color and then rank.
+     * @param isDark True to sort by the dark side.
+     * @return A read-only view that follows later changes to the hand.
+     */
+    public Collection<UnoCard> sorted(boolean isDark) {
+        return Collections.unmodifiableCollection(sorted.get(isDark ? 1 : 0).values());
+    }
+
+    /**
+     * Gets the hand indexes in sorted order, for showing a sorted hand while playing by index.
+     * @param isDark True to sort by the dark side.
+     * @return For each position in sorted order, the index of that card in the hand; the same array is returned
+     * until the hand changes, so it must not be modified.
+     */
+    public int[] sortedOrder(boolean isDark) {
+        int side = isDark ? 1 : 0;
+        if (order[side] == null) {
+            int[] result = new int[size];
+            int k = 0;
+            for (long key : sorted.get(side).keySet()) result[k++] = position(key & ((1L << SEQ_BITS) - 1));
+            order[side] = result;
+        }
+        return order[side];
+    }
+
+    // The hand index of the card with a sequence number
+    private int position(long seq) {
+        return Arrays.binarySearch(seqs, 0, size, seq);
+    }
+
+    // A number between the cards either side of an index, or -1 if they are too close and need renumbering
+    private long seqBefore(int index) {
+        long lo = index > 0 ? seqs[index - 1] : -1;
+        long seq = index < size ? lo + (seqs[index] - lo) / 2 : lo + SEQ_GAP;
+        return seq > lo && seq < 1L << SEQ_BITS ? seq : -1;
+    }
+
+    // Spreads the numbers out evenly again; only inserts into one narrow gap or a very long game need it
+    private void renumber() {
+        for (int side = 0; side < 2; side++) sorted.get(side).clear();
+        for (int i = 0; i < size; i++) {
+            seqs[i] = (i + 1) * SEQ_GAP;
+            for (int side = 0; side < 2; side++) {
+                sorted.get(side).put(key(cards[i].getColor(side == 1), cards[i].getRank(side == 1), seqs[i]), cards[i]);
+            }
+        }
+    }
+
+    private void index(UnoCard card, long seq) {
+        for (int side = 0; side < 2; side++) {
+            UnoColor color = card.getColor(side == 1);
+            UnoRank rank = card.getRank(side == 1);
+            sorted.get(side).put(key(color, rank, seq), card);
+            colorCount[side][color.ordinal()]++;
+            rankCount[side][rank.ordinal()]++;
+            faceCount[side][color.ordinal()][rank.ordinal()]++;
+        }
+        pairCount[card.getColor(false).ordinal()][card.getColor(true).ordinal()]++;
+    }
+
+    private void unindex(UnoCard card, long seq) {
+        for (int side = 0; side < 2; side++) {
+            UnoColor color = card.getColor(side == 1);
+            UnoRank rank = card.getRank(side == 1);
+            sorted.get(side).remove(key(color, rank, seq));
+            colorCount[side][color.ordinal()]--;
+            rankCount[side][rank.ordinal()]--;
+            faceCount[side][color.ordinal()][rank.ordinal()]--;
+        }
+        pairCount[card.getColor(false).ordinal()][card.getColor(true).ordinal()]--;
+    }
+
+    // Face in the high bits, sequence number in the low bits, so equal cards stay apart and in hand order
+    private static long key(UnoColor color, UnoRank rank, long seq) {
+        return ((long) (color.ordinal() * RANKS + rank.ordinal()) << SEQ_BITS) | seq;
+    }
+
+    /**
+     * The hand at one moment. It reads the array the hand had then, which the hand never writes to again.
+     */
+    private static final class Snapshot extends AbstractList<UnoCard> implements RandomAccess {
+        private final UnoCard[] cards;
+        private final int size;
+
+        Snapshot(UnoCard[] cards, int size) {
+            this.cards = cards;
+            this.size = size;
+        }
+
+        @Override
+        public UnoCard get(int index) {
+            Objects.checkIndex(index, size);
+            return cards[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.*;
+/**
+ * Test class for the indexed hand
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoHandTest {
+    private final UnoCard redNine = new UnoCard(UnoColor.RED, UnoRank.NINE, UnoColor.TEAL, UnoRank.TWO);
+    private final UnoCard blueOne = new UnoCard(UnoColor.BLUE, UnoRank.ONE, UnoColor.PINK, UnoRank.SKIP);
+    private final UnoCard redTwo = new UnoCard(UnoColor.RED, UnoRank.TWO, UnoColor.PINK, UnoRank.ONE);
+
+    /**
+     * Tests that the hand keeps draw order while both sides stay sorted.
+     */
+    @Test
+    public void testSortedBothSides() {
+        UnoHand hand = new UnoHand();
+        hand.addAll(Arrays.asList(redNine, blueOne, redTwo));
+        assertEquals(List.of(redNine, blueOne, redTwo), hand);
+        assertEquals(List.of(redTwo, redNine, blueOne), new ArrayList<>(hand.sorted(false)));
+        assertEquals(List.of(redTwo, blueOne, redNine), new ArrayList<>(hand.sorted(true)));
+        assertArrayEquals(new int[]{2, 0, 1}, hand.sortedOrder(false));
+        assertArrayEquals(new int[]{2, 1, 0}, hand.sortedOrder(true));
+    }
+
+    /**
+     * Tests that counts follow adds, removes and replacements.
+     */
+    @Test
+    public void testCounts() {
+        UnoHand hand = new UnoHand();
+        hand.addAll(Arrays.asList(redNine, blueOne, redTwo));
+        assertEquals(2, hand.countColor(false, UnoColor.RED));
+        assertEquals(2, hand.countColor(true, UnoColor.PINK));
+        assertEquals(2, hand.countRank(true, UnoRank.ONE) + hand.countRank(true, UnoRank.TWO));
+
+        assertSame(redNine, hand.remove(0));
+        assertEquals(1, hand.countColor(false, UnoColor.RED));
+        assertEquals(0, hand.countColor(true, UnoColor.TEAL));
+
+        hand.set(0, redNine);
+        assertEquals(List.of(redNine, redTwo), hand);
+        assertEquals(0, hand.countColor(false, UnoColor.BLUE));
+        assertEquals(List.of(redTwo, redNine), new ArrayList<>(hand.sorted(false)));
+
+        hand.clear();
+        assertTrue(hand.isEmpty());
+        assertEquals(0, hand.countColor(false, UnoColor.RED));
+        assertTrue(hand.sorted(true).isEmpty());
+    }
+
+    /**
+     * Tests that the same card twice is kept twice.
+     */
+    @Test
+    public void testDuplicates() {
+        UnoHand hand = new UnoHand();
+        hand.add(redTwo);
+        hand.add(redTwo);
+        assertEquals(2, hand.sorted(false).size());
+        hand.remove(1);
+        assertEquals(1, hand.sorted(false).size());
+        assertEquals(1, hand.countColor(false, UnoColor.RED));
+    }
+
+    /**
+     * Tests the index against a plain sort after many random changes to a real deck.
+     */
+    @Test
+    public void testRandomChanges() {
+        List<UnoCard> deck = new ArrayList<>();
+        UnoModel.buildFlipDeck(deck);
+        UnoHand hand = new UnoHand();
+        Random rng = new Random(4);
+        for (int step = 0; step < 2000; step++) {
+            if (hand.isEmpty() || rng.nextInt(3) > 0) hand.add(rng.nextInt(hand.size() + 1), deck.get(rng.nextInt(deck.size())));
+            else hand.remove(rng.nextInt(hand.size()));
+        }
+        for (boolean dark : new boolean[]{false, true}) {
+            int[] order = hand.sortedOrder(dark);
+            for (int i = 1; i < order.length; i++) {
+                UnoCard a = hand.get(order[i - 1]);
+                UnoCard b = hand.get(order[i]);
+                int faceA = a.getColor(dark).ordinal() * 100 + a.getRank(dark).ordinal();
+                int faceB = b.getColor(dark).ordinal() * 100 + b.getRank(dark).ordinal();
+                assertTrue(faceA <= faceB);
+            }
+            for (UnoColor c : UnoColor.values()) {
+                int n = 0;
+                for (UnoCard card : hand) if (card.getColor(dark) == c) n++;
+                assertEquals(n, hand.countColor(dark, c));
+                for (UnoRank r : UnoRank.values()) {
+                    int face = 0, first = -1;
+                    for (int i = 0; i < hand.size(); i++) {
+                        if (hand.get(i).getColor(dark) != c || hand.get(i).getRank(dark) != r) continue;
+                        if (first < 0) first = i;
+                        face++;
+                    }
+                    assertEquals(face, hand.countFace(dark, c, r));
+                    assertEquals(first, hand.indexOf(dark, c, r));
+                }
+            }
+        }
+        for (UnoColor light : UnoColor.values()) {
+            for (UnoColor dark : UnoColor.values()) {
+                int n = 0;
+                for (UnoCard card : hand) if (card.getColor(false) == light && card.getColor(true) == dark) n++;
+                assertEquals(n, hand.countPair(light, dark));
+            }
+        }
+    }
+
+    /**
+     * Tests that finding a face stays right when cards keep going in at the front and in the middle, which uses
+     * up the room between sequence numbers and makes the hand renumber its cards.
+     */
+    @Test
+    public void testIndexOfAfterRenumbering() {
+        UnoHand hand = new UnoHand();
+        hand.add(redNine);
+        for (int i = 0; i < 100; i++) {
+            hand.add(0, blueOne);
+            hand.add(hand.size() / 2, blueOne);
+        }
+        assertEquals(hand.size() - 1, hand.indexOf(false, UnoColor.RED, UnoRank.NINE));
+        hand.add(0, redNine);
+        hand.add(0, redTwo);
+        assertEquals(1, hand.indexOf(false, UnoColor.RED, UnoRank.NINE));
+        assertEquals(0, hand.indexOf(true, UnoColor.PINK, UnoRank.ONE));
+        assertEquals(2, hand.indexOf(false, UnoColor.BLUE, UnoRank.ONE));
+        hand.set(2, redTwo);
+        assertEquals(0, hand.indexOf(false, UnoColor.RED, UnoRank.TWO));
+        assertEquals(3, hand.indexOf(false, UnoColor.BLUE, UnoRank.ONE));
+        assertEquals(-1, hand.indexOf(false, UnoColor.GREEN, UnoRank.ONE));
+    }
+
+    /**
+     * Tests that snapshots are shared until the hand changes and never see later changes.
+     */
+    @Test
+    public void testSnapshots() {
+        UnoHand hand = new UnoHand();
+        hand.addAll(Arrays.asList(redNine, blueOne));
+        List<UnoCard> first = hand.snapshot();
+        assertSame(first, hand.snapshot());
+        assertEquals(List.of(redNine, blueOne), first);
+
+        hand.add(0, redTwo);
+        hand.set(1, blueOne);
+        hand.remove(2);
+        assertEquals(List.of(redNine, blueOne), first);
+        List<UnoCard> second = hand.snapshot();
+        assertNotSame(first, second);
+        assertEquals(List.of(redTwo, blueOne), second);
+        for (int i = 0; i < 20; i++) hand.add(redNine); // Grows past the shared array
+        hand.clear();
+        assertEquals(List.of(redTwo, blueOne), second);
+        assertTrue(hand.snapshot().isEmpty());
+
+        try {
+            second.set(0, redNine);
+            fail("Snapshots are read-only");
+        } catch (UnsupportedOperationException e) {
+            assertEquals(List.of(redTwo, blueOne), second);
+        }
+    }
+
+    /**
+     * Tests that an event sorts the hand it was made with, matching the hand's own order, and hands out copies.
+     */
+    @Test
+    public void testEventSortedOrder() {
+        UnoHand hand = new UnoHand();
+        hand.addAll(Arrays.asList(redNine, blueOne, redTwo, redNine));
+        UnoEvent e = new UnoEvent(this, hand.snapshot(), "", "P0", "", false, UnoColor.RED, false, false, null, 0);
+        assertArrayEquals(hand.sortedOrder(false), e.getSortedOrder());
+        hand.remove(0);
+        assertArrayEquals(new int[]{2, 0, 3, 1}, e.getSortedOrder());
+        e.getSortedOrder()[0] = 3;
+        assertArrayEquals(new int[]{2, 0, 3, 1}, e.getSortedOrder());
+    }
+
+    /**
+     * Tests that a model with sorted hands on sends the hand's own order, the same one an event works out itself.
+     */
+    @Test
+    public void testModelSendsHandOrder() {
+        UnoModel model = new UnoModel(2, Arrays.asList("A", "B"), Arrays.asList(false, false));
+        model.forceHand(0, new ArrayList<>(List.of(redNine, blueOne, redTwo, redNine)));
+        UnoEvent lazy = model.buildEvent();
+        model.setSortedHands(true);
+        UnoEvent kept = model.buildEvent();
+        assertArrayEquals(model.getPlayer(0).hand.sortedOrder(kept.isDark()), kept.getSortedOrder());
+        assertArrayEquals(lazy.getSortedOrder(), kept.getSortedOrder());
+        model.getPlayer(0).hand.remove(0);
+        assertArrayEquals(new int[]{2, 0, 3, 1}, kept.getSortedOrder()); // Sent before the change
+    }
+}
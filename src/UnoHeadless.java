@@ -0,0 +1,43 @@
+import java.io.IOException;
+/**
+ * Runs a game without any user interface: every seat is played by the AI and the result is printed.
+ * Nothing in this path touches Swing or AWT.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoHeadless {
+    // Stop runaway games, e.g. when both piles run dry
+    private static final int MAX_ACTIONS = 100_000;
+
+    /**
+     * Plays an all-AI game to the end.
+     * @param model The model to play.
+     * @return The winner's name, or null if the game did not finish.
+     */
+    public static String play(UnoModel model) {
+        for (int i = 0; i < MAX_ACTIONS && !model.isGameOver(); i++) {
+            model.playAITurn();
+        }
+        return model.getWinnerName();
+    }
+
+    /**
+     * Builds the configured table and plays it to the end.
+     * @param config The table configuration.
+     * @param timer Timer for the startup report.
+     * @throws IOException if the stats or analytics file cannot be opened or written.
+     */
+    public static void run(UnoTableConfig config, UnoStartupTimer timer) throws IOException {
+        UnoModel model = config.createModel(true);
+        timer.mark("model ready");
+        UnoStatsStore stats = config.getStatsFile() != null ? new UnoStatsStore(config.getStatsFile()) : null;
+        if (stats != null) model.addGameListener(stats);
+        UnoAnalyticsSink analytics = config.getAnalyticsFile() != null ? new UnoAnalyticsSink(config.getAnalyticsFile()) : null;
+        if (analytics != null) model.addGameListener(analytics.newGame());
+        String winner = play(model);
+        timer.mark("game finished");
+        System.out.println(winner != null ? winner + " won." : "No winner.");
+        if (stats != null) stats.close();
+        if (analytics != null) analytics.close();
+    }
+}
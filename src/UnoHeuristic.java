@@ -0,0 +1,192 @@
+import java.util.Arrays;
+/**
+ * The built-in AI: scores every kind of card the current player could play from the counts its hand keeps, and
+ * for a wild, every color it could name.
+ * <p>
+ * A kind of card is one face (color and rank) on the side in play, so there are never more candidates than ranks
+ * plus colors, and every score is read from the per-side color, face and light/dark color pair counts of UnoHand
+ * instead of going through the cards. The terms, each with a configurable weight:
+ * <ul>
+ *     <li>{@link #COLOR}: cards left in the color that will be active, which decides whether the next turn has a
+ *     play.</li>
+ *     <li>{@link #SURVIVE}: the largest group of those cards that shares one color on the other side too, so it
+ *     is still a color to follow after a Flip.</li>
+ *     <li>{@link #FLIP}: for a Flip card, how much better the best color of the other side is held.</li>
+ *     <li>{@link #ACTION} and {@link #THREAT}: what an action card does to the next player, worth more the fewer
+ *     cards they hold.</li>
+ *     <li>{@link #WILD_COST}: what a wild is worth kept for later.</li>
+ * </ul>
+ * Instances are immutable and may serve any number of seats and games at once.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public final class UnoHeuristic implements UnoStrategy {
+    public static final int COLOR = 0, SURVIVE = 1, FLIP = 2, ACTION = 3, THREAT = 4, WILD_COST = 5;
+    public static final int WEIGHTS = 6;
+    public static final UnoHeuristic DEFAULT = new UnoHeuristic(new double[]{1.0, 0.5, 1.0, 1.0, 4.0, 20.0});
+
+    private static final UnoRank[] RANKS = UnoRank.values();
+    private static final UnoColor[][] SIDES = {UnoColor.sideColors(false), UnoColor.sideColors(true)};
+    private static final UnoRank[] WILDS = {UnoRank.WILD, UnoRank.WILD_DRAW_TWO, UnoRank.WILD_DRAW_COLOR};
+    private static final double[] HARM = new double[RANKS.length]; // What a card does to the next player
+
+    static {
+        HARM[UnoRank.SKIP.ordinal()] = 1;
+        HARM[UnoRank.REVERSE.ordinal()] = 0.5; // Scored as a skip with two players
+        HARM[UnoRank.DRAW_ONE.ordinal()] = 1.5;
+        HARM[UnoRank.DRAW_FIVE.ordinal()] = 4;
+        HARM[UnoRank.SKIP_EVERYONE.ordinal()] = 1.5;
+        HARM[UnoRank.WILD_DRAW_TWO.ordinal()] = 2.5;
+        HARM[UnoRank.WILD_DRAW_COLOR.ordinal()] = 4;
+    }
+
+    private final double[] weights;
+
+    /**
+     * Constructor for UnoHeuristic.
+     * @param weights One weight per term, indexed by COLOR, SURVIVE, FLIP, ACTION, THREAT and WILD_COST.
+     */
+    public UnoHeuristic(double[] weights) {
+        if (weights.length != WEIGHTS) throw new IllegalArgumentException("Expected " + WEIGHTS + " weights, got " + weights.length + ".");
+        this.weights = weights.clone();
+    }
+
+    /**
+     * Parses weights written as a comma-separated list, as on the command line.
+     * @param text The weights in COLOR, SURVIVE, FLIP, ACTION, THREAT, WILD_COST order.
+     * @return The heuristic.
+     * @throws IllegalArgumentException if the list is not six numbers.
+     */
+    public static UnoHeuristic parse(String text) {
+        String[] parts = text.split(",");
+        double[] w = new double[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) w[i] = Double.parseDouble(parts[i].trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Weights must be numbers: " + text);
+        }
+        return new UnoHeuristic(w);
+    }
+
+    /**
+     * Gets the weights.
+     * @return A copy of the weights.
+     */
+    public double[] getWeights() {
+        return weights.clone();
+    }
+
+    @Override
+    public UnoMove chooseMove(UnoModel model) {
+        boolean dark = model.isDark();
+        UnoHand hand = model.getPlayer(model.getCurrentIndex()).hand;
+        UnoColor active = model.getActiveColor();
+        UnoCard top = model.getDiscardTop();
+        UnoRank topRank = top != null ? top.getRank(dark) : null;
+        double threat = 1 + weights[THREAT] / Math.max(1, nextHandSize(model));
+        boolean twoPlayers = model.getPlayerCount() == 2;
+
+        double best = Double.NEGATIVE_INFINITY;
+        UnoColor bestColor = null;
+        UnoRank bestRank = null;
+
+        // Cards of the active color
+        if (active != UnoColor.WILD && active != UnoColor.NONE && hand.countColor(dark, active) > 0) {
+            double keep = colorScore(hand, dark, active) - weights[COLOR]; // One card of the color is played
+            for (UnoRank r : RANKS) {
+                if (hand.countFace(dark, active, r) == 0 || isWild(r)) continue;
+                double s = keep + actionScore(hand, dark, r, threat, twoPlayers);
+                if (s > best) {
+                    best = s;
+                    bestColor = active;
+                    bestRank = r;
+                }
+            }
+        }
+        // Cards of the top card's rank in another color
+        if (topRank != null && !isWild(topRank)) {
+            for (UnoColor c : SIDES[dark ? 1 : 0]) {
+                if (c == active || hand.countFace(dark, c, topRank) == 0) continue;
+                double s = colorScore(hand, dark, c) - weights[COLOR] + actionScore(hand, dark, topRank, threat, twoPlayers);
+                if (s > best) {
+                    best = s;
+                    bestColor = c;
+                    bestRank = topRank;
+                }
+            }
+        }
+        // Wilds, with the color they would name
+        UnoColor named = null;
+        UnoColor wildColor = null;
+        for (UnoRank r : WILDS) {
+            if (hand.countRank(dark, r) == 0) continue;
+            if (wildColor == null) wildColor = bestNamedColor(hand, dark);
+            double s = colorScore(hand, dark, wildColor) + weights[ACTION] * HARM[r.ordinal()] * threat - weights[WILD_COST];
+            if (s > best) {
+                best = s;
+                bestColor = UnoColor.WILD;
+                bestRank = r;
+                named = wildColor;
+            }
+        }
+
+        if (bestRank == null) return UnoMove.draw();
+        int index = hand.indexOf(dark, bestColor, bestRank);
+        return named != null ? UnoMove.wild(index, named) : UnoMove.play(index);
+    }
+
+    // How well the hand follows a color: the cards of it held, and how many of them stay together after a Flip
+    private double colorScore(UnoHand hand, boolean dark, UnoColor c) {
+        return weights[COLOR] * hand.countColor(dark, c) + weights[SURVIVE] * survivors(hand, dark, c);
+    }
+
+    private double actionScore(UnoHand hand, boolean dark, UnoRank r, double threat, boolean twoPlayers) {
+        double harm = r == UnoRank.REVERSE && twoPlayers ? HARM[UnoRank.SKIP.ordinal()] : HARM[r.ordinal()];
+        double s = weights[ACTION] * harm * threat;
+        if (r == UnoRank.FLIP) s += weights[FLIP] * (mostHeld(hand, !dark) - mostHeld(hand, dark));
+        return s;
+    }
+
+    private UnoColor bestNamedColor(UnoHand hand, boolean dark) {
+        UnoColor best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (UnoColor c : SIDES[dark ? 1 : 0]) {
+            double s = colorScore(hand, dark, c);
+            if (s > bestScore) {
+                bestScore = s;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    // The largest group of cards of one color that also share a color on the other side
+    private static int survivors(UnoHand hand, boolean dark, UnoColor c) {
+        int most = 0;
+        for (UnoColor other : SIDES[dark ? 0 : 1]) {
+            most = Math.max(most, dark ? hand.countPair(other, c) : hand.countPair(c, other));
+        }
+        return most;
+    }
+
+    private static int mostHeld(UnoHand hand, boolean dark) {
+        int most = 0;
+        for (UnoColor c : SIDES[dark ? 1 : 0]) most = Math.max(most, hand.countColor(dark, c));
+        return most;
+    }
+
+    private static int nextHandSize(UnoModel model) {
+        int n = model.getPlayerCount();
+        int next = ((model.getCurrentIndex() + model.getDirection()) % n + n) % n;
+        return model.getPlayer(next).hand.size();
+    }
+
+    private static boolean isWild(UnoRank r) {
+        return r == UnoRank.WILD || r == UnoRank.WILD_DRAW_TWO || r == UnoRank.WILD_DRAW_COLOR;
+    }
+
+    @Override
+    public String toString() {
+        return "UnoHeuristic" + Arrays.toString(weights);
+    }
+}
@@ -0,0 +1,87 @@
+import org.junit.Test;
+import java.util.*;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoHeuristic
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoHeuristicTest {
+
+    private static UnoCard light(UnoColor color, UnoRank rank) {
+        return new UnoCard(color, rank, UnoColor.PINK, UnoRank.ONE);
+    }
+
+    private static UnoModel table(List<UnoCard> hand, UnoCard top) {
+        UnoModel m = new UnoModel(2, List.of("Bot", "Other"), List.of(true, true), 1, UnoRuleSet.standard(), 1L);
+        m.forceHand(0, hand);
+        m.setTopCard(top);
+        return m;
+    }
+
+    /**
+     * Tests that a wild names the color held most instead of a random one.
+     */
+    @Test
+    public void testWildNamesHeldColor() {
+        UnoModel m = table(List.of(light(UnoColor.RED, UnoRank.ONE), light(UnoColor.BLUE, UnoRank.TWO),
+                new UnoCard(UnoColor.WILD, UnoRank.WILD, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR),
+                light(UnoColor.BLUE, UnoRank.THREE), light(UnoColor.BLUE, UnoRank.FOUR)),
+                light(UnoColor.GREEN, UnoRank.FIVE));
+        UnoMove move = UnoHeuristic.DEFAULT.chooseMove(m);
+        assertEquals(UnoMove.wild(2, UnoColor.BLUE), move);
+    }
+
+    /**
+     * Tests that the card is chosen by the rest of the hand, not by its place in it, and that a wild is kept
+     * while there is something else to play.
+     */
+    @Test
+    public void testFollowsHand() {
+        UnoModel m = table(List.of(light(UnoColor.GREEN, UnoRank.TWO),
+                new UnoCard(UnoColor.WILD, UnoRank.WILD, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR),
+                light(UnoColor.RED, UnoRank.FIVE), light(UnoColor.RED, UnoRank.EIGHT),
+                light(UnoColor.RED, UnoRank.NINE), light(UnoColor.GREEN, UnoRank.SEVEN)),
+                light(UnoColor.GREEN, UnoRank.FIVE));
+        assertEquals(UnoMove.play(2), UnoHeuristic.DEFAULT.chooseMove(m)); // Onto red, where three cards follow
+
+        m.forceHand(0, List.of(light(UnoColor.GREEN, UnoRank.TWO), light(UnoColor.GREEN, UnoRank.DRAW_ONE)));
+        assertEquals(UnoMove.play(1), UnoHeuristic.DEFAULT.chooseMove(m));
+        UnoHeuristic peaceful = new UnoHeuristic(new double[]{1, 0.5, 1, 0, 4, 20});
+        assertEquals(UnoMove.play(0), peaceful.chooseMove(m)); // Both leave one green card, ties go to the lower rank
+    }
+
+    /**
+     * Tests that the built-in rules play with the model's heuristic and beat random legal moves.
+     */
+    @Test
+    public void testBeatsRandomPlay() {
+        int wins = 0;
+        for (int g = 0; g < 200; g++) {
+            UnoModel m = new UnoModel(2, List.of("A", "B"), List.of(true, true), 1, UnoRuleSet.standard(), g);
+            Random rng = new Random(g);
+            int me = g % 2;
+            m.setStrategy(1 - me, model -> {
+                List<UnoMove> moves = model.legalMoves();
+                return moves.get(rng.nextInt(moves.size()));
+            });
+            UnoHeadless.play(m);
+            if (m.isGameOver() && m.getWinnerName().equals(me == 0 ? "A" : "B")) wins++;
+        }
+        assertTrue("Won " + wins + " of 200", wins > 120);
+    }
+
+    /**
+     * Tests reading weights from the command line.
+     */
+    @Test
+    public void testConfigured() throws Exception {
+        UnoTableConfig c = UnoTableConfig.parse(new String[]{"--players=A:ai,B:ai", "--heuristic=1,0,0,2,4,10"});
+        assertArrayEquals(new double[]{1, 0, 0, 2, 4, 10}, c.getHeuristic().getWeights(), 0);
+        try {
+            UnoHeuristic.parse("1,2,3");
+            fail("Six weights are needed");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
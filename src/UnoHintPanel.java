@@ -0,0 +1,53 @@
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+/**
+ * Side panel listing the legal moves of the current player with their estimated win chances, best first.
+ * The list is refreshed every time UnoHintService reports better estimates.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoHintPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+    private final DefaultListModel<String> rows = new DefaultListModel<>();
+    private final JLabel status = new JLabel(" ");
+
+    /**
+     * Constructor for UnoHintPanel.
+     */
+    public UnoHintPanel() {
+        super(new BorderLayout());
+        setBorder(BorderFactory.createTitledBorder("Hints"));
+        JList<String> list = new JList<>(rows);
+        list.setFocusable(false);
+        add(new JScrollPane(list), BorderLayout.CENTER);
+        add(status, BorderLayout.SOUTH);
+        setPreferredSize(new Dimension(260, 0));
+    }
+
+    /**
+     * Shows the latest estimates. Safe to call from any thread.
+     * @param hints The estimates, best move first.
+     */
+    public void showHints(List<UnoHintService.Hint> hints) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(() -> showHints(hints));
+            return;
+        }
+        rows.clear();
+        long total = 0;
+        for (UnoHintService.Hint h : hints) {
+            rows.addElement(h.toString());
+            total += h.getRollouts();
+        }
+        status.setText(hints.isEmpty() ? " " : total + " games simulated");
+    }
+
+    /**
+     * Empties the list, e.g. while it is not a human player's turn.
+     */
+    public void clear() {
+        rows.clear();
+        status.setText(" ");
+    }
+}
@@ -0,0 +1,248 @@
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+/**
+ * Estimates the chance of winning after each legal move of the current player, for move hints.
+ * <p>
+ * Every estimate comes from random rollouts: the position is copied, the cards the player cannot see are dealt
+ * again at random, the move is made and the game is played out by the AI. Rollouts run on one thread per core
+ * until the time budget is used up or the analysis is cancelled, and the estimates so far are reported every
+ * {@link #REPORT_MILLIS} ms, so the first numbers arrive quickly and get more precise the longer the player thinks.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoHintService implements Closeable {
+    public static final long REPORT_MILLIS = 50;
+    private static final int MAX_ACTIONS = 2000; // Rollouts that go on longer count as lost
+
+    private final ExecutorService workers;
+    private final ScheduledExecutorService reporter;
+    private final int threads;
+    private Analysis running;
+
+    /**
+     * Constructor for UnoHintService using every core.
+     */
+    public UnoHintService() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for UnoHintService.
+     * @param threads Number of rollout threads.
+     */
+    public UnoHintService(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("Hints need at least one thread.");
+        this.threads = threads;
+        AtomicInteger n = new AtomicInteger();
+        ThreadFactory daemons = r -> {
+            Thread t = new Thread(r, "uno-hints-" + n.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+        workers = Executors.newFixedThreadPool(threads, daemons);
+        reporter = Executors.newSingleThreadScheduledExecutor(daemons);
+    }
+
+    /**
+     * Starts analysing the current position, cancelling any earlier analysis.
+     * @param model The game; it is copied while holding its lock, so it may keep changing afterwards.
+     * @param budgetMillis How long to keep refining the estimates.
+     * @param progress Receives the estimates so far, best move first, on a service thread; may be null.
+     * @return The final estimates, completed when the budget is used up or the analysis is cancelled.
+     */
+    public CompletableFuture<List<Hint>> analyze(UnoModel model, long budgetMillis, Consumer<List<Hint>> progress) {
+        UnoModel root;
+        List<UnoMove> moves;
+        List<String> labels = new ArrayList<>();
+        synchronized (model) {
+            root = new UnoModel(model, ThreadLocalRandom.current().nextLong());
+            moves = model.legalMoves();
+            UnoHand hand = model.getPlayer(model.getCurrentIndex()).hand;
+            UnoDrawOdds odds = UnoDrawOdds.forSeat(model, model.getCurrentIndex());
+            for (UnoMove m : moves) labels.add(label(m, hand, model.isDark(), model.getActiveColor(), odds));
+        }
+
+        Analysis a = new Analysis(root, moves, labels, progress);
+        synchronized (this) {
+            if (running != null) running.finish();
+            running = a;
+            if (moves.isEmpty()) {
+                a.finish();
+                return a.result;
+            }
+            for (int i = 0; i < threads; i++) workers.execute(a::work);
+            a.reports = reporter.scheduleAtFixedRate(a::report, REPORT_MILLIS, REPORT_MILLIS, TimeUnit.MILLISECONDS);
+            reporter.schedule(a::finish, budgetMillis, TimeUnit.MILLISECONDS);
+        }
+        return a.result;
+    }
+
+    /**
+     * Stops the running analysis; its future completes with the estimates so far.
+     */
+    public synchronized void cancel() {
+        if (running != null) running.finish();
+        running = null;
+    }
+
+    /**
+     * Stops the analysis and the service's threads.
+     */
+    @Override
+    public void close() {
+        cancel();
+        workers.shutdownNow();
+        reporter.shutdownNow();
+    }
+
+    // One rollout: deal the hidden cards again, make the move, let the AI finish the game
+    static boolean rollout(UnoModel root, UnoMove move, long seed) {
+        int seat = root.getCurrentIndex();
+        UnoModel m = new UnoModel(root, seed);
+        m.shuffleHidden(seat);
+        move.applyTo(m);
+        for (int i = 0; i < MAX_ACTIONS && !m.isGameOver(); i++) m.playAITurn();
+        return m.getWinnerIndex() == seat;
+    }
+
+    private static String label(UnoMove m, List<UnoCard> hand, boolean isDark, UnoColor active, UnoDrawOdds odds) {
+        if (m.getType() == UnoMove.Type.DRAW) return "Draw";
+        UnoCard card = hand.get(m.getHandIndex());
+        String text = "Play " + card.toText(isDark);
+        if (m.getType() == UnoMove.Type.WILD) text += " as " + m.getColor();
+        UnoRank rank = card.getRank(isDark);
+        if (rank == UnoRank.WILD_DRAW_COLOR) {
+            text += String.format(", next draws ~%.1f", odds.expectedCards(rank, m.getColor()));
+        } else if (odds.expectedCards(rank, active) > 0) {
+            text += String.format(", next draws %.0f", odds.expectedCards(rank, active));
+        }
+        return text;
+    }
+
+    /**
+     * The rollouts of one position. Moves take turns, so every move gets about the same number of rollouts.
+     */
+    private static final class Analysis {
+        final UnoModel root;
+        final List<UnoMove> moves;
+        final List<String> labels;
+        final Consumer<List<Hint>> progress;
+        final AtomicLongArray wins;
+        final AtomicLongArray rollouts;
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicBoolean done = new AtomicBoolean();
+        final CompletableFuture<List<Hint>> result = new CompletableFuture<>();
+        volatile ScheduledFuture<?> reports;
+
+        Analysis(UnoModel root, List<UnoMove> moves, List<String> labels, Consumer<List<Hint>> progress) {
+            this.root = root;
+            this.moves = moves;
+            this.labels = labels;
+            this.progress = progress;
+            wins = new AtomicLongArray(moves.size());
+            rollouts = new AtomicLongArray(moves.size());
+        }
+
+        void work() {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            while (!done.get()) {
+                int i = Math.floorMod(next.getAndIncrement(), moves.size());
+                if (rollout(root, moves.get(i), rnd.nextLong())) wins.incrementAndGet(i);
+                rollouts.incrementAndGet(i);
+            }
+        }
+
+        List<Hint> snapshot() {
+            List<Hint> hints = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                hints.add(new Hint(moves.get(i), labels.get(i), wins.get(i), rollouts.get(i)));
+            }
+            hints.sort(Comparator.comparingDouble(Hint::getWinRate).reversed());
+            return hints;
+        }
+
+        void report() {
+            if (!done.get() && progress != null) progress.accept(snapshot());
+        }
+
+        void finish() {
+            if (!done.compareAndSet(false, true)) return;
+            if (reports != null) reports.cancel(false);
+            List<Hint> last = snapshot();
+            if (progress != null) progress.accept(last);
+            result.complete(last);
+        }
+    }
+
+    /**
+     * The estimated outcome of one legal move.
+     */
+    public static final class Hint {
+        private final UnoMove move;
+        private final String label;
+        private final long wins;
+        private final long rollouts;
+
+        Hint(UnoMove move, String label, long wins, long rollouts) {
+            this.move = move;
+            this.label = label;
+            this.wins = wins;
+            this.rollouts = rollouts;
+        }
+
+        /**
+         * Gets the move.
+         * @return The move, for the player whose turn it was.
+         */
+        public UnoMove getMove() {
+            return move;
+        }
+
+        /**
+         * Gets a description of the move, like "Play RED-FIVE", with how many cards the next player will draw
+         * for draw cards.
+         * @return The description.
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Gets the share of rollouts won after this move.
+         * @return The estimated win probability, 0 before any rollout finished.
+         */
+        public double getWinRate() {
+            return rollouts == 0 ? 0 : (double) wins / rollouts;
+        }
+
+        /**
+         * Gets the standard error of the win rate, which shrinks as more rollouts finish.
+         * @return The standard error.
+         */
+        public double getError() {
+            if (rollouts == 0) return 0.5;
+            double p = getWinRate();
+            return Math.sqrt(p * (1 - p) / rollouts);
+        }
+
+        /**
+         * Gets the number of rollouts played after this move.
+         * @return The rollout count.
+         */
+        public long getRollouts() {
+            return rollouts;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.0f%% ± %.0f (%d)", label, 100 * getWinRate(), 100 * getError(), rollouts);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoHintService
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoHintServiceTest {
+    private UnoHintService service;
+    private UnoModel model;
+
+    /**
+     * Sets up a three-player game and a service with a few threads.
+     */
+    @Before
+    public void setUp() {
+        service = new UnoHintService(4);
+        model = new UnoModel(3, List.of("A", "B", "C"), List.of(false, true, true), 1, UnoRuleSet.standard(), 8L);
+    }
+
+    /**
+     * Stops the service.
+     */
+    @After
+    public void tearDown() {
+        service.close();
+    }
+
+    /**
+     * Tests that a copied position can be played on without touching the original.
+     */
+    @Test
+    public void testCopyIsIndependent() {
+        List<UnoCard> hand = new ArrayList<>(model.getPlayer(0).hand);
+        int pile = model.getDrawPileSize();
+        UnoCard top = model.getDiscardTop();
+
+        UnoModel copy = new UnoModel(model, 1L);
+        assertEquals(hand, copy.getPlayer(0).hand);
+        assertTrue(copy.isCurrentPlayerAI());
+        for (int i = 0; i < 50 && !copy.isGameOver(); i++) copy.playAITurn();
+
+        assertEquals(hand, model.getPlayer(0).hand);
+        assertEquals(pile, model.getDrawPileSize());
+        assertSame(top, model.getDiscardTop());
+        assertEquals(0, model.getCurrentIndex());
+    }
+
+    /**
+     * Tests that dealing the hidden cards again keeps the player's hand, every hand size and every card.
+     */
+    @Test
+    public void testShuffleHidden() {
+        UnoModel copy = new UnoModel(model, 2L);
+        copy.shuffleHidden(0);
+        assertEquals(model.getPlayer(0).hand, copy.getPlayer(0).hand);
+        assertNotEquals(model.getPlayer(1).hand, copy.getPlayer(1).hand);
+
+        List<UnoCard> before = new ArrayList<>(model.getDrawPile());
+        List<UnoCard> after = new ArrayList<>(copy.getDrawPile());
+        for (int seat = 1; seat < 3; seat++) {
+            assertEquals(model.getPlayer(seat).hand.size(), copy.getPlayer(seat).hand.size());
+            before.addAll(model.getPlayer(seat).hand);
+            after.addAll(copy.getPlayer(seat).hand);
+        }
+        Comparator<UnoCard> byId = Comparator.comparingInt(UnoCard::getId);
+        before.sort(byId);
+        after.sort(byId);
+        assertEquals(before, after);
+    }
+
+    /**
+     * Tests that a winning play is rated a sure win and put first.
+     */
+    @Test
+    public void testWinningMoveFirst() throws Exception {
+        model.forceHand(0, new ArrayList<>(List.of(new UnoCard(UnoColor.RED, UnoRank.ONE, UnoColor.TEAL, UnoRank.ONE))));
+        model.setTopCard(new UnoCard(UnoColor.RED, UnoRank.TWO, UnoColor.TEAL, UnoRank.TWO));
+
+        List<UnoHintService.Hint> hints = service.analyze(model, 300, null).get(5, TimeUnit.SECONDS);
+        assertEquals(2, hints.size());
+        assertEquals(UnoMove.play(0), hints.get(0).getMove());
+        assertEquals(1.0, hints.get(0).getWinRate(), 0);
+        assertEquals("Play RED-ONE", hints.get(0).getLabel());
+        assertEquals(UnoMove.draw(), hints.get(1).getMove());
+        assertTrue(hints.get(1).getWinRate() < 1);
+        assertTrue(hints.get(1).getRollouts() > 0);
+    }
+
+    /**
+     * Tests that estimates are reported while the analysis runs and keep getting more rollouts.
+     */
+    @Test
+    public void testProgressiveReports() throws Exception {
+        List<Long> totals = new CopyOnWriteArrayList<>();
+        List<UnoHintService.Hint> last = service.analyze(model, 400, hints ->
+                totals.add(hints.stream().mapToLong(UnoHintService.Hint::getRollouts).sum())).get(5, TimeUnit.SECONDS);
+
+        assertTrue("Got " + totals.size() + " reports", totals.size() >= 3);
+        assertTrue(totals.get(0) > 0);
+        for (int i = 1; i < totals.size(); i++) assertTrue(totals.get(i) >= totals.get(i - 1));
+        assertEquals(model.legalMoves().size(), last.size());
+        for (int i = 1; i < last.size(); i++) assertTrue(last.get(i - 1).getWinRate() >= last.get(i).getWinRate());
+    }
+
+    /**
+     * Tests that starting a new analysis ends the previous one, and that a position without moves has no hints.
+     */
+    @Test
+    public void testNewAnalysisCancelsOld() throws Exception {
+        var first = service.analyze(model, 60_000, null);
+        var second = service.analyze(model, 60_000, null);
+        assertNotNull(first.get(1, TimeUnit.SECONDS));
+        assertFalse(second.isDone());
+        service.cancel();
+        assertNotNull(second.get(1, TimeUnit.SECONDS));
+
+        model.draw();
+        assertTrue(service.analyze(model, 1000, null).get(1, TimeUnit.SECONDS).isEmpty());
+    }
+}
@@ -0,0 +1,243 @@
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+/**
+ * Undo/redo history of an UnoModel. Every command (play, wild, draw, next) is one step holding the card moves
+ * it made, each with its inverse, plus the scalar state (turn, direction, color, side, ...) before and after.
+ * Stepping back or forward replays just those moves, so it costs as much as the change itself: a Wild Draw Color
+ * step holds one move per card the victim drew, and a Flip only changes the side in the scalar state.
+ * <p>
+ * The random number generator is not rewound: a new move made after undoing may shuffle or choose differently.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoHistory {
+    private final Deque<UnoCard> drawPile;
+    private final Deque<UnoCard> discard;
+    private final List<UnoPlayer> players;
+    private final Supplier<Scalars> capture;
+    private final Consumer<Scalars> restore;
+    private final List<Step> undo = new ArrayList<>();
+    private final List<Step> redo = new ArrayList<>();
+    private Step open;
+
+    /**
+     * Constructor for UnoHistory.
+     * @param drawPile The model's draw pile.
+     * @param discard The model's discard pile.
+     * @param players The model's players.
+     * @param capture Reads the model's scalar state.
+     * @param restore Writes the model's scalar state.
+     */
+    UnoHistory(Deque<UnoCard> drawPile, Deque<UnoCard> discard, List<UnoPlayer> players,
+               Supplier<Scalars> capture, Consumer<Scalars> restore) {
+        this.drawPile = drawPile;
+        this.discard = discard;
+        this.players = players;
+        this.capture = capture;
+        this.restore = restore;
+    }
+
+    /**
+     * Starts recording a new command. Anything that could be redone is forgotten.
+     */
+    void begin() {
+        close();
+        redo.clear();
+        open = new Step(capture.get());
+    }
+
+    // The open step ends when the next one begins or the history is used
+    private void close() {
+        if (open == null) return;
+        open.after = capture.get();
+        undo.add(open);
+        open = null;
+    }
+
+    /**
+     * Records a card moving from the draw pile to the end of a hand.
+     * @param seat The seat that drew.
+     * @param card The card drawn.
+     */
+    void drew(int seat, UnoCard card) {
+        if (open == null) return;
+        UnoPlayer p = players.get(seat);
+        open.ops.add(new Op(() -> {
+            p.hand.remove(p.hand.size() - 1);
+            drawPile.push(card);
+            p.cardsDrawn--;
+        }, () -> {
+            drawPile.pop();
+            p.hand.add(card);
+            p.cardsDrawn++;
+        }));
+    }
+
+    /**
+     * Records a card moving from a hand to the discard pile.
+     * @param seat The seat that played.
+     * @param index The card's index in the hand.
+     * @param card The card played.
+     */
+    void played(int seat, int index, UnoCard card) {
+        if (open == null) return;
+        UnoPlayer p = players.get(seat);
+        open.ops.add(new Op(() -> {
+            discard.pop();
+            p.hand.add(index, card);
+        }, () -> {
+            p.hand.remove(index);
+            discard.push(card);
+        }));
+    }
+
+    /**
+     * Records the discard pile being shuffled back into the empty draw pile.
+     * @param top The top card, which stays on the discard pile.
+     * @param rest The rest of the discard pile before the shuffle, top first.
+     * @param moved The cards in the order they were pushed onto the draw pile.
+     */
+    void recycled(UnoCard top, List<UnoCard> rest, List<UnoCard> moved) {
+        if (open == null) return;
+        open.ops.add(new Op(() -> {
+            for (int i = 0; i < moved.size(); i++) drawPile.pop();
+            discard.clear();
+            for (int i = rest.size() - 1; i >= 0; i--) discard.push(rest.get(i));
+            discard.push(top);
+        }, () -> {
+            discard.clear();
+            discard.push(top);
+            moved.forEach(drawPile::push);
+        }));
+    }
+
+    /**
+     * Records two seats swapping hands.
+     * @param a One seat.
+     * @param b The other seat.
+     */
+    void swapped(int a, int b) {
+        if (open == null) return;
+        Runnable swap = () -> {
+            List<UnoCard> tmp = new ArrayList<>(players.get(a).hand);
+            players.get(a).hand.clear();
+            players.get(a).hand.addAll(players.get(b).hand);
+            players.get(b).hand.clear();
+            players.get(b).hand.addAll(tmp);
+        };
+        open.ops.add(new Op(swap, swap));
+    }
+
+    /**
+     * Records every hand moving one seat along the direction of play.
+     * @param direction The direction the hands moved, 1 or -1.
+     */
+    void rotated(int direction) {
+        if (open == null) return;
+        open.ops.add(new Op(() -> UnoModel.passHands(players, -direction), () -> UnoModel.passHands(players, direction)));
+    }
+
+    /**
+     * Takes back the last command.
+     * @return False if there was nothing to undo.
+     */
+    boolean undo() {
+        close();
+        if (undo.isEmpty()) return false;
+        Step s = undo.remove(undo.size() - 1);
+        for (int i = s.ops.size() - 1; i >= 0; i--) s.ops.get(i).undo.run();
+        restore.accept(s.before);
+        redo.add(s);
+        return true;
+    }
+
+    /**
+     * Makes the last undone command again.
+     * @return False if there was nothing to redo.
+     */
+    boolean redo() {
+        close();
+        if (redo.isEmpty()) return false;
+        Step s = redo.remove(redo.size() - 1);
+        for (Op op : s.ops) op.redo.run();
+        restore.accept(s.after);
+        undo.add(s);
+        return true;
+    }
+
+    /**
+     * Checks if there is a command to take back.
+     * @return True if undo would do something.
+     */
+    boolean canUndo() {
+        return open != null || !undo.isEmpty();
+    }
+
+    /**
+     * Checks if there is an undone command to make again.
+     * @return True if redo would do something.
+     */
+    boolean canRedo() {
+        return open == null && !redo.isEmpty();
+    }
+
+    /**
+     * Forgets every step, e.g. after the game was changed outside of the normal commands.
+     */
+    void clear() {
+        open = null;
+        undo.clear();
+        redo.clear();
+    }
+
+    /**
+     * The model's scalar state: everything except the cards.
+     */
+    static final class Scalars {
+        final int current;
+        final int direction;
+        final int nextSteps;
+        final boolean mustPressNext;
+        final boolean isDark;
+        final boolean gameOver;
+        final int winner;
+        final UnoColor activeColor;
+        final String info;
+
+        Scalars(int current, int direction, int nextSteps, boolean mustPressNext, boolean isDark,
+                boolean gameOver, int winner, UnoColor activeColor, String info) {
+            this.current = current;
+            this.direction = direction;
+            this.nextSteps = nextSteps;
+            this.mustPressNext = mustPressNext;
+            this.isDark = isDark;
+            this.gameOver = gameOver;
+            this.winner = winner;
+            this.activeColor = activeColor;
+            this.info = info;
+        }
+    }
+
+    private static final class Step {
+        final Scalars before;
+        Scalars after;
+        final List<Op> ops = new ArrayList<>(2);
+
+        Step(Scalars before) {
+            this.before = before;
+        }
+    }
+
+    private static final class Op {
+        final Runnable undo;
+        final Runnable redo;
+
+        Op(Runnable undo, Runnable redo) {
+            this.undo = undo;
+            this.redo = redo;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+import org.junit.Test;
+import java.util.*;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoHistory
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoHistoryTest {
+
+    private static UnoModel create(int n, boolean ai, UnoRuleSet rules, long seed) {
+        UnoModel m = UnoTestTables.create(n, ai, 1, rules, seed);
+        m.setHistoryEnabled(true);
+        return m;
+    }
+
+    // Everything undo must put back: every card by identity, in order, plus the turn state
+    private static List<Object> snapshot(UnoModel m) {
+        List<Object> s = new ArrayList<>();
+        for (int i = 0; i < m.getPlayerCount(); i++) {
+            s.add(new ArrayList<>(m.getPlayer(i).hand));
+            s.add(m.getPlayer(i).cardsDrawn);
+        }
+        s.add(new ArrayList<>(m.getDrawPile()));
+        s.add(new ArrayList<>(m.getDiscardPile()));
+        s.addAll(List.of(m.getCurrentIndex(), m.getDirection(), m.isDark(), m.getActiveColor(),
+                m.isMustPressNext(), m.isGameOver()));
+        return s;
+    }
+
+    /**
+     * Tests that a whole game, with recycled piles and swapped hands, can be undone and redone move by move.
+     */
+    @Test
+    public void testUndoRedoWholeGame() {
+        UnoModel m = create(8, true, UnoRuleSet.of(UnoRuleSet.Variant.SEVEN_ZERO), 39L);
+        int[] recycled = {0};
+        m.addGameListener(new UnoGameListener() {
+            @Override
+            public void pileRecycled() {
+                recycled[0]++;
+            }
+        });
+        List<List<Object>> states = new ArrayList<>();
+        states.add(snapshot(m));
+        for (int i = 0; i < 2000 && !m.isGameOver(); i++) {
+            m.playAITurn();
+            states.add(snapshot(m));
+        }
+        assertTrue(m.isGameOver());
+        assertTrue("The seed should recycle the discard pile", recycled[0] > 0);
+
+        for (int i = states.size() - 2; i >= 0; i--) {
+            assertTrue(m.undo());
+            assertEquals("Undo to move " + i, states.get(i), snapshot(m));
+        }
+        assertFalse(m.canUndo());
+        assertFalse(m.undo());
+
+        for (int i = 1; i < states.size(); i++) {
+            assertTrue(m.redo());
+            assertEquals("Redo to move " + i, states.get(i), snapshot(m));
+        }
+        assertFalse(m.redo());
+    }
+
+    /**
+     * Tests that every card the victim of a Wild Draw Color drew goes back to the draw pile.
+     */
+    @Test
+    public void testUndoWildDrawColor() {
+        UnoModel m = create(2, false, UnoRuleSet.standard(), 5L);
+        UnoCard wdc = new UnoCard(UnoColor.WILD, UnoRank.WILD_DRAW_COLOR, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR);
+        UnoCard keep = new UnoCard(UnoColor.RED, UnoRank.ONE, UnoColor.TEAL, UnoRank.ONE);
+        m.forceHand(0, new ArrayList<>(List.of(wdc, keep)));
+        m.setTopCard(new UnoCard(UnoColor.TEAL, UnoRank.ONE, UnoColor.TEAL, UnoRank.ONE));
+        List<Object> before = snapshot(m);
+        int victimHand = m.getPlayer(1).hand.size();
+
+        m.playWild(0, UnoColor.RED);
+        List<Object> after = snapshot(m);
+        assertTrue(m.getPlayer(1).hand.size() > victimHand);
+
+        assertTrue(m.undo());
+        assertEquals(before, snapshot(m));
+        assertSame(wdc, m.getPlayer(0).hand.get(0));
+        assertTrue(m.redo());
+        assertEquals(after, snapshot(m));
+    }
+
+    /**
+     * Tests that undoing a Flip turns the deck back over.
+     */
+    @Test
+    public void testUndoFlip() {
+        UnoModel m = create(2, false, UnoRuleSet.standard(), 5L);
+        UnoViewStub view = new UnoViewStub();
+        m.addView(view);
+        UnoCard flip = new UnoCard(UnoColor.RED, UnoRank.FLIP, UnoColor.TEAL, UnoRank.FLIP);
+        m.forceHand(0, new ArrayList<>(List.of(flip, new UnoCard(UnoColor.RED, UnoRank.TWO, UnoColor.PINK, UnoRank.TWO))));
+        m.setTopCard(new UnoCard(UnoColor.RED, UnoRank.ONE, UnoColor.TEAL, UnoRank.ONE));
+
+        m.play(0);
+        assertTrue(m.isDark());
+        m.nextPlayer();
+
+        assertTrue(m.undo());
+        assertTrue(m.isDark());
+        assertEquals("P0", view.lastEvent.getCurrentPlayerName());
+        assertTrue(m.undo());
+        assertFalse(m.isDark());
+        assertEquals(UnoColor.RED, m.getActiveColor());
+        assertFalse(view.lastEvent.isDark());
+        assertFalse(view.lastEvent.isMustPressNext());
+    }
+
+    /**
+     * Tests that a new command forgets what could be redone.
+     */
+    @Test
+    public void testNewCommandClearsRedo() {
+        UnoModel m = create(2, false, UnoRuleSet.standard(), 5L);
+        m.draw();
+        assertTrue(m.undo());
+        assertTrue(m.canRedo());
+        m.draw();
+        assertFalse(m.canRedo());
+        assertFalse(m.redo());
+    }
+
+    /**
+     * Tests that history is off unless asked for.
+     */
+    @Test
+    public void testDisabledByDefault() {
+        UnoModel m = new UnoModel(2, List.of("A", "B"), List.of(false, false), 1, UnoRuleSet.standard(), 5L);
+        m.draw();
+        assertFalse(m.canUndo());
+        assertFalse(m.undo());
+    }
+}
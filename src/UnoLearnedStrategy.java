@@ -0,0 +1,116 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+/**
+ * AI strategy driven by a learned linear evaluator, as trained by UnoTrainer.
+ * <p>
+ * For every legal move the strategy makes the move on a copy of the game, with the cards its seat cannot see dealt
+ * again at random so that nothing hidden leaks into the choice, and scores the resulting position with
+ * {@code sigmoid(w · UnoFeatures + b)}, the estimated chance of winning from there. The best move is played.
+ * Drawing is only chosen when no card can be played: weights that liked drawing better would otherwise let a table
+ * of learned seats draw both piles empty and never finish.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoLearnedStrategy implements UnoStrategy {
+    private static final int MAGIC = 0x554E4F57; // "UNOW"
+    private static final int VERSION = 1;
+
+    private final double[] weights; // Bias first, then one weight per feature
+    private final Random rng;
+    private final double[] features = new double[UnoFeatures.SIZE];
+
+    /**
+     * Constructor for UnoLearnedStrategy.
+     * @param weights The bias followed by UnoFeatures.SIZE weights.
+     * @param seed Seed for dealing the hidden cards of the copies.
+     */
+    public UnoLearnedStrategy(double[] weights, long seed) {
+        if (weights.length != UnoFeatures.SIZE + 1) {
+            throw new IllegalArgumentException("Expected " + (UnoFeatures.SIZE + 1) + " weights, got " + weights.length + ".");
+        }
+        this.weights = weights.clone();
+        this.rng = new Random(seed);
+    }
+
+    /**
+     * Loads a strategy from a weights file.
+     * @param file The file written by save.
+     * @param seed Seed for dealing the hidden cards of the copies.
+     * @return The strategy.
+     * @throws IOException if the file cannot be read or was made for other features.
+     */
+    public static UnoLearnedStrategy load(Path file, long seed) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new IOException("Not a weights file: " + file);
+            int n = in.readInt();
+            if (n != UnoFeatures.SIZE + 1) throw new IOException("Weights were trained for different features: " + file);
+            double[] w = new double[n];
+            for (int i = 0; i < n; i++) w[i] = in.readDouble();
+            return new UnoLearnedStrategy(w, seed);
+        }
+    }
+
+    /**
+     * Saves weights to a file.
+     * @param weights The bias followed by UnoFeatures.SIZE weights.
+     * @param file The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void save(double[] weights, Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(weights.length);
+            for (double w : weights) out.writeDouble(w);
+        }
+    }
+
+    /**
+     * Scores features with weights.
+     * @param weights The bias followed by one weight per feature.
+     * @param x The features.
+     * @param offset Where the features start in x.
+     * @return The estimated chance of winning.
+     */
+    static double evaluate(double[] weights, double[] x, int offset) {
+        double z = weights[0];
+        for (int j = 0; j < UnoFeatures.SIZE; j++) z += weights[j + 1] * x[offset + j];
+        return 1 / (1 + Math.exp(-z));
+    }
+
+    @Override
+    public UnoMove chooseMove(UnoModel model) {
+        int seat = model.getCurrentIndex();
+        List<UnoMove> moves = model.legalMoves();
+        UnoMove best = moves.get(moves.size() - 1); // Drawing, the only move if nothing can be played
+        double bestScore = -1;
+        for (UnoMove move : moves.subList(0, moves.size() - 1)) {
+            UnoModel copy = new UnoModel(model, rng.nextLong());
+            copy.shuffleHidden(seat);
+            move.applyTo(copy);
+            double score;
+            if (copy.isGameOver()) {
+                score = copy.getWinnerIndex() == seat ? 2 : 0;
+            } else {
+                UnoFeatures.extract(copy, seat, features, 0);
+                score = evaluate(weights, features, 0);
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets a copy of the weights.
+     * @return The bias followed by one weight per feature.
+     */
+    public double[] getWeights() {
+        return weights.clone();
+    }
+}
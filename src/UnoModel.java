@@ -5,49 +5,209 @@ import java.util.*;
  * @version 3.0
  */
 public class UnoModel {
+    public static final int MIN_PLAYERS = 2;
+    public static final int MAX_PLAYERS = 100;
+    private static final int HAND_SIZE = 7;
+    static final int DECK_SIZE = 100;
+
     private final List<UnoView> views = new ArrayList<>();
+    private UnoViewGuard viewGuard; // Times view calls and quarantines slow views, null to call them plainly
+    private final List<UnoGameListener> listeners = new ArrayList<>();
     private final List<UnoPlayer> players = new ArrayList<>();
     private final Deque<UnoCard> drawPile = new ArrayDeque<>();
     private final Deque<UnoCard> discard = new ArrayDeque<>();
+    private UnoCard[] deckById;
+    private final UnoCardTracker.Shared sharedTracker; // Null when no seat is played by AI
+    private final UnoCardTracker[] trackers;
+    private final UnoStrategy[] strategies; // Per seat, null for the built-in rules
+    private UnoHeuristic heuristic = UnoHeuristic.DEFAULT; // The built-in rules
+    private final UnoRuleSet rules;
+    private final Random rng; // Shuffles only, so the seed and the moves decide every deal
+    private final long seed;
+    private final UnoEffect[][] effects; // [side][rank]
 
     private int current = 0;
     private int gameDirection = 1;
     private boolean mustPressNext = false;
+    private boolean gameOver = false;
+    private int winner = -1;
+    private boolean notifySuspended = false;
+    private boolean pendingNotify = false;
+    private volatile boolean sortedHands = false; // Set from the event thread
     private UnoColor activeColor = UnoColor.NONE; // chosen after WILD
     private String info = "Welcome to Uno!";
     private int nextSteps = 1;
+    private int moveDraws = 0; // Cards drawn since the current move started
 
     private boolean isDark = false;
+    private UnoHistory history; // Null unless undo is enabled
+    private UnoReplay replay; // Null unless the game is being recorded for review
+    private UnoArchive archive; // Null unless the game is being archived
+    private boolean atDeal = true; // Nothing has been done since the deal, so the seed alone gives the state
+
+    // Endgame solver settings for AI players (0 disables the solver)
+    private int endgameThreshold = 0;
+    private long endgameBudgetMillis = 50;
 
     /**
-     * Constructor for UnoModel.
-     * @param numPlayers Number of players (2-4).
+     * Constructor for UnoModel. Uses as many decks as needed for the number of players.
+     * @param numPlayers Number of players (2-100).
      * @param names List of player names.
+     * @param isAI List of flags marking which players are AI.
      */
     public UnoModel(int numPlayers, List<String> names, List<Boolean> isAI) {
-        if (numPlayers < 2 || numPlayers > 4) {
-            throw new IllegalArgumentException("Number of players must be 2–4.");
+        this(numPlayers, names, isAI, decksFor(numPlayers));
+    }
+
+    /**
+     * Constructor for UnoModel with a fixed number of combined decks.
+     * @param numPlayers Number of players (2-100).
+     * @param names List of player names.
+     * @param isAI List of flags marking which players are AI.
+     * @param decks Number of Uno Flip decks shuffled together.
+     */
+    public UnoModel(int numPlayers, List<String> names, List<Boolean> isAI, int decks) {
+        this(numPlayers, names, isAI, decks, UnoRuleSet.standard());
+    }
+
+    /**
+     * Constructor for UnoModel with house rules.
+     * @param numPlayers Number of players (2-100).
+     * @param names List of player names.
+     * @param isAI List of flags marking which players are AI.
+     * @param decks Number of Uno Flip decks shuffled together.
+     * @param rules The rule set deciding what each card does.
+     */
+    public UnoModel(int numPlayers, List<String> names, List<Boolean> isAI, int decks, UnoRuleSet rules) {
+        this(numPlayers, names, isAI, decks, rules, new Random().nextLong());
+    }
+
+    /**
+     * Constructor for UnoModel with a fixed seed, so the same seed always deals the same game.
+     * @param numPlayers Number of players (2-100).
+     * @param names List of player names.
+     * @param isAI List of flags marking which players are AI.
+     * @param decks Number of Uno Flip decks shuffled together.
+     * @param rules The rule set deciding what each card does.
+     * @param seed Seed for shuffling and AI choices.
+     */
+    public UnoModel(int numPlayers, List<String> names, List<Boolean> isAI, int decks, UnoRuleSet rules, long seed) {
+        if (numPlayers < MIN_PLAYERS || numPlayers > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Number of players must be " + MIN_PLAYERS + "–" + MAX_PLAYERS + ".");
+        }
+        if (decks < 1 || numPlayers * HAND_SIZE + 1 > decks * DECK_SIZE) {
+            throw new IllegalArgumentException("Not enough cards for " + numPlayers + " players with " + decks + " deck(s).");
         }
 
+        this.rules = rules;
+        this.rng = new Random(seed);
+        this.seed = seed;
+        this.effects = rules.buildEffectTable();
+
         // Create however many players
         for (int i = 0; i < numPlayers; i++) {
             players.add(new UnoPlayer(names.get(i), isAI.get(i)));
         }
 
-        initializeDeck();
+        initializeDeck(decks);
 
         // Deal 7 cards to each player
-        for (int k = 0; k < 7; k++) {
+        for (int k = 0; k < HAND_SIZE; k++) {
             for (UnoPlayer p : players) {
                 p.hand.add(drawPile.pop());
             }
         }
+
+        strategies = new UnoStrategy[numPlayers];
+
+        // Every AI seat keeps track of the cards it has seen, the public part once for the whole table
+        trackers = new UnoCardTracker[numPlayers];
+        UnoCardTracker.Shared shared = null;
+        for (int i = 0; i < numPlayers; i++) {
+            if (!players.get(i).isAI) continue;
+            if (shared == null) shared = new UnoCardTracker.Shared(numPlayers);
+            trackers[i] = new UnoCardTracker(i, shared, players.get(i).hand);
+        }
+        sharedTracker = shared;
+        if (sharedTracker != null) {
+            sharedTracker.reset(this);
+            listeners.add(sharedTracker);
+        }
+    }
+
+    /**
+     * Copies a position for simulation. Every seat of the copy is played by the built-in AI, and it has no views,
+     * listeners, trackers, strategies or history. Card objects are shared with the source.
+     * @param source The model to copy.
+     * @param seed Seed for the copy's shuffles and AI choices.
+     */
+    UnoModel(UnoModel source, long seed) {
+        this(source, seed, false);
+    }
+
+    /**
+     * Copies a position, like the simulation copy, optionally keeping which seats are human.
+     * @param source The model to copy.
+     * @param seed Seed for the copy's shuffles and AI choices.
+     * @param keepSeats True to keep each seat's AI flag, False to mark every seat as AI.
+     */
+    UnoModel(UnoModel source, long seed, boolean keepSeats) {
+        this.rules = source.rules;
+        this.rng = new Random(seed);
+        this.seed = source.seed;
+        this.atDeal = false;
+        this.effects = source.effects;
+        this.deckById = source.deckById;
+        for (UnoPlayer p : source.players) {
+            UnoPlayer copy = new UnoPlayer(p.name, !keepSeats || p.isAI);
+            copy.hand.addAll(p.hand);
+            copy.cardsDrawn = p.cardsDrawn;
+            players.add(copy);
+        }
+        drawPile.addAll(source.drawPile);
+        discard.addAll(source.discard);
+        sharedTracker = null;
+        trackers = new UnoCardTracker[players.size()];
+        strategies = new UnoStrategy[players.size()];
+        heuristic = source.heuristic;
+        current = source.current;
+        gameDirection = source.gameDirection;
+        mustPressNext = source.mustPressNext;
+        gameOver = source.gameOver;
+        winner = source.winner;
+        activeColor = source.activeColor;
+        info = source.info;
+        nextSteps = source.nextSteps;
+        isDark = source.isDark;
+    }
+
+    /**
+     * Deals the cards one seat cannot see (the other hands and the draw pile) again at random,
+     * keeping every hand size. Used to sample a position that seat cannot tell apart from the real one.
+     * @param seat The seat whose view is kept.
+     */
+    void shuffleHidden(int seat) {
+        List<UnoCard> hidden = new ArrayList<>(drawPile);
+        for (int i = 0; i < players.size(); i++) {
+            if (i != seat) hidden.addAll(players.get(i).hand);
+        }
+        Collections.shuffle(hidden, rng);
+        int k = 0;
+        for (int i = 0; i < players.size(); i++) {
+            if (i == seat) continue;
+            UnoHand h = players.get(i).hand;
+            for (int j = 0; j < h.size(); j++) h.set(j, hidden.get(k++));
+        }
+        drawPile.clear();
+        drawPile.addAll(hidden.subList(k, hidden.size()));
     }
 
     // Moved deck initialization to private helper method
-    private void initializeDeck() {
-        List<UnoCard> deck = buildFlipDeck();
-        Collections.shuffle(deck, new Random());
+    private void initializeDeck(int decks) {
+        List<UnoCard> deck = new ArrayList<>(decks * DECK_SIZE);
+        for (int i = 0; i < decks; i++) buildFlipDeck(deck);
+        deckById = deck.toArray(new UnoCard[0]);
+        Collections.shuffle(deck, rng);
         deck.forEach(drawPile::push);
 
         UnoCard first = drawPile.pop();
@@ -69,18 +229,120 @@ public class UnoModel {
         notifyViews();
     }
 
+    /**
+     * Removes a view from the model; it gets no more updates.
+     * @param v The view to remove.
+     */
+    public void removeView(UnoView v) {
+        views.remove(v);
+        if (viewGuard != null) viewGuard.forget(v);
+    }
+
+    /**
+     * Adds a listener for card movements and other rule engine events.
+     * @param l The listener to add.
+     */
+    public void addGameListener(UnoGameListener l) {
+        listeners.add(l);
+    }
+
+    /**
+     * Gets the card tracker of an AI seat.
+     * @param seat The seat index.
+     * @return The tracker, or null if the seat is not controlled by AI.
+     */
+    public UnoCardTracker getTracker(int seat) {
+        return trackers[seat];
+    }
+
     /**
      * Creates an UnoEvent and notifies all registered views.
      */
     private void notifyViews() {
+        if (notifySuspended) {
+            pendingNotify = true;
+            return;
+        }
+        if (views.isEmpty()) return; // Nothing to build for headless games
+        UnoEvent event = buildEvent();
+        for (Iterator<UnoView> it = views.iterator(); it.hasNext(); ) {
+            UnoView v = it.next();
+            if (viewGuard == null) v.handleUpdate(event);
+            else if (!viewGuard.update(v, event)) it.remove(); // Detached for being too slow
+        }
+    }
+
+    /**
+     * Builds the update views are sent for the current state.
+     * @return The update.
+     */
+    UnoEvent buildEvent() {
         UnoPlayer p = players.get(current);
-        List<UnoCard> handCopy = new ArrayList<>(p.hand);
+        List<UnoCard> hand = p.hand.snapshot(); // Shared with earlier events until the hand changes
         UnoCard top = discard.peek();
         String topText = top != null ? top.toText(isDark) : "None";
         if (activeColor != UnoColor.NONE) topText += " [" + activeColor + "]";
+        int[] handSizes = new int[players.size()];
+        for (int i = 0; i < handSizes.length; i++) handSizes[i] = players.get(i).hand.size();
+        // The hand keeps its sorted order as cards come and go; without it the event sorts the snapshot if asked
+        int[] order = sortedHands ? p.hand.sortedOrder(isDark) : null;
+        return new UnoEvent(this, hand, topText, p.name, info, mustPressNext, activeColor, isDark, p.isAI,
+                top, drawPile.size(), order, current, gameOver, handSizes);
+    }
+
+    /**
+     * Makes updates carry the current hand's sorted order, for views that show the hand sorted. The hand keeps
+     * the order up to date itself, so nothing is re-sorted after a draw or a Flip.
+     * @param sortedHands True while a view shows the hand sorted.
+     */
+    public void setSortedHands(boolean sortedHands) {
+        this.sortedHands = sortedHands;
+    }
+
+    /**
+     * Guards the game against slow views: every update is timed and views that go over their budget are
+     * quarantined as the guard says.
+     * @param guard The guard, or null to call views directly.
+     */
+    public void setViewGuard(UnoViewGuard guard) {
+        this.viewGuard = guard;
+    }
+
+    /**
+     * Suspends or resumes view updates. While suspended, state changes are not rendered;
+     * resuming sends one update with the latest state. The end of the game is always delivered.
+     * @param suspended True to suspend updates, false to resume them.
+     */
+    public void setNotifySuspended(boolean suspended) {
+        notifySuspended = suspended;
+        if (!suspended && pendingNotify) {
+            pendingNotify = false;
+            notifyViews();
+        }
+    }
+
+    /**
+     * Checks if a player has won the game.
+     * @return True if the game is over, False otherwise.
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Gets the name of the player who won the game.
+     * @return The winner's name, or null if the game is still running.
+     */
+    public String getWinnerName() {
+        return winner < 0 ? null : players.get(winner).name;
+    }
 
-        UnoEvent event = new UnoEvent(this, handCopy, topText, p.name, info, mustPressNext, activeColor, isDark, p.isAI);
-        for (UnoView v : views) v.handleUpdate(event);
+    /**
+     * Checks if the current player is controlled by AI.
+     * @return True if the current player is an AI, False otherwise.
+     */
+    public boolean isCurrentPlayerAI() {
+        return players.get(current).isAI;
     }
 
     /**
@@ -109,6 +371,7 @@ public class UnoModel {
      * Executes an AI Turn. Finds the best legal move and plays it.
      */
     public void playAITurn() {
+        if (gameOver) return;
         if (mustPressNext) {
             nextPlayer(); // AI just finishing turn
             return;
@@ -117,53 +380,83 @@ public class UnoModel {
         UnoPlayer ai = players.get(current);
         if (!ai.isAI) return;
 
-        // AI Strategy:
-        // 1. Can we win this turn? (Hand size 1 and matches)
-        // 2. Play Action cards (Skip, Draw 5, etc.) to hurt opponents.
-        // 3. Play matching color/rank.
-        // 4. Play Wilds last to save them (unless only option).
+        if (endgameThreshold > 0) {
+            UnoMove solved = solveEndgame(endgameThreshold, endgameBudgetMillis);
+            if (solved != null) {
+                solved.applyTo(this);
+                return;
+            }
+        }
 
-        int bestIdx = -1;
-        int wildIdx = -1;
+        UnoStrategy strategy = strategies[current];
+        (strategy != null ? strategy.chooseMove(this) : greedyMove()).applyTo(this);
+    }
 
-        UnoCard top = discard.peek();
+    /**
+     * Sets the strategy an AI seat plays with.
+     * @param seat The seat.
+     * @param strategy The strategy, or null for the built-in rules.
+     */
+    public void setStrategy(int seat, UnoStrategy strategy) {
+        strategies[seat] = strategy;
+    }
 
-        for (int i = 0; i < ai.hand.size(); i++) {
-            UnoCard c = ai.hand.get(i);
-            if (c.matches(top, activeColor, isDark)) {
-                if (c.isWild(isDark)) {
-                    wildIdx = i;
-                } else if (isActionCard(c)) {
-                    bestIdx = i; // prioritize actions
-                    break;
-                } else {
-                    if (bestIdx == -1) bestIdx = i; // standard match
-                }
-            }
-        }
+    /**
+     * Sets the weights of the built-in rules, which play every AI seat without a strategy.
+     * @param heuristic The heuristic to play with.
+     */
+    public void setHeuristic(UnoHeuristic heuristic) {
+        this.heuristic = heuristic;
+    }
 
-        if (bestIdx == -1 && wildIdx != -1) bestIdx = wildIdx; // Use wild if no other option
-
-        if (bestIdx != -1) {
-            // Play card
-            if (isCardWild(bestIdx)) {
-                // Pick random valid color
-                UnoColor[] opts = isDark ?
-                        new UnoColor[]{UnoColor.TEAL, UnoColor.PINK, UnoColor.PURPLE, UnoColor.ORANGE} :
-                        new UnoColor[]{UnoColor.RED, UnoColor.BLUE, UnoColor.GREEN, UnoColor.YELLOW};
-                playWild(bestIdx, opts[new Random().nextInt(opts.length)]);
-            } else {
-                play(bestIdx);
-            }
-        } else {
-            draw();
-        }
+    // The built-in rules for the current player
+    UnoMove greedyMove() {
+        return heuristic.chooseMove(this);
+    }
+
+    /**
+     * Lets AI players use the endgame solver once few enough cards remain in a two-player game.
+     * @param maxTotalCards Total cards in both hands at or below which the solver is used (0 disables it).
+     * @param budgetMillis Search time allowed per move in milliseconds.
+     */
+    public void setEndgameSolver(int maxTotalCards, long budgetMillis) {
+        this.endgameThreshold = maxTotalCards;
+        this.endgameBudgetMillis = budgetMillis;
+    }
+
+    /**
+     * Asks the endgame solver for the best move of the current player.
+     * @param maxTotalCards Only solve if the total cards in all hands is at or below this threshold.
+     * @param budgetMillis Search time allowed in milliseconds.
+     * @return The best move, or null if the position is not a two-player endgame within the threshold.
+     */
+    public UnoMove solveEndgame(int maxTotalCards, long budgetMillis) {
+        if (players.size() != 2 || mustPressNext || !rules.isStandard()) return null;
+        int total = 0;
+        for (UnoPlayer p : players) total += p.hand.size();
+        if (total > maxTotalCards) return null;
+        return new UnoSolver(this).solve(budgetMillis);
     }
 
-    private boolean isActionCard(UnoCard c) {
-        UnoRank r = c.getRank(isDark);
-        return r == UnoRank.SKIP || r == UnoRank.REVERSE || r == UnoRank.DRAW_ONE ||
-                r == UnoRank.DRAW_FIVE || r == UnoRank.SKIP_EVERYONE || r == UnoRank.FLIP;
+    /**
+     * Lists every legal move of the current player. Wild cards produce one move per side color.
+     * @return The legal moves, drawing a card is always included last.
+     */
+    public List<UnoMove> legalMoves() {
+        List<UnoMove> moves = new ArrayList<>();
+        if (mustPressNext || gameOver) return moves;
+        List<UnoCard> h = players.get(current).hand;
+        UnoCard top = discard.peek();
+        for (int i = 0; i < h.size(); i++) {
+            UnoCard c = h.get(i);
+            if (c.isWild(isDark)) {
+                for (UnoColor color : UnoColor.sideColors(isDark)) moves.add(UnoMove.wild(i, color));
+            } else if (c.matches(top, activeColor, isDark)) {
+                moves.add(UnoMove.play(i));
+            }
+        }
+        moves.add(UnoMove.draw());
+        return moves;
     }
 
     /**
@@ -181,10 +474,16 @@ public class UnoModel {
             throw new IllegalStateException("Illegal move: " + chosen.toText(isDark));
         }
 
+        atDeal = false;
+        if (archive != null) archive.played(p.hand.size(), handIndex, chosen.isWild(isDark), null);
+        if (history != null) history.begin();
         p.hand.remove(handIndex);
         discard.push(chosen);
+        if (history != null) history.played(current, handIndex, chosen);
+        for (UnoGameListener l : listeners) l.cardPlayed(current, chosen);
         activeColor = chosen.getColor(isDark); // Update active color naturally
         handleCardEffect(chosen, p.hand);
+        if (replay != null) replay.played(handIndex);
     }
 
     /**
@@ -197,11 +496,17 @@ public class UnoModel {
         UnoPlayer p = players.get(current);
         UnoCard chosen = p.hand.get(handIndex);
 
+        atDeal = false;
+        if (archive != null) archive.played(p.hand.size(), handIndex, chosen.isWild(isDark), chosenColor);
+        if (history != null) history.begin();
         p.hand.remove(handIndex);
         discard.push(chosen);
+        if (history != null) history.played(current, handIndex, chosen);
+        for (UnoGameListener l : listeners) l.cardPlayed(current, chosen);
         activeColor = chosenColor;
 
         handleCardEffect(chosen, p.hand);
+        if (replay != null) replay.playedWild(handIndex, chosenColor);
     }
 
     /**
@@ -210,10 +515,17 @@ public class UnoModel {
     public void draw() {
         ensureAwaitingAction();
         UnoPlayer p = players.get(current);
-        p.hand.add(popOrRecycle());
+        UnoRank topRank = discard.isEmpty() ? UnoRank.WILD : discard.peek().getRank(isDark);
+        atDeal = false;
+        if (archive != null) archive.drew(p.hand.size());
+        if (history != null) history.begin();
+        for (UnoGameListener l : listeners) l.drewInsteadOfPlaying(current, activeColor, topRank);
+        drawInto(current);
+        for (UnoGameListener l : listeners) l.moveMade(current, null, activeColor, isDark, 0, p.hand.size());
         mustPressNext = true;
         info = p.name + " drew 1 card. Press Next to continue.";
         notifyViews();
+        if (replay != null) replay.drew();
     }
 
     /**
@@ -225,11 +537,103 @@ public class UnoModel {
             throw new IllegalStateException("You must perform an action first.");
         }
 
+        if (history != null) history.begin();
         current = properIndex(current + gameDirection * nextSteps);
         mustPressNext = false;
         nextSteps = 1;
         info = currentPlayerName() + "'s turn.";
         notifyViews();
+        if (replay != null) replay.next();
+    }
+
+    /**
+     * Turns undo and redo on or off. Off by default, since headless and simulated games never step back.
+     * Turning it on starts an empty history; turning it off forgets it.
+     * @param enabled True to record every command so it can be undone.
+     */
+    public void setHistoryEnabled(boolean enabled) {
+        history = enabled ? new UnoHistory(drawPile, discard, players, this::captureScalars, this::restoreScalars) : null;
+    }
+
+    /**
+     * Starts recording the game for review, from the current state on.
+     * @param keyframeInterval Commands between full copies of the game; seeking replays fewer than this.
+     * @return The recording, which grows as the game goes on.
+     */
+    public UnoReplay recordReplay(int keyframeInterval) {
+        replay = new UnoReplay(this, keyframeInterval);
+        return replay;
+    }
+
+    /**
+     * Starts recording the game in the dense archive form. Only a game that was just dealt can be archived.
+     * @return The recording, which grows as the game goes on.
+     * @throws IllegalStateException if a move was already made or the game is a copy.
+     */
+    public UnoArchive recordArchive() {
+        if (!atDeal) throw new IllegalStateException("A game can only be archived from the deal.");
+        archive = new UnoArchive(this);
+        return archive;
+    }
+
+    /**
+     * Takes back the last command (play, wild, draw or next), including every card its effect moved.
+     * Listeners are not told about cards moving back, and a finished game stays recorded wherever it was sent.
+     * @return True if a command was undone, False if there was nothing to undo or history is off.
+     */
+    public boolean undo() {
+        if (history == null || !history.undo()) return false;
+        resyncTrackers();
+        notifyViews();
+        if (replay != null) replay.jumped();
+        if (archive != null) archive.jumped();
+        return true;
+    }
+
+    /**
+     * Makes the last undone command again, exactly as it happened the first time.
+     * @return True if a command was redone, False if there was nothing to redo or history is off.
+     */
+    public boolean redo() {
+        if (history == null || !history.redo()) return false;
+        resyncTrackers();
+        notifyViews();
+        if (replay != null) replay.jumped();
+        if (archive != null) archive.jumped();
+        return true;
+    }
+
+    /**
+     * Checks if there is a command to undo.
+     * @return True if undo() would do something.
+     */
+    public boolean canUndo() {
+        return history != null && history.canUndo();
+    }
+
+    /**
+     * Checks if there is an undone command to redo.
+     * @return True if redo() would do something.
+     */
+    public boolean canRedo() {
+        return history != null && history.canRedo();
+    }
+
+    private UnoHistory.Scalars captureScalars() {
+        return new UnoHistory.Scalars(current, gameDirection, nextSteps, mustPressNext, isDark, gameOver, winner,
+                activeColor, info);
+    }
+
+    private void restoreScalars(UnoHistory.Scalars s) {
+        current = s.current;
+        gameDirection = s.direction;
+        nextSteps = s.nextSteps;
+        mustPressNext = s.mustPressNext;
+        isDark = s.isDark;
+        gameOver = s.gameOver;
+        winner = s.winner;
+        activeColor = s.activeColor;
+        info = s.info;
     }
 
     /**
@@ -242,77 +646,31 @@ public class UnoModel {
 
     private void handleCardEffect(UnoCard chosen, List<UnoCard> currentHand) {
         UnoRank r = chosen.getRank(isDark);
-        String msg = " played " + chosen.toText(isDark);
-        switch (r) {
-            case FLIP -> {
-                isDark = !isDark;
-                // Flip discard pile top, visually just the top card matters, but logically the whole deck flips
-                // Don't actually rotate the list, we just toggle isDark.
-                UnoCard top = discard.peek();
-                assert top != null;
-                activeColor = top.getColor(isDark); // Update active color to the new side of the same card
-                if (top.isWild(isDark)) {
-                    // If flipped onto a wild, we need a color
-                    // Simplified to default color mapping
-                    activeColor = isDark ? UnoColor.TEAL : UnoColor.RED;
-                }
-                msg += " FLIP!";
-            }
-            case DRAW_FIVE -> {
-                int victim = properIndex(current + gameDirection);
-                for(int i=0; i<5; i++) players.get(victim).hand.add(popOrRecycle());
-                nextSteps = 2; // Skip them
-                msg += " (Next draws 5 and skips)";
-            }
-            case SKIP_EVERYONE -> {
-                nextSteps = 0;
-                msg += " (Play again!)";
-            }
-            case WILD_DRAW_COLOR -> {
-                // Next player draws until color match
-                int victim = properIndex(current + gameDirection);
-                UnoPlayer vp = players.get(victim);
-                boolean found = false;
-                int count = 0;
-                while(!found) {
-                    UnoCard c = popOrRecycle();
-                    vp.hand.add(c);
-                    count++;
-                    assert c != null;
-                    if (c.getColor(isDark) == activeColor) found = true;
-                }
-                nextSteps = 2; // They lose turn
-                msg += " (Next drew " + count + " to find " + activeColor + ")";
-            }
-            case REVERSE -> {
-                gameDirection = -gameDirection;
-                nextSteps = 1;
-                info = "Direction reversed.";
-            }
-            case SKIP -> {
-                nextSteps = 2;
-                info = "Skip! The next player is getting skipped.";
-            }
-            case DRAW_ONE -> {
-                int count = 1;
-                int victim = properIndex(current + gameDirection);
-                for(int i=0; i<count; i++) players.get(victim).hand.add(popOrRecycle());
-                nextSteps = 2;
-                msg += " Draw 1";
-            }
-            case WILD_DRAW_TWO -> {
-                int victim = properIndex(current + gameDirection);
-                for(int i=0; i<2; i++) players.get(victim).hand.add(popOrRecycle());
-                nextSteps = 2;
-                msg += " Wild Draw 2";
-            }
-            default -> nextSteps = 1;
+        boolean playedDark = isDark;
+        moveDraws = 0;
+        String msg = " played " + chosen.toText(isDark) + effects[isDark ? 1 : 0][r.ordinal()].apply(this, chosen);
+
+        for (UnoGameListener l : listeners) {
+            l.moveMade(current, chosen, activeColor, playedDark, moveDraws, currentHand.size());
         }
 
         if (currentHand.isEmpty()) {
-            info = players.get(current).name + " WON! Score: " + calculateScore();
+            gameOver = true;
+            winner = current;
+            int score = calculateScore();
+            info = players.get(current).name + " WON! Score: " + score;
+            if (!listeners.isEmpty()) {
+                UnoGameResult result = buildResult(score);
+                for (UnoGameListener l : listeners) l.gameEnded(result);
+            }
+            notifySuspended = false; // The final state is always shown
+            pendingNotify = false;
             notifyViews();
-            for(UnoView v : views) v.handleEnd(info);
+            for (Iterator<UnoView> it = views.iterator(); it.hasNext(); ) {
+                UnoView v = it.next();
+                if (viewGuard == null) v.handleEnd(info);
+                else if (!viewGuard.end(v, info)) it.remove();
+            }
             return;
         }
 
@@ -321,25 +679,59 @@ public class UnoModel {
         notifyViews();
     }
 
+    private UnoGameResult buildResult(int score) {
+        int n = players.size();
+        List<String> names = new ArrayList<>(n);
+        int[] points = new int[n];
+        int[] handSizes = new int[n];
+        int[] drawn = new int[n];
+        for (int i = 0; i < n; i++) {
+            UnoPlayer p = players.get(i);
+            names.add(p.name);
+            points[i] = handPoints(p);
+            handSizes[i] = p.hand.size();
+            drawn[i] = p.cardsDrawn;
+        }
+        return new UnoGameResult(names, winner, score, points, handSizes, drawn);
+    }
+
     // Uno Flip scoring now kept
     private int calculateScore() {
         int score = 0;
-        for (UnoPlayer p : players) {
-            for (UnoCard c : p.hand) {
-                UnoRank r = c.getRank(isDark);
-                switch (r) {
-                    case WILD_DRAW_COLOR -> score += 60;
-                    case WILD_DRAW_TWO -> score += 50;
-                    case WILD -> score += 40;
-                    case DRAW_FIVE, FLIP, DRAW_ONE, SKIP, REVERSE-> score += 20;
-                    case SKIP_EVERYONE -> score += 30;
-                    default -> score += (r.ordinal() < 10 ? r.ordinal() : 0);
-                }
-            }
-        }
+        for (UnoPlayer p : players) score += handPoints(p);
         return score;
     }
 
+    private int handPoints(UnoPlayer p) {
+        int points = 0;
+        for (UnoCard c : p.hand) points += cardPoints(c.getRank(isDark));
+        return points;
+    }
+
+    // Points a card left in hand is worth to the winner
+    static int cardPoints(UnoRank r) {
+        return switch (r) {
+            case WILD_DRAW_COLOR -> 60;
+            case WILD_DRAW_TWO -> 50;
+            case WILD -> 40;
+            case DRAW_FIVE, FLIP, DRAW_ONE, SKIP, REVERSE -> 20;
+            case SKIP_EVERYONE -> 30;
+            default -> r.ordinal() < 10 ? r.ordinal() : 0;
+        };
+    }
+
+    // Moves the top card of the draw pile into a player's hand, returns null if no cards are left
+    UnoCard drawInto(int seat) {
+        UnoCard c = popOrRecycle();
+        if (c == null) return null;
+        players.get(seat).hand.add(c);
+        players.get(seat).cardsDrawn++;
+        moveDraws++;
+        if (history != null) history.drew(seat, c);
+        for (UnoGameListener l : listeners) l.cardDrawn(seat, c);
+        return c;
+    }
+
     private UnoCard popOrRecycle() {
         if (drawPile.isEmpty()) {
             recycle();
@@ -351,19 +743,26 @@ public class UnoModel {
         if (discard.isEmpty()) return;
         UnoCard top = discard.pop();
         List<UnoCard> back = new ArrayList<>(discard);
+        List<UnoCard> before = history != null ? new ArrayList<>(back) : null;
         discard.clear();
         discard.push(top);
-        Collections.shuffle(back);
+        Collections.shuffle(back, rng);
         back.forEach(drawPile::push);
+        if (history != null) history.recycled(top, before, back);
+        if (replay != null) replay.recycled();
+        for (UnoGameListener l : listeners) l.pileRecycled();
     }
 
     // Just a helper to deal with getting the proper player index
-    private int properIndex(int idx) {
+    int properIndex(int idx) {
         int n = players.size();
         return ((idx % n) + n) % n;
     }
 
     private void ensureAwaitingAction() {
+        if (gameOver) {
+            throw new IllegalStateException("The game is over.");
+        }
         if (mustPressNext) {
             throw new IllegalStateException("Press next to continue.");
         }
@@ -373,8 +772,13 @@ public class UnoModel {
         return players.get(current).name;
     }
 
-    private List<UnoCard> buildFlipDeck() {
-        List<UnoCard> deck = new ArrayList<>();
+    // Number of decks needed so at least as many cards stay in the draw pile as are dealt
+    static int decksFor(int numPlayers) {
+        return Math.max(1, (2 * numPlayers * HAND_SIZE + DECK_SIZE - 1) / DECK_SIZE);
+    }
+
+    // Appends one Uno Flip deck, card ids continue from the cards already in the list
+    static void buildFlipDeck(List<UnoCard> deck) {
         // Simple mapping for M3:
         // Light: Red <-> Dark: Orange
         // Light: Blue <-> Dark: Pink
@@ -393,34 +797,118 @@ public class UnoModel {
             for (int n=1; n<=9; n++) {
                 UnoRank lr = UnoRank.values()[n]; // ONE to NINE
                 UnoRank dr = UnoRank.values()[n]; // Same rank dark side often
-                deck.add(new UnoCard(l, lr, d, dr));
-                deck.add(new UnoCard(l, lr, d, dr));
+                deck.add(new UnoCard(deck.size(), l, lr, d, dr));
+                deck.add(new UnoCard(deck.size(), l, lr, d, dr));
             }
 
             // Action Cards
-            deck.add(new UnoCard(l, UnoRank.SKIP, d, UnoRank.SKIP_EVERYONE));
-            deck.add(new UnoCard(l, UnoRank.REVERSE, d, UnoRank.REVERSE));
-            deck.add(new UnoCard(l, UnoRank.DRAW_ONE, d, UnoRank.DRAW_FIVE)); // Light Draw 1 maps to Dark Draw 5
+            deck.add(new UnoCard(deck.size(), l, UnoRank.SKIP, d, UnoRank.SKIP_EVERYONE));
+            deck.add(new UnoCard(deck.size(), l, UnoRank.REVERSE, d, UnoRank.REVERSE));
+            deck.add(new UnoCard(deck.size(), l, UnoRank.DRAW_ONE, d, UnoRank.DRAW_FIVE)); // Light Draw 1 maps to Dark Draw 5
 
             // Flip Cards
-            deck.add(new UnoCard(l, UnoRank.FLIP, d, UnoRank.FLIP));
-            deck.add(new UnoCard(l, UnoRank.FLIP, d, UnoRank.FLIP));
+            deck.add(new UnoCard(deck.size(), l, UnoRank.FLIP, d, UnoRank.FLIP));
+            deck.add(new UnoCard(deck.size(), l, UnoRank.FLIP, d, UnoRank.FLIP));
         }
 
         // Wilds
         for(int i=0; i<4; i++) {
             // Light Wild -> Dark Wild Draw Color
-            deck.add(new UnoCard(UnoColor.WILD, UnoRank.WILD, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR));
+            deck.add(new UnoCard(deck.size(), UnoColor.WILD, UnoRank.WILD, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR));
             // Light Wild Draw 2 -> Dark Wild Draw Color
-            deck.add(new UnoCard(UnoColor.WILD, UnoRank.WILD_DRAW_TWO, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR));
+            deck.add(new UnoCard(deck.size(), UnoColor.WILD, UnoRank.WILD_DRAW_TWO, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR));
+        }
+    }
+
+    // Operations used by card effect handlers
+    int victimIndex() { return properIndex(current + gameDirection); }
+    void setNextSteps(int steps) { nextSteps = steps; }
+    void reverseDirection() { gameDirection = -gameDirection; }
+
+    void flipSide() {
+        isDark = !isDark;
+        // Flip discard pile top, visually just the top card matters, but logically the whole deck flips
+        // Don't actually rotate the list, we just toggle isDark.
+        UnoCard top = discard.peek();
+        assert top != null;
+        activeColor = top.getColor(isDark); // Update active color to the new side of the same card
+        if (top.isWild(isDark)) {
+            // If flipped onto a wild, we need a color
+            // Simplified to default color mapping
+            activeColor = isDark ? UnoColor.TEAL : UnoColor.RED;
         }
+        for (UnoGameListener l : listeners) l.sideFlipped(isDark);
+    }
 
-        return deck;
+    void swapHands(int a, int b) {
+        List<UnoCard> tmp = new ArrayList<>(players.get(a).hand);
+        players.get(a).hand.clear();
+        players.get(a).hand.addAll(players.get(b).hand);
+        players.get(b).hand.clear();
+        players.get(b).hand.addAll(tmp);
+        if (history != null) history.swapped(a, b);
+        resyncTrackers(); // Hands moved in the open, trackers start over from the new hands
     }
 
+    void rotateHands(int direction) {
+        passHands(players, direction);
+        if (history != null) history.rotated(direction);
+        resyncTrackers();
+    }
+
+    // Every hand moves one seat along the direction, in one pass
+    static void passHands(List<UnoPlayer> players, int direction) {
+        int n = players.size();
+        List<List<UnoCard>> hands = new ArrayList<>(n);
+        for (UnoPlayer p : players) hands.add(new ArrayList<>(p.hand));
+        for (int s = 0; s < n; s++) {
+            UnoHand to = players.get(((s + direction) % n + n) % n).hand;
+            to.clear();
+            to.addAll(hands.get(s));
+        }
+    }
+
+    // State accessors used by the solver and other analysis tools
+    int getPlayerCount() { return players.size(); }
+    UnoPlayer getPlayer(int idx) { return players.get(idx); }
+    int getCurrentIndex() { return current; }
+    int getWinnerIndex() { return winner; }
+    int getNextSeat() { return mustPressNext ? properIndex(current + gameDirection * nextSteps) : current; }
+    int getDirection() { return gameDirection; }
+    UnoColor getActiveColor() { return activeColor; }
+    boolean isMustPressNext() { return mustPressNext; }
+    UnoRuleSet getRules() { return rules; }
+    Collection<UnoCard> getDrawPile() { return Collections.unmodifiableCollection(drawPile); }
+    Collection<UnoCard> getDiscardPile() { return Collections.unmodifiableCollection(discard); }
+    UnoCard[] getDeck() { return deckById; }
+    int getDeckCount() { return deckById.length / DECK_SIZE; }
+    long getSeed() { return seed; }
+
     // Testing Helpers
-    public void setTopCard(UnoCard c) { discard.push(c); activeColor = c.getColor(isDark); }
+    public void setTopCard(UnoCard c) {
+        discard.push(c);
+        activeColor = c.getColor(isDark);
+        changedByHand();
+    }
+
     public UnoCard getDiscardTop() { return discard.peek(); }
     public boolean isDark() { return isDark; }
-    public void forceHand(int playerIdx, List<UnoCard> cards) { players.get(playerIdx).hand.clear(); players.get(playerIdx).hand.addAll(cards); }
+
+    public void forceHand(int playerIdx, List<UnoCard> cards) {
+        UnoHand hand = players.get(playerIdx).hand;
+        hand.clear();
+        hand.addAll(cards);
+        changedByHand();
+    }
+
+    // The state was changed outside the rules: undo, trackers, replays and archives cannot follow it
+    private void changedByHand() {
+        if (history != null) history.clear();
+        resyncTrackers();
+        atDeal = false;
+        if (replay != null) replay.jumped();
+        if (archive != null) archive.jumped();
+    }
+
+    private void resyncTrackers() { if (sharedTracker != null) sharedTracker.reset(this); }
 }
@@ -166,4 +166,55 @@ public class UnoModelTest {
 
         assertTrue(view.lastInfo.contains("WON"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that player counts outside the supported range are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooFewPlayers() {
+        new UnoModel(1, List.of("Solo"), List.of(false));
+    }
+
+    /**
+     * Tests a large table with combined decks and turn advancement around it.
+     */
+    @Test
+    public void testLargeTableMultipleDecks() {
+        int n = 50;
+        List<String> names = new ArrayList<>();
+        List<Boolean> ai = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            names.add("P" + i);
+            ai.add(false);
+        }
+        UnoModel big = new UnoModel(n, names, ai, 4);
+        UnoViewStub stub = new UnoViewStub();
+        big.addView(stub);
+
+        assertEquals(400, big.getDeck().length);
+        Set<Integer> ids = new HashSet<>();
+        for (UnoCard c : big.getDeck()) ids.add(c.getId());
+        assertEquals("Card ids must be unique across decks", 400, ids.size());
+        assertEquals(400 - n * 7 - 1, big.getDrawPileSize());
+
+        for (int i = 0; i < n; i++) {
+            big.draw();
+            big.nextPlayer();
+        }
+        assertEquals("Turn should wrap around the table", "P0", stub.lastEvent.getCurrentPlayerName());
+    }
+
+    /**
+     * Tests that the deck count is checked against the number of players.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotEnoughDecks() {
+        List<String> names = new ArrayList<>();
+        List<Boolean> ai = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            names.add("P" + i);
+            ai.add(false);
+        }
+        new UnoModel(20, names, ai, 1);
+    }
+}
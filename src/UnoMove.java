@@ -0,0 +1,110 @@
+import java.util.Objects;
+/**
+ * Represents a single turn action a player can take: playing a card, playing a wild
+ * card with a chosen color, or drawing a card.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public final class UnoMove {
+    /**
+     * The kinds of turn actions.
+     */
+    public enum Type { PLAY, WILD, DRAW }
+
+    private static final UnoMove DRAW = new UnoMove(Type.DRAW, -1, UnoColor.NONE);
+
+    private final Type type;
+    private final int handIndex;
+    private final UnoColor color;
+
+    private UnoMove(Type type, int handIndex, UnoColor color) {
+        this.type = type;
+        this.handIndex = handIndex;
+        this.color = color;
+    }
+
+    /**
+     * Creates a move that plays a regular card.
+     * @param handIndex Index of the card in the current player's hand.
+     * @return The move.
+     */
+    public static UnoMove play(int handIndex) {
+        return new UnoMove(Type.PLAY, handIndex, UnoColor.NONE);
+    }
+
+    /**
+     * Creates a move that plays a wild card with a chosen color.
+     * @param handIndex Index of the card in the current player's hand.
+     * @param color The color selected for the wild.
+     * @return The move.
+     */
+    public static UnoMove wild(int handIndex, UnoColor color) {
+        return new UnoMove(Type.WILD, handIndex, color);
+    }
+
+    /**
+     * Returns the move that draws a card.
+     * @return The draw move.
+     */
+    public static UnoMove draw() {
+        return DRAW;
+    }
+
+    /**
+     * Applies this move to the model for the current player.
+     * @param model The model to play on.
+     */
+    public void applyTo(UnoModel model) {
+        switch (type) {
+            case PLAY -> model.play(handIndex);
+            case WILD -> model.playWild(handIndex, color);
+            case DRAW -> model.draw();
+        }
+    }
+
+    /**
+     * Gets the kind of move.
+     * @return The move type.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the hand index of the played card.
+     * @return Index in the hand, or -1 for a draw.
+     */
+    public int getHandIndex() {
+        return handIndex;
+    }
+
+    /**
+     * Gets the chosen color of a wild play.
+     * @return The chosen color, or NONE if this is not a wild play.
+     */
+    public UnoColor getColor() {
+        return color;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UnoMove)) return false;
+        UnoMove m = (UnoMove) o;
+        return type == m.type && handIndex == m.handIndex && color == m.color;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, handIndex, color);
+    }
+
+    @Override
+    public String toString() {
+        return switch (type) {
+            case PLAY -> "PLAY:" + handIndex;
+            case WILD -> "WILD:" + handIndex + ":" + color;
+            case DRAW -> "DRAW";
+        };
+    }
+}
@@ -1,5 +1,3 @@
-import java.util.ArrayList;
-import java.util.List;
 /**
  * Represents a single Uno player and stores that player's hand of cards.
  * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
@@ -8,7 +6,8 @@ import java.util.List;
 public class UnoPlayer {
     public final String name;
     public final boolean isAI;
-    public final List<UnoCard> hand = new ArrayList<>();
+    public final UnoHand hand = new UnoHand();
+    public int cardsDrawn = 0; // Cards drawn during play, the opening deal not included
 
     /**
      * Constructor for UnoPlayer.
@@ -0,0 +1,197 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * Builds the table of UnoPolicyTable offline with the simulator.
+ * <p>
+ * Most combinations of the abstract state never come up in play and none of them fixes a whole position, so rather
+ * than listing states one by one the generator plays games and stops at every decision. There each kind of move
+ * open to the player is tried in a number of rollouts, with the hidden cards dealt again and the game played out by
+ * the table's fixed order, and the wins are added up under the position's state. A state gets a move kind of its
+ * own only where that kind clearly beat the fixed order, by {@link #MARGIN} standard errors; everywhere else the
+ * table keeps the fixed order, so thinly sampled states cannot make the strategy worse.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoPolicyGenerator {
+    private static final int MAX_ACTIONS = 2000;
+    static final double MARGIN = 2; // Standard errors a move must win by to replace the fixed order
+
+    private final int players;
+    private final int threads;
+    private final long seed;
+    private int rollouts = 16;
+
+    private final AtomicIntegerArray wins = new AtomicIntegerArray(UnoPolicyTable.STATES * UnoPolicyTable.ACTIONS);
+    private final AtomicIntegerArray tries = new AtomicIntegerArray(UnoPolicyTable.STATES * UnoPolicyTable.ACTIONS);
+    private final AtomicLong positions = new AtomicLong();
+
+    /**
+     * Constructor for UnoPolicyGenerator using every core.
+     * @param players Players per simulated game.
+     * @param seed Seed for the games.
+     */
+    public UnoPolicyGenerator(int players, long seed) {
+        this(players, Runtime.getRuntime().availableProcessors(), seed);
+    }
+
+    /**
+     * Constructor for UnoPolicyGenerator.
+     * @param players Players per simulated game.
+     * @param threads Number of simulation threads.
+     * @param seed Seed for the games.
+     */
+    public UnoPolicyGenerator(int players, int threads, long seed) {
+        if (players < UnoModel.MIN_PLAYERS || players > UnoModel.MAX_PLAYERS) {
+            throw new IllegalArgumentException("Number of players must be " + UnoModel.MIN_PLAYERS + "–" + UnoModel.MAX_PLAYERS + ".");
+        }
+        if (threads < 1) throw new IllegalArgumentException("Generating needs at least one thread.");
+        this.players = players;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the number of rollouts per kind of move at each position.
+     * @param rollouts The rollout count.
+     */
+    public void setRollouts(int rollouts) {
+        if (rollouts < 1) throw new IllegalArgumentException("Each move needs at least one rollout.");
+        this.rollouts = rollouts;
+    }
+
+    /**
+     * Simulates until a number of positions has been analysed. Can be called again to add more.
+     * @param count Number of positions to analyse.
+     * @return The table, one move kind per state.
+     * @throws InterruptedException if interrupted while waiting for the simulations.
+     */
+    public byte[] generate(long count) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long target = positions.get() + count;
+        long round = positions.get();
+        for (int t = 0; t < threads; t++) {
+            long threadSeed = seed + 0x9E3779B97F4A7C15L * (round + t + 1);
+            pool.execute(() -> simulate(target, threadSeed));
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        return getTable();
+    }
+
+    // Simulation thread: plays games and analyses every decision until enough positions were seen
+    private void simulate(long target, long threadSeed) {
+        Random rnd = new Random(threadSeed);
+        List<String> names = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) names.add("Bot " + i);
+        List<Boolean> ai = Collections.nCopies(players, true);
+        long[] dealSeeds = new long[rollouts];
+        while (positions.get() < target) {
+            UnoModel m = new UnoModel(players, names, ai, UnoModel.decksFor(players), UnoRuleSet.standard(), rnd.nextLong());
+            for (int a = 0; a < MAX_ACTIONS && !m.isGameOver() && positions.get() < target; a++) {
+                if (!m.isMustPressNext()) {
+                    int base = UnoPolicyTable.stateOf(m) * UnoPolicyTable.ACTIONS;
+                    for (int r = 0; r < rollouts; r++) dealSeeds[r] = rnd.nextLong();
+                    for (int kind : UnoPolicyTable.legalKinds(m)) {
+                        UnoMove move = UnoPolicyTable.toMove(m, kind);
+                        int won = 0;
+                        for (int r = 0; r < rollouts; r++) {
+                            if (rollout(m, move, dealSeeds[r])) won++; // Same deals for every kind, a fairer comparison
+                        }
+                        wins.addAndGet(base + kind, won);
+                        tries.addAndGet(base + kind, rollouts);
+                    }
+                    positions.incrementAndGet();
+                }
+                if (m.isMustPressNext()) m.nextPlayer();
+                else UnoPolicyTable.toMove(m, UnoPolicyTable.defaultKind(m)).applyTo(m);
+            }
+        }
+    }
+
+    // Deal the hidden cards again, make the move, play the game out with the table's fixed order
+    private static boolean rollout(UnoModel root, UnoMove move, long seed) {
+        int seat = root.getCurrentIndex();
+        UnoModel m = new UnoModel(root, seed);
+        m.shuffleHidden(seat);
+        move.applyTo(m);
+        for (int i = 0; i < MAX_ACTIONS && !m.isGameOver(); i++) {
+            if (m.isMustPressNext()) m.nextPlayer();
+            else UnoPolicyTable.toMove(m, UnoPolicyTable.defaultKind(m)).applyTo(m);
+        }
+        return m.getWinnerIndex() == seat;
+    }
+
+    /**
+     * Gets the table from the rollouts so far.
+     * @return One move kind per state, 0 where the fixed order is kept.
+     */
+    public byte[] getTable() {
+        byte[] table = new byte[UnoPolicyTable.STATES];
+        for (int s = 0; s < table.length; s++) {
+            int base = s * UnoPolicyTable.ACTIONS;
+            int fallback = -1; // The kinds open follow from the state, so this is what the fixed order made here
+            for (int k : UnoPolicyTable.DEFAULT_ORDER) {
+                if (tries.get(base + k) > 0) {
+                    fallback = k;
+                    break;
+                }
+            }
+            if (fallback < 0) continue;
+            double fallbackRate = rate(base + fallback);
+            double best = fallbackRate;
+            for (int k = UnoPolicyTable.DRAW; k < UnoPolicyTable.ACTIONS; k++) {
+                int i = base + k;
+                if (tries.get(i) == 0 || k == fallback) continue;
+                double p = (rate(i) + fallbackRate) / 2;
+                double error = Math.sqrt(p * (1 - p) * (1.0 / tries.get(i) + 1.0 / tries.get(base + fallback)));
+                if (rate(i) > best && rate(i) - fallbackRate > MARGIN * error) {
+                    best = rate(i);
+                    table[s] = (byte) k;
+                }
+            }
+        }
+        return table;
+    }
+
+    private double rate(int i) {
+        return (double) wins.get(i) / tries.get(i);
+    }
+
+    /**
+     * Saves the table from the rollouts so far for UnoPolicyTable.load.
+     * @param file The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        UnoPolicyTable.save(getTable(), file);
+    }
+
+    /**
+     * Gets the number of positions analysed.
+     * @return Positions analysed.
+     */
+    public long getPositions() {
+        return positions.get();
+    }
+
+    /**
+     * Gets the number of states at least one position was seen in.
+     * @return States seen.
+     */
+    public int getStatesSeen() {
+        int seen = 0;
+        for (int s = 0; s < UnoPolicyTable.STATES; s++) {
+            if (tries.get(s * UnoPolicyTable.ACTIONS + UnoPolicyTable.DRAW) > 0) seen++;
+        }
+        return seen;
+    }
+}
@@ -0,0 +1,243 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+/**
+ * AI strategy that decides with one lookup in a precomputed table, as built by UnoPolicyGenerator.
+ * <p>
+ * A position is reduced to an abstract state: what the current hand holds on the side in play (numbers and
+ * action cards of the active color, cards that match the top rank in another color, other cards, plain wilds and
+ * drawing wilds), whether it holds wilds on the other side, the side in play, the kind of top card, whether the
+ * active color is the one the hand holds most of, and the hand sizes of the next player and of the shortest other
+ * hand, in buckets. The table holds one byte per state naming the kind of move to make, which is then turned
+ * into a card of the hand, a wild being set to the color the hand holds most of. Where the table has no answer the
+ * first kind of move open in a fixed order is made: action cards, then numbers, a change of color, wilds, drawing.
+ * <p>
+ * The file is memory-mapped and only read, so it costs no heap and every table in the process shares the same pages.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoPolicyTable implements UnoStrategy {
+    private static final int MAGIC = 0x554E4F50; // "UNOP"
+    private static final int VERSION = 1;
+    private static final int HEADER = 12;
+
+    // Kinds of move, as stored in the table; 0 means no answer
+    static final byte NONE = 0;
+    static final byte DRAW = 1;
+    static final byte COLOR_NUMBER = 2;
+    static final byte COLOR_ACTION = 3;
+    static final byte SWITCH = 4;
+    static final byte WILD = 5;
+    static final byte WILD_DRAW = 6;
+    static final int ACTIONS = 7;
+    static final byte[] DEFAULT_ORDER = {COLOR_ACTION, COLOR_NUMBER, SWITCH, WILD, WILD_DRAW, DRAW};
+
+    /** Number of abstract states. */
+    public static final int STATES = 4 * 3 * 2 * 5 * 3 * 2 * 2 * 2 * 3 * 2 * 4 * 4;
+
+    private final ByteBuffer table;
+
+    /**
+     * Constructor for UnoPolicyTable over a table already in memory.
+     * @param table One move kind per state.
+     */
+    public UnoPolicyTable(byte[] table) {
+        if (table.length != STATES) throw new IllegalArgumentException("Expected " + STATES + " states, got " + table.length + ".");
+        this.table = ByteBuffer.wrap(table.clone());
+    }
+
+    private UnoPolicyTable(ByteBuffer table) {
+        this.table = table;
+    }
+
+    /**
+     * Maps a table file into memory.
+     * @param file The file written by save.
+     * @return The strategy, reading straight from the mapped file.
+     * @throws IOException if the file cannot be read or was made for other states.
+     */
+    public static UnoPolicyTable load(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() != HEADER + STATES) throw new IOException("Policy table has the wrong size: " + file);
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()); // Stays mapped after closing
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) throw new IOException("Not a policy table: " + file);
+            if (map.getInt(8) != STATES) throw new IOException("Policy table was built for different states: " + file);
+            return new UnoPolicyTable(map.slice(HEADER, STATES));
+        }
+    }
+
+    /**
+     * Saves a table to a file.
+     * @param table One move kind per state.
+     * @param file The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void save(byte[] table, Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(table.length);
+            out.write(table);
+        }
+    }
+
+    /**
+     * Gets the move kind stored for a state.
+     * @param state The state, from stateOf.
+     * @return The move kind, 0 if the table has no answer.
+     */
+    public int lookup(int state) {
+        return table.get(state);
+    }
+
+    @Override
+    public UnoMove chooseMove(UnoModel model) {
+        UnoMove move = toMove(model, table.get(stateOf(model)));
+        return move != null ? move : toMove(model, defaultKind(model));
+    }
+
+    /**
+     * Gets the kind of move played where the table has no answer.
+     * @param model The game, waiting for the current player to act.
+     * @return The first kind open in the fixed order.
+     */
+    static int defaultKind(UnoModel model) {
+        for (byte k : DEFAULT_ORDER) {
+            if (toMove(model, k) != null) return k;
+        }
+        return DRAW;
+    }
+
+    /**
+     * Reduces the position of the current player to its abstract state.
+     * @param model The game, waiting for the current player to act.
+     * @return The state, from 0 to STATES - 1.
+     */
+    public static int stateOf(UnoModel model) {
+        boolean dark = model.isDark();
+        int seat = model.getCurrentIndex();
+        UnoHand hand = model.getPlayer(seat).hand;
+        UnoColor active = model.getActiveColor();
+        UnoCard top = model.getDiscardTop();
+        UnoRank topRank = top.getRank(dark);
+
+        int colorNumbers = 0, colorActions = 0, switches = 0, others = 0, wilds = 0, drawWilds = 0, otherWilds = 0;
+        for (UnoCard c : hand) {
+            UnoRank r = c.getRank(dark);
+            if (c.isWild(!dark)) otherWilds++;
+            if (c.isWild(dark)) {
+                if (r == UnoRank.WILD) wilds++;
+                else drawWilds++;
+            } else if (c.getColor(dark) == active) {
+                if (isAction(r)) colorActions++;
+                else colorNumbers++;
+            } else if (r == topRank) {
+                switches++;
+            } else {
+                others++;
+            }
+        }
+        int topKind = top.isWild(dark) ? 2 : isAction(topRank) ? 1 : 0;
+
+        int n = model.getPlayerCount();
+        int next = model.properIndex(seat + model.getDirection());
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            if (i != seat && (i != next || n == 2)) min = Math.min(min, model.getPlayer(i).hand.size());
+        }
+
+        int s = Math.min(colorNumbers, 3);
+        s = s * 3 + Math.min(colorActions, 2);
+        s = s * 2 + Math.min(switches, 1);
+        s = s * 5 + (others <= 2 ? others : others <= 4 ? 3 : 4);
+        s = s * 3 + Math.min(wilds, 2);
+        s = s * 2 + Math.min(drawWilds, 1);
+        s = s * 2 + Math.min(otherWilds, 1);
+        s = s * 2 + (dark ? 1 : 0);
+        s = s * 3 + topKind;
+        s = s * 2 + (active == mostHeld(hand, dark) ? 1 : 0);
+        s = s * 4 + sizeBucket(model.getPlayer(next).hand.size());
+        s = s * 4 + sizeBucket(min);
+        return s;
+    }
+
+    /**
+     * Turns a move kind into a move of the current player.
+     * @param model The game, waiting for the current player to act.
+     * @param kind The move kind.
+     * @return The move, or null if the hand has no such move.
+     */
+    static UnoMove toMove(UnoModel model, int kind) {
+        if (kind == DRAW) return UnoMove.draw();
+        if (kind == NONE) return null;
+        boolean dark = model.isDark();
+        UnoHand hand = model.getPlayer(model.getCurrentIndex()).hand;
+        UnoColor active = model.getActiveColor();
+        UnoRank topRank = model.getDiscardTop().getRank(dark);
+        UnoColor most = mostHeld(hand, dark);
+
+        int found = -1;
+        for (int i = 0; i < hand.size() && found < 0; i++) {
+            UnoCard c = hand.get(i);
+            UnoRank r = c.getRank(dark);
+            boolean wild = c.isWild(dark);
+            boolean ok = switch (kind) {
+                case COLOR_NUMBER -> !wild && c.getColor(dark) == active && !isAction(r);
+                case COLOR_ACTION -> !wild && c.getColor(dark) == active && isAction(r);
+                case SWITCH -> !wild && c.getColor(dark) != active && r == topRank && c.getColor(dark) == most;
+                case WILD -> r == UnoRank.WILD;
+                case WILD_DRAW -> wild && r != UnoRank.WILD;
+                default -> false;
+            };
+            if (ok) found = i;
+        }
+        if (found < 0 && kind == SWITCH) { // None in the color held most, any other color will do
+            for (int i = 0; i < hand.size() && found < 0; i++) {
+                UnoCard c = hand.get(i);
+                if (!c.isWild(dark) && c.getColor(dark) != active && c.getRank(dark) == topRank) found = i;
+            }
+        }
+        if (found < 0) return null;
+        return hand.get(found).isWild(dark) ? UnoMove.wild(found, most) : UnoMove.play(found);
+    }
+
+    /**
+     * Lists the move kinds open to the current player.
+     * @param model The game, waiting for the current player to act.
+     * @return The move kinds, draw first.
+     */
+    static List<Integer> legalKinds(UnoModel model) {
+        List<Integer> kinds = new java.util.ArrayList<>(ACTIONS);
+        for (int k = DRAW; k < ACTIONS; k++) {
+            if (toMove(model, k) != null) kinds.add(k);
+        }
+        return kinds;
+    }
+
+    private static boolean isAction(UnoRank r) {
+        return r.ordinal() > UnoRank.NINE.ordinal();
+    }
+
+    // The side color the hand holds most of, the color a wild is set to
+    private static UnoColor mostHeld(UnoHand hand, boolean dark) {
+        UnoColor best = null;
+        int bestCount = -1;
+        for (UnoColor c : UnoColor.sideColors(dark)) {
+            int count = hand.countColor(dark, c);
+            if (count > bestCount) {
+                bestCount = count;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private static int sizeBucket(int size) {
+        return size <= 1 ? 0 : size == 2 ? 1 : size <= 4 ? 2 : 3;
+    }
+}
@@ -0,0 +1,101 @@
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoPolicyTable and UnoPolicyGenerator
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoPolicyTableTest {
+
+    /**
+     * Tests that states are in range and tell apart hands that play differently.
+     */
+    @Test
+    public void testStates() {
+        UnoModel m = UnoTestTables.create(3, 1L);
+        int state = UnoPolicyTable.stateOf(m);
+        assertTrue(state >= 0 && state < UnoPolicyTable.STATES);
+
+        UnoColor active = m.getActiveColor();
+        UnoRank topRank = m.getDiscardTop().getRank(false);
+        UnoRank other = topRank == UnoRank.THREE ? UnoRank.FOUR : UnoRank.THREE;
+        UnoColor otherColor = active == UnoColor.RED ? UnoColor.BLUE : UnoColor.RED;
+        m.forceHand(0, new ArrayList<>(List.of(new UnoCard(active, other, UnoColor.PINK, UnoRank.ONE))));
+        int matching = UnoPolicyTable.stateOf(m);
+        m.forceHand(0, new ArrayList<>(List.of(new UnoCard(otherColor, other, UnoColor.PINK, UnoRank.ONE))));
+        int stuck = UnoPolicyTable.stateOf(m);
+        assertNotEquals(matching, stuck);
+        assertEquals(UnoMove.draw(), new UnoPolicyTable(new byte[UnoPolicyTable.STATES]).chooseMove(m));
+    }
+
+    /**
+     * Tests that an empty table plays the fixed order: the only matching card.
+     */
+    @Test
+    public void testEmptyTablePlaysFixedOrder() {
+        UnoModel m = UnoTestTables.create(2, 3L);
+        UnoColor active = m.getActiveColor();
+        UnoRank topRank = m.getDiscardTop().getRank(false);
+        UnoRank other = topRank == UnoRank.THREE ? UnoRank.FOUR : UnoRank.THREE;
+        UnoColor otherColor = active == UnoColor.RED ? UnoColor.BLUE : UnoColor.RED;
+        m.forceHand(0, new ArrayList<>(List.of(
+                new UnoCard(otherColor, other, UnoColor.PINK, UnoRank.ONE),
+                new UnoCard(active, UnoRank.SKIP, UnoColor.PINK, UnoRank.TWO),
+                new UnoCard(UnoColor.WILD, UnoRank.WILD, UnoColor.TEAL, UnoRank.FIVE))));
+        UnoPolicyTable empty = new UnoPolicyTable(new byte[UnoPolicyTable.STATES]);
+        assertEquals(UnoMove.play(1), empty.chooseMove(m));
+
+        byte[] table = new byte[UnoPolicyTable.STATES];
+        table[UnoPolicyTable.stateOf(m)] = UnoPolicyTable.WILD;
+        UnoMove wild = new UnoPolicyTable(table).chooseMove(m);
+        assertEquals(UnoMove.Type.WILD, wild.getType());
+        assertEquals(2, wild.getHandIndex());
+    }
+
+    /**
+     * Tests that a generated table survives the file and plays whole games from the mapped copy.
+     */
+    @Test
+    public void testGenerateSaveAndPlay() throws Exception {
+        UnoPolicyGenerator generator = new UnoPolicyGenerator(2, 1, 4L);
+        generator.setRollouts(4);
+        byte[] table = generator.generate(300);
+        assertTrue(generator.getPositions() >= 300);
+        assertTrue(generator.getStatesSeen() > 0);
+
+        Path file = Files.createTempFile("uno-policy", ".bin");
+        try {
+            generator.save(file);
+            assertEquals(12 + UnoPolicyTable.STATES, Files.size(file));
+            UnoPolicyTable policy = UnoPolicyTable.load(file);
+            for (int s = 0; s < UnoPolicyTable.STATES; s++) assertEquals(table[s], policy.lookup(s));
+
+            for (long seed = 0; seed < 3; seed++) {
+                UnoModel m = UnoTestTables.create(3, seed);
+                for (int seat = 0; seat < 3; seat++) m.setStrategy(seat, policy);
+                UnoHeadless.play(m);
+                assertTrue(m.isGameOver());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that files that are not policy tables are refused.
+     */
+    @Test(expected = IOException.class)
+    public void testForeignFile() throws Exception {
+        Path file = Files.createTempFile("uno-policy", ".bin");
+        try {
+            Files.write(file, new byte[12 + UnoPolicyTable.STATES]);
+            UnoPolicyTable.load(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+/**
+ * Binary wire format shared by UnoServer and UnoClient.
+ * <p>
+ * Every frame is a 2-byte unsigned length followed by that many bytes: a 1-byte message type and its payload.
+ * Numbers are big-endian, strings are a 2-byte length plus UTF-8 bytes, and a card side is one byte
+ * ({@code color * 19 + rank}), so a whole two-sided card takes 2 bytes.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public final class UnoProtocol {
+    public static final int MAX_FRAME = 0xFFFF;
+    public static final int MAX_NAME = 32; // Characters in a player's name, after trimming
+
+    // Client to server
+    public static final byte HELLO = 0x01;
+    public static final byte PLAY = 0x02;
+    public static final byte WILD = 0x03;
+    public static final byte DRAW = 0x04;
+    public static final byte NEXT = 0x05;
+    public static final byte WATCH = 0x06;
+
+    // Server to client
+    public static final byte WELCOME = (byte) 0x81;
+    public static final byte STATE = (byte) 0x82;
+    public static final byte ERROR = (byte) 0x83;
+    public static final byte END = (byte) 0x84;
+
+    // Flags of a STATE frame
+    public static final int FLAG_MUST_PRESS_NEXT = 1;
+    public static final int FLAG_DARK = 2;
+    public static final int FLAG_AI = 4;
+    public static final int FLAG_GAME_OVER = 8;
+
+    private static final UnoColor[] COLORS = UnoColor.values();
+    private static final UnoRank[] RANKS = UnoRank.values();
+
+    private UnoProtocol() {
+    }
+
+    /**
+     * Starts a frame: reserves the length field and writes the message type.
+     * @param buf The buffer to write into.
+     * @param type The message type.
+     * @return The position of the length field, to pass to {@link #endFrame}.
+     */
+    public static int beginFrame(ByteBuffer buf, byte type) {
+        int start = buf.position();
+        buf.putShort((short) 0);
+        buf.put(type);
+        return start;
+    }
+
+    /**
+     * Finishes a frame by filling in its length.
+     * @param buf The buffer the frame was written into.
+     * @param start The position returned by {@link #beginFrame}.
+     */
+    public static void endFrame(ByteBuffer buf, int start) {
+        int len = buf.position() - start - 2;
+        if (len > MAX_FRAME) throw new IllegalStateException("Frame too large: " + len + " bytes.");
+        buf.putShort(start, (short) len);
+    }
+
+    /**
+     * Reads the next complete frame from a buffer in read mode.
+     * @param buf The received bytes; the position is moved past the frame if it is complete.
+     * @return A view of the frame body (type and payload), or null if the frame is not complete yet.
+     */
+    public static ByteBuffer nextFrame(ByteBuffer buf) {
+        if (buf.remaining() < 2) return null;
+        int len = buf.getShort(buf.position()) & 0xFFFF;
+        if (buf.remaining() < 2 + len) return null;
+        ByteBuffer body = buf.slice(buf.position() + 2, len);
+        buf.position(buf.position() + 2 + len);
+        return body;
+    }
+
+    /**
+     * Encodes the WELCOME frame that tells a client its seat and who is at the table.
+     * @param seat The seat index, or -1 for a spectator.
+     * @param names The names of the players, in seat order.
+     * @return The frame, ready to write.
+     */
+    public static ByteBuffer encodeWelcome(int seat, List<String> names) {
+        int size = 5;
+        for (String n : names) size += 2 + n.getBytes(StandardCharsets.UTF_8).length;
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        int start = beginFrame(buf, WELCOME);
+        buf.put((byte) seat);
+        buf.put((byte) names.size());
+        for (String n : names) putString(buf, n);
+        endFrame(buf, start);
+        return buf.flip();
+    }
+
+    /**
+     * Encodes a STATE frame: the public table state plus one hand. Everything but the hand comes from the update,
+     * so a frame built on another thread after the model has moved on still shows one consistent state.
+     * Layout: current seat, flags, active color, top card, draw pile size, every seat's hand size,
+     * the hand and the info text.
+     * @param e The update, made with the whole table.
+     * @param hand The hand to include; empty for spectators.
+     * @param direct True to encode into a direct buffer, which can be written to sockets without another copy.
+     * @return The frame, ready to write.
+     */
+    public static ByteBuffer encodeState(UnoEvent e, List<UnoCard> hand, boolean direct) {
+        int n = e.getPlayerCount();
+        if (n == 0 || e.getCurrentSeat() < 0) throw new IllegalArgumentException("The update does not carry the table.");
+        byte[] info = e.getInfo().getBytes(StandardCharsets.UTF_8);
+        int size = 15 + 2 * n + 2 * hand.size() + info.length;
+        ByteBuffer buf = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        int flags = (e.isMustPressNext() ? FLAG_MUST_PRESS_NEXT : 0)
+                | (e.isDark() ? FLAG_DARK : 0)
+                | (e.isAIPlayer() ? FLAG_AI : 0)
+                | (e.isGameOver() ? FLAG_GAME_OVER : 0);
+        int start = beginFrame(buf, STATE);
+        buf.put((byte) e.getCurrentSeat());
+        buf.put((byte) flags);
+        buf.put((byte) e.getActiveColor().ordinal());
+        if (e.getTopCard() != null) putCard(buf, e.getTopCard());
+        else buf.putShort((short) -1);
+        buf.putShort((short) e.getDrawPileSize());
+        buf.put((byte) n);
+        for (int i = 0; i < n; i++) buf.putShort((short) e.getHandSize(i));
+        buf.putShort((short) hand.size());
+        for (UnoCard c : hand) putCard(buf, c);
+        buf.putShort((short) info.length);
+        buf.put(info);
+        endFrame(buf, start);
+        return buf.flip();
+    }
+
+    /**
+     * Encodes a frame whose payload is a single string, such as ERROR or END.
+     * @param type The message type.
+     * @param message The text.
+     * @return The frame, ready to write.
+     */
+    public static ByteBuffer encodeMessage(byte type, String message) {
+        byte[] b = message.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(5 + b.length);
+        int start = beginFrame(buf, type);
+        putString(buf, message);
+        endFrame(buf, start);
+        return buf.flip();
+    }
+
+    /**
+     * Writes one side of a card as a single byte.
+     * @param buf The buffer to write into.
+     * @param color The color of the side.
+     * @param rank The rank of the side.
+     */
+    public static void putFace(ByteBuffer buf, UnoColor color, UnoRank rank) {
+        buf.put((byte) (color.ordinal() * RANKS.length + rank.ordinal()));
+    }
+
+    /**
+     * Writes both sides of a card.
+     * @param buf The buffer to write into.
+     * @param c The card.
+     */
+    public static void putCard(ByteBuffer buf, UnoCard c) {
+        putFace(buf, c.getColor(false), c.getLightRank());
+        putFace(buf, c.getColor(true), c.getDarkRank());
+    }
+
+    /**
+     * Reads a card written by {@link #putCard}.
+     * @param buf The buffer to read from.
+     * @return The card; it has no deck id.
+     */
+    public static UnoCard getCard(ByteBuffer buf) {
+        int light = buf.get() & 0xFF;
+        int dark = buf.get() & 0xFF;
+        return new UnoCard(color(light), RANKS[light % RANKS.length], color(dark), RANKS[dark % RANKS.length]);
+    }
+
+    private static UnoColor color(int face) {
+        int c = face / RANKS.length;
+        if (c >= COLORS.length) throw new IllegalArgumentException("Bad card byte: " + face);
+        return COLORS[c];
+    }
+
+    /**
+     * Writes a string as a 2-byte length and UTF-8 bytes.
+     * @param buf The buffer to write into.
+     * @param s The string.
+     */
+    public static void putString(ByteBuffer buf, String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        buf.putShort((short) b.length);
+        buf.put(b);
+    }
+
+    /**
+     * Reads a string written by {@link #putString}.
+     * @param buf The buffer to read from.
+     * @return The string.
+     * @throws BufferUnderflowException if the frame is cut short.
+     */
+    public static String getString(ByteBuffer buf) {
+        int len = buf.getShort() & 0xFFFF;
+        if (len > buf.remaining()) throw new BufferUnderflowException();
+        byte[] b = new byte[len];
+        buf.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
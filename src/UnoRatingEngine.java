@@ -0,0 +1,350 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+/**
+ * Glicko skill ratings for players and bots, updated from a stream of finished games.
+ * <p>
+ * A game with n players counts as n - 1 pairwise matches per player: the winner beats everyone, and the others
+ * are ordered by the points left in their hands. Each match is weighted by the points margin between the two
+ * players and divided by n - 1, so big tables do not move ratings more than heads-up games.
+ * <p>
+ * Results are grouped into rating periods, as Glicko intends. Within a period every match is scored against
+ * the ratings from the start of the period, so results only add to per-player sums and can be submitted from
+ * many threads at once; the sums are guarded by striped locks. Ratings change when the period ends, every
+ * {@code periodSize} results or on {@link #endPeriod()}. Each period is appended to an optional journal, and
+ * {@link #replay} rebuilds the same ratings from it.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoRatingEngine implements UnoGameListener, Closeable {
+    public static final double INITIAL_RATING = 1500;
+    public static final double INITIAL_DEVIATION = 350;
+    static final double MIN_DEVIATION = 30;
+    static final double DEVIATION_GROWTH = 35; // Per rating period without games
+    static final double MARGIN_SCALE = 100;
+    private static final double Q = Math.log(10) / 400;
+    private static final int STRIPES = 64;
+
+    private final Map<String, Player> players = new ConcurrentHashMap<>();
+    private final Set<Player> touched = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<UnoGameResult> periodResults = new ConcurrentLinkedQueue<>();
+    private final ReentrantReadWriteLock periodLock = new ReentrantReadWriteLock();
+    private final Object[] stripes = new Object[STRIPES];
+    private final AtomicInteger inPeriod = new AtomicInteger();
+    private final int periodSize;
+    private final DataOutputStream journal;
+    private int period = 0;
+
+    /**
+     * Constructor for UnoRatingEngine without a journal.
+     * @param periodSize Number of results per rating period.
+     */
+    public UnoRatingEngine(int periodSize) {
+        this(periodSize, null);
+    }
+
+    /**
+     * Constructor for UnoRatingEngine that appends every rating period to a journal.
+     * @param periodSize Number of results per rating period.
+     * @param journalFile The journal to append to, or null for none.
+     * @throws UncheckedIOException if the journal cannot be opened.
+     */
+    public UnoRatingEngine(int periodSize, Path journalFile) {
+        if (periodSize < 1) throw new IllegalArgumentException("A rating period needs at least one result.");
+        this.periodSize = periodSize;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Object();
+        try {
+            journal = journalFile == null ? null : new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(journalFile, java.nio.file.StandardOpenOption.CREATE,
+                            java.nio.file.StandardOpenOption.APPEND)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Rebuilds ratings from a journal, period by period.
+     * @param journalFile The journal written by an earlier engine.
+     * @param periodSize Number of results per rating period for new results.
+     * @return An engine with the replayed ratings and no journal.
+     * @throws IOException if the journal cannot be read.
+     */
+    public static UnoRatingEngine replay(Path journalFile, int periodSize) throws IOException {
+        UnoRatingEngine engine = new UnoRatingEngine(periodSize);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalFile)))) {
+            while (true) {
+                int count;
+                try {
+                    count = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                for (int i = 0; i < count; i++) engine.add(readResult(in));
+                engine.endPeriod();
+            }
+        }
+        return engine;
+    }
+
+    /**
+     * Adds a finished game. Safe to call from many threads.
+     * @param result The outcome of the game.
+     */
+    public void submit(UnoGameResult result) {
+        add(result);
+        int n = inPeriod.incrementAndGet();
+        if (n >= periodSize && inPeriod.compareAndSet(n, 0)) endPeriod();
+    }
+
+    @Override
+    public void gameEnded(UnoGameResult result) {
+        submit(result);
+    }
+
+    private void add(UnoGameResult result) {
+        int n = result.getPlayerCount();
+        Player[] ps = new Player[n];
+        for (int i = 0; i < n; i++) ps[i] = players.computeIfAbsent(result.getName(i), Player::new);
+        double[] info = new double[n];
+        double[] delta = new double[n];
+
+        periodLock.readLock().lock();
+        try {
+            // Ratings and deviations are fixed until the period ends, so these sums can be built without locks
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    double s = outcome(result, i, j);
+                    double margin = Math.abs(result.getHandPoints(i) - result.getHandPoints(j));
+                    double w = (1 + Math.log1p(margin / MARGIN_SCALE)) / (n - 1);
+                    double gj = g(ps[j].deviation);
+                    double gi = g(ps[i].deviation);
+                    double ei = expected(ps[i].rating, ps[j].rating, gj);
+                    double ej = expected(ps[j].rating, ps[i].rating, gi);
+                    info[i] += w * gj * gj * ei * (1 - ei);
+                    delta[i] += w * gj * (s - ei);
+                    info[j] += w * gi * gi * ej * (1 - ej);
+                    delta[j] += w * gi * ((1 - s) - ej);
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                Player p = ps[i];
+                synchronized (stripes[(p.name.hashCode() & 0x7FFFFFFF) % STRIPES]) {
+                    p.info += info[i];
+                    p.delta += delta[i];
+                    p.periodGames++;
+                }
+                touched.add(p);
+            }
+            periodResults.add(result);
+        } finally {
+            periodLock.readLock().unlock();
+        }
+    }
+
+    // 1 if seat i finished ahead of seat j, 0 if behind, 0.5 for a tie
+    private static double outcome(UnoGameResult r, int i, int j) {
+        if (i == r.getWinner()) return 1;
+        if (j == r.getWinner()) return 0;
+        int pi = r.getHandPoints(i);
+        int pj = r.getHandPoints(j);
+        return pi < pj ? 1 : pi > pj ? 0 : 0.5;
+    }
+
+    /**
+     * Ends the current rating period: every player who played gets a new rating, and the period is journaled.
+     * A period without results is journaled too, as it still widens the deviation of players who sat it out.
+     */
+    public void endPeriod() {
+        periodLock.writeLock().lock();
+        try {
+            int p = ++period;
+            touched.parallelStream().forEach(pl -> pl.update(p));
+            touched.clear();
+            if (journal != null) {
+                journal.writeInt(periodResults.size());
+                for (UnoGameResult r : periodResults) writeResult(journal, r);
+                journal.flush();
+            }
+            periodResults.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            periodLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets a player's rating as of the last finished period.
+     * @param name The player's name.
+     * @return The rating, or null if the player has no results.
+     */
+    public Rating get(String name) {
+        Player p = players.get(name);
+        if (p == null) return null;
+        periodLock.readLock().lock();
+        try {
+            return new Rating(name, p.rating, p.deviation, p.games);
+        } finally {
+            periodLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of rated players.
+     * @return The number of players.
+     */
+    public int getPlayerCount() {
+        return players.size();
+    }
+
+    /**
+     * Gets the number of rating periods finished so far.
+     * @return The period count.
+     */
+    public int getPeriod() {
+        periodLock.readLock().lock();
+        try {
+            return period;
+        } finally {
+            periodLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ends the current period and closes the journal.
+     * @throws IOException if the journal cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!touched.isEmpty()) endPeriod();
+        if (journal != null) journal.close();
+    }
+
+    private static double g(double deviation) {
+        return 1 / Math.sqrt(1 + 3 * Q * Q * deviation * deviation / (Math.PI * Math.PI));
+    }
+
+    private static double expected(double rating, double opponent, double gOpponent) {
+        return 1 / (1 + Math.pow(10, -gOpponent * (rating - opponent) / 400));
+    }
+
+    private static void writeResult(DataOutputStream out, UnoGameResult r) throws IOException {
+        out.writeByte(r.getPlayerCount());
+        out.writeByte(r.getWinner());
+        for (int i = 0; i < r.getPlayerCount(); i++) {
+            out.writeUTF(r.getName(i));
+            out.writeInt(r.getHandPoints(i));
+        }
+    }
+
+    private static UnoGameResult readResult(DataInputStream in) throws IOException {
+        int n = in.readUnsignedByte();
+        int winner = in.readUnsignedByte();
+        List<String> names = new ArrayList<>(n);
+        int[] points = new int[n];
+        int score = 0;
+        for (int i = 0; i < n; i++) {
+            names.add(in.readUTF());
+            points[i] = in.readInt();
+            score += points[i];
+        }
+        return new UnoGameResult(names, winner, score, points, new int[n], new int[n]);
+    }
+
+    /**
+     * One player's rating plus the sums collected during the current period.
+     */
+    private static class Player {
+        final String name;
+        double rating = INITIAL_RATING;
+        double deviation = INITIAL_DEVIATION;
+        int games = 0;
+        int lastPeriod = 0;
+
+        // Guarded by the player's stripe lock
+        double info = 0;
+        double delta = 0;
+        int periodGames = 0;
+
+        Player(String name) {
+            this.name = name;
+        }
+
+        // Glicko step: grow the deviation for the periods sat out, then apply this period's matches
+        void update(int period) {
+            int idle = period - lastPeriod - 1;
+            double rd = Math.min(Math.sqrt(deviation * deviation + idle * DEVIATION_GROWTH * DEVIATION_GROWTH),
+                    INITIAL_DEVIATION);
+            double precision = 1 / (rd * rd) + Q * Q * info;
+            rating += Q / precision * delta;
+            deviation = Math.max(Math.sqrt(1 / precision), MIN_DEVIATION);
+            games += periodGames;
+            lastPeriod = period;
+            info = 0;
+            delta = 0;
+            periodGames = 0;
+        }
+    }
+
+    /**
+     * A snapshot of one player's rating.
+     */
+    public static final class Rating {
+        private final String name;
+        private final double rating;
+        private final double deviation;
+        private final int games;
+
+        Rating(String name, double rating, double deviation, int games) {
+            this.name = name;
+            this.rating = rating;
+            this.deviation = deviation;
+            this.games = games;
+        }
+
+        /**
+         * Gets the player's name.
+         * @return The name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the rating.
+         * @return The rating, 1500 for a new player.
+         */
+        public double getRating() {
+            return rating;
+        }
+
+        /**
+         * Gets the rating deviation; the true skill is within about two deviations of the rating.
+         * @return The deviation.
+         */
+        public double getDeviation() {
+            return deviation;
+        }
+
+        /**
+         * Gets the number of rated games.
+         * @return Games played.
+         */
+        public int getGames() {
+            return games;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.0f ± %.0f (%d games)", name, rating, deviation, games);
+        }
+    }
+}
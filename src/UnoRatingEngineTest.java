@@ -0,0 +1,190 @@
+import org.junit.Test;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoRatingEngine
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoRatingEngineTest {
+
+    private static UnoGameResult game(List<String> names, int winner, int... points) {
+        int score = 0;
+        for (int p : points) score += p;
+        return new UnoGameResult(names, winner, score, points, new int[names.size()], new int[names.size()]);
+    }
+
+    /**
+     * Tests that the winner gains rating and both players become more certain.
+     */
+    @Test
+    public void testHeadsUp() {
+        UnoRatingEngine engine = new UnoRatingEngine(1);
+        for (int i = 0; i < 10; i++) engine.submit(game(List.of("A", "B"), 0, 0, 30));
+        UnoRatingEngine.Rating a = engine.get("A");
+        UnoRatingEngine.Rating b = engine.get("B");
+        assertTrue(a.getRating() > UnoRatingEngine.INITIAL_RATING);
+        assertTrue(b.getRating() < UnoRatingEngine.INITIAL_RATING);
+        assertEquals(3000, a.getRating() + b.getRating(), 1e-6);
+        assertTrue(a.getDeviation() < UnoRatingEngine.INITIAL_DEVIATION);
+        assertEquals(10, a.getGames());
+        assertEquals(10, engine.getPeriod());
+        assertNull(engine.get("C"));
+    }
+
+    /**
+     * Tests that a table is ordered by the winner and then by hand points.
+     */
+    @Test
+    public void testFinishOrder() {
+        UnoRatingEngine engine = new UnoRatingEngine(100);
+        engine.submit(game(List.of("D", "C", "B", "A"), 3, 200, 50, 10, 0));
+        engine.endPeriod();
+        double[] r = new double[4];
+        for (int i = 0; i < 4; i++) r[i] = engine.get(String.valueOf((char) ('A' + i))).getRating();
+        assertTrue(r[0] > r[1]);
+        assertTrue(r[1] > r[2]);
+        assertTrue(r[2] > r[3]);
+    }
+
+    /**
+     * Tests that a bigger points margin moves ratings further.
+     */
+    @Test
+    public void testMargin() {
+        UnoRatingEngine close = new UnoRatingEngine(1);
+        UnoRatingEngine blowout = new UnoRatingEngine(1);
+        close.submit(game(List.of("A", "B"), 0, 0, 5));
+        blowout.submit(game(List.of("A", "B"), 0, 0, 400));
+        assertTrue(blowout.get("A").getRating() > close.get("A").getRating());
+    }
+
+    /**
+     * Tests that results submitted from many threads give the same ratings as one thread.
+     */
+    @Test
+    public void testParallelMatchesSequential() throws Exception {
+        List<UnoGameResult> results = arenaResults(4000);
+        UnoRatingEngine sequential = new UnoRatingEngine(500);
+        for (UnoGameResult r : results) sequential.submit(r);
+        sequential.endPeriod();
+
+        UnoRatingEngine parallel = new UnoRatingEngine(Integer.MAX_VALUE);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int start = 0; start < results.size(); start += 500) {
+            List<UnoGameResult> period = results.subList(start, Math.min(start + 500, results.size()));
+            List<Callable<Object>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int from = t;
+                tasks.add(Executors.callable(() -> {
+                    for (int i = from; i < period.size(); i += 8) parallel.submit(period.get(i));
+                }));
+            }
+            pool.invokeAll(tasks);
+            parallel.endPeriod();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(sequential.getPlayerCount(), parallel.getPlayerCount());
+        for (int i = 0; i < 16; i++) {
+            String name = "bot" + i;
+            assertEquals(sequential.get(name).getRating(), parallel.get(name).getRating(), 1e-6);
+            assertEquals(sequential.get(name).getDeviation(), parallel.get(name).getDeviation(), 1e-6);
+            assertEquals(sequential.get(name).getGames(), parallel.get(name).getGames());
+        }
+    }
+
+    /**
+     * Tests that replaying the journal gives back the same ratings.
+     */
+    @Test
+    public void testJournalReplay() throws Exception {
+        Path journal = Files.createTempFile("ratings", ".journal");
+        try {
+            UnoRatingEngine live = new UnoRatingEngine(7, journal);
+            for (UnoGameResult r : arenaResults(100)) live.submit(r);
+            live.close();
+
+            UnoRatingEngine replayed = UnoRatingEngine.replay(journal, 7);
+            assertEquals(live.getPeriod(), replayed.getPeriod());
+            for (int i = 0; i < 16; i++) {
+                String name = "bot" + i;
+                assertEquals(live.get(name).getRating(), replayed.get(name).getRating(), 1e-9);
+                assertEquals(live.get(name).getGames(), replayed.get(name).getGames());
+            }
+        } finally {
+            Files.delete(journal);
+        }
+    }
+
+    /**
+     * Tests that periods ended without results are replayed too, so idle players' deviations grow the same.
+     */
+    @Test
+    public void testJournalReplaysEmptyPeriods() throws Exception {
+        Path journal = Files.createTempFile("ratings", ".journal");
+        try {
+            UnoRatingEngine live = new UnoRatingEngine(100, journal);
+            live.submit(game(List.of("A", "B"), 0, 0, 30));
+            live.endPeriod();
+            live.endPeriod();
+            live.endPeriod();
+            live.submit(game(List.of("A", "C"), 1, 20, 0));
+            live.close();
+
+            UnoRatingEngine replayed = UnoRatingEngine.replay(journal, 100);
+            assertEquals(4, live.getPeriod());
+            assertEquals(live.getPeriod(), replayed.getPeriod());
+            for (String name : List.of("A", "B", "C")) {
+                assertEquals(live.get(name).getRating(), replayed.get(name).getRating(), 1e-9);
+                assertEquals(live.get(name).getDeviation(), replayed.get(name).getDeviation(), 1e-9);
+            }
+        } finally {
+            Files.delete(journal);
+        }
+    }
+
+    /**
+     * Tests that a live game reaches the engine through the listener.
+     */
+    @Test
+    public void testLiveGame() {
+        UnoRatingEngine engine = new UnoRatingEngine(1);
+        UnoModel model = new UnoModel(3, Arrays.asList("X", "Y", "Z"), Arrays.asList(true, true, true), 1, UnoRuleSet.standard(), 5L);
+        model.addGameListener(engine);
+        String winner = UnoHeadless.play(model);
+        assertNotNull(winner);
+        assertTrue(engine.get(winner).getRating() > UnoRatingEngine.INITIAL_RATING);
+        assertEquals(1, engine.get("X").getGames());
+    }
+
+    // Plays greedy arena games among 16 bots, four at a table
+    private static List<UnoGameResult> arenaResults(int games) {
+        UnoArena arena = new UnoArena(games, 4, 99L);
+        int[] actions = new int[games];
+        for (int step = 0; step < 5000; step++) {
+            for (int g = 0; g < games; g++) actions[g] = arena.greedyAction(g);
+            if (arena.stepAll(actions) == 0) break;
+        }
+        Random rng = new Random(1);
+        List<UnoGameResult> results = new ArrayList<>();
+        for (int g = 0; g < games; g++) {
+            if (!arena.isFinished(g)) continue;
+            int first = rng.nextInt(16);
+            List<String> names = new ArrayList<>();
+            for (int s = 0; s < 4; s++) names.add("bot" + ((first + 5 * s) % 16));
+            results.add(arena.getResult(g, names));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,123 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+/**
+ * Records a game so any point of it can be shown again, for reviewing a game step by step.
+ * <p>
+ * Every command (play, wild, draw or next) is one step and is stored as a single int. Every {@code interval} steps
+ * a full copy of the game is kept as a keyframe, so seeking copies the nearest keyframe at or before the step and
+ * replays fewer than {@code interval} commands on it, however long the game. A step whose outcome is not fixed by
+ * the command alone, a shuffle of the discard pile or an undo or redo, is always kept as a keyframe.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoReplay {
+    private static final int PLAY = 0, WILD = 1, DRAW = 2, NEXT = 3;
+
+    private final UnoModel model;
+    private final int interval;
+    private int[] commands = new int[256]; // Step i + 1 is commands[i]: kind in the low 2 bits, color, then hand index
+    private int steps = 0;
+    private int[] keySteps = new int[16];
+    private final List<UnoModel> keyframes = new ArrayList<>();
+    private boolean mustKeep = false;
+
+    /**
+     * Constructor for UnoReplay, starting with the game as it is now as step 0.
+     * @param model The game to record; it reports its commands once UnoModel.recordReplay returned this.
+     * @param interval Steps between keyframes; seeking replays fewer commands than this.
+     */
+    UnoReplay(UnoModel model, int interval) {
+        if (interval < 1) throw new IllegalArgumentException("Keyframes need an interval of at least one step.");
+        this.model = model;
+        this.interval = interval;
+        keep();
+    }
+
+    synchronized void played(int handIndex) {
+        add(PLAY | handIndex << 6);
+    }
+
+    synchronized void playedWild(int handIndex, UnoColor color) {
+        add(WILD | color.ordinal() << 2 | handIndex << 6);
+    }
+
+    synchronized void drew() {
+        add(DRAW);
+    }
+
+    synchronized void next() {
+        add(NEXT);
+    }
+
+    // The draw pile was shuffled during this command, so replaying it would deal differently
+    synchronized void recycled() {
+        mustKeep = true;
+    }
+
+    // The game changed without a command, as on undo or redo
+    synchronized void jumped() {
+        mustKeep = true;
+        add(NEXT);
+    }
+
+    private void add(int command) {
+        if (steps == commands.length) commands = Arrays.copyOf(commands, steps * 2);
+        commands[steps++] = command;
+        if (mustKeep || steps - keySteps[keyframes.size() - 1] >= interval) keep();
+        mustKeep = false;
+    }
+
+    private void keep() {
+        if (keyframes.size() == keySteps.length) keySteps = Arrays.copyOf(keySteps, keySteps.length * 2);
+        keySteps[keyframes.size()] = steps;
+        keyframes.add(new UnoModel(model, 0, true));
+    }
+
+    /**
+     * Gets the number of steps recorded.
+     * @return The last step; steps run from 0 (the deal) to this.
+     */
+    public synchronized int getSteps() {
+        return steps;
+    }
+
+    /**
+     * Rebuilds the game as it was after a step.
+     * @param step The step, from 0 to getSteps().
+     * @return A new model in that state, with no views, listeners or recording.
+     */
+    public synchronized UnoModel seek(int step) {
+        if (step < 0 || step > steps) throw new IllegalArgumentException("No step " + step + " in 0–" + steps + ".");
+        int k = Arrays.binarySearch(keySteps, 0, keyframes.size(), step);
+        if (k < 0) k = -k - 2; // The last keyframe before the step
+        UnoModel m = new UnoModel(keyframes.get(k), 0, true);
+        for (int s = keySteps[k]; s < step; s++) {
+            int c = commands[s];
+            switch (c & 3) {
+                case PLAY -> m.play(c >>> 6);
+                case WILD -> m.playWild(c >>> 6, UnoColor.values()[(c >>> 2) & 15]);
+                case DRAW -> m.draw();
+                case NEXT -> m.nextPlayer();
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Builds the update a view would have got after a step.
+     * @param step The step, from 0 to getSteps().
+     * @return The update; its source is a copy of the game, not the game itself.
+     */
+    public UnoEvent eventAt(int step) {
+        return seek(step).buildEvent();
+    }
+
+    /**
+     * Gets the number of keyframes kept.
+     * @return The keyframe count, including the deal.
+     */
+    public synchronized int getKeyframeCount() {
+        return keyframes.size();
+    }
+}
@@ -0,0 +1,81 @@
+import org.junit.Test;
+import java.util.*;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoReplay
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoReplayTest {
+
+    // Everything about a position that a replay must get back
+    private static String state(UnoModel m) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < m.getPlayerCount(); i++) {
+            for (UnoCard c : m.getPlayer(i).hand) sb.append(c.getId()).append(',');
+            sb.append('|');
+        }
+        for (UnoCard c : m.getDrawPile()) sb.append(c.getId()).append(',');
+        sb.append('|').append(m.getDiscardTop().getId()).append(' ').append(m.getCurrentIndex()).append(' ')
+                .append(m.getActiveColor()).append(' ').append(m.isDark()).append(' ').append(m.isMustPressNext())
+                .append(' ').append(m.isGameOver()).append(' ').append(m.getDirection());
+        return sb.toString();
+    }
+
+    /**
+     * Tests that every step of a long game, shuffles of the discard pile included, comes back exactly.
+     */
+    @Test
+    public void testSeekEveryStep() {
+        UnoModel m = UnoTestTables.create(8, true, 1, UnoRuleSet.standard(), 52L);
+        int[] recycles = {0};
+        m.addGameListener(new UnoGameListener() {
+            @Override
+            public void pileRecycled() {
+                recycles[0]++;
+            }
+        });
+        UnoViewStub view = new UnoViewStub();
+        m.addView(view);
+        UnoReplay replay = m.recordReplay(16);
+        List<String> states = new ArrayList<>();
+        states.add(state(m));
+        for (int i = 0; i < 5000 && !m.isGameOver(); i++) {
+            m.playAITurn();
+            states.add(state(m));
+        }
+        assertTrue(m.isGameOver());
+        assertTrue(recycles[0] > 0);
+        assertEquals(states.size() - 1, replay.getSteps());
+        assertTrue(replay.getKeyframeCount() <= replay.getSteps() / 16 + 1 + recycles[0]);
+
+        for (int step = replay.getSteps(); step >= 0; step--) assertEquals(states.get(step), state(replay.seek(step)));
+        UnoEvent last = replay.eventAt(replay.getSteps());
+        assertEquals(view.lastEvent.getInfo(), last.getInfo());
+        assertEquals(view.lastEvent.getHand(), last.getHand());
+        assertNotSame(m, last.getSource());
+    }
+
+    /**
+     * Tests that undo and redo are kept as steps of their own and human seats stay human.
+     */
+    @Test
+    public void testUndoIsAStep() {
+        UnoModel m = new UnoModel(2, List.of("Human", "Bot"), List.of(false, true), 1, UnoRuleSet.standard(), 3L);
+        m.setHistoryEnabled(true);
+        UnoReplay replay = m.recordReplay(4);
+        String dealt = state(m);
+        m.draw();
+        String drawn = state(m);
+        m.undo();
+        m.redo();
+        m.nextPlayer();
+        assertEquals(4, replay.getSteps());
+        assertEquals(dealt, state(replay.seek(0)));
+        assertEquals(drawn, state(replay.seek(1)));
+        assertEquals(dealt, state(replay.seek(2)));
+        assertEquals(drawn, state(replay.seek(3)));
+        assertEquals(state(m), state(replay.seek(4)));
+        assertFalse(replay.eventAt(0).isAIPlayer());
+    }
+}
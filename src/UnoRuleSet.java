@@ -0,0 +1,159 @@
+import java.util.EnumSet;
+import java.util.Set;
+/**
+ * Rule-set configuration for a game. Builds the table of card effects used by UnoModel,
+ * so house rules are decided once when the game is created instead of on every turn.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public final class UnoRuleSet {
+    /**
+     * Optional house rules.
+     */
+    public enum Variant {
+        /**
+         * Playing a 7 swaps hands with the next player, playing a 0 passes every hand along the direction of play.
+         * The Flip deck has no 0 cards, so the 0 half only applies to cards put in play by hand.
+         */
+        SEVEN_ZERO
+    }
+
+    private static final UnoRuleSet STANDARD = new UnoRuleSet(EnumSet.noneOf(Variant.class));
+
+    private final Set<Variant> variants;
+
+    private UnoRuleSet(Set<Variant> variants) {
+        this.variants = variants;
+    }
+
+    /**
+     * Gets the official Uno Flip rules.
+     * @return The standard rule set.
+     */
+    public static UnoRuleSet standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Creates a rule set with house rule variants.
+     * @param variants The variants to enable.
+     * @return The rule set.
+     */
+    public static UnoRuleSet of(Variant... variants) {
+        EnumSet<Variant> set = EnumSet.noneOf(Variant.class);
+        for (Variant v : variants) set.add(v);
+        return new UnoRuleSet(set);
+    }
+
+    /**
+     * Checks if a variant is enabled.
+     * @param v The variant.
+     * @return True if enabled, False otherwise.
+     */
+    public boolean has(Variant v) {
+        return variants.contains(v);
+    }
+
+    /**
+     * Checks if no house rules are enabled.
+     * @return True for the standard rules.
+     */
+    public boolean isStandard() {
+        return variants.isEmpty();
+    }
+
+    /**
+     * Builds the effect handlers for every (side, rank) pair.
+     * @return Table indexed by [0 for light, 1 for dark][rank ordinal].
+     */
+    UnoEffect[][] buildEffectTable() {
+        UnoEffect[][] table = new UnoEffect[2][UnoRank.values().length];
+        for (int side = 0; side < 2; side++) {
+            UnoEffect[] t = table[side];
+            for (UnoRank r : UnoRank.values()) t[r.ordinal()] = UnoRuleSet::pass;
+            t[UnoRank.FLIP.ordinal()] = UnoRuleSet::flip;
+            t[UnoRank.DRAW_FIVE.ordinal()] = (m, c) -> drawAndSkip(m, 5, " (Next draws 5 and skips)");
+            t[UnoRank.SKIP_EVERYONE.ordinal()] = UnoRuleSet::skipEveryone;
+            t[UnoRank.WILD_DRAW_COLOR.ordinal()] = UnoRuleSet::wildDrawColor;
+            t[UnoRank.REVERSE.ordinal()] = UnoRuleSet::reverse;
+            t[UnoRank.SKIP.ordinal()] = UnoRuleSet::skip;
+            t[UnoRank.DRAW_ONE.ordinal()] = (m, c) -> drawAndSkip(m, 1, " Draw 1");
+            t[UnoRank.WILD_DRAW_TWO.ordinal()] = (m, c) -> drawAndSkip(m, 2, " Wild Draw 2");
+
+            if (has(Variant.SEVEN_ZERO)) {
+                t[UnoRank.SEVEN.ordinal()] = UnoRuleSet::swapWithNext;
+                t[UnoRank.ZERO.ordinal()] = UnoRuleSet::rotateHands;
+            }
+        }
+        return table;
+    }
+
+    private static String pass(UnoModel m, UnoCard c) {
+        m.setNextSteps(1);
+        return "";
+    }
+
+    private static String flip(UnoModel m, UnoCard c) {
+        m.flipSide();
+        m.setNextSteps(1);
+        return " FLIP!";
+    }
+
+    private static String drawAndSkip(UnoModel m, int count, String msg) {
+        int victim = m.victimIndex();
+        for (int i = 0; i < count; i++) m.drawInto(victim);
+        m.setNextSteps(2); // Skip them
+        return msg;
+    }
+
+    private static String skipEveryone(UnoModel m, UnoCard c) {
+        m.setNextSteps(0);
+        return " (Play again!)";
+    }
+
+    private static String wildDrawColor(UnoModel m, UnoCard c) {
+        // Next player draws until color match
+        int victim = m.victimIndex();
+        UnoColor target = m.getActiveColor();
+        int count = 0;
+        while (true) {
+            UnoCard drawn = m.drawInto(victim);
+            if (drawn == null) break; // Nothing left to draw
+            count++;
+            if (drawn.getColor(m.isDark()) == target) break;
+        }
+        m.setNextSteps(2); // They lose turn
+        return " (Next drew " + count + " to find " + target + ")";
+    }
+
+    private static String reverse(UnoModel m, UnoCard c) {
+        m.reverseDirection();
+        m.setNextSteps(1);
+        return "";
+    }
+
+    private static String skip(UnoModel m, UnoCard c) {
+        m.setNextSteps(2);
+        return "";
+    }
+
+    // A player who went out keeps the win, their empty hand is not passed on
+    private static boolean wentOut(UnoModel m) {
+        return m.getPlayer(m.getCurrentIndex()).hand.isEmpty();
+    }
+
+    private static String swapWithNext(UnoModel m, UnoCard c) {
+        if (wentOut(m)) return pass(m, c);
+        int victim = m.victimIndex();
+        m.swapHands(m.getCurrentIndex(), victim);
+        m.setNextSteps(1);
+        return " (Swapped hands with " + m.getPlayer(victim).name + ")";
+    }
+
+    private static String rotateHands(UnoModel m, UnoCard c) {
+        if (wentOut(m)) return pass(m, c);
+        m.rotateHands(m.getDirection()); // Each hand moves to the next player
+        m.setNextSteps(1);
+        return " (Hands passed along)";
+    }
+}
@@ -0,0 +1,132 @@
+import org.junit.Test;
+import java.util.*;
+import static org.junit.Assert.*;
+/**
+ * Test class for rule sets and the card effect table
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoRuleSetTest {
+    private final UnoCard redSeven = new UnoCard(UnoColor.RED, UnoRank.SEVEN, UnoColor.ORANGE, UnoRank.SEVEN);
+    private final UnoCard redZero = new UnoCard(UnoColor.RED, UnoRank.ZERO, UnoColor.ORANGE, UnoRank.ZERO);
+    private final UnoCard redOne = new UnoCard(UnoColor.RED, UnoRank.ONE, UnoColor.ORANGE, UnoRank.ONE);
+    private final UnoCard blueTwo = new UnoCard(UnoColor.BLUE, UnoRank.TWO, UnoColor.PINK, UnoRank.TWO);
+    private final UnoCard greenThree = new UnoCard(UnoColor.GREEN, UnoRank.THREE, UnoColor.TEAL, UnoRank.THREE);
+
+    private UnoModel create(int n, UnoRuleSet rules) {
+        List<String> names = new ArrayList<>();
+        List<Boolean> ai = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            names.add("P" + i);
+            ai.add(false);
+        }
+        UnoModel m = new UnoModel(n, names, ai, 1, rules);
+        m.addView(new UnoViewStub());
+        m.setTopCard(new UnoCard(UnoColor.RED, UnoRank.FIVE, UnoColor.ORANGE, UnoRank.FIVE));
+        return m;
+    }
+
+    /**
+     * Tests that a 7 is a plain number card under the standard rules.
+     */
+    @Test
+    public void testStandardSevenDoesNothing() {
+        UnoModel m = create(2, UnoRuleSet.standard());
+        m.forceHand(0, new ArrayList<>(List.of(redSeven, redOne)));
+        m.forceHand(1, new ArrayList<>(List.of(blueTwo)));
+        m.play(0);
+        assertEquals(List.of(redOne), m.getPlayer(0).hand);
+        assertEquals(List.of(blueTwo), m.getPlayer(1).hand);
+    }
+
+    /**
+     * Tests that a 7 swaps hands with the next player under the 7-0 variant.
+     */
+    @Test
+    public void testSevenSwapsHands() {
+        UnoModel m = create(2, UnoRuleSet.of(UnoRuleSet.Variant.SEVEN_ZERO));
+        m.forceHand(0, new ArrayList<>(List.of(redSeven, redOne)));
+        m.forceHand(1, new ArrayList<>(List.of(blueTwo, greenThree)));
+        m.play(0);
+        assertEquals(List.of(blueTwo, greenThree), m.getPlayer(0).hand);
+        assertEquals(List.of(redOne), m.getPlayer(1).hand);
+    }
+
+    /**
+     * Tests that a 0 passes every hand to the next player under the 7-0 variant.
+     */
+    @Test
+    public void testZeroRotatesHands() {
+        UnoModel m = create(3, UnoRuleSet.of(UnoRuleSet.Variant.SEVEN_ZERO));
+        m.forceHand(0, new ArrayList<>(List.of(redZero, redOne)));
+        m.forceHand(1, new ArrayList<>(List.of(blueTwo)));
+        m.forceHand(2, new ArrayList<>(List.of(greenThree)));
+        m.play(0);
+        assertEquals(List.of(greenThree), m.getPlayer(0).hand);
+        assertEquals(List.of(redOne), m.getPlayer(1).hand);
+        assertEquals(List.of(blueTwo), m.getPlayer(2).hand);
+    }
+
+    /**
+     * Tests that a 0 passes hands the other way after a Reverse, and that undo passes them back.
+     */
+    @Test
+    public void testZeroRotationUndoes() {
+        UnoModel m = create(3, UnoRuleSet.of(UnoRuleSet.Variant.SEVEN_ZERO));
+        m.forceHand(0, new ArrayList<>(List.of(redZero, redOne)));
+        m.forceHand(1, new ArrayList<>(List.of(blueTwo)));
+        m.forceHand(2, new ArrayList<>(List.of(greenThree)));
+        m.reverseDirection();
+        m.setHistoryEnabled(true);
+        m.play(0);
+        assertEquals(List.of(blueTwo), m.getPlayer(0).hand);
+        assertEquals(List.of(greenThree), m.getPlayer(1).hand);
+        assertEquals(List.of(redOne), m.getPlayer(2).hand);
+        assertTrue(m.undo());
+        assertEquals(List.of(redZero, redOne), m.getPlayer(0).hand);
+        assertEquals(List.of(blueTwo), m.getPlayer(1).hand);
+        assertEquals(List.of(greenThree), m.getPlayer(2).hand);
+    }
+
+    /**
+     * Tests that going out on a 7 wins instead of taking the next player's hand.
+     */
+    @Test
+    public void testGoingOutOnSevenWins() {
+        UnoModel m = create(2, UnoRuleSet.of(UnoRuleSet.Variant.SEVEN_ZERO));
+        m.forceHand(0, new ArrayList<>(List.of(redSeven)));
+        m.forceHand(1, new ArrayList<>(List.of(blueTwo, greenThree)));
+        m.play(0);
+        assertTrue(m.isGameOver());
+        assertEquals("P0", m.getWinnerName());
+        assertTrue(m.getPlayer(0).hand.isEmpty());
+        assertEquals(List.of(blueTwo, greenThree), m.getPlayer(1).hand);
+    }
+
+    /**
+     * Tests that going out on a 0 wins instead of passing the hands along.
+     */
+    @Test
+    public void testGoingOutOnZeroWins() {
+        UnoModel m = create(3, UnoRuleSet.of(UnoRuleSet.Variant.SEVEN_ZERO));
+        m.forceHand(0, new ArrayList<>(List.of(redZero)));
+        m.forceHand(1, new ArrayList<>(List.of(blueTwo)));
+        m.forceHand(2, new ArrayList<>(List.of(greenThree)));
+        m.play(0);
+        assertTrue(m.isGameOver());
+        assertEquals("P0", m.getWinnerName());
+        assertEquals(List.of(blueTwo), m.getPlayer(1).hand);
+        assertEquals(List.of(greenThree), m.getPlayer(2).hand);
+    }
+
+    /**
+     * Tests that the solver refuses to search games with house rules.
+     */
+    @Test
+    public void testSolverOnlyForStandardRules() {
+        UnoModel m = create(2, UnoRuleSet.of(UnoRuleSet.Variant.SEVEN_ZERO));
+        m.forceHand(0, new ArrayList<>(List.of(redOne)));
+        m.forceHand(1, new ArrayList<>(List.of(blueTwo)));
+        assertNull(m.solveEndgame(10, 10));
+    }
+}
@@ -0,0 +1,414 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.function.Consumer;
+/**
+ * Networked Uno server. One thread runs a non-blocking selector loop over every connection and every table,
+ * so there is no thread per connection and no locking around the models.
+ * <p>
+ * Players connect and send HELLO with their name; they are seated at the next open table, which starts as soon
+ * as it is full. Every state change is sent to each seat separately and contains only that seat's own hand.
+ * Anyone may instead send WATCH with a table number to follow that table through its UnoSpectatorChannel.
+ * See UnoProtocol for the wire format.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoServer implements Runnable {
+    private static final int READ_BUFFER = 512;
+    static final int MAX_QUEUED = 64; // Frames a seat may leave unread before it is dropped
+
+    private final int seatsPerTable;
+    private final long seed;
+    private final Selector selector;
+    private ServerSocketChannel server;
+    private final List<Session> dropped = new ArrayList<>();
+    private final Map<Integer, Table> tables = new HashMap<>();
+    private Table waiting;
+    private int tablesStarted = 0;
+    private UnoAnalyticsSink analytics;
+    private UnoStatsStore stats;
+    private volatile Consumer<UnoModel> tableSetup; // For tests: arranges each game before it is sent out
+    private volatile boolean running = true;
+
+    /**
+     * Constructor for UnoServer.
+     * @param seatsPerTable Number of players at each table.
+     * @param seed Seed of the first table; table n is dealt with seed + n.
+     * @throws IOException if the selector cannot be opened.
+     */
+    public UnoServer(int seatsPerTable, long seed) throws IOException {
+        if (seatsPerTable < UnoModel.MIN_PLAYERS || seatsPerTable > UnoModel.MAX_PLAYERS) {
+            throw new IllegalArgumentException("Number of players must be " + UnoModel.MIN_PLAYERS + "–" + UnoModel.MAX_PLAYERS + ".");
+        }
+        this.seatsPerTable = seatsPerTable;
+        this.seed = seed;
+        this.selector = Selector.open();
+    }
+
+    /**
+     * Starts listening for connections.
+     * @param address The address to listen on; port 0 picks a free port.
+     * @return The port the server is listening on.
+     * @throws IOException if the address cannot be bound.
+     */
+    public int bind(SocketAddress address) throws IOException {
+        server = ServerSocketChannel.open();
+        server.configureBlocking(false);
+        server.bind(address, 1024);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Runs the selector loop until the server is closed.
+     */
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) accept();
+                    else handle(key);
+                }
+                // Sessions whose socket failed while another session was being served
+                while (!dropped.isEmpty()) disconnect(dropped.remove(dropped.size() - 1));
+            }
+        } catch (IOException e) {
+            System.err.println("Server stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) closeQuietly(key.channel());
+            closeQuietly(selector);
+        }
+    }
+
+    /**
+     * Stops the selector loop and closes every connection.
+     */
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+    /**
+     * Records the moves of every table started from now on. The server waits for the sink when its writer
+     * falls behind, so a slow disk slows the games down rather than losing moves.
+     * @param analytics The sink, or null to stop recording.
+     */
+    public void setAnalytics(UnoAnalyticsSink analytics) {
+        this.analytics = analytics;
+    }
+
+    /**
+     * Adds every game finished at a table started from now on to the players' lifetime stats.
+     * @param stats The store, or null to stop recording.
+     */
+    public void setStats(UnoStatsStore stats) {
+        this.stats = stats;
+    }
+
+    // Runs on the server thread for each table that starts, after the deal and before anyone sees it
+    void setTableSetup(Consumer<UnoModel> tableSetup) {
+        this.tableSetup = tableSetup;
+    }
+
+    /**
+     * Gets the number of tables that have started playing.
+     * @return The number of tables started.
+     */
+    public int getTablesStarted() {
+        return tablesStarted;
+    }
+
+    private void accept() throws IOException {
+        SocketChannel ch;
+        while ((ch = server.accept()) != null) {
+            ch.configureBlocking(false);
+            ch.socket().setTcpNoDelay(true);
+            Session s = new Session(ch);
+            s.key = ch.register(selector, SelectionKey.OP_READ, s);
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        Session s = (Session) key.attachment();
+        try {
+            if (key.isWritable()) s.flush();
+            if (key.isValid() && key.isReadable()) s.read();
+        } catch (IOException | RuntimeException e) {
+            disconnect(s);
+        }
+    }
+
+    private void dispatch(Session s, ByteBuffer frame) {
+        byte type = frame.get();
+        if (type == UnoProtocol.HELLO) {
+            if (s.table != null) throw new IllegalStateException("Already seated.");
+            String name = UnoProtocol.getString(frame).trim();
+            if (name.isEmpty() || name.length() > UnoProtocol.MAX_NAME) throw new IllegalArgumentException("Bad name.");
+            s.name = name;
+            seat(s);
+            return;
+        }
+        if (type == UnoProtocol.WATCH) {
+            if (s.table != null || s.watching != null) throw new IllegalStateException("Already seated.");
+            Table watched = tables.get(frame.getInt());
+            if (watched == null) {
+                s.sendError("No such table.");
+                return;
+            }
+            s.watching = watched.spectators;
+            s.watcher = watched.spectators.addWatcher(s.channel, s.key);
+            return;
+        }
+        // Spectator output belongs to the shared channel, so a spectator that sends commands is cut off
+        if (s.watching != null) throw new IllegalStateException("Spectators cannot play.");
+        Table t = s.table;
+        if (t == null || t.model == null) {
+            s.sendError("The game has not started yet.");
+            return;
+        }
+        if (t.closed || t.model.isGameOver()) {
+            s.sendError("The game is over.");
+            return;
+        }
+        if (t.model.getCurrentIndex() != s.seat) {
+            s.sendError("It is not your turn.");
+            return;
+        }
+        try {
+            switch (type) {
+                case UnoProtocol.PLAY -> {
+                    int idx = frame.getShort() & 0xFFFF;
+                    if (t.model.isCardWild(idx)) throw new IllegalStateException("Pick a color for a wild card.");
+                    t.model.play(idx);
+                }
+                case UnoProtocol.WILD -> {
+                    int idx = frame.getShort() & 0xFFFF;
+                    UnoColor color = UnoColor.values()[frame.get()];
+                    if (!t.model.isCardWild(idx)) throw new IllegalStateException("That card is not a wild.");
+                    if (!Arrays.asList(UnoColor.sideColors(t.model.isDark())).contains(color)) {
+                        throw new IllegalStateException("Pick a color of this side.");
+                    }
+                    t.model.playWild(idx, color);
+                }
+                case UnoProtocol.DRAW -> t.model.draw();
+                case UnoProtocol.NEXT -> t.model.nextPlayer();
+                default -> throw new IllegalArgumentException("Unknown message type " + type);
+            }
+        } catch (IllegalStateException | IndexOutOfBoundsException e) {
+            s.sendError(e.getMessage() != null ? e.getMessage() : "Invalid card.");
+        }
+    }
+
+    private void seat(Session s) {
+        if (waiting == null) waiting = new Table(seatsPerTable);
+        Table t = waiting;
+        s.table = t;
+        s.seat = t.joined;
+        t.sessions[t.joined++] = s;
+        if (t.joined == seatsPerTable) {
+            waiting = null;
+            t.start(tablesStarted, seed + tablesStarted);
+            tables.put(tablesStarted++, t);
+        }
+    }
+
+    private void disconnect(Session s) {
+        closeQuietly(s.channel);
+        if (s.watching != null) s.watching.removeWatcher(s.watcher);
+        Table t = s.table;
+        if (t == null) return;
+        s.table = null;
+        t.sessions[s.seat] = null;
+        if (t.model == null) {
+            // Still waiting: free the seat by moving the last player into it
+            Session last = t.sessions[--t.joined];
+            if (last != null && last != s) {
+                t.sessions[s.seat] = last;
+                t.sessions[t.joined] = null;
+                last.seat = s.seat;
+            }
+        } else if (!t.closed && !t.model.isGameOver()) {
+            t.closed = true;
+            t.broadcastEnd(s.name + " left the game.");
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable c) {
+        try {
+            c.close();
+        } catch (Exception ignored) {
+            // Closing anyway
+        }
+    }
+
+    /**
+     * One table: the model plus the connection in each seat. It turns each update into one STATE frame
+     * per seat; spectators are served by the table's UnoSpectatorChannel.
+     */
+    private class Table implements UnoView {
+        final Session[] sessions;
+        int joined = 0;
+        int id;
+        UnoModel model;
+        UnoSpectatorChannel spectators;
+        boolean closed = false;
+
+        Table(int seats) {
+            sessions = new Session[seats];
+        }
+
+        void start(int id, long seed) {
+            this.id = id;
+            List<String> names = new ArrayList<>();
+            for (Session s : sessions) names.add(s.name);
+            List<Boolean> ai = Collections.nCopies(sessions.length, false);
+            model = new UnoModel(sessions.length, names, ai, UnoModel.decksFor(sessions.length), UnoRuleSet.standard(), seed);
+            if (stats != null) model.addGameListener(stats);
+            if (analytics != null) model.addGameListener(analytics.newGame());
+            Consumer<UnoModel> setup = tableSetup;
+            if (setup != null) setup.accept(model);
+
+            for (Session s : sessions) s.send(UnoProtocol.encodeWelcome(s.seat, names));
+            spectators = new UnoSpectatorChannel(names);
+            model.addView(spectators); // Added first, adding a view sends every view the state again
+            model.addView(this);
+        }
+
+        @Override
+        public void handleUpdate(UnoEvent e) {
+            for (int seat = 0; seat < sessions.length; seat++) {
+                Session s = sessions[seat];
+                if (s != null) s.sendState(UnoProtocol.encodeState(e, model.getPlayer(seat).hand, false));
+            }
+        }
+
+        @Override
+        public void handleEnd(String message) {
+            broadcastEnd(message);
+        }
+
+        void broadcastEnd(String message) {
+            tables.remove(id);
+            if (!model.isGameOver()) spectators.handleEnd(message); // On a win the model tells them itself
+            for (Session s : sessions) {
+                if (s != null) s.send(UnoProtocol.encodeMessage(UnoProtocol.END, message));
+            }
+        }
+
+        @Override
+        public UnoColor promptForWildColor() {
+            return UnoColor.NONE; // Remote players send their color with the WILD message
+        }
+
+        @Override
+        public void showInfo(String message) {
+        }
+
+        @Override
+        public java.awt.Color mapCardColor(UnoColor c) {
+            return null;
+        }
+    }
+
+    /**
+     * One connection: its partial input, queued output and seat. A seat that cannot keep up is skipped ahead like
+     * a spectator: a new state replaces the last queued one that has not started, since every state is complete.
+     * Other frames are kept, and a seat that leaves more than {@link #MAX_QUEUED} frames unread is dropped.
+     */
+    private class Session {
+        final SocketChannel channel;
+        final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        ByteBuffer queuedState; // The last frame queued, if it is a state nothing of which was written yet
+        ByteBuffer in = ByteBuffer.allocate(READ_BUFFER);
+        SelectionKey key;
+        String name = "?";
+        Table table;
+        int seat = -1;
+        UnoSpectatorChannel watching;
+        UnoSpectatorChannel.Watcher watcher;
+
+        Session(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void read() throws IOException {
+            int n = channel.read(in);
+            if (n < 0) throw new IOException("Connection closed");
+            in.flip();
+            ByteBuffer frame;
+            try {
+                while ((frame = UnoProtocol.nextFrame(in)) != null) {
+                    dispatch(this, frame);
+                    if (!channel.isOpen()) return;
+                }
+            } catch (BufferUnderflowException e) {
+                throw new IOException("Truncated frame", e);
+            }
+            // Grow the buffer if one frame does not fit
+            if (in.position() == 0 && in.limit() == in.capacity()) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.min(2 * in.capacity(), UnoProtocol.MAX_FRAME + 2));
+                bigger.put(in);
+                in = bigger;
+            } else {
+                in.compact();
+            }
+        }
+
+        // Writes straight away when nothing is queued; only a full socket buffer waits for OP_WRITE
+        void send(ByteBuffer buf) {
+            if (!channel.isOpen()) return;
+            if (out.isEmpty()) {
+                try {
+                    channel.write(buf);
+                } catch (IOException e) {
+                    closeQuietly(channel);
+                    dropped.add(this);
+                    return;
+                }
+                if (!buf.hasRemaining()) return;
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            }
+            out.add(buf);
+            if (out.size() > MAX_QUEUED) {
+                // Not reading; the seat is freed as if the connection had failed
+                closeQuietly(channel);
+                out.clear();
+                dropped.add(this);
+            }
+        }
+
+        void sendState(ByteBuffer buf) {
+            if (queuedState != null && out.peekLast() == queuedState && queuedState.position() == 0) out.pollLast();
+            send(buf);
+            queuedState = out.peekLast() == buf ? buf : null;
+        }
+
+        void sendError(String message) {
+            send(UnoProtocol.encodeMessage(UnoProtocol.ERROR, message));
+        }
+
+        void flush() throws IOException {
+            if (watcher != null) {
+                watcher.flush();
+                return;
+            }
+            while (!out.isEmpty()) {
+                ByteBuffer buf = out.peek();
+                channel.write(buf);
+                if (buf.hasRemaining()) return;
+                out.poll();
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoServer, UnoClient and the wire format, run against localhost
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoServerTest {
+    private UnoServer server;
+    private Thread loop;
+    private InetSocketAddress address;
+
+    /**
+     * Starts a server for two-player tables on a free port.
+     */
+    @Before
+    public void setUp() throws Exception {
+        server = new UnoServer(2, 42L);
+        int port = server.bind(new InetSocketAddress("127.0.0.1", 0));
+        address = new InetSocketAddress("127.0.0.1", port);
+        loop = new Thread(server, "uno-server");
+        loop.start();
+    }
+
+    /**
+     * Stops the server.
+     */
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+        loop.join(2000);
+    }
+
+    /**
+     * Tests that every card survives encoding in two bytes.
+     */
+    @Test
+    public void testCardRoundTrip() {
+        List<UnoCard> deck = new ArrayList<>();
+        UnoModel.buildFlipDeck(deck);
+        ByteBuffer buf = ByteBuffer.allocate(2 * deck.size());
+        for (UnoCard c : deck) UnoProtocol.putCard(buf, c);
+        assertEquals(2 * deck.size(), buf.position());
+        buf.flip();
+        for (UnoCard c : deck) {
+            UnoCard back = UnoProtocol.getCard(buf);
+            assertEquals(c.toString(), back.toString());
+        }
+    }
+
+    /**
+     * Tests that each seat only sees its own hand and that turns are enforced.
+     */
+    @Test
+    public void testTwoSeats() throws Exception {
+        UnoViewStub viewA = new UnoViewStub();
+        UnoViewStub viewB = new UnoViewStub();
+        try (UnoClient a = new UnoClient(address, "Alice", viewA);
+             UnoClient b = new UnoClient(address, "Bob", viewB)) {
+            a.receive(); // welcome
+            a.receive(); // first state
+            b.receive();
+            b.receive();
+            // Both connect at once, so either may have been seated first
+            assertEquals(1, a.getSeat() + b.getSeat());
+            assertEquals("Alice", a.getPlayerNames().get(a.getSeat()));
+            assertEquals(7, viewA.lastEvent.getHand().size());
+            assertEquals(7, viewB.lastEvent.getHand().size());
+            assertNotEquals(viewA.lastEvent.getHand().toString(), viewB.lastEvent.getHand().toString());
+
+            UnoClient first = a.isMyTurn() ? a : b;
+            UnoClient second = first == a ? b : a;
+            UnoViewStub firstView = first == a ? viewA : viewB;
+            UnoViewStub secondView = first == a ? viewB : viewA;
+            assertEquals(0, first.getSeat());
+            assertFalse(second.isMyTurn());
+
+            // The second seat may not act on the first seat's turn
+            second.draw();
+            second.receive();
+            assertEquals("It is not your turn.", secondView.lastInfo);
+
+            first.draw();
+            first.receive();
+            second.receive();
+            assertEquals(8, firstView.lastEvent.getHand().size());
+            assertEquals(7, secondView.lastEvent.getHand().size());
+            assertEquals(8, second.getHandSize(0));
+            assertTrue(secondView.lastEvent.isMustPressNext());
+
+            first.next();
+            first.receive();
+            second.receive();
+            assertTrue(second.isMyTurn());
+            assertEquals(second.getPlayerNames().get(1), firstView.lastEvent.getCurrentPlayerName());
+        }
+    }
+
+    /**
+     * Tests that a wild card sent as a plain play is refused instead of leaving the table without a color, and
+     * played once a color comes with it.
+     */
+    @Test
+    public void testWildNeedsColor() throws Exception {
+        List<UnoCard> dealt = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            UnoRank rank = UnoRank.values()[i];
+            dealt.add(new UnoCard(UnoColor.GREEN, rank, UnoColor.TEAL, rank));
+        }
+        dealt.add(3, new UnoCard(UnoColor.WILD, UnoRank.WILD, UnoColor.WILD, UnoRank.WILD));
+        server.setTableSetup(m -> m.forceHand(0, dealt));
+        UnoViewStub viewA = new UnoViewStub();
+        UnoViewStub viewB = new UnoViewStub();
+        try (UnoClient a = new UnoClient(address, "Alice", viewA);
+             UnoClient b = new UnoClient(address, "Bob", viewB)) {
+            a.receive();
+            a.receive();
+            b.receive();
+            b.receive();
+            UnoClient first = a.isMyTurn() ? a : b;
+            UnoViewStub firstView = first == a ? viewA : viewB;
+            assertEquals(0, first.getSeat());
+            assertTrue(firstView.lastEvent.getHand().get(3).isWild(false));
+
+            first.play(3);
+            first.receive();
+            assertEquals("Pick a color for a wild card.", firstView.lastInfo);
+            assertEquals(7, first.getHandSize(first.getSeat()));
+            assertTrue(first.isMyTurn());
+
+            first.playWild(3, UnoColor.GREEN);
+            first.receive();
+            assertEquals(6, first.getHandSize(first.getSeat()));
+            assertEquals(UnoColor.GREEN, firstView.lastEvent.getActiveColor());
+        }
+    }
+
+    /**
+     * Tests that a name of the longest length is sent whole even when its UTF-8 form is long, and that a longer
+     * one is refused before connecting.
+     */
+    @Test
+    public void testLongNames() throws Exception {
+        String longest = "\u00e9".repeat(UnoProtocol.MAX_NAME); // Two bytes each in UTF-8
+        try (UnoClient a = new UnoClient(address, longest, new UnoViewStub());
+             UnoClient b = new UnoClient(address, "Bob", new UnoViewStub())) {
+            a.receive();
+            b.receive();
+            assertEquals(a.getPlayerNames(), b.getPlayerNames());
+            assertTrue(b.getPlayerNames().contains(longest));
+        }
+        try {
+            new UnoClient(address, longest + "x", new UnoViewStub());
+            fail("The server would refuse the name");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    /**
+     * Tests that the table ends when a player leaves.
+     */
+    @Test
+    public void testPlayerLeaves() throws Exception {
+        UnoViewStub viewA = new UnoViewStub();
+        UnoClient a = new UnoClient(address, "Alice", viewA);
+        UnoClient b = new UnoClient(address, "Bob", new UnoViewStub());
+        a.receive();
+        a.receive();
+        b.close();
+        assertFalse(a.receive());
+        assertTrue(viewA.handleEndCalled);
+        assertEquals("Bob left the game.", viewA.lastInfo);
+        a.close();
+        assertEquals(1, server.getTablesStarted());
+    }
+
+    /**
+     * Tests that a spectator follows a table without seeing any hand.
+     */
+    @Test
+    public void testSpectator() throws Exception {
+        UnoViewStub viewA = new UnoViewStub();
+        UnoViewStub viewB = new UnoViewStub();
+        UnoViewStub watching = new UnoViewStub();
+        try (UnoClient a = new UnoClient(address, "Alice", viewA);
+             UnoClient b = new UnoClient(address, "Bob", viewB)) {
+            a.receive();
+            a.receive();
+            b.receive();
+            b.receive();
+            try (UnoClient w = UnoClient.watch(address, 0, watching)) {
+                w.receive(); // players
+                w.receive(); // latest state
+                assertEquals(-1, w.getSeat());
+                assertFalse(w.isMyTurn());
+                assertTrue(watching.lastEvent.getHand().isEmpty());
+                assertEquals(7, w.getHandSize(0));
+                assertEquals(7, w.getHandSize(1));
+
+                UnoClient first = a.isMyTurn() ? a : b;
+                first.draw();
+                w.receive();
+                assertEquals(8, w.getHandSize(0));
+                assertTrue(watching.lastEvent.getHand().isEmpty());
+                assertTrue(watching.lastEvent.isMustPressNext());
+
+                // Leaving ends the table for spectators too
+                (first == a ? b : a).close();
+                assertFalse(w.receive());
+                assertTrue(watching.handleEndCalled);
+            }
+        }
+    }
+
+    /**
+     * Tests that watching a table that does not exist is refused.
+     */
+    @Test
+    public void testWatchUnknownTable() throws Exception {
+        UnoViewStub watching = new UnoViewStub();
+        try (UnoClient w = UnoClient.watch(address, 5, watching)) {
+            w.receive();
+            assertEquals("No such table.", watching.lastInfo);
+        }
+    }
+
+    /**
+     * Tests that a seat which keeps sending but never reads is dropped once its unread replies pass the limit,
+     * instead of the server buffering them without end.
+     */
+    @Test
+    public void testSeatThatDoesNotReadIsDropped() throws Exception {
+        try (SocketChannel raw = SocketChannel.open()) {
+            raw.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+            raw.connect(address);
+            ByteBuffer hello = UnoProtocol.encodeMessage(UnoProtocol.HELLO, "Mallory");
+            while (hello.hasRemaining()) raw.write(hello);
+            ByteBuffer draw = ByteBuffer.allocate(3);
+            UnoProtocol.endFrame(draw, UnoProtocol.beginFrame(draw, UnoProtocol.DRAW));
+            boolean cut = false;
+            for (int i = 0; i < 2_000_000 && !cut; i++) { // Each one is answered with an error, the table is not full
+                draw.flip();
+                try {
+                    while (draw.hasRemaining()) raw.write(draw);
+                } catch (java.io.IOException e) {
+                    cut = true;
+                }
+                draw.limit(draw.capacity());
+            }
+
+            // Whatever reached the socket drains, then the connection ends instead of waiting for more
+            raw.socket().setSoTimeout(5000);
+            InputStream in = raw.socket().getInputStream();
+            byte[] sink = new byte[8192];
+            try {
+                while (in.read(sink) >= 0) { }
+            } catch (SocketTimeoutException e) {
+                fail("The server kept the seat that does not read");
+            } catch (java.io.IOException e) {
+                // Reset by the server, also dropped
+            }
+        }
+        // The seat was freed, so two new players start a table
+        try (UnoClient a = new UnoClient(address, "Alice", new UnoViewStub());
+             UnoClient b = new UnoClient(address, "Bob", new UnoViewStub())) {
+            a.receive();
+            b.receive();
+            assertEquals(1, a.getSeat() + b.getSeat());
+        }
+    }
+}
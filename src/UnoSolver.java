@@ -0,0 +1,507 @@
+import java.util.*;
+/**
+ * Perfect-information endgame solver for two-player Uno Flip games.
+ * Plays out the same card effects as UnoModel (including skip, reverse and flip side changes)
+ * using an iterative-deepening alpha-beta search with a Zobrist-hashed transposition table.
+ * Both hands and the order of the draw pile are assumed to be known.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoSolver {
+    private static final int WIN = 10000;
+    private static final int PROVEN = WIN - 1000;
+    private static final int MAX_DEPTH = 64;
+    private static final int TT_BITS = 18;
+    private static final int RANKS = UnoRank.values().length;
+    private static final int COLORS = UnoColor.values().length;
+
+    private static final int FLAG_EXACT = 0;
+    private static final int FLAG_LOWER = 1;
+    private static final int FLAG_UPPER = 2;
+
+    // Result of applying a move
+    private static final int CONTINUE = 0;
+    private static final int WON = 1;
+    private static final int EXHAUSTED = 2;
+
+    // Card kinds: identical cards are interchangeable, so hands are stored as counts per kind
+    private final List<Integer> faces = new ArrayList<>();
+    private final int k;
+    private final int[] lightColor, lightRank, darkColor, darkRank;
+    private final int[] pile; // kinds, top of the draw pile first
+    private final List<UnoCard> rootHand;
+
+    // State layout: [0, 2k) hand counts per seat, followed by scalar fields
+    private final int sizeIdx, pileIdx, topIdx, activeIdx, dirIdx, turnIdx, darkIdx, stateLen;
+    private final int[][] stack;
+    private final long[] hashes = new long[MAX_DEPTH + 2];
+    private final int[][] moveBuf;
+
+    // Zobrist keys
+    private final long[][][] zHand;
+    private final long[] zTop, zActive, zPile, zDir;
+    private final long zTurn, zDark;
+
+    // Transposition table
+    private final long[] ttKey = new long[1 << TT_BITS];
+    private final long[] ttData = new long[1 << TT_BITS];
+
+    private long deadline;
+    private long nodes;
+    private int value;
+    private int searchedDepth;
+
+    /**
+     * Constructs a solver for the current position of a two-player game.
+     * @param model The model whose position should be solved.
+     * @throws IllegalStateException if the game does not have exactly two players or is waiting for Next.
+     */
+    public UnoSolver(UnoModel model) {
+        if (model.getPlayerCount() != 2) {
+            throw new IllegalStateException("Endgame solver requires exactly 2 players.");
+        }
+        if (model.isMustPressNext()) {
+            throw new IllegalStateException("Press next to continue.");
+        }
+
+        int seat0 = model.getCurrentIndex();
+        List<UnoCard> h0 = model.getPlayer(seat0).hand;
+        List<UnoCard> h1 = model.getPlayer(1 - seat0).hand;
+        rootHand = new ArrayList<>(h0);
+        Collection<UnoCard> drawPile = model.getDrawPile();
+        UnoCard topCard = model.getDiscardTop();
+
+        // Intern every card that can take part in the search
+        for (UnoCard c : h0) kindOf(c);
+        for (UnoCard c : h1) kindOf(c);
+        for (UnoCard c : drawPile) kindOf(c);
+        kindOf(topCard);
+        k = faces.size();
+
+        lightColor = new int[k];
+        lightRank = new int[k];
+        darkColor = new int[k];
+        darkRank = new int[k];
+        for (int i = 0; i < k; i++) {
+            int f = faces.get(i);
+            darkRank[i] = f % RANKS;
+            f /= RANKS;
+            darkColor[i] = f % COLORS;
+            f /= COLORS;
+            lightRank[i] = f % RANKS;
+            lightColor[i] = f / RANKS;
+        }
+
+        pile = new int[drawPile.size()];
+        int p = 0;
+        for (UnoCard c : drawPile) pile[p++] = kindOf(c);
+
+        sizeIdx = 2 * k;
+        pileIdx = sizeIdx + 2;
+        topIdx = pileIdx + 1;
+        activeIdx = topIdx + 1;
+        dirIdx = activeIdx + 1;
+        turnIdx = dirIdx + 1;
+        darkIdx = turnIdx + 1;
+        stateLen = darkIdx + 1;
+        stack = new int[MAX_DEPTH + 2][stateLen];
+        moveBuf = new int[MAX_DEPTH + 2][5 * k + 1];
+
+        // Zobrist keys, one per (seat, kind, copy number)
+        int[] copies = new int[k];
+        for (UnoCard c : h0) copies[kindOf(c)]++;
+        for (UnoCard c : h1) copies[kindOf(c)]++;
+        for (int kind : pile) copies[kind]++;
+        Random rnd = new Random(0x5EED_F11FL);
+        zHand = new long[2][k][];
+        for (int s = 0; s < 2; s++) {
+            for (int i = 0; i < k; i++) {
+                zHand[s][i] = new long[copies[i] + 1];
+                for (int c = 0; c <= copies[i]; c++) zHand[s][i][c] = rnd.nextLong();
+            }
+        }
+        zTop = randomKeys(rnd, k);
+        zActive = randomKeys(rnd, UnoColor.values().length);
+        zPile = randomKeys(rnd, pile.length + 1);
+        zDir = randomKeys(rnd, 2);
+        zTurn = rnd.nextLong();
+        zDark = rnd.nextLong();
+
+        // Root state
+        int[] s = stack[0];
+        for (UnoCard c : h0) s[kindOf(c)]++;
+        for (UnoCard c : h1) s[k + kindOf(c)]++;
+        s[sizeIdx] = h0.size();
+        s[sizeIdx + 1] = h1.size();
+        s[topIdx] = kindOf(topCard);
+        s[activeIdx] = model.getActiveColor().ordinal();
+        s[dirIdx] = model.getDirection();
+        s[darkIdx] = model.isDark() ? 1 : 0;
+        hashes[0] = fullHash(s);
+    }
+
+    /**
+     * Searches the position until it is proven or the time budget runs out.
+     * @param budgetMillis Maximum search time in milliseconds.
+     * @return The best move found for the current player.
+     */
+    public UnoMove solve(long budgetMillis) {
+        deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+        nodes = 0;
+        int bestMove = 0;
+        value = 0;
+        searchedDepth = 0;
+
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            try {
+                int[] result = searchRoot(depth);
+                bestMove = result[0];
+                value = result[1];
+                searchedDepth = depth;
+            } catch (Timeout t) {
+                break;
+            }
+            if (Math.abs(value) > PROVEN) break;
+        }
+        return toUnoMove(bestMove);
+    }
+
+    /**
+     * Gets the value of the last completed search from the current player's point of view.
+     * @return Positive when winning, negative when losing.
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Checks if the last search proved a forced win for the current player.
+     * @return True if the win is proven, False otherwise.
+     */
+    public boolean isProvenWin() {
+        return value > PROVEN;
+    }
+
+    /**
+     * Checks if the last search proved a forced loss for the current player.
+     * @return True if the loss is proven, False otherwise.
+     */
+    public boolean isProvenLoss() {
+        return value < -PROVEN;
+    }
+
+    /**
+     * Gets the deepest fully completed search depth.
+     * @return The depth in turns.
+     */
+    public int getSearchedDepth() {
+        return searchedDepth;
+    }
+
+    /**
+     * Gets the number of positions visited by the last search.
+     * @return The node count.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    private int[] searchRoot(int depth) {
+        int n = generateMoves(0);
+        orderTTMove(0, n);
+        int alpha = -WIN - 1;
+        int best = moveBuf[0][0];
+        for (int i = 0; i < n; i++) {
+            int move = moveBuf[0][i];
+            int v = child(0, move, depth, alpha, WIN + 1);
+            if (v > alpha) {
+                alpha = v;
+                best = move;
+            }
+        }
+        store(hashes[0], 0, depth, alpha, FLAG_EXACT, best);
+        return new int[]{best, alpha};
+    }
+
+    private int search(int ply, int depth, int alpha, int beta) {
+        if ((++nodes & 1023) == 0 && System.nanoTime() > deadline) throw Timeout.INSTANCE;
+        int[] s = stack[ply];
+        if (depth == 0 || ply >= MAX_DEPTH) {
+            int me = s[turnIdx];
+            return s[sizeIdx + 1 - me] - s[sizeIdx + me];
+        }
+
+        long key = hashes[ply];
+        int slot = (int) key & (ttKey.length - 1);
+        if (ttKey[slot] == key) {
+            long d = ttData[slot];
+            int ttDepth = (int) (d >>> 16 & 0xFF);
+            int ttFlag = (int) (d >>> 24 & 0x3);
+            int ttValue = fromTT((int) (d >> 32), ply);
+            if (ttDepth >= depth || Math.abs(ttValue) > PROVEN) {
+                if (ttFlag == FLAG_EXACT) return ttValue;
+                if (ttFlag == FLAG_LOWER && ttValue >= beta) return ttValue;
+                if (ttFlag == FLAG_UPPER && ttValue <= alpha) return ttValue;
+            }
+        }
+
+        int n = generateMoves(ply);
+        orderTTMove(ply, n);
+        int origAlpha = alpha;
+        int best = -WIN - 1;
+        int bestMove = moveBuf[ply][0];
+        for (int i = 0; i < n; i++) {
+            int move = moveBuf[ply][i];
+            int v = child(ply, move, depth, alpha, beta);
+            if (v > best) {
+                best = v;
+                bestMove = move;
+            }
+            if (best > alpha) alpha = best;
+            if (alpha >= beta) break;
+        }
+
+        int flag = best <= origAlpha ? FLAG_UPPER : best >= beta ? FLAG_LOWER : FLAG_EXACT;
+        store(key, ply, depth, best, flag, bestMove);
+        return best;
+    }
+
+    // Applies a move into the next ply and returns its value from the mover's point of view
+    private int child(int ply, int move, int depth, int alpha, int beta) {
+        int[] s = stack[ply];
+        int[] c = stack[ply + 1];
+        System.arraycopy(s, 0, c, 0, stateLen);
+        hashes[ply + 1] = hashes[ply];
+        int mover = s[turnIdx];
+
+        int result = apply(ply + 1, move);
+        if (result == WON) return WIN - ply - 1;
+        if (result == EXHAUSTED) return 0;
+        if (c[turnIdx] == mover) return search(ply + 1, depth - 1, alpha, beta);
+        return -search(ply + 1, depth - 1, -beta, -alpha);
+    }
+
+    // Move encoding: 0 = draw, 1 + kind * 5 = plain play, 2 + kind * 5 + slot = wild with side color slot
+    private int generateMoves(int ply) {
+        int[] s = stack[ply];
+        int[] buf = moveBuf[ply];
+        int me = s[turnIdx];
+        boolean dark = s[darkIdx] == 1;
+        int topRank = rank(s[topIdx], dark);
+        int n = 0;
+        for (int kind = 0; kind < k; kind++) {
+            if (s[me * k + kind] == 0) continue;
+            if (isWildRank(rank(kind, dark))) {
+                for (int slot = 0; slot < 4; slot++) buf[n++] = 2 + kind * 5 + slot;
+            } else if (color(kind, dark) == s[activeIdx] || rank(kind, dark) == topRank) {
+                buf[n++] = 1 + kind * 5;
+            }
+        }
+        buf[n++] = 0;
+        return n;
+    }
+
+    private void orderTTMove(int ply, int n) {
+        long key = hashes[ply];
+        int slot = (int) key & (ttKey.length - 1);
+        if (ttKey[slot] != key) return;
+        int ttMove = (int) (ttData[slot] & 0xFFFF);
+        int[] buf = moveBuf[ply];
+        for (int i = 1; i < n; i++) {
+            if (buf[i] == ttMove) {
+                buf[i] = buf[0];
+                buf[0] = ttMove;
+                return;
+            }
+        }
+    }
+
+    private int apply(int ply, int move) {
+        int[] s = stack[ply];
+        int me = s[turnIdx];
+        int other = 1 - me;
+
+        if (move == 0) {
+            if (!drawInto(ply, me)) return EXHAUSTED;
+            setTurn(ply, other);
+            return CONTINUE;
+        }
+
+        int kind = (move - 1) / 5;
+        int slot = (move - 1) % 5 - 1;
+        boolean dark = s[darkIdx] == 1;
+        removeCard(ply, me, kind);
+        setTop(ply, kind);
+        setActive(ply, slot >= 0 ? UnoColor.sideColors(dark)[slot].ordinal() : color(kind, dark));
+        if (s[sizeIdx + me] == 0) return WON;
+
+        int next = other;
+        switch (UnoRank.values()[rank(kind, dark)]) {
+            case FLIP -> {
+                hashes[ply] ^= zDark;
+                s[darkIdx] ^= 1;
+                boolean flipped = !dark;
+                int active = color(kind, flipped);
+                if (isWildRank(rank(kind, flipped))) {
+                    active = (flipped ? UnoColor.TEAL : UnoColor.RED).ordinal();
+                }
+                setActive(ply, active);
+            }
+            case DRAW_FIVE -> {
+                for (int i = 0; i < 5; i++) if (!drawInto(ply, other)) return EXHAUSTED;
+                next = me;
+            }
+            case SKIP_EVERYONE, SKIP -> next = me;
+            case WILD_DRAW_COLOR -> {
+                boolean found = false;
+                while (!found) {
+                    if (s[pileIdx] == pile.length) return EXHAUSTED;
+                    int drawn = pile[s[pileIdx]];
+                    drawInto(ply, other);
+                    found = color(drawn, dark) == s[activeIdx];
+                }
+                next = me;
+            }
+            case REVERSE -> {
+                hashes[ply] ^= zDir[s[dirIdx] > 0 ? 1 : 0] ^ zDir[s[dirIdx] > 0 ? 0 : 1];
+                s[dirIdx] = -s[dirIdx];
+            }
+            case DRAW_ONE -> {
+                if (!drawInto(ply, other)) return EXHAUSTED;
+                next = me;
+            }
+            case WILD_DRAW_TWO -> {
+                for (int i = 0; i < 2; i++) if (!drawInto(ply, other)) return EXHAUSTED;
+                next = me;
+            }
+            default -> { }
+        }
+        setTurn(ply, next);
+        return CONTINUE;
+    }
+
+    private boolean drawInto(int ply, int seat) {
+        int[] s = stack[ply];
+        int pos = s[pileIdx];
+        if (pos == pile.length) return false;
+        hashes[ply] ^= zPile[pos] ^ zPile[pos + 1];
+        s[pileIdx] = pos + 1;
+        int kind = pile[pos];
+        int count = ++s[seat * k + kind];
+        hashes[ply] ^= zHand[seat][kind][count];
+        s[sizeIdx + seat]++;
+        return true;
+    }
+
+    private void removeCard(int ply, int seat, int kind) {
+        int[] s = stack[ply];
+        int count = s[seat * k + kind]--;
+        hashes[ply] ^= zHand[seat][kind][count];
+        s[sizeIdx + seat]--;
+    }
+
+    private void setTop(int ply, int kind) {
+        hashes[ply] ^= zTop[stack[ply][topIdx]] ^ zTop[kind];
+        stack[ply][topIdx] = kind;
+    }
+
+    private void setActive(int ply, int color) {
+        hashes[ply] ^= zActive[stack[ply][activeIdx]] ^ zActive[color];
+        stack[ply][activeIdx] = color;
+    }
+
+    private void setTurn(int ply, int seat) {
+        if (stack[ply][turnIdx] != seat) hashes[ply] ^= zTurn;
+        stack[ply][turnIdx] = seat;
+    }
+
+    private long fullHash(int[] s) {
+        long h = 0;
+        for (int seat = 0; seat < 2; seat++) {
+            for (int kind = 0; kind < k; kind++) {
+                for (int c = 1; c <= s[seat * k + kind]; c++) h ^= zHand[seat][kind][c];
+            }
+        }
+        h ^= zTop[s[topIdx]] ^ zActive[s[activeIdx]] ^ zPile[s[pileIdx]] ^ zDir[s[dirIdx] > 0 ? 1 : 0];
+        if (s[turnIdx] == 1) h ^= zTurn;
+        if (s[darkIdx] == 1) h ^= zDark;
+        return h;
+    }
+
+    private void store(long key, int ply, int depth, int v, int flag, int move) {
+        int slot = (int) key & (ttKey.length - 1);
+        ttKey[slot] = key;
+        ttData[slot] = ((long) toTT(v, ply) << 32) | ((long) flag << 24) | ((long) depth << 16) | (move & 0xFFFF);
+    }
+
+    // Proven scores are stored relative to the node so they stay valid at any ply
+    private static int toTT(int v, int ply) {
+        if (v > PROVEN) return v + ply;
+        if (v < -PROVEN) return v - ply;
+        return v;
+    }
+
+    private static int fromTT(int v, int ply) {
+        if (v > PROVEN) return v - ply;
+        if (v < -PROVEN) return v + ply;
+        return v;
+    }
+
+    private UnoMove toUnoMove(int move) {
+        if (move == 0) return UnoMove.draw();
+        int kind = (move - 1) / 5;
+        int slot = (move - 1) % 5 - 1;
+        int face = faces.get(kind);
+        for (int i = 0; i < rootHand.size(); i++) {
+            if (faceOf(rootHand.get(i)) == face) {
+                if (slot < 0) return UnoMove.play(i);
+                return UnoMove.wild(i, UnoColor.sideColors(stack[0][darkIdx] == 1)[slot]);
+            }
+        }
+        return UnoMove.draw();
+    }
+
+    private int kindOf(UnoCard c) {
+        int face = faceOf(c);
+        int idx = faces.indexOf(face);
+        if (idx < 0) {
+            faces.add(face);
+            idx = faces.size() - 1;
+        }
+        return idx;
+    }
+
+    private static int faceOf(UnoCard c) {
+        return ((c.getColor(false).ordinal() * RANKS + c.getRank(false).ordinal()) * COLORS
+                + c.getColor(true).ordinal()) * RANKS + c.getRank(true).ordinal();
+    }
+
+    private int color(int kind, boolean dark) {
+        return dark ? darkColor[kind] : lightColor[kind];
+    }
+
+    private int rank(int kind, boolean dark) {
+        return dark ? darkRank[kind] : lightRank[kind];
+    }
+
+    private static boolean isWildRank(int rank) {
+        return rank == UnoRank.WILD.ordinal() || rank == UnoRank.WILD_DRAW_TWO.ordinal()
+                || rank == UnoRank.WILD_DRAW_COLOR.ordinal();
+    }
+
+    private static long[] randomKeys(Random rnd, int n) {
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) keys[i] = rnd.nextLong();
+        return keys;
+    }
+
+    // Thrown to unwind the search once the time budget is spent
+    private static final class Timeout extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        static final Timeout INSTANCE = new Timeout();
+
+        private Timeout() {
+            super(null, null, false, false);
+        }
+    }
+}
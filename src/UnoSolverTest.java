@@ -0,0 +1,104 @@
+import org.junit.Test;
+import org.junit.Before;
+import java.util.*;
+import static org.junit.Assert.*;
+/**
+ * Test class for the endgame solver
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoSolverTest {
+    private UnoModel model;
+    private UnoViewStub view;
+
+    /**
+     * Sets up a two-player model and view before each test.
+     */
+    @Before
+    public void setUp() {
+        model = new UnoModel(2, Arrays.asList("Alice", "Bob"), Arrays.asList(false, false));
+        view = new UnoViewStub();
+        model.addView(view);
+    }
+
+    /**
+     * Tests that a single matching card is found as an immediate win.
+     */
+    @Test
+    public void testWinInOne() {
+        model.setTopCard(new UnoCard(UnoColor.RED, UnoRank.FIVE, UnoColor.TEAL, UnoRank.FIVE));
+        model.forceHand(0, new ArrayList<>(List.of(new UnoCard(UnoColor.RED, UnoRank.ONE, UnoColor.TEAL, UnoRank.ONE))));
+        model.forceHand(1, new ArrayList<>(List.of(new UnoCard(UnoColor.BLUE, UnoRank.NINE, UnoColor.PINK, UnoRank.NINE))));
+
+        UnoSolver solver = new UnoSolver(model);
+        assertEquals(UnoMove.play(0), solver.solve(100));
+        assertTrue(solver.isProvenWin());
+    }
+
+    /**
+     * Tests that the solver plays Skip first when playing the number card would let the opponent win.
+     */
+    @Test
+    public void testSkipBeforeLastCard() {
+        model.setTopCard(new UnoCard(UnoColor.RED, UnoRank.FIVE, UnoColor.TEAL, UnoRank.FIVE));
+        UnoCard skip = new UnoCard(UnoColor.RED, UnoRank.SKIP, UnoColor.ORANGE, UnoRank.SKIP_EVERYONE);
+        UnoCard three = new UnoCard(UnoColor.RED, UnoRank.THREE, UnoColor.ORANGE, UnoRank.THREE);
+        model.forceHand(0, new ArrayList<>(List.of(three, skip)));
+        model.forceHand(1, new ArrayList<>(List.of(new UnoCard(UnoColor.RED, UnoRank.NINE, UnoColor.ORANGE, UnoRank.NINE))));
+
+        UnoSolver solver = new UnoSolver(model);
+        assertEquals(UnoMove.play(1), solver.solve(500));
+        assertTrue(solver.isProvenWin());
+    }
+
+    /**
+     * Tests that the solver picks the wild color the opponent cannot follow.
+     */
+    @Test
+    public void testWildColorChoice() {
+        model.setTopCard(new UnoCard(UnoColor.GREEN, UnoRank.FIVE, UnoColor.TEAL, UnoRank.FIVE));
+        UnoCard wild = new UnoCard(UnoColor.WILD, UnoRank.WILD, UnoColor.WILD, UnoRank.WILD_DRAW_COLOR);
+        UnoCard blueTwo = new UnoCard(UnoColor.BLUE, UnoRank.TWO, UnoColor.PINK, UnoRank.TWO);
+        model.forceHand(0, new ArrayList<>(List.of(wild, blueTwo)));
+        model.forceHand(1, new ArrayList<>(List.of(new UnoCard(UnoColor.RED, UnoRank.SEVEN, UnoColor.ORANGE, UnoRank.SEVEN))));
+
+        UnoSolver solver = new UnoSolver(model);
+        UnoMove best = solver.solve(500);
+        assertTrue(solver.isProvenWin());
+        assertEquals(UnoMove.wild(0, UnoColor.BLUE), best);
+    }
+
+    /**
+     * Tests that the model only uses the solver below the hand size threshold.
+     */
+    @Test
+    public void testSolveEndgameThreshold() {
+        assertNull("14 cards in hand should be above threshold", model.solveEndgame(6, 50));
+        model.forceHand(0, new ArrayList<>(List.of(new UnoCard(UnoColor.RED, UnoRank.ONE, UnoColor.TEAL, UnoRank.ONE))));
+        model.forceHand(1, new ArrayList<>(List.of(new UnoCard(UnoColor.BLUE, UnoRank.NINE, UnoColor.PINK, UnoRank.NINE))));
+        assertNotNull(model.solveEndgame(6, 50));
+    }
+
+    /**
+     * Tests that an AI player with the solver enabled closes out a won position.
+     */
+    @Test
+    public void testAIUsesSolver() {
+        UnoModel m = new UnoModel(2, Arrays.asList("Bot1", "Bot2"), Arrays.asList(true, true));
+        UnoViewStub stub = new UnoViewStub();
+        m.addView(stub);
+        m.setEndgameSolver(6, 200);
+        m.setTopCard(new UnoCard(UnoColor.RED, UnoRank.FIVE, UnoColor.TEAL, UnoRank.FIVE));
+        UnoCard skip = new UnoCard(UnoColor.RED, UnoRank.SKIP, UnoColor.ORANGE, UnoRank.SKIP_EVERYONE);
+        UnoCard three = new UnoCard(UnoColor.RED, UnoRank.THREE, UnoColor.ORANGE, UnoRank.THREE);
+        m.forceHand(0, new ArrayList<>(List.of(three, skip)));
+        m.forceHand(1, new ArrayList<>(List.of(new UnoCard(UnoColor.RED, UnoRank.NINE, UnoColor.ORANGE, UnoRank.NINE))));
+
+        m.playAITurn();
+        assertEquals("RED-SKIP", m.getDiscardTop().toText(false));
+        m.playAITurn(); // Presses Next, skip returns the turn to Bot1
+        m.playAITurn();
+        assertTrue(stub.handleEndCalled);
+        assertTrue(stub.lastInfo.contains("Bot1 WON"));
+    }
+}
@@ -0,0 +1,185 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * Spectator feed of one game. Each state change is encoded once into a read-only direct buffer without
+ * any hand, and every spectator is written a duplicate of that same buffer, so the cost per watcher is
+ * one socket write instead of one serialization.
+ * <p>
+ * A spectator that cannot keep up is skipped ahead: while a frame is still being written to it, newer
+ * states replace the one waiting behind it. Spectators that fall more than {@link #MAX_SKIPPED} states
+ * behind are dropped.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoSpectatorChannel implements UnoView {
+    static final int MAX_SKIPPED = 64;
+
+    private final List<Watcher> watchers = new ArrayList<>();
+    private final ByteBuffer welcome;
+    private ByteBuffer latest;
+    private int framesEncoded = 0;
+    private int droppedCount = 0;
+
+    /**
+     * Constructor for UnoSpectatorChannel.
+     * @param names The names of the players, in seat order.
+     */
+    public UnoSpectatorChannel(List<String> names) {
+        this.welcome = UnoProtocol.encodeWelcome(-1, names).asReadOnlyBuffer();
+    }
+
+    /**
+     * Adds a spectator. It is sent the table's players and the latest state straight away.
+     * @param channel The spectator's connection, in non-blocking mode.
+     * @param key The connection's selection key, used to wait for the socket to drain.
+     * @return The watcher, whose {@link Watcher#flush()} must be called when the key is writable.
+     */
+    Watcher addWatcher(SocketChannel channel, SelectionKey key) {
+        Watcher w = new Watcher(channel, key);
+        watchers.add(w);
+        w.offer(welcome);
+        if (latest != null) w.offer(latest);
+        return w;
+    }
+
+    /**
+     * Removes a spectator.
+     * @param w The watcher returned by {@link #addWatcher}.
+     */
+    void removeWatcher(Watcher w) {
+        watchers.remove(w);
+    }
+
+    /**
+     * Gets the number of spectators.
+     * @return The number of watchers.
+     */
+    public int getWatcherCount() {
+        return watchers.size();
+    }
+
+    /**
+     * Gets how many frames have been encoded, which is one per state change no matter how many watch.
+     * @return The number of frames encoded.
+     */
+    public int getFramesEncoded() {
+        return framesEncoded;
+    }
+
+    /**
+     * Gets how many spectators were dropped for falling too far behind.
+     * @return The number of dropped spectators.
+     */
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    @Override
+    public void handleUpdate(UnoEvent e) {
+        latest = UnoProtocol.encodeState(e, List.of(), true).asReadOnlyBuffer();
+        publish(latest);
+    }
+
+    @Override
+    public void handleEnd(String message) {
+        ByteBuffer end = ByteBuffer.allocateDirect(5 + 3 * message.length());
+        end.put(UnoProtocol.encodeMessage(UnoProtocol.END, message)).flip();
+        publish(end.asReadOnlyBuffer());
+    }
+
+    private void publish(ByteBuffer frame) {
+        framesEncoded++;
+        for (int i = watchers.size() - 1; i >= 0; i--) {
+            Watcher w = watchers.get(i);
+            if (!w.offer(frame)) {
+                watchers.remove(i);
+                droppedCount++;
+            }
+        }
+    }
+
+    @Override
+    public UnoColor promptForWildColor() {
+        return UnoColor.NONE; // Spectators never play
+    }
+
+    @Override
+    public void showInfo(String message) {
+    }
+
+    @Override
+    public java.awt.Color mapCardColor(UnoColor c) {
+        return null;
+    }
+
+    /**
+     * One spectator: the frame being written and at most one newer frame waiting behind it.
+     */
+    static class Watcher {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private ByteBuffer writing;
+        private ByteBuffer waiting;
+        private int skipped = 0;
+
+        Watcher(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        /**
+         * Queues a shared frame for this spectator, replacing any frame that has not started yet.
+         * @param frame The shared read-only frame.
+         * @return False if the spectator has fallen too far behind or its connection failed.
+         */
+        boolean offer(ByteBuffer frame) {
+            if (!channel.isOpen()) return false;
+            if (writing != null) {
+                if (waiting != null && ++skipped > MAX_SKIPPED) {
+                    closeQuietly();
+                    return false;
+                }
+                waiting = frame.duplicate();
+                return true;
+            }
+            writing = frame.duplicate();
+            try {
+                flush();
+            } catch (IOException e) {
+                closeQuietly();
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Writes as much as the socket takes without blocking.
+         * @throws IOException if the connection fails.
+         */
+        void flush() throws IOException {
+            while (writing != null) {
+                channel.write(writing);
+                if (writing.hasRemaining()) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                    return;
+                }
+                writing = waiting;
+                waiting = null;
+                skipped = 0;
+            }
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+
+        private void closeQuietly() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Dropping it anyway
+            }
+        }
+    }
+}
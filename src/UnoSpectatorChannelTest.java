@@ -0,0 +1,133 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoSpectatorChannel
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoSpectatorChannelTest {
+    private ServerSocketChannel listener;
+    private Selector selector;
+    private final List<SocketChannel> open = new ArrayList<>();
+    private UnoModel model;
+    private UnoViewStub stub;
+    private UnoSpectatorChannel channel;
+
+    /**
+     * Sets up a two-player game and a local socket listener.
+     */
+    @Before
+    public void setUp() throws Exception {
+        listener = ServerSocketChannel.open().bind(new InetSocketAddress("127.0.0.1", 0));
+        selector = Selector.open();
+        model = new UnoModel(2, Arrays.asList("A", "B"), Arrays.asList(false, false), 1, UnoRuleSet.standard(), 3L);
+        stub = new UnoViewStub();
+        model.addView(stub);
+        channel = new UnoSpectatorChannel(Arrays.asList("A", "B"));
+    }
+
+    /**
+     * Closes every socket.
+     */
+    @After
+    public void tearDown() throws Exception {
+        for (SocketChannel c : open) c.close();
+        listener.close();
+        selector.close();
+    }
+
+    // Connects a client and returns {server side, client side}
+    private SocketChannel[] connect(int bufferSize) throws Exception {
+        SocketChannel client = SocketChannel.open();
+        client.setOption(StandardSocketOptions.SO_RCVBUF, bufferSize);
+        client.connect(listener.getLocalAddress());
+        SocketChannel server = listener.accept();
+        server.setOption(StandardSocketOptions.SO_SNDBUF, bufferSize);
+        server.configureBlocking(false);
+        open.add(client);
+        open.add(server);
+        return new SocketChannel[]{server, client};
+    }
+
+    /**
+     * Tests that every spectator gets the same bytes from a single encoding.
+     */
+    @Test
+    public void testEncodeOnce() throws Exception {
+        List<SocketChannel> clients = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            SocketChannel[] pair = connect(64 * 1024);
+            channel.addWatcher(pair[0], pair[0].register(selector, SelectionKey.OP_READ));
+            clients.add(pair[1]);
+        }
+        channel.handleUpdate(stub.lastEvent);
+        assertEquals(1, channel.getFramesEncoded());
+
+        ByteBuffer expected = UnoProtocol.encodeState(stub.lastEvent, List.of(), false);
+        int welcome = UnoProtocol.encodeWelcome(-1, Arrays.asList("A", "B")).remaining();
+        for (SocketChannel c : clients) {
+            ByteBuffer got = ByteBuffer.allocate(welcome + expected.remaining());
+            while (got.hasRemaining()) c.read(got);
+            got.position(welcome);
+            assertEquals(expected.duplicate(), got);
+        }
+    }
+
+    /**
+     * Tests that a frame encoded after the game moved on still shows the table as it was in the update.
+     */
+    @Test
+    public void testFrameComesFromTheUpdate() {
+        UnoEvent e = stub.lastEvent;
+        int seat = model.getCurrentIndex();
+        int handSize = model.getPlayer(seat).hand.size();
+        model.draw();
+        model.nextPlayer();
+
+        ByteBuffer frame = UnoProtocol.encodeState(e, List.of(), false);
+        frame.position(3); // Length and type
+        assertEquals(seat, frame.get());
+        frame.position(frame.position() + 6); // Flags, color, top card, draw pile
+        assertEquals(2, frame.get());
+        assertEquals(handSize, frame.getShort(frame.position() + 2 * seat));
+    }
+
+    /**
+     * Tests that a spectator that never reads is dropped while a fast one keeps up.
+     */
+    @Test
+    public void testSlowSpectatorDropped() throws Exception {
+        SocketChannel[] fast = connect(256 * 1024);
+        SocketChannel[] slow = connect(1);
+        channel.addWatcher(fast[0], fast[0].register(selector, SelectionKey.OP_READ));
+        channel.addWatcher(slow[0], slow[0].register(selector, SelectionKey.OP_READ));
+
+        for (int i = 0; i < 2000 && channel.getDroppedCount() == 0; i++) {
+            channel.handleUpdate(stub.lastEvent);
+            if (i % 100 == 0) drain(fast[1]);
+        }
+        assertEquals(1, channel.getDroppedCount());
+        assertEquals(1, channel.getWatcherCount());
+        assertFalse(slow[0].isOpen());
+        assertTrue(fast[0].isOpen());
+    }
+
+    private static void drain(SocketChannel c) throws Exception {
+        c.configureBlocking(false);
+        ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+        while (c.read(buf) > 0) buf.clear();
+        c.configureBlocking(true);
+    }
+}
@@ -0,0 +1,41 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+/**
+ * Records how long each startup phase took, measured from the moment the launcher started.
+ * Marks may be added from any thread.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoStartupTimer {
+    private final long start;
+    private final List<String> phases = new ArrayList<>();
+    private final List<Long> times = new ArrayList<>();
+
+    /**
+     * Constructor for UnoStartupTimer.
+     * @param startNanos Value of System.nanoTime() when startup began.
+     */
+    public UnoStartupTimer(long startNanos) {
+        this.start = startNanos;
+    }
+
+    /**
+     * Records that a phase has finished.
+     * @param phase Name of the phase.
+     */
+    public synchronized void mark(String phase) {
+        phases.add(phase);
+        times.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Prints the time to each recorded phase.
+     * @param out Stream to print to.
+     */
+    public synchronized void report(PrintStream out) {
+        for (int i = 0; i < phases.size(); i++) {
+            out.printf("startup: %-16s %8.1f ms%n", phases.get(i), times.get(i) / 1e6);
+        }
+    }
+}
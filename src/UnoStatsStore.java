@@ -0,0 +1,349 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+/**
+ * Lifetime player statistics kept in a memory-mapped file, so they survive the program exiting at the end of a game.
+ * <p>
+ * The file is a small header followed by an open-addressing hash table of fixed 160-byte records, keyed by
+ * player name with linear probing. A record holds the whole name, so any name the server accepts gets its own
+ * record; longer names are rejected. Looking up a player touches one or two records, and a finished game is
+ * written in one batch. The table doubles (into a new file) when it gets 70% full. The best players are also kept
+ * in memory, so leaderboard queries never scan the file.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoStatsStore implements UnoGameListener, Closeable {
+    public static final int LEADERBOARD_SIZE = 100;
+    static final int RECORD_SIZE = 160;
+    static final int MAX_NAME_BYTES = 127; // UTF-8 bytes, more than any name of UnoProtocol.MAX_NAME characters needs
+    private static final int HEADER_SIZE = 64;
+    private static final int MAGIC = 0x554E4F53; // "UNOS"
+    private static final int VERSION = 2; // Version 1 cut names to 31 bytes
+    private static final int DEFAULT_CAPACITY = 1 << 12;
+
+    // Record layout
+    private static final int GAMES = 0;
+    private static final int WINS = 4;
+    private static final int POINTS = 8;
+    private static final int DRAWN = 16;
+    private static final int END_CARDS = 24;
+    private static final int NAME_LEN = 32;
+    private static final int NAME = 33;
+
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer map;
+    private int capacity;
+    private int count;
+
+    // Best players, worst first; stats never go down, so nobody outside can overtake without being updated
+    private final TreeSet<Stats> board = new TreeSet<>(Comparator.comparingInt(Stats::getWins)
+            .thenComparingLong(Stats::getPoints).thenComparing(Stats::getName));
+    private final Map<String, Stats> onBoard = new HashMap<>();
+
+    /**
+     * Opens a stats file, creating it if needed.
+     * @param file The file.
+     * @throws IOException if the file cannot be opened or is not a stats file.
+     */
+    public UnoStatsStore(Path file) throws IOException {
+        this(file, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Opens a stats file, creating it with room for a number of players if needed.
+     * @param file The file.
+     * @param initialCapacity Number of record slots for a new file, rounded up to a power of two.
+     * @throws IOException if the file cannot be opened or is not a stats file.
+     */
+    public UnoStatsStore(Path file, int initialCapacity) throws IOException {
+        this.file = file;
+        if (Files.exists(file) && Files.size(file) > 0) {
+            map(file);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) throw new IOException("Not a stats file: " + file);
+            capacity = map.getInt(8);
+            count = map.getInt(12);
+            for (int slot = 0; slot < capacity; slot++) {
+                if (map.get(offset(slot) + NAME_LEN) != 0) rank(read(slot));
+            }
+        } else {
+            createFile(file, Integer.highestOneBit(Math.max(16, initialCapacity) - 1) << 1);
+            map(file);
+        }
+    }
+
+    /**
+     * Adds a finished game to every player's stats, as one batch.
+     * @param result The outcome of the game.
+     * @throws IOException if the file has to grow and cannot.
+     * @throws IllegalArgumentException if a name is empty or too long for a record; nothing is recorded then.
+     */
+    public synchronized void record(UnoGameResult result) throws IOException {
+        int n = result.getPlayerCount();
+        byte[][] names = new byte[n][];
+        for (int seat = 0; seat < n; seat++) names[seat] = encode(result.getName(seat));
+        if ((count + n) * 10L > capacity * 7L) grow(count + n);
+        for (int seat = 0; seat < n; seat++) {
+            int slot = find(names[seat], true);
+            int off = offset(slot);
+            boolean won = seat == result.getWinner();
+            map.putInt(off + GAMES, map.getInt(off + GAMES) + 1);
+            if (won) map.putInt(off + WINS, map.getInt(off + WINS) + 1);
+            if (won) map.putLong(off + POINTS, map.getLong(off + POINTS) + result.getScore());
+            map.putLong(off + DRAWN, map.getLong(off + DRAWN) + result.getCardsDrawn(seat));
+            map.putLong(off + END_CARDS, map.getLong(off + END_CARDS) + result.getHandSize(seat));
+            rank(read(slot));
+        }
+        map.putInt(12, count);
+    }
+
+    @Override
+    public void gameEnded(UnoGameResult result) {
+        try {
+            record(result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets a player's lifetime stats.
+     * @param name The player's name.
+     * @return The stats, or null if the player has never finished a game.
+     */
+    public synchronized Stats get(String name) {
+        int slot = find(encode(name), false);
+        return slot < 0 ? null : read(slot);
+    }
+
+    /**
+     * Gets the best players, by wins and then by points.
+     * @param k How many players to return, at most {@link #LEADERBOARD_SIZE}.
+     * @return The top players, best first.
+     */
+    public synchronized List<Stats> leaderboard(int k) {
+        List<Stats> top = new ArrayList<>(Math.min(k, board.size()));
+        Iterator<Stats> it = board.descendingIterator();
+        while (it.hasNext() && top.size() < k) top.add(it.next());
+        return top;
+    }
+
+    /**
+     * Gets the number of players in the store.
+     * @return The number of players.
+     */
+    public synchronized int getPlayerCount() {
+        return count;
+    }
+
+    /**
+     * Writes all changes through to the disk.
+     */
+    public synchronized void flush() {
+        map.force();
+    }
+
+    /**
+     * Flushes and closes the file.
+     */
+    @Override
+    public synchronized void close() {
+        if (!channel.isOpen()) return;
+        map.force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Finds a player's slot, claiming an empty one if asked; returns -1 if not found
+    private int find(byte[] name, boolean create) {
+        int mask = capacity - 1;
+        for (int slot = hash(name) & mask; ; slot = (slot + 1) & mask) {
+            int off = offset(slot);
+            int len = map.get(off + NAME_LEN);
+            if (len == 0) {
+                if (!create) return -1;
+                map.put(off + NAME_LEN, (byte) name.length);
+                map.put(off + NAME, name);
+                count++;
+                return slot;
+            }
+            if (len == name.length && nameEquals(off, name)) return slot;
+        }
+    }
+
+    private boolean nameEquals(int off, byte[] name) {
+        for (int i = 0; i < name.length; i++) {
+            if (map.get(off + NAME + i) != name[i]) return false;
+        }
+        return true;
+    }
+
+    private Stats read(int slot) {
+        int off = offset(slot);
+        byte[] name = new byte[map.get(off + NAME_LEN)];
+        map.get(off + NAME, name);
+        return new Stats(new String(name, StandardCharsets.UTF_8), map.getInt(off + GAMES), map.getInt(off + WINS),
+                map.getLong(off + POINTS), map.getLong(off + DRAWN), map.getLong(off + END_CARDS));
+    }
+
+    private void rank(Stats s) {
+        Stats old = onBoard.remove(s.getName());
+        if (old != null) board.remove(old);
+        if (board.size() == LEADERBOARD_SIZE) {
+            if (board.comparator().compare(s, board.first()) < 0) return;
+            onBoard.remove(board.pollFirst().getName());
+        }
+        board.add(s);
+        onBoard.put(s.getName(), s);
+    }
+
+    // Rehashes every record into a file twice as big, then swaps it in
+    private void grow(int needed) throws IOException {
+        int newCapacity = capacity;
+        while (needed * 10L > newCapacity * 7L) newCapacity <<= 1;
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        createFile(tmp, newCapacity);
+        MappedByteBuffer old = map;
+        int oldCapacity = capacity;
+        channel.close();
+        map(tmp);
+        capacity = newCapacity;
+        count = 0;
+        byte[] record = new byte[RECORD_SIZE];
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            int off = HEADER_SIZE + slot * RECORD_SIZE;
+            int len = old.get(off + NAME_LEN);
+            if (len == 0) continue;
+            old.get(off, record);
+            byte[] name = Arrays.copyOfRange(record, NAME, NAME + len);
+            map.put(offset(find(name, true)), record);
+        }
+        map.putInt(12, count);
+        map.force();
+        channel.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        map(file);
+    }
+
+    private void map(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (map.capacity() >= HEADER_SIZE && map.getInt(0) == MAGIC) capacity = map.getInt(8);
+    }
+
+    private static void createFile(Path path, int slots) throws IOException {
+        if ((long) slots * RECORD_SIZE + HEADER_SIZE > Integer.MAX_VALUE) throw new IOException("Stats file is full.");
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(slots).putInt(0).rewind();
+            ch.write(header, 0);
+            ch.write(ByteBuffer.allocate(1), (long) HEADER_SIZE + (long) slots * RECORD_SIZE - 1);
+        }
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    // Names are never cut, two players sharing a prefix would share a record
+    private static byte[] encode(String name) {
+        byte[] b = name.getBytes(StandardCharsets.UTF_8);
+        if (b.length == 0) throw new IllegalArgumentException("A player needs a name.");
+        if (b.length > MAX_NAME_BYTES) throw new IllegalArgumentException("Name too long for the stats file: " + name);
+        return b;
+    }
+
+    // FNV-1a, mixed so that linear probing spreads similar names apart
+    private static int hash(byte[] name) {
+        int h = 0x811C9DC5;
+        for (byte b : name) h = (h ^ (b & 0xFF)) * 0x01000193;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * A snapshot of one player's lifetime stats.
+     */
+    public static final class Stats {
+        private final String name;
+        private final int gamesPlayed;
+        private final int wins;
+        private final long points;
+        private final long cardsDrawn;
+        private final long endHandCards;
+
+        Stats(String name, int gamesPlayed, int wins, long points, long cardsDrawn, long endHandCards) {
+            this.name = name;
+            this.gamesPlayed = gamesPlayed;
+            this.wins = wins;
+            this.points = points;
+            this.cardsDrawn = cardsDrawn;
+            this.endHandCards = endHandCards;
+        }
+
+        /**
+         * Gets the player's name.
+         * @return The name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the number of finished games.
+         * @return Games played.
+         */
+        public int getGamesPlayed() {
+            return gamesPlayed;
+        }
+
+        /**
+         * Gets the number of games won.
+         * @return Wins.
+         */
+        public int getWins() {
+            return wins;
+        }
+
+        /**
+         * Gets the total score from all games won.
+         * @return Points.
+         */
+        public long getPoints() {
+            return points;
+        }
+
+        /**
+         * Gets the total number of cards drawn.
+         * @return Cards drawn.
+         */
+        public long getCardsDrawn() {
+            return cardsDrawn;
+        }
+
+        /**
+         * Gets the average number of cards left in hand when a game ended.
+         * @return The average hand size at the end, or 0 if no games were played.
+         */
+        public double getAverageHandSize() {
+            return gamesPlayed == 0 ? 0 : (double) endHandCards / gamesPlayed;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + wins + "/" + gamesPlayed + " wins, " + points + " points";
+        }
+    }
+}
@@ -0,0 +1,142 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoStatsStore and the end-of-game result
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoStatsStoreTest {
+    private Path file;
+
+    /**
+     * Picks a fresh file for each test.
+     */
+    @Before
+    public void setUp() throws Exception {
+        file = Files.createTempFile("stats", ".bin");
+        Files.delete(file);
+    }
+
+    /**
+     * Removes the file.
+     */
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    private static UnoGameResult game(int winner, int score, String... names) {
+        int[] points = new int[names.length];
+        int[] hands = new int[names.length];
+        int[] drawn = new int[names.length];
+        Arrays.fill(points, score / Math.max(1, names.length - 1));
+        Arrays.fill(hands, 3);
+        Arrays.fill(drawn, 2);
+        points[winner] = 0;
+        hands[winner] = 0;
+        return new UnoGameResult(Arrays.asList(names), winner, score, points, hands, drawn);
+    }
+
+    /**
+     * Tests that stats add up and survive reopening the file.
+     */
+    @Test
+    public void testRecordAndReopen() throws Exception {
+        try (UnoStatsStore store = new UnoStatsStore(file)) {
+            store.record(game(0, 40, "Alice", "Bob"));
+            store.record(game(1, 10, "Alice", "Bob"));
+            store.record(game(0, 25, "Alice", "Carol"));
+        }
+        try (UnoStatsStore store = new UnoStatsStore(file)) {
+            assertEquals(3, store.getPlayerCount());
+            UnoStatsStore.Stats alice = store.get("Alice");
+            assertEquals(3, alice.getGamesPlayed());
+            assertEquals(2, alice.getWins());
+            assertEquals(65, alice.getPoints());
+            assertEquals(6, alice.getCardsDrawn());
+            assertEquals(1.0, alice.getAverageHandSize(), 1e-9);
+            assertNull(store.get("Dave"));
+            assertEquals("Alice", store.leaderboard(1).get(0).getName());
+        }
+    }
+
+    /**
+     * Tests the leaderboard order and that the file grows past its first capacity.
+     */
+    @Test
+    public void testGrowAndLeaderboard() throws Exception {
+        try (UnoStatsStore store = new UnoStatsStore(file, 16)) {
+            for (int i = 0; i < 300; i++) {
+                // Player i wins i % 7 times
+                for (int w = 0; w < i % 7; w++) store.record(game(0, i, "P" + i, "Loser"));
+            }
+            assertEquals(258, store.getPlayerCount()); // Players with 0 wins never played
+            List<UnoStatsStore.Stats> top = store.leaderboard(3);
+            assertEquals(List.of("P293", "P286", "P279"), names(top));
+            assertEquals(6, store.get("P6").getWins());
+            assertEquals(UnoStatsStore.LEADERBOARD_SIZE, store.leaderboard(1000).size());
+        }
+        try (UnoStatsStore store = new UnoStatsStore(file)) {
+            assertEquals(List.of("P293", "P286", "P279"), names(store.leaderboard(3)));
+            assertEquals(0, store.get("Loser").getWins());
+        }
+    }
+
+    /**
+     * Tests that names the server accepts are stored whole, so two names with a long common prefix keep their
+     * own records, and that names too long for a record are rejected without recording the game.
+     */
+    @Test
+    public void testLongName() throws Exception {
+        String prefix = "\u00e9".repeat(UnoProtocol.MAX_NAME - 1); // Two bytes each in UTF-8
+        String first = prefix + "a";
+        String second = prefix + "b";
+        String tooLong = "x".repeat(UnoStatsStore.MAX_NAME_BYTES + 1);
+        try (UnoStatsStore store = new UnoStatsStore(file)) {
+            store.record(game(0, 5, first, second));
+            assertEquals(1, store.get(first).getWins());
+            assertEquals(0, store.get(second).getWins());
+            assertEquals(first, store.get(first).getName());
+            try {
+                store.record(game(0, 5, "Bob", tooLong));
+                fail("A name that does not fit should be rejected");
+            } catch (IllegalArgumentException expected) {
+            }
+            assertNull(store.get("Bob"));
+        }
+        try (UnoStatsStore store = new UnoStatsStore(file)) {
+            assertEquals(second, store.get(second).getName());
+            assertEquals(2, store.getPlayerCount());
+        }
+    }
+
+    /**
+     * Tests that a finished game reaches the store through the listener.
+     */
+    @Test
+    public void testGameEnded() throws Exception {
+        UnoModel model = new UnoModel(2, Arrays.asList("A", "B"), Arrays.asList(true, true), 1, UnoRuleSet.standard(), 11L);
+        try (UnoStatsStore store = new UnoStatsStore(file)) {
+            model.addGameListener(store);
+            String winner = UnoHeadless.play(model);
+            assertNotNull(winner);
+            assertEquals(1, store.get(winner).getWins());
+            assertEquals(1, store.get("A").getGamesPlayed());
+            assertEquals(model.getPlayer(0).cardsDrawn, store.get("A").getCardsDrawn());
+            assertEquals(0, store.get(winner).getAverageHandSize(), 1e-9);
+        }
+    }
+
+    private static List<String> names(List<UnoStatsStore.Stats> stats) {
+        List<String> names = new ArrayList<>();
+        for (UnoStatsStore.Stats s : stats) names.add(s.getName());
+        return names;
+    }
+}
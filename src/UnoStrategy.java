@@ -0,0 +1,16 @@
+/**
+ * Chooses the moves of an AI seat. Seats without a strategy use the built-in rules of UnoModel.playAITurn.
+ * A strategy is given the whole model, so it must only look at what its seat can see: its own hand,
+ * the hand sizes of the others, the top card and the active color.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public interface UnoStrategy {
+
+    /**
+     * Chooses a move for the current player.
+     * @param model The game, waiting for the current player to play or draw.
+     * @return One of model.legalMoves().
+     */
+    UnoMove chooseMove(UnoModel model);
+}
@@ -0,0 +1,257 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+/**
+ * Table configuration read from command-line arguments or a properties file, so a game can start
+ * without the setup dialogs.
+ * <p>
+ * Arguments: {@code --players=Alice,Bob:ai}, {@code --seed=42}, {@code --decks=2}, {@code --config=table.properties},
+ * {@code --headless}, {@code --timing}, {@code --serve=PORT} with {@code --seats=N} to host network tables,
+ * {@code --stats=FILE} to keep lifetime player stats, {@code --analytics=FILE} to record every move,
+ * {@code --train=FILE} with {@code --samples=N} to train a learned AI by self-play, {@code --strategy=FILE}
+ * to let the AI seats play with trained weights, {@code --build-policy=FILE} with {@code --samples=N} to simulate a
+ * policy table, {@code --policy=FILE} to let the AI seats play from one, {@code --view-budget=MS} to move views
+ * slower than that off the game's thread, and {@code --heuristic=W1,...,W6} to reweigh the built-in AI. A config
+ * file uses the same keys without the dashes; arguments given on the command line win over the file.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoTableConfig {
+    private static final String AI_SUFFIX = ":ai";
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Boolean> isAI = new ArrayList<>();
+    private Long seed;
+    private int decks = 0;
+    private boolean headless = false;
+    private boolean timing = false;
+    private int servePort = -1;
+    private int seats = 2;
+    private Path statsFile;
+    private Path analyticsFile;
+    private Path trainFile;
+    private long samples = 1_000_000;
+    private Path strategyFile;
+    private double[] strategyWeights; // Read from strategyFile by the first createModel
+    private Path buildPolicyFile;
+    private Path policyFile;
+    private UnoPolicyTable policy; // Mapped from policyFile by the first createModel
+    private long viewBudgetMillis = 0;
+    private UnoHeuristic heuristic;
+
+    /**
+     * Parses the table configuration from command-line arguments.
+     * @param args The arguments passed to Main.
+     * @return The configuration; it has no players if none were given.
+     * @throws IOException if a config file cannot be read.
+     * @throws IllegalArgumentException if an argument is not understood.
+     */
+    public static UnoTableConfig parse(String[] args) throws IOException {
+        Properties props = new Properties();
+        for (String arg : args) {
+            if (arg.startsWith("--config=")) {
+                try (Reader r = Files.newBufferedReader(Path.of(arg.substring("--config=".length())))) {
+                    props.load(r);
+                }
+            }
+        }
+        for (String arg : args) {
+            if (!arg.startsWith("--")) throw new IllegalArgumentException("Unknown argument: " + arg);
+            String[] kv = arg.substring(2).split("=", 2);
+            if (kv[0].equals("config")) continue;
+            props.setProperty(kv[0], kv.length > 1 ? kv[1] : "true");
+        }
+
+        UnoTableConfig config = new UnoTableConfig();
+        for (String key : props.stringPropertyNames()) {
+            String value = props.getProperty(key).trim();
+            switch (key) {
+                case "players" -> config.parsePlayers(value);
+                case "seed" -> config.seed = Long.parseLong(value);
+                case "decks" -> config.decks = Integer.parseInt(value);
+                case "headless" -> config.headless = Boolean.parseBoolean(value);
+                case "timing" -> config.timing = Boolean.parseBoolean(value);
+                case "serve" -> config.servePort = Integer.parseInt(value);
+                case "seats" -> config.seats = Integer.parseInt(value);
+                case "stats" -> config.statsFile = Path.of(value);
+                case "analytics" -> config.analyticsFile = Path.of(value);
+                case "train" -> config.trainFile = Path.of(value);
+                case "samples" -> config.samples = Long.parseLong(value);
+                case "strategy" -> config.strategyFile = Path.of(value);
+                case "build-policy" -> config.buildPolicyFile = Path.of(value);
+                case "policy" -> config.policyFile = Path.of(value);
+                case "view-budget" -> config.viewBudgetMillis = Long.parseLong(value);
+                case "heuristic" -> config.heuristic = UnoHeuristic.parse(value);
+                default -> throw new IllegalArgumentException("Unknown setting: " + key);
+            }
+        }
+        return config;
+    }
+
+    // Players are comma separated names, AI seats end with ":ai"
+    private void parsePlayers(String value) {
+        for (String p : value.split(",")) {
+            String name = p.trim();
+            if (name.isEmpty()) continue;
+            boolean ai = name.toLowerCase().endsWith(AI_SUFFIX);
+            names.add(ai ? name.substring(0, name.length() - AI_SUFFIX.length()) : name);
+            isAI.add(ai);
+        }
+    }
+
+    /**
+     * Builds the model for this table. The first call reads the trained weights or policy table the AI seats play
+     * with, later calls share them.
+     * @param allAI True to let AI play every seat.
+     * @return The new model.
+     * @throws IOException if the weights or policy table cannot be read.
+     */
+    public UnoModel createModel(boolean allAI) throws IOException {
+        if (strategyFile != null && strategyWeights == null) {
+            strategyWeights = UnoLearnedStrategy.load(strategyFile, 0).getWeights();
+        }
+        if (policyFile != null && policy == null) policy = UnoPolicyTable.load(policyFile);
+        List<Boolean> ai = new ArrayList<>(isAI);
+        if (allAI) ai.replaceAll(b -> true);
+        int n = names.size();
+        long s = seed != null ? seed : new Random().nextLong();
+        int d = decks > 0 ? decks : UnoModel.decksFor(n);
+        UnoModel model = new UnoModel(n, names, ai, d, UnoRuleSet.standard(), s);
+        if (heuristic != null) model.setHeuristic(heuristic);
+        for (int seat = 0; seat < n; seat++) {
+            if (!ai.get(seat)) continue;
+            if (policy != null) model.setStrategy(seat, policy); // One mapped table serves every seat
+            else if (strategyWeights != null) model.setStrategy(seat, new UnoLearnedStrategy(strategyWeights, s + seat));
+        }
+        if (viewBudgetMillis > 0) {
+            model.setViewGuard(new UnoViewGuard(viewBudgetMillis * 1_000_000, UnoViewGuard.Action.ASYNC,
+                    incident -> System.err.println("Slow view: " + incident)));
+        }
+        return model;
+    }
+
+    /**
+     * Checks if the configuration lists the players.
+     * @return True if players were given, False if they must be asked for.
+     */
+    public boolean hasPlayers() {
+        return !names.isEmpty();
+    }
+
+    /**
+     * Gets the player names.
+     * @return The names, in seat order.
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Gets which seats are AI.
+     * @return One flag per seat.
+     */
+    public List<Boolean> getIsAI() {
+        return isAI;
+    }
+
+    /**
+     * Gets the seed.
+     * @return The seed, or null for a random game.
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Checks if the game should run without any user interface.
+     * @return True for headless mode.
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * Checks if a startup-time report was requested.
+     * @return True to print the report.
+     */
+    public boolean isTiming() {
+        return timing;
+    }
+
+    /**
+     * Gets the port to host network tables on.
+     * @return The port, or -1 to play locally.
+     */
+    public int getServePort() {
+        return servePort;
+    }
+
+    /**
+     * Gets the number of players at each network table.
+     * @return The seats per table.
+     */
+    public int getSeats() {
+        return seats;
+    }
+
+    /**
+     * Gets the file lifetime player stats are kept in.
+     * @return The stats file, or null to keep no stats.
+     */
+    public Path getStatsFile() {
+        return statsFile;
+    }
+
+    /**
+     * Gets the file every move is recorded to.
+     * @return The analytics file, or null to record nothing.
+     */
+    public Path getAnalyticsFile() {
+        return analyticsFile;
+    }
+
+    /**
+     * Gets the file trained weights are saved to.
+     * @return The weights file, or null if no training was asked for.
+     */
+    public Path getTrainFile() {
+        return trainFile;
+    }
+
+    /**
+     * Gets the number of self-play records to train on, or of positions to analyse for a policy table.
+     * @return The sample count.
+     */
+    public long getSamples() {
+        return samples;
+    }
+
+    /**
+     * Gets the longest a view may take over one update before it is moved off the game's thread.
+     * @return The budget in milliseconds, or 0 to call views directly.
+     */
+    public long getViewBudgetMillis() {
+        return viewBudgetMillis;
+    }
+
+    /**
+     * Gets the weights the built-in AI plays with.
+     * @return The heuristic, or null for the default weights.
+     */
+    public UnoHeuristic getHeuristic() {
+        return heuristic;
+    }
+
+    /**
+     * Gets the file a simulated policy table is saved to.
+     * @return The table file, or null if no table was asked for.
+     */
+    public Path getBuildPolicyFile() {
+        return buildPolicyFile;
+    }
+}
@@ -0,0 +1,76 @@
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import static org.junit.Assert.*;
+/**
+ * Test class for the table configuration and headless launch
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoTableConfigTest {
+
+    /**
+     * Tests parsing players, AI flags and the seed from arguments.
+     */
+    @Test
+    public void testParseArguments() throws Exception {
+        UnoTableConfig c = UnoTableConfig.parse(new String[]{"--players=Alice,Bob:ai", "--seed=42", "--headless"});
+        assertEquals(List.of("Alice", "Bob"), c.getNames());
+        assertEquals(List.of(false, true), c.getIsAI());
+        assertEquals(Long.valueOf(42), c.getSeed());
+        assertTrue(c.isHeadless());
+        assertFalse(c.isTiming());
+    }
+
+    /**
+     * Tests that command-line arguments override the config file.
+     */
+    @Test
+    public void testConfigFile() throws Exception {
+        Path file = Files.createTempFile("table", ".properties");
+        try {
+            Files.writeString(file, "players=A,B:ai,C\nseed=7\n");
+            UnoTableConfig c = UnoTableConfig.parse(new String[]{"--config=" + file, "--seed=8"});
+            assertEquals(3, c.getNames().size());
+            assertEquals(Long.valueOf(8), c.getSeed());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that AI files are only read when a table is built, so a missing one is not a parse error.
+     */
+    @Test
+    public void testFilesReadWithTheModel() throws Exception {
+        Path missing = Path.of("no-such-policy.bin");
+        UnoTableConfig c = UnoTableConfig.parse(new String[]{"--players=A:ai,B:ai", "--policy=" + missing, "--headless"});
+        try {
+            c.createModel(true);
+            fail("The policy table does not exist");
+        } catch (IOException expected) {
+        }
+    }
+
+    /**
+     * Tests that unknown arguments are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownArgument() throws Exception {
+        UnoTableConfig.parse(new String[]{"--colour=red"});
+    }
+
+    /**
+     * Tests that a seeded headless game is reproducible.
+     */
+    @Test
+    public void testSeededHeadlessGame() throws Exception {
+        UnoTableConfig c = UnoTableConfig.parse(new String[]{"--players=A,B,C", "--seed=123"});
+        String first = UnoHeadless.play(c.createModel(true));
+        String second = UnoHeadless.play(c.createModel(true));
+        assertNotNull(first);
+        assertEquals(first, second);
+    }
+}
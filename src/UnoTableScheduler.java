@@ -0,0 +1,401 @@
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ * Plays the AI turns of many tables on one shared work-stealing pool, for a host running many games at once.
+ * <p>
+ * A table is ready when an AI is to move. Ready tables wait in one of two queues: tables with a human seat, whose
+ * players are waiting for the AI, and AI-only tables, which only use spare CPU. Every ready table puts one
+ * interchangeable run on the pool; whichever worker runs or steals it takes the next table from the human queue
+ * first, so a human table never waits behind AI-only ones. A run plays at most {@code quantum} AI actions (a move,
+ * or the Next press that ends it) and then sends the table to the back of its queue, so one table cannot hold a
+ * worker while others wait.
+ * <p>
+ * Tables are admitted with admit. A table is refused while its queue already holds {@code maxQueued} tables, and an
+ * AI-only table is also refused while human tables are queued and the 99th percentile of recent waits at human
+ * tables is over the latency goal. The waits are only recorded when human tables run, so an empty human queue always
+ * meets the goal; otherwise one slow burst would shut AI-only tables out until a human table ran again. admit can
+ * instead wait for room, which holds back callers that start games faster than the pool plays them.
+ * Every table keeps the time each run waited in its queue.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoTableScheduler implements Closeable {
+    private static final int IDLE = 0, QUEUED = 1, RUNNING = 2, KICKED = 3, DONE = 4;
+    private static final int RECENT = 512; // Waits kept for percentiles
+
+    private final ForkJoinPool pool;
+    private final int quantum;
+    private final int maxQueued;
+    private final long latencyGoalNanos;
+    private final ConcurrentLinkedQueue<Table> humanQueue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Table> aiQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger humanDepth = new AtomicInteger();
+    private final AtomicInteger aiDepth = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Waits humanWaits = new Waits();
+    private final Object admission = new Object();
+    private volatile int admitting = 0; // Callers waiting in admit, guarded by admission
+    private volatile boolean closed = false;
+
+    /**
+     * Constructor for UnoTableScheduler.
+     * @param threads Number of worker threads.
+     * @param quantum Most AI actions one table plays before other tables get a turn.
+     * @param maxQueued Most tables each queue may hold before new tables are refused.
+     * @param latencyGoalMillis Goal for the 99th percentile wait at tables with a human seat, in milliseconds.
+     */
+    public UnoTableScheduler(int threads, int quantum, int maxQueued, long latencyGoalMillis) {
+        if (threads < 1 || quantum < 1 || maxQueued < 1 || latencyGoalMillis < 0) {
+            throw new IllegalArgumentException("Threads, quantum and queue depth must be positive and the goal not negative.");
+        }
+        this.quantum = quantum;
+        this.maxQueued = maxQueued;
+        this.latencyGoalNanos = TimeUnit.MILLISECONDS.toNanos(latencyGoalMillis);
+        AtomicInteger names = new AtomicInteger();
+        this.pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("uno-table-" + names.getAndIncrement());
+            return t;
+        }, null, true);
+    }
+
+    /**
+     * Admits a table if there is room for it now.
+     * @param model The table; its AI seats are played by the scheduler from now on.
+     * @return The table's handle, or null if it was refused.
+     */
+    public Table tryAdmit(UnoModel model) {
+        Table t = new Table(model);
+        if (!hasRoom(t.human)) return null;
+        start(t);
+        return t;
+    }
+
+    /**
+     * Admits a table, waiting until there is room for it.
+     * @param model The table; its AI seats are played by the scheduler from now on.
+     * @param timeoutMillis Longest time to wait in milliseconds.
+     * @return The table's handle, or null if there was no room in time.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Table admit(UnoModel model, long timeoutMillis) throws InterruptedException {
+        Table t = new Table(model);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (admission) {
+            admitting++;
+            try {
+                while (!hasRoom(t.human)) {
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0 || closed) return null;
+                    TimeUnit.NANOSECONDS.timedWait(admission, left);
+                }
+            } finally {
+                admitting--;
+            }
+        }
+        start(t);
+        return t;
+    }
+
+    private boolean hasRoom(boolean human) {
+        if (closed) return false;
+        if (human) return humanDepth.get() < maxQueued;
+        if (aiDepth.get() >= maxQueued) return false;
+        return humanDepth.get() == 0 || humanWaits.percentile(0.99) <= latencyGoalNanos;
+    }
+
+    private void start(Table t) {
+        active.incrementAndGet();
+        synchronized (t.model) {
+            if (t.model.isGameOver()) {
+                finish(t, false);
+                return;
+            }
+        }
+        t.kick();
+    }
+
+    /**
+     * Gets the number of tables admitted whose games have not finished.
+     * @return The number of active tables.
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * Gets the number of tables waiting for a worker.
+     * @param human True for tables with a human seat, False for AI-only tables.
+     * @return The queue depth.
+     */
+    public int getQueueDepth(boolean human) {
+        return (human ? humanDepth : aiDepth).get();
+    }
+
+    /**
+     * Gets a percentile of the recent queue waits at tables with a human seat, the figure admission is held to.
+     * @param p The percentile as a fraction, e.g. 0.99.
+     * @return The wait in nanoseconds, 0 before any wait was recorded.
+     */
+    public long getHumanWaitPercentile(double p) {
+        return humanWaits.percentile(p);
+    }
+
+    /**
+     * Stops the scheduler. Runs already started finish their quantum; queued tables are not played further.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        pool.shutdown();
+        synchronized (admission) {
+            admission.notifyAll();
+        }
+    }
+
+    /**
+     * Waits for the scheduler's workers to stop after close.
+     * @param timeoutMillis Maximum time to wait in milliseconds.
+     * @return True if the workers stopped, False on timeout.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeoutMillis) throws InterruptedException {
+        return pool.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void enqueue(Table t) {
+        if (closed) return;
+        t.readyAt = System.nanoTime();
+        if (t.human) {
+            humanDepth.incrementAndGet();
+            humanQueue.add(t);
+        } else {
+            aiDepth.incrementAndGet();
+            aiQueue.add(t);
+        }
+        ForkJoinTask<?> run = ForkJoinTask.adapt(this::runNext);
+        if (ForkJoinTask.getPool() == pool) run.fork(); // Onto this worker's own deque; idle workers steal it
+        else pool.execute(run);
+    }
+
+    // Runs are interchangeable, each one serves whichever table is first in line when it starts
+    private void runNext() {
+        Table t = humanQueue.poll();
+        if (t != null) {
+            humanDepth.decrementAndGet();
+        } else {
+            t = aiQueue.poll();
+            if (t == null) return;
+            aiDepth.decrementAndGet();
+        }
+        long wait = System.nanoTime() - t.readyAt;
+        t.waits.add(wait);
+        if (t.human) humanWaits.add(wait);
+        t.state.set(RUNNING);
+
+        boolean more, over;
+        boolean failed = false;
+        try {
+            synchronized (t.model) {
+                for (int i = 0; i < quantum && aiToMove(t.model); i++) t.model.playAITurn();
+                more = aiToMove(t.model);
+                over = t.model.isGameOver();
+            }
+        } catch (RuntimeException ex) {
+            // Drop the table, the view already shows the last good state
+            more = false;
+            over = true;
+            failed = true;
+        }
+        if (over) {
+            finish(t, failed);
+        } else if (more || !t.state.compareAndSet(RUNNING, IDLE)) {
+            t.state.set(QUEUED); // Its quantum is used up, or a human moved while it ran
+            enqueue(t);
+        }
+        if (admitting > 0) {
+            synchronized (admission) {
+                admission.notifyAll();
+            }
+        }
+    }
+
+    private void finish(Table t, boolean failed) {
+        t.failed = failed;
+        t.state.set(DONE);
+        active.decrementAndGet();
+        t.done.countDown();
+    }
+
+    // An AI is still to act: its own move, or the Next press that ends it
+    private static boolean aiToMove(UnoModel model) {
+        return !model.isGameOver() && model.isCurrentPlayerAI();
+    }
+
+    /**
+     * A table admitted to the scheduler.
+     */
+    public class Table {
+        private final UnoModel model;
+        private final boolean human;
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+        private final Waits waits = new Waits();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile long readyAt;
+        private volatile boolean failed = false;
+
+        private Table(UnoModel model) {
+            this.model = model;
+            boolean human = false;
+            synchronized (model) {
+                for (int i = 0; i < model.getPlayerCount(); i++) human |= !model.getPlayer(i).isAI;
+            }
+            this.human = human;
+        }
+
+        /**
+         * Queues the table if an AI is to move. Called after every human action; does nothing if the table
+         * is already queued.
+         */
+        public void kick() {
+            while (true) {
+                int s = state.get();
+                if (s == IDLE) {
+                    synchronized (model) {
+                        if (!aiToMove(model)) return;
+                    }
+                    if (state.compareAndSet(IDLE, QUEUED)) {
+                        enqueue(this);
+                        return;
+                    }
+                } else if (s == RUNNING) {
+                    if (state.compareAndSet(RUNNING, KICKED)) return; // The run queues it again when it ends
+                } else {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Gets the table's game.
+         * @return The model.
+         */
+        public UnoModel getModel() {
+            return model;
+        }
+
+        /**
+         * Tells whether the table has a human seat and so goes in the human queue.
+         * @return True if a human plays at the table.
+         */
+        public boolean isHuman() {
+            return human;
+        }
+
+        /**
+         * Tells whether the table's game has finished, or was dropped because an AI turn failed.
+         * @return True once the scheduler is done with the table.
+         */
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        /**
+         * Tells whether the table was dropped because an AI turn threw.
+         * @return True if an AI turn failed.
+         */
+        public boolean isFailed() {
+            return failed;
+        }
+
+        /**
+         * Waits for the table's game to finish.
+         * @param timeoutMillis Maximum time to wait in milliseconds.
+         * @return True if the game finished, False on timeout.
+         * @throws InterruptedException if interrupted while waiting.
+         */
+        public boolean awaitDone(long timeoutMillis) throws InterruptedException {
+            return done.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Gets the number of runs the table has had.
+         * @return The run count.
+         */
+        public long getRuns() {
+            return waits.count();
+        }
+
+        /**
+         * Gets the mean time the table waited in its queue before a run.
+         * @return The mean wait in nanoseconds, 0 before the first run.
+         */
+        public long getMeanWaitNanos() {
+            return waits.mean();
+        }
+
+        /**
+         * Gets the longest time the table waited in its queue before a run.
+         * @return The longest wait in nanoseconds.
+         */
+        public long getMaxWaitNanos() {
+            return waits.max();
+        }
+
+        /**
+         * Gets a percentile of the table's recent queue waits.
+         * @param p The percentile as a fraction, e.g. 0.99.
+         * @return The wait in nanoseconds, 0 before the first run.
+         */
+        public long getWaitPercentile(double p) {
+            return waits.percentile(p);
+        }
+    }
+
+    /**
+     * Queue waits: totals over all runs and the most recent waits for percentiles.
+     */
+    private static class Waits {
+        private final long[] recent = new long[RECENT];
+        private long count = 0;
+        private long total = 0;
+        private long max = 0;
+
+        synchronized void add(long nanos) {
+            recent[(int) (count % RECENT)] = nanos;
+            count++;
+            total += nanos;
+            max = Math.max(max, nanos);
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        synchronized long mean() {
+            return count == 0 ? 0 : total / count;
+        }
+
+        synchronized long max() {
+            return max;
+        }
+
+        long percentile(double p) {
+            long[] sorted;
+            synchronized (this) {
+                if (count == 0) return 0;
+                sorted = Arrays.copyOf(recent, (int) Math.min(count, RECENT));
+            }
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.min(Math.max(rank, 0), sorted.length - 1)];
+        }
+    }
+}
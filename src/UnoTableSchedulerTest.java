@@ -0,0 +1,208 @@
+import org.junit.Test;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoTableScheduler
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoTableSchedulerTest {
+
+    private static UnoModel aiTable(long seed) {
+        return new UnoModel(3, List.of("A", "B", "C"), List.of(true, true, true), 1, UnoRuleSet.standard(), seed);
+    }
+
+    private static UnoModel humanTable(long seed) {
+        return new UnoModel(2, List.of("Human", "Bot"), List.of(false, true), 1, UnoRuleSet.standard(), seed);
+    }
+
+    // Plays the human seat by drawing, then waits for the scheduler to bring the turn back
+    private static void humanTurn(UnoTableScheduler.Table t) throws InterruptedException {
+        UnoModel m = t.getModel();
+        synchronized (m) {
+            if (m.isGameOver() || m.isCurrentPlayerAI()) return;
+            m.draw();
+            m.nextPlayer();
+        }
+        t.kick();
+        awaitHuman(t);
+    }
+
+    private static void awaitHuman(UnoTableScheduler.Table t) throws InterruptedException {
+        UnoModel m = t.getModel();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (System.currentTimeMillis() < deadline) {
+            synchronized (m) {
+                if (m.isGameOver() || !m.isCurrentPlayerAI()) return;
+            }
+            Thread.sleep(1);
+        }
+        fail("The AI seat was not played");
+    }
+
+    /**
+     * Tests that AI-only tables play to the end in many short runs.
+     */
+    @Test
+    public void testAiTablesFinish() throws InterruptedException {
+        UnoTableScheduler scheduler = new UnoTableScheduler(2, 4, 64, 1000);
+        List<UnoTableScheduler.Table> tables = new ArrayList<>();
+        for (int i = 0; i < 20; i++) tables.add(scheduler.tryAdmit(aiTable(i)));
+        for (UnoTableScheduler.Table t : tables) {
+            assertNotNull(t);
+            assertFalse(t.isHuman());
+            assertTrue(t.awaitDone(10000));
+            assertFalse(t.isFailed());
+            assertTrue(t.getModel().isGameOver());
+            assertTrue("A whole game cannot fit one quantum", t.getRuns() > 1);
+            assertTrue(t.getMaxWaitNanos() >= t.getWaitPercentile(0.99));
+        }
+        assertEquals(0, scheduler.getActiveCount());
+        scheduler.close();
+        assertTrue(scheduler.awaitTermination(5000));
+    }
+
+    /**
+     * View that holds the worker on its first update from the scheduler until released.
+     */
+    private static class HoldingView extends UnoViewStub {
+        final CountDownLatch held = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void handleUpdate(UnoEvent e) {
+            if (!Thread.currentThread().getName().startsWith("uno-table-")) return;
+            held.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * View that notes when the scheduler first played at its table.
+     */
+    private static class OrderView extends UnoViewStub {
+        final AtomicInteger clock;
+        volatile int first = Integer.MAX_VALUE;
+
+        OrderView(AtomicInteger clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public void handleUpdate(UnoEvent e) {
+            if (first == Integer.MAX_VALUE && Thread.currentThread().getName().startsWith("uno-table-")) {
+                first = clock.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Tests that a table with a human seat is served ahead of AI-only tables that were queued before it.
+     */
+    @Test
+    public void testHumanTablesGoFirst() throws InterruptedException {
+        UnoTableScheduler scheduler = new UnoTableScheduler(1, 1, 64, 1000);
+        UnoModel stuck = aiTable(1L);
+        HoldingView hold = new HoldingView();
+        stuck.addView(hold);
+        scheduler.tryAdmit(stuck);
+        assertTrue(hold.held.await(5, TimeUnit.SECONDS)); // The only worker is now held
+
+        AtomicInteger clock = new AtomicInteger();
+        List<OrderView> bots = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            UnoModel m = aiTable(100 + i);
+            OrderView v = new OrderView(clock);
+            m.addView(v);
+            bots.add(v);
+            scheduler.tryAdmit(m);
+        }
+        UnoModel m = humanTable(5L);
+        OrderView human = new OrderView(clock);
+        m.addView(human);
+        UnoTableScheduler.Table table = scheduler.tryAdmit(m);
+        assertTrue(table.isHuman());
+        synchronized (m) {
+            m.draw();
+            m.nextPlayer();
+        }
+        table.kick();
+        assertEquals(10, scheduler.getQueueDepth(false));
+        assertEquals(1, scheduler.getQueueDepth(true));
+
+        hold.release.countDown();
+        awaitHuman(table);
+        for (int i = 0; i < 5; i++) humanTurn(table);
+        for (OrderView bot : bots) assertTrue(human.first < bot.first);
+        assertTrue(table.getRuns() >= 6);
+        assertEquals(scheduler.getHumanWaitPercentile(0.5), table.getWaitPercentile(0.5));
+        scheduler.close();
+    }
+
+    /**
+     * Tests that tables are refused once the queue is full, and that admit waits for room.
+     */
+    @Test
+    public void testBackpressure() throws InterruptedException {
+        UnoTableScheduler scheduler = new UnoTableScheduler(1, 1, 2, 1000);
+        UnoModel stuck = aiTable(1L);
+        HoldingView hold = new HoldingView();
+        stuck.addView(hold);
+        assertNotNull(scheduler.tryAdmit(stuck));
+        assertTrue(hold.held.await(5, TimeUnit.SECONDS)); // The only worker is now held
+
+        assertNotNull(scheduler.tryAdmit(aiTable(2L)));
+        assertNotNull(scheduler.tryAdmit(aiTable(3L)));
+        assertEquals(2, scheduler.getQueueDepth(false));
+        assertNull(scheduler.tryAdmit(aiTable(4L)));
+        assertNull(scheduler.admit(aiTable(4L), 50));
+        assertNotNull("Human tables have their own queue", scheduler.tryAdmit(humanTable(4L)));
+
+        hold.release.countDown();
+        UnoTableScheduler.Table late = scheduler.admit(aiTable(5L), 10000);
+        assertNotNull(late);
+        assertTrue(late.awaitDone(10000));
+        scheduler.close();
+    }
+
+    /**
+     * Tests that AI-only tables are refused while human tables wait longer than the goal, and admitted again once
+     * no human table is waiting, even though the old waits are still over the goal.
+     */
+    @Test
+    public void testLatencyGoal() throws InterruptedException {
+        UnoTableScheduler scheduler = new UnoTableScheduler(1, 8, 64, 0);
+        UnoTableScheduler.Table human = scheduler.tryAdmit(humanTable(7L));
+        humanTurn(human);
+        assertTrue(scheduler.getHumanWaitPercentile(0.99) > 0);
+
+        UnoModel stuck = aiTable(1L);
+        HoldingView hold = new HoldingView();
+        stuck.addView(hold);
+        assertNotNull("No human table is waiting", scheduler.tryAdmit(stuck));
+        assertTrue(hold.held.await(5, TimeUnit.SECONDS)); // The only worker is now held
+        UnoModel m = human.getModel();
+        synchronized (m) {
+            m.draw();
+            m.nextPlayer();
+        }
+        human.kick();
+        assertEquals(1, scheduler.getQueueDepth(true));
+        assertNull(scheduler.tryAdmit(aiTable(2L)));
+        assertNotNull(scheduler.tryAdmit(humanTable(8L)));
+
+        hold.release.countDown();
+        awaitHuman(human);
+        assertEquals(0, scheduler.getQueueDepth(true));
+        assertTrue(scheduler.getHumanWaitPercentile(0.99) > 0);
+        assertNotNull(scheduler.tryAdmit(aiTable(3L)));
+        scheduler.close();
+    }
+}
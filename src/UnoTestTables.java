@@ -0,0 +1,45 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+/**
+ * Builds seeded tables for unit tests, with the seats named P0 and up.
+ */
+final class UnoTestTables {
+
+    private UnoTestTables() {
+    }
+
+    /**
+     * Names the seats of a table.
+     * @param n The number of seats.
+     * @return P0 to P(n - 1).
+     */
+    static List<String> names(int n) {
+        List<String> names = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) names.add("P" + i);
+        return names;
+    }
+
+    /**
+     * Deals a table.
+     * @param n The number of seats.
+     * @param ai True to make every seat an AI, False for all human seats.
+     * @param decks The number of decks.
+     * @param rules The rule set.
+     * @param seed The seed.
+     * @return The new model.
+     */
+    static UnoModel create(int n, boolean ai, int decks, UnoRuleSet rules, long seed) {
+        return new UnoModel(n, names(n), Collections.nCopies(n, ai), decks, rules, seed);
+    }
+
+    /**
+     * Deals an all-AI table under the standard rules with as many decks as the seats need.
+     * @param n The number of seats.
+     * @param seed The seed.
+     * @return The new model.
+     */
+    static UnoModel create(int n, long seed) {
+        return create(n, true, UnoModel.decksFor(n), UnoRuleSet.standard(), seed);
+    }
+}
@@ -0,0 +1,320 @@
+import java.nio.file.Path;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * Trains the evaluator of UnoLearnedStrategy by self-play.
+ * <p>
+ * Generator threads play headless games and record, after every move, the features of the position from the
+ * mover's point of view; once the game ends each record is labelled 1 if the mover went on to win. Each seat plays
+ * either with recently published weights or with the built-in rules, so the learner always meets the baseline
+ * and an early, poor evaluator cannot stall a game; now and then a random move is made so every kind of move
+ * gets seen. Records are packed into fixed-size batches of primitive arrays and queued.
+ * <p>
+ * The trainer runs logistic regression with mini-batch gradient descent on the batches as they arrive. The queue
+ * is bounded, so generators wait when training falls behind. After each new batch the trainer also takes up to
+ * {@value #MAX_REPLAYS} steps on recent batches, so it keeps learning while the next one is generated; how many
+ * and which ones come from the seed, not from how quickly batches arrive, so the order of steps does not depend on
+ * thread timing. Generators likewise start each game with the weights published a fixed number of batches
+ * behind the ones they have queued, waiting for them if need be, so with one generator a seed always trains the
+ * same weights.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoTrainer {
+    private static final int QUEUED_BATCHES = 16;
+    private static final int REPLAY_BATCHES = 32;
+    static final int MAX_REPLAYS = 2; // Steps on old batches per new batch, more would overfit them
+    private static final int PUBLISH_BATCHES = 16; // Generators pick up new weights this often
+    private static final int MAX_ACTIONS = 2000;
+    private static final double LOSS_DECAY = 0.02;
+
+    private final int players;
+    private final int generators;
+    private final long seed;
+    private int batchSize = 256;
+    private double learningRate = 0.1;
+    private double l2 = 1e-4;
+    private double exploration = 0.1;
+
+    private final double[] weights = new double[UnoFeatures.SIZE + 1];
+    private final TreeMap<Long, double[]> published = new TreeMap<>(); // By new batches trained, guarded by itself
+    private long batchesTrained = 0;
+    private final AtomicLong samplesGenerated = new AtomicLong();
+    private final AtomicLong gamesPlayed = new AtomicLong();
+    private long steps = 0;
+    private long replayedSteps = 0;
+    private double loss = Math.log(2);
+
+    /**
+     * Constructor for UnoTrainer using every core but one for generating games.
+     * @param players Players per self-play game.
+     * @param seed Seed for the games.
+     */
+    public UnoTrainer(int players, long seed) {
+        this(players, Math.max(1, Runtime.getRuntime().availableProcessors() - 1), seed);
+    }
+
+    /**
+     * Constructor for UnoTrainer.
+     * @param players Players per self-play game.
+     * @param generators Number of game generator threads.
+     * @param seed Seed for the games.
+     */
+    public UnoTrainer(int players, int generators, long seed) {
+        if (players < UnoModel.MIN_PLAYERS || players > UnoModel.MAX_PLAYERS) {
+            throw new IllegalArgumentException("Number of players must be " + UnoModel.MIN_PLAYERS + "–" + UnoModel.MAX_PLAYERS + ".");
+        }
+        if (generators < 1) throw new IllegalArgumentException("Training needs at least one generator.");
+        this.players = players;
+        this.generators = generators;
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the number of records per gradient step.
+     * @param batchSize The batch size.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("A batch needs at least one record.");
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets the gradient descent step size.
+     * @param learningRate The learning rate.
+     */
+    public void setLearningRate(double learningRate) {
+        this.learningRate = learningRate;
+    }
+
+    /**
+     * Sets how often self-play makes a random move instead of the best one.
+     * @param exploration Chance of a random move, from 0 to 1.
+     */
+    public void setExploration(double exploration) {
+        this.exploration = exploration;
+    }
+
+    /**
+     * Runs the pipeline until a number of new records has been trained on. Can be called again to keep training.
+     * @param samples Number of generated records to learn from.
+     * @return The weights, bias first.
+     * @throws InterruptedException if interrupted while waiting for the first batch.
+     */
+    public double[] train(long samples) throws InterruptedException {
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUED_BATCHES);
+        ExecutorService pool = Executors.newFixedThreadPool(generators, r -> {
+            Thread t = new Thread(r, "uno-selfplay");
+            t.setDaemon(true);
+            return t;
+        });
+        long round = gamesPlayed.get();
+        long start = batchesTrained;
+        if (start > 0) publish(); // Games before the first new batch is trained use the weights so far
+        for (int g = 0; g < generators; g++) {
+            long genSeed = seed + 0x9E3779B97F4A7C15L * (round + g + 1);
+            pool.execute(() -> generate(queue, genSeed, start));
+        }
+
+        List<Batch> replay = new ArrayList<>(REPLAY_BATCHES);
+        Random pick = new Random(seed);
+        double[] grad = new double[weights.length];
+        long fresh = 0;
+        try {
+            while (fresh < samples) {
+                Batch b = queue.take();
+                loss += LOSS_DECAY * (logLoss(b) - loss); // Measured before learning from it
+                fresh += b.size;
+                if (replay.size() == REPLAY_BATCHES) replay.set(pick.nextInt(REPLAY_BATCHES), b);
+                else replay.add(b);
+                step(b, grad);
+                for (int r = pick.nextInt(MAX_REPLAYS + 1); r > 0; r--) {
+                    step(replay.get(pick.nextInt(replay.size())), grad);
+                    replayedSteps++;
+                }
+                if (++batchesTrained % PUBLISH_BATCHES == 0) publish();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return weights.clone();
+    }
+
+    private void step(Batch b, double[] grad) {
+        int n = UnoFeatures.SIZE;
+        java.util.Arrays.fill(grad, 0);
+        for (int i = 0; i < b.size; i++) {
+            double err = UnoLearnedStrategy.evaluate(weights, b.x, i * n) - b.y[i];
+            grad[0] += err;
+            for (int j = 0; j < n; j++) grad[j + 1] += err * b.x[i * n + j];
+        }
+        double rate = learningRate / b.size;
+        weights[0] -= rate * grad[0];
+        for (int j = 1; j <= n; j++) weights[j] -= rate * grad[j] + learningRate * l2 * weights[j];
+        steps++;
+    }
+
+    // Hands the weights to generators, keeping the versions a generator can still ask for
+    private void publish() {
+        synchronized (published) {
+            published.put(batchesTrained, weights.clone());
+            published.headMap(batchesTrained - QUEUED_BATCHES - PUBLISH_BATCHES).clear();
+            published.notifyAll();
+        }
+    }
+
+    // The weights for a game started after queuing some batches, null to play by the rules; waits for the trainer
+    private double[] weightsAfter(long start, long queued) throws InterruptedException {
+        // The trainer has taken all but the queued batches, so it is never more than the queue behind
+        long wanted = start + Math.max(0, queued - QUEUED_BATCHES) / PUBLISH_BATCHES * PUBLISH_BATCHES;
+        if (wanted == 0) return null;
+        synchronized (published) {
+            while (published.isEmpty() || published.lastKey() < wanted) published.wait();
+            Map.Entry<Long, double[]> e = published.floorEntry(wanted); // Gone only if other generators ran far ahead
+            return (e != null ? e : published.firstEntry()).getValue();
+        }
+    }
+
+    private double logLoss(Batch b) {
+        double sum = 0;
+        for (int i = 0; i < b.size; i++) {
+            double p = Math.min(Math.max(UnoLearnedStrategy.evaluate(weights, b.x, i * UnoFeatures.SIZE), 1e-9), 1 - 1e-9);
+            sum -= b.y[i] == 1 ? Math.log(p) : Math.log(1 - p);
+        }
+        return sum / b.size;
+    }
+
+    // Generator thread: plays games until the pool is shut down
+    private void generate(BlockingQueue<Batch> queue, long genSeed, long start) {
+        Random rnd = new Random(genSeed);
+        List<String> names = new ArrayList<>(players);
+        for (int i = 0; i < players; i++) names.add("Bot " + i);
+        List<Boolean> ai = Collections.nCopies(players, true);
+        Batch batch = new Batch(batchSize);
+        double[] x = new double[64 * UnoFeatures.SIZE];
+        int[] movers = new int[64];
+        long queued = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                double[] w = weightsAfter(start, queued);
+                UnoLearnedStrategy learned = w == null ? null : new UnoLearnedStrategy(w, rnd.nextLong());
+                boolean[] useLearned = new boolean[players];
+                for (int i = 0; i < players; i++) useLearned[i] = learned != null && rnd.nextBoolean();
+                UnoModel m = new UnoModel(players, names, ai, UnoModel.decksFor(players), UnoRuleSet.standard(), rnd.nextLong());
+                int records = 0;
+                for (int a = 0; a < MAX_ACTIONS && !m.isGameOver(); a++) {
+                    if (m.isMustPressNext()) {
+                        m.nextPlayer();
+                        continue;
+                    }
+                    int seat = m.getCurrentIndex();
+                    List<UnoMove> moves = m.legalMoves();
+                    UnoMove move = rnd.nextDouble() < exploration ? moves.get(rnd.nextInt(moves.size()))
+                            : useLearned[seat] ? learned.chooseMove(m) : m.greedyMove();
+                    move.applyTo(m);
+                    if (m.isGameOver()) break;
+                    if (records == movers.length) {
+                        movers = java.util.Arrays.copyOf(movers, records * 2);
+                        x = java.util.Arrays.copyOf(x, records * 2 * UnoFeatures.SIZE);
+                    }
+                    UnoFeatures.extract(m, seat, x, records * UnoFeatures.SIZE);
+                    movers[records++] = seat;
+                }
+                gamesPlayed.incrementAndGet();
+                if (!m.isGameOver()) continue; // No outcome to learn from
+
+                int winner = m.getWinnerIndex();
+                for (int r = 0; r < records; r++) {
+                    System.arraycopy(x, r * UnoFeatures.SIZE, batch.x, batch.size * UnoFeatures.SIZE, UnoFeatures.SIZE);
+                    batch.y[batch.size++] = movers[r] == winner ? 1 : 0;
+                    if (batch.size == batchSize) {
+                        samplesGenerated.addAndGet(batchSize);
+                        queue.put(batch);
+                        queued++;
+                        batch = new Batch(batchSize);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // Training is done
+        }
+    }
+
+    /**
+     * Saves the current weights for UnoLearnedStrategy.load.
+     * @param file The file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        UnoLearnedStrategy.save(weights, file);
+    }
+
+    /**
+     * Gets the current weights.
+     * @return The bias followed by one weight per feature.
+     */
+    public double[] getWeights() {
+        return weights.clone();
+    }
+
+    /**
+     * Gets the log loss on new batches, measured before training on them and averaged over recent batches.
+     * @return The recent loss; log 2 means no better than a coin flip.
+     */
+    public double getRecentLoss() {
+        return loss;
+    }
+
+    /**
+     * Gets the number of gradient steps taken.
+     * @return Steps on new and on replayed batches.
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Gets the number of steps taken on an old batch.
+     * @return Replayed steps.
+     */
+    public long getReplayedSteps() {
+        return replayedSteps;
+    }
+
+    /**
+     * Gets the number of self-play games played, including any cut short.
+     * @return Games played.
+     */
+    public long getGamesPlayed() {
+        return gamesPlayed.get();
+    }
+
+    /**
+     * Gets the number of records queued for training.
+     * @return Records generated.
+     */
+    public long getSamplesGenerated() {
+        return samplesGenerated.get();
+    }
+
+    /**
+     * One batch of records: features row by row, and the labels.
+     */
+    private static final class Batch {
+        final double[] x;
+        final double[] y;
+        int size = 0;
+
+        Batch(int rows) {
+            x = new double[rows * UnoFeatures.SIZE];
+            y = new double[rows];
+        }
+    }
+}
@@ -0,0 +1,109 @@
+import org.junit.Test;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoTrainer, UnoFeatures and UnoLearnedStrategy
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoTrainerTest {
+
+    /**
+     * Tests that features have the same length at any table size and count the seat's own cards.
+     */
+    @Test
+    public void testFeatures() {
+        UnoModel two = UnoTestTables.create(2, 1L);
+        UnoModel five = UnoTestTables.create(5, 1L);
+        assertEquals(UnoFeatures.SIZE, UnoFeatures.extract(two, 0).length);
+        assertEquals(UnoFeatures.SIZE, UnoFeatures.extract(five, 3).length);
+
+        two.forceHand(0, new ArrayList<>(List.of(
+                new UnoCard(UnoColor.RED, UnoRank.ONE, UnoColor.TEAL, UnoRank.ONE),
+                new UnoCard(UnoColor.RED, UnoRank.TWO, UnoColor.PINK, UnoRank.SKIP))));
+        double[] x = UnoFeatures.extract(two, 0);
+        assertEquals(0.2, x[0], 1e-9); // Two red cards
+        assertEquals(0, x[1], 1e-9);
+        double[] other = UnoFeatures.extract(two, 1);
+        assertFalse(Arrays.equals(x, other));
+    }
+
+    /**
+     * Tests that weights which value a big hand still play a card when one can be played.
+     */
+    @Test
+    public void testLearnedNeverDrawsWithAPlay() {
+        double[] hoard = new double[UnoFeatures.SIZE + 1];
+        Arrays.fill(hoard, 5); // Every card counted in any feature looks good
+        UnoLearnedStrategy strategy = new UnoLearnedStrategy(hoard, 3L);
+        UnoModel m = UnoTestTables.create(2, 3L);
+        m.setTopCard(new UnoCard(UnoColor.RED, UnoRank.FIVE, UnoColor.ORANGE, UnoRank.FIVE));
+        m.forceHand(m.getCurrentIndex(), new ArrayList<>(List.of(
+                new UnoCard(UnoColor.BLUE, UnoRank.ONE, UnoColor.PINK, UnoRank.ONE),
+                new UnoCard(UnoColor.RED, UnoRank.TWO, UnoColor.ORANGE, UnoRank.TWO))));
+        assertEquals(UnoMove.play(1), strategy.chooseMove(m));
+
+        m.forceHand(m.getCurrentIndex(), new ArrayList<>(List.of(
+                new UnoCard(UnoColor.BLUE, UnoRank.ONE, UnoColor.PINK, UnoRank.ONE))));
+        assertEquals(UnoMove.draw(), strategy.chooseMove(m));
+    }
+
+    /**
+     * Tests that a strategy set for a seat chooses that seat's moves.
+     */
+    @Test
+    public void testStrategyHook() {
+        UnoModel m = UnoTestTables.create(2, 2L);
+        m.setStrategy(0, model -> UnoMove.draw());
+        int hand = m.getPlayer(0).hand.size();
+        m.playAITurn();
+        assertEquals(hand + 1, m.getPlayer(0).hand.size());
+        assertTrue(m.isMustPressNext());
+    }
+
+    /**
+     * Tests that training with one generator gives the same weights for the same seed, that it clearly beats a
+     * coin flip, and that the saved weights play whole games.
+     */
+    @Test
+    public void testTrainSaveAndPlay() throws Exception {
+        UnoTrainer trainer = new UnoTrainer(2, 1, 5L);
+        trainer.setBatchSize(128);
+        double[] w = trainer.train(30_000);
+        UnoTrainer again = new UnoTrainer(2, 1, 5L);
+        again.setBatchSize(128);
+        assertArrayEquals(w, again.train(30_000), 0);
+        assertTrue("Loss " + trainer.getRecentLoss(), trainer.getRecentLoss() < Math.log(2) - 0.005);
+        long batches = (30_000 + 127) / 128;
+        assertTrue(trainer.getSteps() >= batches);
+        assertTrue(trainer.getSteps() <= batches * (1 + UnoTrainer.MAX_REPLAYS));
+        assertTrue(trainer.getSamplesGenerated() >= 30_000);
+        for (double v : w) assertTrue(Double.isFinite(v));
+
+        Path file = Files.createTempFile("uno-weights", ".bin");
+        try {
+            trainer.save(file);
+            UnoLearnedStrategy loaded = UnoLearnedStrategy.load(file, 1L);
+            assertArrayEquals(w, loaded.getWeights(), 0);
+
+            for (long seed = 0; seed < 3; seed++) {
+                UnoModel m = UnoTestTables.create(3, seed);
+                for (int seat = 0; seat < 3; seat++) m.setStrategy(seat, new UnoLearnedStrategy(w, seed + seat));
+                UnoHeadless.play(m);
+                assertTrue(m.isGameOver());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that weights of the wrong length are refused.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongWeights() {
+        new UnoLearnedStrategy(new double[3], 0);
+    }
+}
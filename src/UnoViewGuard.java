@@ -0,0 +1,307 @@
+import java.io.Closeable;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+/**
+ * Times how long each view takes to handle the model's updates and keeps slow views from holding up the game.
+ * <p>
+ * Each call is made on a guard thread while the model's thread waits for it, at most for the view's budget, so views
+ * still see every update in order. A view that is not done within its budget is quarantined and the incident is
+ * reported; the model's thread moves on without it, so even a view that blocks for good (a modal dialog) cannot hang
+ * the game. From then on the view is either detached, getting nothing more and forgotten by the guard, or served
+ * asynchronously on a thread of its own: while it is busy, newer updates replace the one waiting, so a view that
+ * falls behind skips straight to the latest state, and the end of the game always arrives after the last update.
+ * @author Danilo Bukvic Ajan Balaganesh Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoViewGuard implements Closeable {
+    /** What happens to a view that goes over its budget. */
+    public enum Action { ASYNC, DETACH }
+
+    /** How a view is being served. */
+    public enum State { DIRECT, QUARANTINED, DETACHED }
+
+    private final long defaultBudgetNanos;
+    private final Action action;
+    private final Consumer<Incident> incidents;
+    private final Map<UnoView, Entry> entries = new IdentityHashMap<>();
+    private final ExecutorService async;
+
+    /**
+     * Constructor for UnoViewGuard.
+     * @param defaultBudgetNanos Longest a view may take over one call before it is quarantined.
+     * @param action What to do with views that go over budget.
+     * @param incidents Receives every incident on the thread that saw it; may be null.
+     */
+    public UnoViewGuard(long defaultBudgetNanos, Action action, Consumer<Incident> incidents) {
+        if (defaultBudgetNanos <= 0) throw new IllegalArgumentException("The budget must be positive.");
+        this.defaultBudgetNanos = defaultBudgetNanos;
+        this.action = action;
+        this.incidents = incidents;
+        AtomicInteger n = new AtomicInteger();
+        async = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "uno-view-" + n.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Sets the budget of one view, for views known to need more or less time than the default.
+     * @param view The view.
+     * @param budgetNanos Longest the view may take over one call.
+     */
+    public void setBudget(UnoView view, long budgetNanos) {
+        if (budgetNanos <= 0) throw new IllegalArgumentException("The budget must be positive.");
+        entry(view).budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Delivers an update to a view within its budget, or hands it to the view's thread if it is quarantined.
+     * @param view The view.
+     * @param e The update.
+     * @return False if the view is detached; the guard has forgotten it and it must not be sent anything more.
+     */
+    boolean update(UnoView view, UnoEvent e) {
+        Entry entry = entry(view);
+        switch (entry.state) {
+            case DETACHED -> { }
+            case QUARANTINED -> post(view, entry, e, null);
+            case DIRECT -> timed(view, entry, () -> view.handleUpdate(e));
+        }
+        return keep(view, entry);
+    }
+
+    /**
+     * Delivers the end of the game to a view, like update.
+     * @param view The view.
+     * @param message The winning message.
+     * @return False if the view is detached.
+     */
+    boolean end(UnoView view, String message) {
+        Entry entry = entry(view);
+        switch (entry.state) {
+            case DETACHED -> { }
+            case QUARANTINED -> post(view, entry, null, message);
+            case DIRECT -> timed(view, entry, () -> view.handleEnd(message));
+        }
+        return keep(view, entry);
+    }
+
+    /**
+     * Forgets a view that was removed from the model.
+     * @param view The view.
+     */
+    synchronized void forget(UnoView view) {
+        entries.remove(view);
+    }
+
+    private boolean keep(UnoView view, Entry entry) {
+        if (entry.state != State.DETACHED) return true;
+        forget(view);
+        return false;
+    }
+
+    // Makes the call on a guard thread and waits for it until the budget runs out
+    private void timed(UnoView view, Entry entry, Runnable call) {
+        long budget = entry.budgetNanos > 0 ? entry.budgetNanos : defaultBudgetNanos;
+        long start = System.nanoTime();
+        synchronized (entry) {
+            entry.draining = true; // Updates that come while a late call runs wait for it
+        }
+        Future<?> done = async.submit(() -> {
+            try {
+                call.run();
+            } finally {
+                synchronized (entry) {
+                    entry.maxNanos = Math.max(entry.maxNanos, System.nanoTime() - start);
+                }
+                drain(view, entry);
+            }
+        });
+        try {
+            done.get(budget, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            quarantine(view, entry, System.nanoTime() - start, budget);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt(); // The call goes on, the next update waits for it
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException r) throw r;
+            if (ex.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private void quarantine(UnoView view, Entry entry, long nanos, long budget) {
+        entry.state = action == Action.ASYNC ? State.QUARANTINED : State.DETACHED;
+        if (incidents != null) incidents.accept(new Incident(view, nanos, budget, entry.state));
+    }
+
+    // Leaves the update for the view's thread, replacing any the view has not got to yet
+    private void post(UnoView view, Entry entry, UnoEvent e, String end) {
+        synchronized (entry) {
+            if (e != null) {
+                if (entry.pending != null) entry.coalesced++;
+                entry.pending = e;
+            }
+            if (end != null) entry.pendingEnd = end;
+            if (entry.draining) return;
+            entry.draining = true;
+        }
+        async.execute(() -> drain(view, entry));
+    }
+
+    private void drain(UnoView view, Entry entry) {
+        while (true) {
+            UnoEvent e;
+            String end;
+            synchronized (entry) {
+                e = entry.pending;
+                end = entry.pendingEnd;
+                entry.pending = null;
+                entry.pendingEnd = null;
+                if ((e == null && end == null) || entry.state == State.DETACHED) {
+                    entry.draining = false;
+                    return;
+                }
+            }
+            if (e != null) view.handleUpdate(e);
+            if (end != null) view.handleEnd(end);
+        }
+    }
+
+    private synchronized Entry entry(UnoView view) {
+        return entries.computeIfAbsent(view, v -> new Entry());
+    }
+
+    private synchronized Entry find(UnoView view) {
+        return entries.get(view);
+    }
+
+    /**
+     * Gets how a view is being served.
+     * @param view The view.
+     * @return DIRECT until the view goes over its budget, DETACHED for views the guard has forgotten.
+     */
+    public State getState(UnoView view) {
+        Entry entry = find(view);
+        return entry == null ? State.DETACHED : entry.state;
+    }
+
+    /**
+     * Gets the longest a view took over one timed call that has finished.
+     * @param view The view.
+     * @return The time in nanoseconds, 0 for views the guard has forgotten.
+     */
+    public long getMaxNanos(UnoView view) {
+        Entry entry = find(view);
+        if (entry == null) return 0;
+        synchronized (entry) {
+            return entry.maxNanos;
+        }
+    }
+
+    /**
+     * Gets the number of updates a quarantined view skipped because a newer one came first.
+     * @param view The view.
+     * @return The number of updates replaced before delivery.
+     */
+    public long getCoalesced(UnoView view) {
+        Entry entry = find(view);
+        if (entry == null) return 0;
+        synchronized (entry) {
+            return entry.coalesced;
+        }
+    }
+
+    /**
+     * Gets the number of views the guard keeps timings for.
+     * @return Views delivered to and not yet detached or removed.
+     */
+    synchronized int getTracked() {
+        return entries.size();
+    }
+
+    /**
+     * Stops the threads of quarantined views; updates not yet delivered to them are dropped.
+     */
+    @Override
+    public void close() {
+        async.shutdownNow();
+    }
+
+    /**
+     * The timings and delivery state of one view.
+     */
+    private static final class Entry {
+        volatile State state = State.DIRECT;
+        volatile long budgetNanos = 0; // 0 for the guard's default
+        long maxNanos = 0;
+        UnoEvent pending;
+        String pendingEnd;
+        boolean draining = false;
+        long coalesced = 0;
+    }
+
+    /**
+     * A view that went over its budget.
+     */
+    public static final class Incident {
+        private final UnoView view;
+        private final long nanos;
+        private final long budgetNanos;
+        private final State state;
+
+        Incident(UnoView view, long nanos, long budgetNanos, State state) {
+            this.view = view;
+            this.nanos = nanos;
+            this.budgetNanos = budgetNanos;
+            this.state = state;
+        }
+
+        /**
+         * Gets the view.
+         * @return The slow view.
+         */
+        public UnoView getView() {
+            return view;
+        }
+
+        /**
+         * Gets how long the view took.
+         * @return The time of the slow call in nanoseconds.
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Gets the budget the view went over.
+         * @return The budget in nanoseconds.
+         */
+        public long getBudgetNanos() {
+            return budgetNanos;
+        }
+
+        /**
+         * Gets how the view is served from now on.
+         * @return QUARANTINED or DETACHED.
+         */
+        public State getState() {
+            return state;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s took %.1f ms (budget %.1f ms), now %s", view.getClass().getSimpleName(),
+                    nanos / 1e6, budgetNanos / 1e6, state);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+import org.junit.Test;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+/**
+ * Test class for UnoViewGuard
+ * @author Ajan Balaganesh Danilo Bukvic Aydan Eng Aws Ali
+ * @version 3.0
+ */
+public class UnoViewGuardTest {
+
+    /**
+     * A view that takes 50 ms over its first update and then blocks until released, like one showing a modal dialog.
+     */
+    private static class BlockingView extends UnoViewStub {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch ended = new CountDownLatch(1);
+        final List<UnoEvent> seen = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void handleUpdate(UnoEvent e) {
+            seen.add(e);
+            try {
+                if (seen.size() == 1) Thread.sleep(50);
+                else release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void handleEnd(String message) {
+            super.handleEnd(message);
+            ended.countDown();
+        }
+    }
+
+    private static UnoModel create(long seed) {
+        return new UnoModel(2, List.of("A", "B"), List.of(true, true), 1, UnoRuleSet.standard(), seed);
+    }
+
+    /**
+     * Tests that a blocked view is quarantined after one slow call, later updates do not wait for it, and it
+     * catches up with the latest update and the end of the game once it is released.
+     */
+    @Test
+    public void testQuarantineIsAsyncAndCoalesced() throws Exception {
+        UnoModel m = create(1L);
+        List<UnoViewGuard.Incident> incidents = new ArrayList<>();
+        UnoViewGuard guard = new UnoViewGuard(TimeUnit.MILLISECONDS.toNanos(20), UnoViewGuard.Action.ASYNC, incidents::add);
+        m.setViewGuard(guard);
+        UnoViewStub fast = new UnoViewStub();
+        guard.setBudget(fast, TimeUnit.SECONDS.toNanos(1)); // A pause in the test run must not count against it
+        m.addView(fast);
+        BlockingView slow = new BlockingView();
+        m.addView(slow);
+        assertEquals(1, incidents.size());
+        assertSame(slow, incidents.get(0).getView());
+        assertTrue(incidents.get(0).getNanos() > incidents.get(0).getBudgetNanos());
+        assertEquals(UnoViewGuard.State.QUARANTINED, guard.getState(slow));
+        assertEquals(UnoViewGuard.State.DIRECT, guard.getState(fast));
+
+        UnoHeadless.play(m); // Finishes while the slow view is still blocked
+        assertTrue(m.isGameOver());
+        assertFalse(slow.handleEndCalled);
+        assertTrue(guard.getCoalesced(slow) > 0);
+        slow.release.countDown();
+        assertTrue(slow.ended.await(5, TimeUnit.SECONDS));
+        assertTrue(fast.handleEndCalled);
+        assertSame(fast.lastEvent, slow.seen.get(slow.seen.size() - 1));
+        assertEquals(fast.lastInfo, slow.lastInfo);
+        assertEquals(1, incidents.size());
+        guard.close();
+    }
+
+    /**
+     * Tests that a detached view gets nothing after its slow call and views within budget are untouched.
+     */
+    @Test
+    public void testDetach() {
+        UnoModel m = create(2L);
+        UnoViewGuard guard = new UnoViewGuard(TimeUnit.MILLISECONDS.toNanos(20), UnoViewGuard.Action.DETACH, null);
+        m.setViewGuard(guard);
+        int[] calls = {0};
+        UnoViewStub slow = new UnoViewStub() {
+            @Override
+            public void handleUpdate(UnoEvent e) {
+                calls[0]++;
+                try {
+                    Thread.sleep(40);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        UnoViewStub fast = new UnoViewStub();
+        guard.setBudget(fast, TimeUnit.SECONDS.toNanos(1));
+        m.addView(slow);
+        m.addView(fast);
+        UnoHeadless.play(m);
+        assertEquals(1, calls[0]);
+        assertFalse(slow.handleEndCalled);
+        assertEquals(UnoViewGuard.State.DETACHED, guard.getState(slow));
+        assertTrue(fast.handleEndCalled);
+        assertEquals("Only the fast view is still tracked", 1, guard.getTracked());
+        guard.close();
+    }
+
+    /**
+     * Tests that a view which blocks in its very first call, like one showing a modal dialog on the model's
+     * thread, is quarantined without holding up the game, and that removed views are forgotten.
+     */
+    @Test(timeout = 10000)
+    public void testBlockedCallDoesNotHangGame() throws Exception {
+        UnoModel m = create(3L);
+        UnoViewGuard guard = new UnoViewGuard(TimeUnit.MILLISECONDS.toNanos(20), UnoViewGuard.Action.ASYNC, null);
+        m.setViewGuard(guard);
+        CountDownLatch release = new CountDownLatch(1);
+        UnoViewStub modal = new UnoViewStub() {
+            @Override
+            public void handleUpdate(UnoEvent e) {
+                super.handleUpdate(e);
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        UnoViewStub fast = new UnoViewStub();
+        guard.setBudget(fast, TimeUnit.SECONDS.toNanos(1));
+        m.addView(modal);
+        m.addView(fast);
+        assertEquals(UnoViewGuard.State.QUARANTINED, guard.getState(modal));
+
+        UnoHeadless.play(m);
+        assertTrue(m.isGameOver());
+        assertTrue(fast.handleEndCalled);
+        assertFalse(modal.handleEndCalled);
+
+        m.removeView(modal);
+        release.countDown();
+        assertEquals(1, guard.getTracked());
+        guard.close();
+    }
+}